@@ -172,6 +172,8 @@ dependencies {
 
     //math
     implementation("org.apache.commons:commons-math3:3.6.1")
+    //AI 전처리 (순수 Java 모듈)
+    implementation(project(":features"))
     //AI 작동
     implementation("org.pytorch:pytorch_android:1.10.0")
     implementation("org.pytorch:pytorch_android_torchvision:1.10.0")
@@ -0,0 +1,135 @@
+package com.example.myapplication12345.AI
+
+import android.os.Debug
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.example.myapplication12345.AI.feature.ModelInputLayout
+import com.example.myapplication12345.AI.model.ModelFileCache
+import com.example.myapplication12345.AI.model.ModelVariant
+import com.example.myapplication12345.AI.model.VariantComparison
+import com.example.myapplication12345.AI.pipeline.TransportModePipeline
+import com.example.myapplication12345.AI.replay.LabeledReplaySet
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.pytorch.IValue
+import org.pytorch.Module
+import org.pytorch.Tensor
+import java.io.File
+import java.io.FileNotFoundException
+import kotlin.math.exp
+
+/**
+ * float 모델과 양자화 변형을 정답이 붙은 재생 세트에 실행해 1위 일치율, 클래스별 정확도, 지연 p50/p95, 상주 메모리를 비교합니다.
+ * 재생 세트([LabeledReplaySet] 형식)를 기기에 올리고 경로를 인자로 줍니다. 인자가 없으면 건너뜁니다.
+ * ```
+ * adb push replay-set /sdcard/Android/data/com.example.myapplication12345/files/replay-set
+ * ./gradlew connectedAndroidTest \
+ *   -Pandroid.testInstrumentationRunnerArguments.replaySet=/sdcard/Android/data/com.example.myapplication12345/files/replay-set \
+ *   -Pandroid.testInstrumentationRunnerArguments.minAgreement=0.95
+ * ```
+ * 결과는 logcat 의 ModelVariantComparison 태그로 출력됩니다. 앙상블은 세 모델을 차례로 실행해 softmax 를 평균냅니다.
+ */
+@RunWith(AndroidJUnit4::class)
+class ModelVariantComparisonTest {
+
+    companion object {
+        private const val TAG = "ModelVariantComparison"
+        private const val WARMUP_FRAMES = 5
+    }
+
+    private class LoadedVariant(val modules: List<Module>, val residentBytes: Long)
+
+    private class Run(val probabilities: List<FloatArray?>, val nanos: LongArray)
+
+    @Test
+    fun compareQuantizedVariantsWithFloat() {
+        val args = InstrumentationRegistry.getArguments()
+        val replaySet = args.getString("replaySet")
+        assumeTrue("replaySet 인자가 없어 모델 변형 비교를 건너뜀", replaySet != null)
+        val context = InstrumentationRegistry.getInstrumentation().targetContext
+        val frames = LabeledReplaySet.collect(File(replaySet!!))
+        assumeTrue("재생 세트에 예측할 윈도우가 없음", frames.isNotEmpty())
+        val modelFiles = ModelFileCache(File(context.cacheDir, "variant-comparison"), "comparison") { context.assets.open(it) }
+
+        val floatModels = loadVariant(modelFiles, ModelVariant.FLOAT)!!
+        val floatRun = runAll(floatModels.modules, frames)
+        floatModels.modules.forEach { it.destroy() }
+
+        val minAgreement = args.getString("minAgreement")?.toDouble()
+        for (variant in listOf(ModelVariant.INT8_DYNAMIC, ModelVariant.INT8_STATIC)) {
+            val loaded = loadVariant(modelFiles, variant)
+            if (loaded == null) {
+                Log.i(TAG, "$variant 에셋 없음. 건너뜀")
+                continue
+            }
+            val run = runAll(loaded.modules, frames)
+            loaded.modules.forEach { it.destroy() }
+
+            val comparison = VariantComparison(ModelVariant.FLOAT.name, variant.name, TransportModePipeline.CLASS_COUNT)
+            frames.forEachIndexed { i, frame ->
+                comparison.add(frame.label, floatRun.probabilities[i], floatRun.nanos[i], run.probabilities[i], run.nanos[i])
+            }
+            comparison.setResidentBytes(floatModels.residentBytes, loaded.residentBytes)
+            Log.i(TAG, "윈도우 ${frames.size}개\n${comparison.report()}")
+            if (minAgreement != null) {
+                assertTrue("$variant 1위 일치율 ${comparison.agreement} < $minAgreement", comparison.agreement >= minAgreement)
+            }
+        }
+    }
+
+    // 변형의 모델 세 개를 불러 warm-up 까지 마친 뒤 늘어난 PSS 를 잽니다. 에셋이 하나라도 없으면 null
+    private fun loadVariant(modelFiles: ModelFileCache, variant: ModelVariant): LoadedVariant? {
+        Runtime.getRuntime().gc()
+        val pssBefore = Debug.getPss()
+        val modules = mutableListOf<Module>()
+        for (assetPath in SensorDataProcessor.getModelAssetPaths()) {
+            val file = try {
+                modelFiles.get(variant.assetPath(assetPath))
+            } catch (e: FileNotFoundException) {
+                modules.forEach { it.destroy() }
+                return null
+            }
+            val module = Module.load(file.absolutePath)
+            module.forward(IValue.from(Tensor.fromBlob(FloatArray(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS),
+                ModelInputLayout.tensorShape())))
+            modules += module
+        }
+        Runtime.getRuntime().gc()
+        return LoadedVariant(modules, (Debug.getPss() - pssBefore) * 1024L)
+    }
+
+    private fun runAll(modules: List<Module>, frames: List<LabeledReplaySet.LabeledFrame>): Run {
+        for (frame in frames.take(WARMUP_FRAMES)) {
+            predict(modules, frame.input)
+        }
+        val nanos = LongArray(frames.size)
+        val probabilities = frames.mapIndexed { i, frame ->
+            val start = System.nanoTime()
+            val result = predict(modules, frame.input)
+            nanos[i] = System.nanoTime() - start
+            result
+        }
+        return Run(probabilities, nanos)
+    }
+
+    private fun predict(modules: List<Module>, input: FloatArray): FloatArray? {
+        val tensor = Tensor.fromBlob(input, ModelInputLayout.tensorShape())
+        val sum = FloatArray(TransportModePipeline.CLASS_COUNT)
+        var valid = 0
+        for (module in modules) {
+            val logits = module.forward(IValue.from(tensor)).toTensor().dataAsFloatArray
+            if (logits.size != sum.size) continue
+            val max = logits.maxOrNull() ?: 0f
+            val exps = logits.map { exp((it - max).toDouble()) }
+            val total = exps.sum()
+            for (i in sum.indices) sum[i] += (exps[i] / total).toFloat()
+            valid++
+        }
+        if (valid == 0) return null
+        for (i in sum.indices) sum[i] /= valid
+        return sum
+    }
+}
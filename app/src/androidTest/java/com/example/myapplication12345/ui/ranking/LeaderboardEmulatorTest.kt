@@ -0,0 +1,108 @@
+package com.example.myapplication12345.ui.ranking
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.google.android.gms.tasks.Tasks
+import com.google.firebase.FirebaseApp
+import com.google.firebase.database.FirebaseDatabase
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Realtime Database 에뮬레이터를 백엔드로 써서 랭킹 집계/조회를 확인합니다.
+ * 에뮬레이터(`firebase emulators:start --only database`)를 띄우고
+ * `./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.firebaseEmulatorHost=10.0.2.2` 로 실행합니다.
+ * 인자가 없으면 건너뜁니다.
+ */
+@RunWith(AndroidJUnit4::class)
+class LeaderboardEmulatorTest {
+
+    companion object {
+        private const val EMULATOR_PORT = 9000
+        private const val TIME = 1_709_780_400_000L // 2024-03-07 12:00 KST
+
+        private var database: FirebaseDatabase? = null
+
+        // useEmulator 는 인스턴스를 쓰기 전에 한 번만 호출할 수 있음
+        @Synchronized
+        private fun emulatorDatabase(host: String): FirebaseDatabase =
+            database ?: FirebaseDatabase.getInstance(FirebaseApp.getInstance(), "https://leaderboard-test.firebaseio.com")
+                .apply { useEmulator(host, EMULATOR_PORT) }
+                .also { database = it }
+    }
+
+    private lateinit var leaderboard: Leaderboard
+
+    @Before
+    fun setUp() {
+        val host = InstrumentationRegistry.getArguments().getString("firebaseEmulatorHost")
+        assumeTrue("firebaseEmulatorHost 인자가 없어 에뮬레이터 테스트를 건너뜀", host != null)
+        val db = emulatorDatabase(host!!)
+        Tasks.await(db.getReference("leaderboard").removeValue(), 10, TimeUnit.SECONDS)
+        leaderboard = Leaderboard(db)
+
+        for ((userId, score) in listOf("u1" to 50, "u2" to 40, "u3" to 40, "u4" to 20, "u5" to 10)) {
+            Tasks.await(leaderboard.recordScore(userId, "닉네임$userId", score, score, TIME), 10, TimeUnit.SECONDS)
+        }
+    }
+
+    private fun loadAll(period: LeaderboardPeriod, pageSize: Int): List<List<String>> {
+        val pages = mutableListOf<List<String>>()
+        var cursor: Leaderboard.Cursor? = null
+        do {
+            val latch = CountDownLatch(1)
+            var page: Leaderboard.Page? = null
+            leaderboard.loadPage(period, cursor, pageSize, TIME) { page = it; latch.countDown() }
+            latch.await(10, TimeUnit.SECONDS)
+            pages += page!!.entries.map { it.userId }
+            cursor = page!!.next
+        } while (cursor != null)
+        return pages
+    }
+
+    private fun myRank(period: LeaderboardPeriod, userId: String): Leaderboard.MyRank? {
+        val latch = CountDownLatch(1)
+        var rank: Leaderboard.MyRank? = null
+        leaderboard.loadMyRank(period, userId, TIME) { rank = it; latch.countDown() }
+        latch.await(10, TimeUnit.SECONDS)
+        return rank
+    }
+
+    @Test
+    fun pagesFollowScoreOrderWithoutGapsOrRepeats() {
+        // 같은 점수는 uid 역순 (조회가 (점수, uid) 오름차순을 뒤집으므로)
+        assertEquals(listOf(listOf("u1", "u3"), listOf("u2", "u4"), listOf("u5")), loadAll(LeaderboardPeriod.DAILY, 2))
+        assertEquals(listOf(listOf("u1", "u3", "u2", "u4", "u5")), loadAll(LeaderboardPeriod.MONTHLY, 10))
+    }
+
+    @Test
+    fun myRankCountsHigherScores() {
+        assertEquals(1, myRank(LeaderboardPeriod.WEEKLY, "u1")!!.rank)
+        assertEquals(2, myRank(LeaderboardPeriod.WEEKLY, "u2")!!.rank)
+        assertEquals(2, myRank(LeaderboardPeriod.WEEKLY, "u3")!!.rank)
+        assertEquals(4, myRank(LeaderboardPeriod.WEEKLY, "u4")!!.rank)
+        assertNull(myRank(LeaderboardPeriod.WEEKLY, "nobody"))
+    }
+
+    @Test
+    fun periodBucketsAddIncrementsAndAllKeepsTotal() {
+        Tasks.await(leaderboard.recordScore("u5", "닉네임u5", 45, 100, TIME), 10, TimeUnit.SECONDS)
+
+        val daily = myRank(LeaderboardPeriod.DAILY, "u5")!!
+        assertEquals(55, daily.score)
+        assertEquals(1, daily.rank)
+        assertEquals(100, myRank(LeaderboardPeriod.ALL, "u5")!!.score)
+        // 다음 날 버킷에는 아직 기록이 없음
+        val latch = CountDownLatch(1)
+        var next: Leaderboard.MyRank? = Leaderboard.MyRank(0, 0, false)
+        leaderboard.loadMyRank(LeaderboardPeriod.DAILY, "u5", TIME + 24 * 60 * 60 * 1000L) { next = it; latch.countDown() }
+        latch.await(10, TimeUnit.SECONDS)
+        assertNull(next)
+    }
+}
@@ -0,0 +1,494 @@
+package com.example.myapplication12345.AI;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.SystemClock;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics;
+import com.example.myapplication12345.AI.pipeline.WindowTicker;
+
+import java.util.Arrays;
+
+import timber.log.Timber;
+
+/**
+ * IMU 센서 7종을 한 번만 등록해 두고, 센서 수집 스레드에서 100Hz 격자로 리샘플링해 링 버퍼에 기록하는 수집 엔진.
+ * 이벤트는 생성자로 받은 Handler 의 스레드에서 처리되며, 그 스레드가 imuBuffer 의 유일한 쓰기 스레드여야 합니다.
+ * <p>
+ * 센서 허브의 배치(maxReportLatencyUs)를 사용하므로 이벤트는 최대 {@link #MAX_REPORT_LATENCY_US} 만큼 모였다가 전달되고,
+ * 메인 스레드는 깨우지 않습니다. 각 샘플 시각은 벽시계가 아니라 {@link SensorEvent#timestamp} 를 기준으로 합니다.
+ * <p>
+ * 리샘플링은 zero-order hold 방식입니다. 10ms 격자 시각 g 의 값은 센서별로 g 이전에 도착한 마지막 이벤트 값이며,
+ * 배치 전달 시 센서 간 순서가 섞일 수 있으므로 모든 고속 센서의 이벤트가 g 를 넘은 뒤(워터마크)에만 격자를 진행합니다.
+ * 한 센서가 멈추면(절전 제한, 등록 해제 등) 모든 센서의 격자가 멈추므로, 다른 센서보다 {@link #STALE_SENSOR_NS}
+ * (추론 주기의 2배) 이상 뒤처진 센서는 워터마크에서 빼고 마지막 값을 유지해 채웁니다. 그 센서의 이벤트가 다시 오면 워터마크에 다시 넣습니다.
+ * <p>
+ * 기존 IMUProcessor 와의 호환을 위해 링 버퍼의 timestamp 열에는 1초 구간의 시작 벽시계 시각(ms)을,
+ * seq 에는 구간 내 순번(0~99)을, event_time_ns 에는 격자 시각(SensorEvent 시간축, ns)을 기록합니다.
+ * <p>
+ * 기기가 가만히 놓여 있는 동안에는 {@link #setMotionWatch(boolean)} 로 감시 모드로 바꿉니다. 감시 모드에서는
+ * 선형 가속도와 자이로만 {@link #WATCH_SAMPLING_PERIOD_US} 간격으로 길게 배치해 받고, 링 버퍼에는 기록하지 않으며
+ * 1초마다 움직임 최대값만 {@link MotionListener} 로 알립니다.
+ */
+public class ImuCaptureEngine implements SensorEventListener {
+    private static final String TAG = "ImuCaptureEngine";
+
+    /** 1초 구간의 마지막 샘플까지 기록되었을 때 캡처 스레드에서 호출됩니다. */
+    public interface BucketListener {
+        void onBucketClosed(long bucketTimestamp);
+    }
+
+    /** 1초마다 캡처 스레드에서 호출됩니다. 값은 그 1초 동안의 선형 가속도(m/s^2)와 자이로(rad/s) 크기의 최대값입니다. */
+    public interface MotionListener {
+        void onMotionSecond(float peakLinearAccel, float peakGyro);
+    }
+
+    static final int SAMPLING_PERIOD_US = 10_000;        // 100Hz 요청
+    static final int MAX_REPORT_LATENCY_US = 1_000_000;  // 센서 허브에서 최대 1초까지 배치
+    static final int WATCH_SAMPLING_PERIOD_US = 200_000;      // 감시 모드 5Hz
+    static final int WATCH_MAX_REPORT_LATENCY_US = 5_000_000; // 감시 모드는 최대 5초까지 배치 (움직임 감지는 그만큼 늦어짐)
+    private static final long SECOND_NS = 1_000_000_000L;
+    private static final long GRID_PERIOD_NS = 10_000_000L; // 10ms 격자
+    private static final int SAMPLES_PER_BUCKET = 100;      // 1초 구간당 샘플 수
+    private static final long MAX_GAP_NS = 2_000_000_000L;  // 이보다 긴 공백은 채우지 않고 격자를 다시 시작
+    // 다른 센서보다 이만큼 뒤처진 센서는 멈춘 것으로 보고 워터마크에서 뺌 (추론 주기 10초의 2배)
+    static final long STALE_SENSOR_NS = 2L * WindowTicker.INFERENCE_HOP_SECONDS * SECOND_NS;
+    // 센서별 대기 이벤트 큐 크기. 멈춘 센서를 기다리는 동안(20초) + 배치 1초를 100Hz 로 담을 수 있어야 함
+    private static final int PENDING_EVENTS = 2560;
+
+    // 센서 슬롯
+    private static final int ACCEL = 0;
+    private static final int GYRO = 1;
+    private static final int MAG = 2;
+    private static final int ROT = 3;
+    private static final int PRESSURE = 4;
+    private static final int GRAVITY = 5;
+    private static final int LINEAR = 6;
+    private static final int[] SENSOR_TYPES = {
+            Sensor.TYPE_ACCELEROMETER, Sensor.TYPE_GYROSCOPE, Sensor.TYPE_MAGNETIC_FIELD,
+            Sensor.TYPE_ROTATION_VECTOR, Sensor.TYPE_PRESSURE, Sensor.TYPE_GRAVITY, Sensor.TYPE_LINEAR_ACCELERATION
+    };
+    private static final int[] SENSOR_DIMS = {3, 3, 3, 4, 1, 3, 3};
+
+    private final SensorManager sensorManager;
+    private final SensorRingBuffer imuBuffer;
+    private final Handler captureHandler;
+    private final SensorTrack[] tracks = new SensorTrack[SENSOR_TYPES.length];
+    private final float[] quat = new float[4];
+    private final Sensor[] sensors = new Sensor[SENSOR_TYPES.length];
+    private final boolean[] stale = new boolean[SENSOR_TYPES.length]; // 워터마크에서 뺀 센서 (캡처 스레드 전용)
+
+    private boolean started = false;  // this 로 동기화
+    private volatile boolean watching = false;
+    private volatile BucketListener bucketListener;
+    private volatile MotionListener motionListener;
+    private volatile PipelineMetrics metrics; // null 이면 수집 속도를 세지 않음
+
+    // --- 아래 필드는 캡처 스레드에서만 접근 ---
+    private boolean gridStarted = false;
+    private long nextGridNs;        // 다음에 기록할 격자 시각 (SensorEvent 시간축)
+    private long gridIndex;         // 격자 시작 이후 기록한 샘플 수
+    private long gridStartWallMs;   // 격자 시작 시각의 벽시계 값
+    private long wallOffsetMs;      // 벽시계(ms) - elapsedRealtime(ms)
+    private long openBucketWallMs = Long.MIN_VALUE; // 기록 중인 1초 구간 (없으면 MIN_VALUE)
+    private float bucketPeakLinearSq;  // 기록 중인 구간의 선형 가속도 크기 제곱 최대값
+    private float bucketPeakGyroSq;
+    private long watchSecondNs = Long.MIN_VALUE; // 감시 모드에서 모으는 중인 1초의 시작 (SensorEvent 시간축)
+    private float watchPeakLinearSq;
+    private float watchPeakGyroSq;
+
+    public ImuCaptureEngine(SensorManager sensorManager, SensorRingBuffer imuBuffer, Handler captureHandler) {
+        this.sensorManager = sensorManager;
+        this.imuBuffer = imuBuffer;
+        this.captureHandler = captureHandler;
+        for (int i = 0; i < tracks.length; i++) {
+            tracks[i] = new SensorTrack(SENSOR_DIMS[i]);
+        }
+    }
+
+    public void setBucketListener(BucketListener listener) {
+        this.bucketListener = listener;
+    }
+
+    public void setMotionListener(MotionListener listener) {
+        this.motionListener = listener;
+    }
+
+    /** 센서 이벤트 수와 격자 샘플 수를 셀 지표를 설정합니다. */
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 센서를 등록하고 수집을 시작합니다.
+     * @return 필요한 센서가 모두 있어 등록에 성공하면 true
+     */
+    public synchronized boolean start() {
+        if (started) {
+            return true;
+        }
+        for (int i = 0; i < SENSOR_TYPES.length; i++) {
+            sensors[i] = sensorManager.getDefaultSensor(SENSOR_TYPES[i]);
+            if (sensors[i] == null) {
+                Timber.tag(TAG).e("필요한 센서가 장치에 없음 (type=%d)", SENSOR_TYPES[i]);
+                return false;
+            }
+        }
+
+        started = true;
+        watching = false;
+        captureHandler.post(this::restartGrid);
+        registerAll();
+        Timber.tag(TAG).d("IMU 수집 시작 (배치 지연 %dus)", MAX_REPORT_LATENCY_US);
+        return true;
+    }
+
+    /** 센서 등록을 해제합니다. 캡처 스레드의 수명은 호출한 쪽에서 관리합니다. */
+    public synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        sensorManager.unregisterListener(this);
+        started = false;
+        Timber.tag(TAG).d("IMU 수집 종료");
+    }
+
+    /**
+     * 감시 모드를 켜거나 끕니다. 캡처 스레드에서 호출해야 합니다.
+     * 켜면 기록 중인 구간을 닫고 선형 가속도와 자이로만 낮은 주기로 다시 등록하며, 끄면 모든 센서를 다시 등록하고 격자를 새로 시작합니다.
+     */
+    public synchronized void setMotionWatch(boolean watch) {
+        if (!started || watch == watching) {
+            return;
+        }
+        sensorManager.unregisterListener(this);
+        if (watch) {
+            // 덜 찬 구간은 닫기만 하고 움직임 값은 0 으로 알림 (상태를 바꾸는 중에 다시 바뀌지 않도록)
+            bucketPeakLinearSq = 0f;
+            bucketPeakGyroSq = 0f;
+            closeOpenBucket();
+            watchSecondNs = Long.MIN_VALUE;
+            watchPeakLinearSq = 0f;
+            watchPeakGyroSq = 0f;
+            watching = true;
+            sensorManager.registerListener(this, sensors[LINEAR], WATCH_SAMPLING_PERIOD_US, WATCH_MAX_REPORT_LATENCY_US, captureHandler);
+            sensorManager.registerListener(this, sensors[GYRO], WATCH_SAMPLING_PERIOD_US, WATCH_MAX_REPORT_LATENCY_US, captureHandler);
+            Timber.tag(TAG).d("IMU 감시 모드 시작 (%dus 간격)", WATCH_SAMPLING_PERIOD_US);
+        } else {
+            watching = false;
+            restartGrid();
+            registerAll();
+            Timber.tag(TAG).d("IMU 감시 모드 종료, 100Hz 수집 재개");
+        }
+    }
+
+    private void registerAll() {
+        for (Sensor sensor : sensors) {
+            sensorManager.registerListener(this, sensor, SAMPLING_PERIOD_US, MAX_REPORT_LATENCY_US, captureHandler);
+        }
+    }
+
+    // 캡처 스레드에서 실행: 이전 이벤트를 버리고 모든 센서의 첫 이벤트가 들어오면 격자를 다시 시작하도록 함
+    private void restartGrid() {
+        wallOffsetMs = System.currentTimeMillis() - SystemClock.elapsedRealtimeNanos() / 1_000_000L;
+        gridStarted = false;
+        for (SensorTrack track : tracks) {
+            track.reset();
+        }
+        Arrays.fill(stale, false);
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        int slot = slotOf(event.sensor.getType());
+        if (slot < 0) {
+            return;
+        }
+        PipelineMetrics counters = metrics;
+        if (counters != null) {
+            counters.increment(PipelineMetrics.Counter.IMU_EVENTS);
+        }
+        if (watching) {
+            watchEvent(slot, event);
+            return;
+        }
+        SensorTrack track = tracks[slot];
+        track.push(event.timestamp, event.values);
+
+        if (!gridStarted) {
+            tryStartGrid();
+            if (!gridStarted) return;
+        }
+        advanceGrid();
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+    }
+
+    /** 감시 모드: 이벤트 시각으로 1초씩 끊어 구간의 최대값을 알립니다. 이벤트가 없던 초는 0 으로 알립니다. */
+    private void watchEvent(int slot, SensorEvent event) {
+        if (slot != LINEAR && slot != GYRO) {
+            return; // 감시 모드로 바꾸기 전에 쌓인 다른 센서 이벤트
+        }
+        long ts = event.timestamp;
+        if (watchSecondNs == Long.MIN_VALUE || ts - watchSecondNs > MAX_GAP_NS + SECOND_NS || ts < watchSecondNs) {
+            watchSecondNs = ts; // 처음이거나 긴 공백 뒤에는 이 이벤트부터 다시 셈
+        }
+        while (ts - watchSecondNs >= SECOND_NS) {
+            notifyMotion(watchPeakLinearSq, watchPeakGyroSq);
+            watchPeakLinearSq = 0f;
+            watchPeakGyroSq = 0f;
+            watchSecondNs += SECOND_NS;
+        }
+        float magnitudeSq = magnitudeSq(event.values);
+        if (slot == LINEAR) {
+            watchPeakLinearSq = Math.max(watchPeakLinearSq, magnitudeSq);
+        } else {
+            watchPeakGyroSq = Math.max(watchPeakGyroSq, magnitudeSq);
+        }
+    }
+
+    private void notifyMotion(float peakLinearSq, float peakGyroSq) {
+        MotionListener listener = motionListener;
+        if (listener != null) {
+            listener.onMotionSecond((float) Math.sqrt(peakLinearSq), (float) Math.sqrt(peakGyroSq));
+        }
+    }
+
+    private static float magnitudeSq(float[] v) {
+        return v[0] * v[0] + v[1] * v[1] + v[2] * v[2];
+    }
+
+    /**
+     * 모든 센서에서 이벤트가 한 번 이상 들어오면, 가장 늦게 시작한 센서 시각부터 격자를 시작합니다.
+     * 첫 이벤트 이후 {@link #STALE_SENSOR_NS} 가 지나도 이벤트가 없는 센서는 기다리지 않고 0 값으로 시작합니다.
+     */
+    private void tryStartGrid() {
+        long start = Long.MIN_VALUE;
+        long earliest = Long.MAX_VALUE;
+        long newest = Long.MIN_VALUE;
+        boolean missing = false;
+        for (SensorTrack track : tracks) {
+            if (!track.hasEvents()) {
+                missing = true;
+                continue;
+            }
+            start = Math.max(start, track.firstTimestamp());
+            earliest = Math.min(earliest, track.firstTimestamp());
+            newest = Math.max(newest, track.latestTimestamp());
+        }
+        if (start == Long.MIN_VALUE || (missing && newest - earliest <= STALE_SENSOR_NS)) {
+            return;
+        }
+        resetGrid(start);
+    }
+
+    private void resetGrid(long startNs) {
+        closeOpenBucket(); // 재시작 전 구간은 샘플이 덜 찼더라도 닫음
+        nextGridNs = startNs;
+        gridIndex = 0;
+        gridStartWallMs = startNs / 1_000_000L + wallOffsetMs;
+        gridStarted = true;
+    }
+
+    /**
+     * 고속 센서가 모두 지나간 시각(워터마크)까지 격자 샘플을 기록합니다.
+     * 가장 최근 이벤트보다 {@link #STALE_SENSOR_NS} 이상 뒤처진 센서는 빼고 계산하며, 그 센서 값은 마지막 값을 유지합니다.
+     */
+    private void advanceGrid() {
+        long newest = Long.MIN_VALUE;
+        for (int i = 0; i < tracks.length; i++) {
+            if (i == PRESSURE) continue; // 기압은 저속 센서이므로 마지막 값을 유지
+            newest = Math.max(newest, tracks[i].latestTimestamp());
+        }
+        long watermark = Long.MAX_VALUE;
+        long nextEvent = Long.MAX_VALUE; // 워터마크에 들어간 센서 중 아직 반영하지 않은 가장 이른 이벤트
+        for (int i = 0; i < tracks.length; i++) {
+            if (i == PRESSURE) continue;
+            SensorTrack track = tracks[i];
+            // 격자 시작 후에도 이벤트가 한 번도 없던 센서도 멈춘 것으로 봄
+            boolean behind = !track.hasEvents() || newest - track.latestTimestamp() > STALE_SENSOR_NS;
+            if (behind != stale[i]) {
+                stale[i] = behind;
+                if (behind) {
+                    Timber.tag(TAG).w("IMU 센서(type=%d) 이벤트가 %dms 이상 없음. 마지막 값으로 채우고 격자 진행",
+                            SENSOR_TYPES[i], STALE_SENSOR_NS / 1_000_000L);
+                } else {
+                    Timber.tag(TAG).d("IMU 센서(type=%d) 이벤트 재개", SENSOR_TYPES[i]);
+                }
+            }
+            if (behind) continue;
+            watermark = Math.min(watermark, track.latestTimestamp());
+            nextEvent = Math.min(nextEvent, track.oldestPendingTimestamp());
+        }
+
+        // 멈춘 센서를 빼서 워터마크가 크게 움직인 경우에는 대기 이벤트가 이어져 있으므로 채움.
+        // 대기 이벤트 자체가 끊긴 경우에만 공백으로 봄
+        if (watermark - nextGridNs > MAX_GAP_NS && nextEvent - nextGridNs > MAX_GAP_NS) {
+            // 센서 허브 FIFO 유실 등으로 긴 공백이 생기면 채우지 않고 현재 시각에서 다시 시작
+            Timber.tag(TAG).w("IMU 이벤트 공백 %dms, 격자 재시작", (watermark - nextGridNs) / 1_000_000L);
+            resetGrid(watermark - (watermark - nextGridNs) % GRID_PERIOD_NS);
+        }
+
+        int written = 0;
+        while (nextGridNs <= watermark) {
+            for (SensorTrack track : tracks) {
+                track.advanceTo(nextGridNs);
+            }
+            writeSample();
+            nextGridNs += GRID_PERIOD_NS;
+            gridIndex++;
+            written++;
+        }
+        PipelineMetrics counters = metrics;
+        if (counters != null && written > 0) {
+            counters.add(PipelineMetrics.Counter.IMU_SAMPLES, written);
+        }
+    }
+
+    private void writeSample() {
+        long bucketWallMs = gridStartWallMs + (gridIndex / SAMPLES_PER_BUCKET) * 1000L;
+        if (bucketWallMs != openBucketWallMs) {
+            closeOpenBucket();
+            openBucketWallMs = bucketWallMs;
+        }
+        float[] accel = tracks[ACCEL].current;
+        float[] gyro = tracks[GYRO].current;
+        float[] mag = tracks[MAG].current;
+        float[] gravity = tracks[GRAVITY].current;
+        float[] linear = tracks[LINEAR].current;
+        SensorManager.getQuaternionFromVector(quat, tracks[ROT].current);
+        bucketPeakLinearSq = Math.max(bucketPeakLinearSq, magnitudeSq(linear));
+        bucketPeakGyroSq = Math.max(bucketPeakGyroSq, magnitudeSq(gyro));
+
+        imuBuffer.beginRow(bucketWallMs);
+        imuBuffer.setLong(SensorBuffers.IMU_SEQ, gridIndex % SAMPLES_PER_BUCKET);
+        imuBuffer.setFloat(SensorBuffers.IMU_ACCEL_X, accel[0]);
+        imuBuffer.setFloat(SensorBuffers.IMU_ACCEL_Y, accel[1]);
+        imuBuffer.setFloat(SensorBuffers.IMU_ACCEL_Z, accel[2]);
+        imuBuffer.setFloat(SensorBuffers.IMU_GYRO_X, gyro[0]);
+        imuBuffer.setFloat(SensorBuffers.IMU_GYRO_Y, gyro[1]);
+        imuBuffer.setFloat(SensorBuffers.IMU_GYRO_Z, gyro[2]);
+        imuBuffer.setFloat(SensorBuffers.IMU_MAG_X, mag[0]);
+        imuBuffer.setFloat(SensorBuffers.IMU_MAG_Y, mag[1]);
+        imuBuffer.setFloat(SensorBuffers.IMU_MAG_Z, mag[2]);
+        imuBuffer.setFloat(SensorBuffers.IMU_ROT_W, quat[0]);
+        imuBuffer.setFloat(SensorBuffers.IMU_ROT_X, quat[1]);
+        imuBuffer.setFloat(SensorBuffers.IMU_ROT_Y, quat[2]);
+        imuBuffer.setFloat(SensorBuffers.IMU_ROT_Z, quat[3]);
+        imuBuffer.setFloat(SensorBuffers.IMU_PRESSURE, tracks[PRESSURE].current[0]);
+        imuBuffer.setFloat(SensorBuffers.IMU_GRAVITY_X, gravity[0]);
+        imuBuffer.setFloat(SensorBuffers.IMU_GRAVITY_Y, gravity[1]);
+        imuBuffer.setFloat(SensorBuffers.IMU_GRAVITY_Z, gravity[2]);
+        imuBuffer.setFloat(SensorBuffers.IMU_LINEAR_ACCEL_X, linear[0]);
+        imuBuffer.setFloat(SensorBuffers.IMU_LINEAR_ACCEL_Y, linear[1]);
+        imuBuffer.setFloat(SensorBuffers.IMU_LINEAR_ACCEL_Z, linear[2]);
+        imuBuffer.setLong(SensorBuffers.IMU_EVENT_TIME, nextGridNs);
+        imuBuffer.commitRow();
+    }
+
+    private void closeOpenBucket() {
+        if (openBucketWallMs == Long.MIN_VALUE) {
+            return;
+        }
+        long closed = openBucketWallMs;
+        openBucketWallMs = Long.MIN_VALUE;
+        BucketListener listener = bucketListener;
+        if (listener != null) {
+            listener.onBucketClosed(closed);
+        }
+        notifyMotion(bucketPeakLinearSq, bucketPeakGyroSq);
+        bucketPeakLinearSq = 0f;
+        bucketPeakGyroSq = 0f;
+    }
+
+    private static int slotOf(int sensorType) {
+        for (int i = 0; i < SENSOR_TYPES.length; i++) {
+            if (SENSOR_TYPES[i] == sensorType) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 센서 하나의 대기 이벤트 큐와 현재(hold) 값.
+     * 격자 시각보다 늦은 이벤트는 큐에 남겨 두었다가 격자가 그 시각을 지날 때 현재 값으로 반영합니다.
+     */
+    private static final class SensorTrack {
+        final int dim;
+        final float[] current;
+        private final long[] timestamps = new long[PENDING_EVENTS];
+        private final float[] values;
+        private int head = 0;  // 가장 오래된 대기 이벤트
+        private int count = 0; // 대기 이벤트 수
+        private long first = Long.MIN_VALUE;
+        private long latest = Long.MIN_VALUE;
+
+        SensorTrack(int dim) {
+            this.dim = dim;
+            this.current = new float[dim];
+            this.values = new float[PENDING_EVENTS * dim];
+        }
+
+        void reset() {
+            head = 0;
+            count = 0;
+            first = Long.MIN_VALUE;
+            latest = Long.MIN_VALUE;
+        }
+
+        boolean hasEvents() {
+            return latest != Long.MIN_VALUE;
+        }
+
+        long firstTimestamp() {
+            return first;
+        }
+
+        long latestTimestamp() {
+            return latest;
+        }
+
+        /** 아직 현재 값으로 반영하지 않은 가장 오래된 이벤트 시각. 없으면 Long.MAX_VALUE */
+        long oldestPendingTimestamp() {
+            return count > 0 ? timestamps[head] : Long.MAX_VALUE;
+        }
+
+        void push(long timestampNs, float[] eventValues) {
+            if (timestampNs < latest) {
+                return; // 역순 이벤트는 무시
+            }
+            if (count == PENDING_EVENTS) {
+                popInto(); // 큐가 가득 차면 가장 오래된 이벤트를 현재 값으로 반영
+            }
+            int slot = (head + count) % PENDING_EVENTS;
+            timestamps[slot] = timestampNs;
+            int n = Math.min(eventValues.length, dim); // Rotation Vector는 값이 3, 4, 5개일 수 있음
+            System.arraycopy(eventValues, 0, values, slot * dim, n);
+            for (int i = n; i < dim; i++) {
+                values[slot * dim + i] = 0f;
+            }
+            count++;
+            if (first == Long.MIN_VALUE) first = timestampNs;
+            latest = timestampNs;
+        }
+
+        /** gridNs 이하 시각의 대기 이벤트를 모두 현재 값으로 반영합니다. */
+        void advanceTo(long gridNs) {
+            while (count > 0 && timestamps[head] <= gridNs) {
+                popInto();
+            }
+        }
+
+        private void popInto() {
+            System.arraycopy(values, head * dim, current, 0, dim);
+            head = (head + 1) % PENDING_EVENTS;
+            count--;
+        }
+    }
+}
@@ -1,34 +1,52 @@
 package com.example.myapplication12345.AI;
 
-import android.annotation.SuppressLint;
+import android.app.ActivityManager;
 import android.content.Context;
-
-import com.example.myapplication12345.AI.AP.APProcessor;
-import com.example.myapplication12345.AI.BTS.BTSProcessor;
-import com.example.myapplication12345.AI.GPS.GPSProcessor;
-import com.example.myapplication12345.AI.IMU.IMUProcessor;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Debug;
+
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics;
+import com.example.myapplication12345.AI.model.ModelFileCache;
+import com.example.myapplication12345.AI.model.ModelVariant;
+import com.example.myapplication12345.AI.pipeline.CachingClassifier;
+import com.example.myapplication12345.AI.pipeline.CascadeGate;
+import com.example.myapplication12345.AI.pipeline.ModelEnsemble;
+import com.example.myapplication12345.AI.pipeline.ModelLoadStats;
+import com.example.myapplication12345.AI.pipeline.TransportClassifier;
+import com.example.myapplication12345.AI.pipeline.TransportModePipeline;
+import com.example.myapplication12345.AI.store.PredictionStore;
+import com.example.myapplication12345.AI.store.PredictionStoreWriter;
 
 import org.pytorch.IValue;
 import org.pytorch.Module;
 import org.pytorch.Tensor;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.FileWriter;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.text.SimpleDateFormat;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import timber.log.Timber;
 
+/**
+ * 앱의 이동 수단 예측기. 모델 파일 로딩과 예측 CSV 위치 등 Android 에 묶인 부분만 맡고,
+ * 윈도우 처리(특성 추출, 입력 조립, STOP/WALK 판정, 세그먼트 병합)는 :features 모듈의 {@link TransportModePipeline} 에 위임합니다.
+ * 재생 도구도 같은 파이프라인을 사용하므로 기기 밖에서 같은 결과를 재현할 수 있습니다.
+ */
 public class SensorDataProcessor {
     private static final String TAG = "SensorDataProcessor";
     private static final String[] MODEL_FILENAMES = {
@@ -37,52 +55,48 @@ public class SensorDataProcessor {
             "model/epoch=80-step=20169_ver3_optimized.ptl"
     };
     private static final int NUM_MODELS = MODEL_FILENAMES.length;
+    // 세 모델을 묶어 평균 확률을 반환하는 통합 모델 (tools/fuse_ensemble.py 로 생성, 없으면 개별 모델만 사용)
+    private static final String FUSED_MODEL_FILENAME = "model/ensemble_fused.ptl";
+    // 모델 정밀도 변형. null 이면 기기 메모리로 선택 (양자화 변형은 tools/quantize_models.py 로 생성, 없으면 float 사용)
+    private static final ModelVariant MODEL_VARIANT_OVERRIDE = null;
     private static final int MODEL_INPUT_FEATURE_SIZE = 340;
     private static final int MIN_TIMESTAMP_COUNT = 60; // 필요한 최소 타임스탬프 개수 (1분 = 60초)
-    private static final int SEGMENT_SIZE = 10; // CSV 저장 시 세그먼트 크기 (10초 단위)
-
-    // --- 업데이트된 이동 수단 매핑 ---
-    // 새로운 라벨 명세(인덱스 0-12)에 해당
-    private static final String[] TRANSPORT_MODES = {
-            "WALK",        // 0: 걷기
-            "WALK",         // 1: 달리기 RUN -> WALK
-            "BIKE",        // 2: 자전거
-            "CAR",         // 3: 차량 (모델이 구분하지 않는 한 택시 포함)
-            "BUS",         // 4: 버스
-            "ETC",       // 5: KTX/기차 TRAIN -> ETC
-            "SUBWAY",      // 6: 지하철
-            "CAR",  // 7: 오토바이 MOTORCYCLE -> CAR
-            "BIKE",      // 8: 전기자전거  E_BIKE -> BIKE
-            "ETC",   // 9: 전동 킥보드 E_SCOOTER -> ETC
-            "CAR"         // 10: 택시 (명시적으로 추가) TAXI -> CAR
-    };
-
-    // 모델에서 예상되는 출력 클래스 개수
-    private static final int EXPECTED_MODEL_OUTPUT_SIZE = TRANSPORT_MODES.length; // 13이어야 함
-
-    // --- 기본값 ---
-    private static final String DEFAULT_MODE_UNKNOWN = "ETC"; // 낮은 신뢰도 또는 오류 시 사용
-    private static final String DEFAULT_MODE_STOPPED = "STOP"; // 움직임이 거의 없을 때 사용 (저장 스킵)
-
-    // --- 이동 감지 및 필터링 임계값 ---
-    // 1분(MIN_TIMESTAMP_COUNT) 동안의 총 이동 거리가 이 값보다 작으면 STOP으로 간주하고 데이터를 저장하지 않음.
-    private static final float STOP_DISTANCE_THRESHOLD_METER = 20.0f; // 20m 이하 이동 시 STOP으로 간주
-
-    // 평균 속도가 이 값보다 낮으면 (STOP 제외) 예측된 모드를 WALK로 강제 변경 (Km/h)
-    // 7 km/h는 일반적인 걷기 속도의 상한선 또는 조깅 초반 속도에 해당.
-    private static final float WALK_SPEED_THRESHOLD_KMPH = 7.0f;
-
-    private static final SimpleDateFormat dateFormat;
+    private static final long FLUSH_MODEL_WAIT_MS = 10_000L; // 수집 종료 시 모델 로딩을 기다리는 최대 시간
+    // 캐스케이드: 가장 빠른 모델의 1위 확률과 1·2위 차이가 모두 임계값 이상이면 나머지 모델을 실행하지 않음
+    private static final boolean USE_CASCADE = true;
+    private static final float CASCADE_MIN_TOP_PROBABILITY = CascadeGate.DEFAULT_MIN_TOP_PROBABILITY;
+    private static final float CASCADE_MIN_MARGIN = CascadeGate.DEFAULT_MIN_MARGIN;
+    private static final int CASCADE_AUDIT_INTERVAL = CascadeGate.DEFAULT_AUDIT_INTERVAL;
+    // 최근 윈도우와 거의 같은 입력이면 추론 결과 재사용 (상대 L2 거리 한계, 다시 추론하기 전 최대 재사용 횟수)
+    private static final int INFERENCE_CACHE_SIZE = CachingClassifier.DEFAULT_CAPACITY;
+    private static final float INFERENCE_CACHE_MAX_DISTANCE = CachingClassifier.DEFAULT_MAX_RELATIVE_DISTANCE;
+    private static final int INFERENCE_CACHE_MAX_REUSES = CachingClassifier.DEFAULT_MAX_REUSES;
 
     static {
-        dateFormat = new SimpleDateFormat("yyyyMMdd", Locale.getDefault());
+        // 모델 입력 배치(AP, BTS, GPS, IMU 순서)는 :features 모듈의 ModelInputLayout 이 정의
+        if (ModelInputLayout.FEATURE_COUNT != MODEL_INPUT_FEATURE_SIZE || ModelInputLayout.TIMESTEPS != MIN_TIMESTAMP_COUNT) {
+            throw new IllegalStateException("Model input layout is " + ModelInputLayout.FEATURE_COUNT + " x "
+                    + ModelInputLayout.TIMESTEPS + ", expected " + MODEL_INPUT_FEATURE_SIZE + " x " + MIN_TIMESTAMP_COUNT);
+        }
     }
 
+    // 수집부터 저장까지의 단계별 지연과 카운터 (프로세스 전체에서 하나, 예측기를 만들기 전의 수집 단계도 기록)
+    private static final PipelineMetrics METRICS = new PipelineMetrics(SensorDataProcessor::allocatedBytes);
+
     private static SensorDataProcessor instance;
     private final Context context;
     private final List<Module> models = new ArrayList<>();
-    private String lastPredictedResult = DEFAULT_MODE_UNKNOWN; // 마지막 유효 예측 결과 저장
-    private volatile boolean areModelsLoaded = false;  // 모델 로딩 완료 여부 (하나라도 로드되면 true)
+    private volatile boolean modelsSettled = false;  // 모델 로딩이 끝났는지 (실패 포함)
+    private final CountDownLatch modelsSettledLatch = new CountDownLatch(1);
+    private volatile ModelEnsemble ensemble; // 로드된 모델의 앙상블 실행기 (modelsSettled 전에 설정, 모두 실패하면 null)
+    private volatile ModelLoadStats loadStats;
+
+    // 모델 입력 (추론 워커 스레드 전용). 윈도우마다 같은 direct 버퍼를 다시 채우고, 버퍼를 감싼 텐서도 재사용
+    // 메모리 배치는 타임스텝 우선(t * 340 + f)이며 모양만 [1, 340, 60] 으로 선언 (모델 학습 시 입력과 동일)
+    private final FloatBuffer modelInputBuffer = Tensor.allocateFloatBuffer(MODEL_INPUT_FEATURE_SIZE * MIN_TIMESTAMP_COUNT);
+    private final Tensor modelInputTensor = Tensor.fromBlob(modelInputBuffer, ModelInputLayout.tensorShape());
+    private final CachingClassifier inferenceCache;
+    private final TransportModePipeline pipeline;
 
     public static synchronized SensorDataProcessor getInstance(Context context) {
         if (instance == null) {
@@ -93,692 +107,272 @@ public class SensorDataProcessor {
 
     private SensorDataProcessor(Context context) {
         this.context = context;
-        loadModelsAsync(); // 비동기 모델 로딩 시작
-    }
-
-    // 모델 비동기 로딩
-    private void loadModelsAsync() {
-        new Thread(() -> {
-            int loadedCount = 0;
-            for (String modelFilename : MODEL_FILENAMES) {
-                try {
-                    String modelPath = assetFilePath(context, modelFilename); // 파일 이름 전달
-                    Module model = Module.load(modelPath);
-                    models.add(model);
-                    loadedCount++;
-                    Timber.tag(TAG).d("PyTorch 모델 로드 완료: %s", modelPath);
-                } catch (IOException e) {
-                    Timber.tag(TAG).e(e, "모델 파일 복사 오류 (%s): %s", modelFilename, e.getMessage());
-                } catch (Exception e) {
-                    Timber.tag(TAG).e(e, "모델 로드 중 오류 (%s): %s", modelFilename, e.getMessage());
-                }
-            }
-            if (loadedCount > 0) {
-                areModelsLoaded = true;
-                Timber.tag(TAG).i("%d개의 모델 중 %d개 로드 완료.", NUM_MODELS, loadedCount);
-            } else {
-                Timber.tag(TAG).e("모든 모델 로드 실패!");
-            }
-        }).start();
-    }
-
-    // Assets 폴더의 모델 파일을 내부 저장소로 복사하고 경로 반환
-    private String assetFilePath(Context context, String modelFilename) throws IOException {
-        // modelFilename이 "model/model_default.ptl"과 같은 경로를 포함할 수 있으므로,
-        // 파일 이름만 추출하고 디렉토리 경로를 따로 처리합니다.
-        File modelFile = new File(modelFilename);
-        String justFileName = modelFile.getName(); // "model_default.ptl"
-        String parentDirectoryPath = modelFile.getParent(); // "model" 또는 null
-
-        File targetDirectory;
-        if (parentDirectoryPath != null) {
-            targetDirectory = new File(context.getFilesDir(), parentDirectoryPath);
-        } else {
-            targetDirectory = context.getFilesDir();
-        }
-
-        // 대상 디렉토리가 존재하지 않으면 생성합니다.
-        if (!targetDirectory.exists()) {
-            if (!targetDirectory.mkdirs()) { // mkdirs()는 필요한 모든 상위 디렉토리도 생성합니다.
-                Timber.tag(TAG).e("모델 파일을 위한 대상 디렉토리 생성 실패: %s", targetDirectory.getAbsolutePath());
-                throw new IOException("대상 디렉토리 생성 실패: " + targetDirectory.getAbsolutePath());
+        // 파이프라인이 modelInputBuffer 를 채운 뒤 분류기를 호출하므로, 같은 버퍼를 감싼 텐서를 그대로 모델에 넘김
+        this.inferenceCache = new CachingClassifier(new TransportClassifier() {
+            @Override
+            public float[] predict(FeatureFrame input) {
+                ModelEnsemble loaded = ensemble;
+                return loaded != null ? loaded.predict(modelInputTensor) : null;
             }
-            Timber.tag(TAG).d("모델 파일을 위한 대상 디렉토리 생성 성공: %s", targetDirectory.getAbsolutePath());
-        }
 
-        File file = new File(targetDirectory, justFileName); // /data/user/0/.../files/model/model_default.ptl
-
-        if (!file.exists()) {
-            Timber.tag(TAG).d("내부 저장소에 모델 파일 없음 (%s), assets에서 복사 시작.", modelFilename);
-            // context.getAssets().open()에는 assets 폴더 내의 전체 경로를 사용해야 합니다.
-            try (InputStream is = context.getAssets().open(modelFilename);
-                 FileOutputStream fos = new FileOutputStream(file)) {
-                byte[] buffer = new byte[4096];
-                int read;
-                while ((read = is.read(buffer)) != -1) {
-                    fos.write(buffer, 0, read);
-                }
-                fos.flush();
-                Timber.tag(TAG).d("모델 파일 복사 완료: %s", file.getAbsolutePath());
-            } catch (IOException e) {
-                Timber.tag(TAG).e(e, "assets에서 모델 파일 (%s) 복사 실패.", modelFilename);
-                throw e; // 예외를 다시 던져서 호출한 쪽에서 알 수 있도록 함
+            @Override
+            public boolean isReady() {
+                return modelsSettled;
             }
-        } else {
-            Timber.tag(TAG).d("내부 저장소에서 모델 파일 발견: %s", file.getAbsolutePath());
-        }
-        return file.getAbsolutePath();
+        }, INFERENCE_CACHE_SIZE, INFERENCE_CACHE_MAX_DISTANCE, INFERENCE_CACHE_MAX_REUSES);
+        this.pipeline = new TransportModePipeline(modelInputBuffer, inferenceCache,
+                new PredictionStoreWriter(new PredictionStore(new File(context.getExternalFilesDir(null), "Map"))), METRICS);
+        loadModelsAsync(); // 비동기 모델 로딩 시작
     }
 
     /**
-     * 센서 데이터를 받아 전처리 후 이동 수단을 예측하고 결과를 저장합니다.
-     * @param gpsData GPS 데이터 리스트
-     * @param apData AP 데이터 리스트
-     * @param btsData BTS 데이터 리스트
-     * @param imuData IMU 데이터 리스트
+     * 모델을 병렬로 로딩합니다. 에셋 추출(첫 실행만) → 로드 → 더미 입력 forward(warm-up) 를 모델마다 동시에 진행하고,
+     * 모두 끝나면 앙상블을 만들어 분류기를 준비 상태로 바꿉니다. 준비되기 전의 윈도우는 파이프라인이 보관했다가 처리합니다.
      */
-    public void processSensorData(List<Map<String, Object>> gpsData,
-                                  List<Map<String, Object>> apData,
-                                  List<Map<String, Object>> btsData,
-                                  List<Map<String, Object>> imuData) {
-
-        // 모델 로딩 완료 여부 확인
-        if (!areModelsLoaded) {
-            Timber.tag(TAG).w("모델이 아직 로드되지 않음. 데이터 처리 스킵");
-            return;
-        }
-
-        //최소 하나 이상의 모델이 로드 되었는 지 확인
-        if (models.isEmpty()) {
-            Timber.tag(TAG).e("로드된 모델이 없음. 예측 스킵.");
-            MovementAnalyzer tempAnalyzer = new MovementAnalyzer(gpsData, imuData);
-            float tempSpeed = (tempAnalyzer.calculateAverageSpeedFromIMU(imuData)) * 3.6f; // Km/h
-            tempAnalyzer.analyze();
-            float tempDistance = tempAnalyzer.getDistance(); // 이 배치의 총 이동 거리 (m)
-            saveSegmentsWithFallback(gpsData, tempDistance, DEFAULT_MODE_UNKNOWN, tempSpeed);
-            return;
-        }
-
-        // 거리와 속도 먼저 계산 (1분(MIN_TIMESTAMP_COUNT) 동안의 데이터 기준)
-        MovementAnalyzer analyzer = new MovementAnalyzer(gpsData, imuData);
-        float speed = (analyzer.calculateAverageSpeedFromIMU(imuData))* 3.6f; // IMU 기반 속도 (Km/h)
-        Timber.tag(TAG).d("평균 속도: "+ speed +"Km/h");
-        analyzer.analyze();
-        float distance = analyzer.getDistance(); // 이 배치의 총 이동 거리 (m)
-
-        Timber.tag(TAG).d("수신된 데이터 크기 - GPS: %d, AP: %d, BTS: %d, IMU: %d",
-                (gpsData != null ? gpsData.size() : 0),
-                (apData != null ? apData.size() : 0),
-                (btsData != null ? btsData.size() : 0),
-                (imuData != null ? imuData.size() : 0));
-
-        // 데이터 유효성 검사 (null 또는 최소 개수 미만)
-        if (gpsData == null || gpsData.size() < MIN_TIMESTAMP_COUNT ||
-                apData == null || apData.isEmpty() || // AP/BTS는 모델 요구사항에 따라 선택적일 수 있음
-                btsData == null || btsData.isEmpty() ||
-                imuData == null || imuData.size() < MIN_TIMESTAMP_COUNT) {
-            Timber.tag(TAG).w("필요한 최소 데이터 요구사항 충족되지 않음 (GPS >= %d, IMU >= %d, AP/BTS 비어있지 않아야 함)", MIN_TIMESTAMP_COUNT, MIN_TIMESTAMP_COUNT);
-            saveSegmentsWithFallback(gpsData, distance, DEFAULT_MODE_UNKNOWN, speed); // 데이터 부족 시 예측 없이 fallback
-            return;
-        }
-
-        // --- 데이터 전처리 ---
-        // 리스트를 수정할 수 있는 처리 전에 가장 빠른 타임스탬프 찾기
-        long apTimestamp = findEarliestTimestamp(apData);
-        long btsTimestamp = findEarliestTimestamp(btsData);
-        long gpsTimestamp = findEarliestTimestamp(gpsData);
-        // IMU 처리는 자체 로직에 따라 타임스탬프 필요 여부 결정
-
-        List<Map<String, Object>> processedAP = APProcessor.processAP(apData, apTimestamp);
-        List<Map<String, Object>> processedBTS = BTSProcessor.processBTS(btsData, btsTimestamp);
-        List<Map<String, Object>> processedGPS = GPSProcessor.processGPS(gpsData, gpsTimestamp);
-        List<Map<String, Object>> processedIMU = IMUProcessor.preImu(imuData); // preImu가 필요시 타임스탬프 처리 가정
-
-        // 전처리 후 데이터 유효성 검사
-        if (processedAP.isEmpty() || processedBTS.isEmpty() || processedGPS.isEmpty() || processedIMU.isEmpty()) {
-            Timber.tag(TAG).w("데이터 전처리 실패 - 하나 이상의 센서 데이터가 전처리 후 비어 있음");
-            saveSegmentsWithFallback(gpsData, distance, DEFAULT_MODE_UNKNOWN, speed); // 처리 실패 시 fallback
-            return;
-        }
-
-        // --- 특성 벡터 생성 및 예측 ---
-        try {
-            Tensor inputTensor = getProcessedFeatureVector(processedAP, processedBTS, processedGPS, processedIMU);
-            if (inputTensor == null) {
-                Timber.tag(TAG).e("입력 텐서 생성 실패");
-                saveSegmentsWithFallback(gpsData, distance, DEFAULT_MODE_UNKNOWN, speed); // 텐서 생성 실패 시 fallback
-                return;
+    private void loadModelsAsync() {
+        Thread loader = new Thread(() -> {
+            long start = System.nanoTime();
+            ModelFileCache modelFiles = new ModelFileCache(context.getFilesDir(), assetStamp(), context.getAssets()::open);
+            ModelVariant variant = MODEL_VARIANT_OVERRIDE != null ? MODEL_VARIANT_OVERRIDE : deviceModelVariant();
+            Timber.tag(TAG).d("모델 변형: %s", variant);
+            String[] assetPaths = Arrays.copyOf(MODEL_FILENAMES, NUM_MODELS + 1);
+            assetPaths[NUM_MODELS] = FUSED_MODEL_FILENAME;
+
+            ExecutorService pool = Executors.newFixedThreadPool(assetPaths.length, runnable -> new Thread(runnable, "ModelLoader"));
+            List<Future<LoadedModel>> futures = new ArrayList<>(assetPaths.length);
+            for (String assetPath : assetPaths) {
+                futures.add(pool.submit(() -> loadModel(modelFiles, assetPath, variant)));
             }
-            // predictMovingModeWithEnsemble 내부에서 lastPredictedResult 업데이트 및 세그먼트 저장
-            predictMovingModeWithEnsemble(inputTensor, gpsData, distance, speed);
-        } catch (Exception e) {
-            Timber.tag(TAG).e(e, "데이터 처리 또는 예측 중 오류 발생");
-            saveSegmentsWithFallback(gpsData, distance, DEFAULT_MODE_UNKNOWN, speed); // 일반 오류 시 fallback
-        }
-    }
-
-    /**
-     * 여러 모델의 확률 출력을 평균냅니다.
-     * @param allProbabilities 각 모델의 확률 배열 리스트
-     * @return 평균화된 확률 배열, 또는 입력이 비어있거나 일관성이 없으면 null
-     */
-    private float[] averageProbabilities(List<float[]> allProbabilities) {
-        if (allProbabilities == null || allProbabilities.isEmpty()) {
-            Timber.tag(TAG).w("평균할 확률 리스트가 비어있음.");
-            return null;
-        }
-
-        int numClasses = EXPECTED_MODEL_OUTPUT_SIZE;
-        for(float[] probs : allProbabilities) {
-            if (probs.length != numClasses) {
-                Timber.tag(TAG).e("일치하지 않는 확률 배열 크기 발견. 예상: %d, 실제: %d", numClasses, probs.length);
-                return null;
+            pool.shutdown();
+
+            List<ModelLoadStats.Entry> entries = new ArrayList<>(assetPaths.length);
+            Module fusedModel = null;
+            for (int i = 0; i < futures.size(); i++) {
+                LoadedModel loaded = awaitModel(futures.get(i), assetPaths[i]);
+                entries.add(loaded.stats);
+                if (loaded.module == null) {
+                    continue;
+                }
+                if (i < NUM_MODELS) {
+                    models.add(loaded.module);
+                } else {
+                    fusedModel = loaded.module;
+                }
             }
-        }
-
-        float[] averagedProbs = new float[numClasses];
-        for (float[] probs : allProbabilities) {
-            for (int i = 0; i < numClasses; i++) {
-                averagedProbs[i] += probs[i];
+            loadStats = new ModelLoadStats(entries, (System.nanoTime() - start) / 1_000_000L);
+
+            if (!models.isEmpty()) {
+                CascadeGate cascade = USE_CASCADE
+                        ? new CascadeGate(CASCADE_MIN_TOP_PROBABILITY, CASCADE_MIN_MARGIN, CASCADE_AUDIT_INTERVAL)
+                        : null;
+                ensemble = new ModelEnsemble(models, fusedModel, TransportModePipeline.CLASS_COUNT, cascade, METRICS);
+                Timber.tag(TAG).i("%d개의 모델 중 %d개 로드 완료. %s", NUM_MODELS, models.size(), loadStats);
+            } else {
+                Timber.tag(TAG).e("모든 모델 로드 실패! 예측 없이 저장합니다. %s", loadStats);
             }
-        }
-
-        int numValidModels = allProbabilities.size();
-        for (int i = 0; i < numClasses; i++) {
-            averagedProbs[i] /= numValidModels;
-        }
-        return averagedProbs;
+            modelsSettled = true;
+            modelsSettledLatch.countDown();
+        }, "ModelLoader");
+        loader.start();
     }
 
-    /**
-     * 입력 텐서를 사용하여 모든 로드된 모델로 추론을 수행하고, 결과를 앙상블하여 이동 수단을 결정한 후,
-     * GPS 데이터를 세그먼트로 나누어 각 세그먼트 정보를 CSV 파일에 저장합니다.
-     * @param inputTensor 모델 입력 텐서
-     * @param gpsData 원본 GPS 데이터 리스트 (세그먼트 분할 및 정보 추출용)
-     * @param totalDistance 해당 배치의 총 이동 거리 (STOP 판정용)
-     * @param speed 평균 속도 (Km/h)
-     */
-    private void predictMovingModeWithEnsemble(Tensor inputTensor, List<Map<String, Object>> gpsData, float totalDistance, float speed) {
-        if (models.isEmpty()) {
-            Timber.tag(TAG).e("앙상블 예측 시도 중 로드된 모델 없음.");
-            saveSegmentsWithFallback(gpsData, totalDistance, DEFAULT_MODE_UNKNOWN, speed); // 모델 없으면 fallback
-            return;
+    // 기기 메모리로 고른 모델 정밀도 변형
+    private ModelVariant deviceModelVariant() {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager == null) {
+            return ModelVariant.FLOAT;
         }
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        return ModelVariant.forDevice(memoryInfo.totalMem, activityManager.isLowRamDevice());
+    }
 
-        List<float[]> allModelProbabilities = new ArrayList<>();
-
+    // 모델 하나를 추출/로드/warm-up. 실패하면 module 이 null
+    // 고른 변형의 에셋이 없으면 fallbacks() 순서로 다음 변형을 찾고, 기록에는 실제로 읽은 에셋 경로를 남김
+    // 통합 모델은 같은 변형만 사용 (양자화 기기에서 float 통합 모델을 함께 올리지 않도록)
+    private LoadedModel loadModel(ModelFileCache modelFiles, String floatAssetPath, ModelVariant variant) {
+        long start = System.nanoTime();
+        long extracted = -1;
+        String assetPath = floatAssetPath;
+        ModelVariant[] candidates = floatAssetPath.equals(FUSED_MODEL_FILENAME)
+                ? new ModelVariant[]{variant} : variant.fallbacks();
         try {
-            // --- 각 모델에 대해 추론 실행 ---
-            for (int i = 0; i < models.size(); i++) {
-                Module model = models.get(i);
+            File file = null;
+            for (int i = 0; file == null; i++) {
+                assetPath = candidates[i].assetPath(floatAssetPath);
                 try {
-                    IValue output = model.forward(IValue.from(inputTensor));
-                    Tensor outputTensor = output.toTensor();
-                    float[] logits = outputTensor.getDataAsFloatArray();
-
-                    if (logits.length != EXPECTED_MODEL_OUTPUT_SIZE) {
-                        Timber.tag(TAG).e("모델 %d의 출력 크기가 예상(%d)과 다름: %d. 이 모델의 예측은 건너뜁니다.",
-                                i, EXPECTED_MODEL_OUTPUT_SIZE, logits.length);
-                        continue;
+                    file = modelFiles.get(assetPath);
+                } catch (FileNotFoundException e) {
+                    if (i == candidates.length - 1) {
+                        throw e;
                     }
-                    allModelProbabilities.add(softmax(logits));
-                } catch (Exception e) {
-                    Timber.tag(TAG).e(e, "개별 모델(모델 %d) 추론 중 오류. 이 모델의 예측은 건너뜁니다.", i);
+                    Timber.tag(TAG).d("%s 변형 없음: %s", candidates[i], assetPath);
                 }
             }
-
-            if (allModelProbabilities.isEmpty()) {
-                Timber.tag(TAG).e("모든 모델에서 유효한 예측을 얻지 못함.");
-                lastPredictedResult = DEFAULT_MODE_UNKNOWN;
-                saveSegmentsWithFallback(gpsData, totalDistance, lastPredictedResult, speed); // 예측 실패 시 fallback
-                return;
-            }
-
-            // --- 예측 집계 (확률 평균화) ---
-            float[] finalProbabilities = averageProbabilities(allModelProbabilities);
-            if (finalProbabilities == null) {
-                Timber.tag(TAG).e("확률 평균화 실패.");
-                lastPredictedResult = DEFAULT_MODE_UNKNOWN;
-                saveSegmentsWithFallback(gpsData, totalDistance, lastPredictedResult, speed); // 확률 평균화 실패 시 fallback
-                return;
-            }
-
-            // --- 평균화된 확률로부터 최종 예측 결정 ---
-            int maxIndex = 0;
-            float maxProb = finalProbabilities[0];
-            for (int i = 1; i < finalProbabilities.length; i++) {
-                if (finalProbabilities[i] > maxProb) {
-                    maxProb = finalProbabilities[i];
-                    maxIndex = i;
-                }
-            }
-
-            String predictedModeFromModel; // 모델이 예측한 순수 결과
-            float confidenceThreshold = 0.1f; // 예측 신뢰도 임계값
-
-            if (maxProb < confidenceThreshold) {
-                predictedModeFromModel = DEFAULT_MODE_UNKNOWN;
-                Timber.tag(TAG).w("앙상블: 가장 높은 평균 확률(%.4f)이 임계값(%.1f) 미만. 모델 예측: '%s' 사용", maxProb, confidenceThreshold, predictedModeFromModel);
-            } else if (maxIndex < TRANSPORT_MODES.length) {
-                predictedModeFromModel = TRANSPORT_MODES[maxIndex];
-                Timber.tag(TAG).d("앙상블: 가장 높은 확률의 이동수단: %s (인덱스: %d), 평균 확률: %.4f", predictedModeFromModel, maxIndex, maxProb);
-            } else {
-                predictedModeFromModel = DEFAULT_MODE_UNKNOWN;
-                Timber.tag(TAG).e("앙상블 오류: 유효하지 않은 예측 인덱스(%d) (평균 확률: %.4f). 모델 예측: '%s' 사용", maxIndex, maxProb, predictedModeFromModel);
-            }
-
-            // --- 최종 이동 수단 결정 로직 ---
-            String finalTransportMode;
-            if (totalDistance < STOP_DISTANCE_THRESHOLD_METER) {
-                // GPS 드리프트 필터링 또는 실제 정지 상태
-                finalTransportMode = DEFAULT_MODE_STOPPED;
-                Timber.tag(TAG).d("총 이동 거리 (%.2fm)가 STOP 임계값 (%.2fm) 미만. 최종 모드를 '%s'로 설정하고 저장 스킵.", totalDistance, STOP_DISTANCE_THRESHOLD_METER, finalTransportMode);
-            } else {
-                // 충분한 이동 거리가 있었으므로 모델 예측 또는 속도 기반 오버라이드 적용
-                finalTransportMode = predictedModeFromModel;
-
-                // 속도 기반 WALK 오버라이드
-                if (speed < WALK_SPEED_THRESHOLD_KMPH) {
-                    String originalMode = finalTransportMode;
-                    finalTransportMode = "WALK";
-                    Timber.tag(TAG).d("앙상블 - 평균 속도: %.1fKm/h. 예측된 모드 '%s'를 '%s'로 변경 (속도 기반 오버라이드).", speed, originalMode, finalTransportMode);
-                }
-            }
-
-            lastPredictedResult = finalTransportMode; // 다음 배치를 위해 마지막 유효 예측 결과 저장
-
-            // 최종 결정된 모드가 STOP이면 CSV 저장을 스킵
-            if (finalTransportMode.equals(DEFAULT_MODE_STOPPED)) {
-                Timber.tag(TAG).d("최종 결정된 모드가 '%s'이므로 세그먼트 저장 스킵.", finalTransportMode);
-                return;
-            }
-
-            // --- 세그먼트 저장 (STOP이 아닌 경우만) ---
-            if (gpsData != null && gpsData.size() >= MIN_TIMESTAMP_COUNT) {
-                int totalSegments = gpsData.size() / SEGMENT_SIZE;
-                double distancePerSegment = (double) totalDistance / totalSegments;
-
-                Timber.tag(TAG).d("앙상블 배치 총 이동 거리: %.2f m. %d개 세그먼트 저장 시작. 최종 모드: %s", totalDistance, totalSegments, finalTransportMode);
-                if(totalDistance > 30) {
-                    for (int segment = 0; segment < totalSegments; segment++) {
-                        int startIndex = segment * SEGMENT_SIZE;
-                        int endIndex = Math.min(startIndex + SEGMENT_SIZE, gpsData.size() - 1); // 세그먼트의 마지막 인덱스
-
-                        if (startIndex > endIndex) {
-                            Timber.tag(TAG).w("앙상블 세그먼트 %d: 유효하지 않은 인덱스 범위 (시작: %d, 끝: %d). 건너뜁니다.", segment, startIndex, endIndex);
-                            continue;
-                        }
-
-                        Map<String, Object> startData = gpsData.get(startIndex);
-                        Map<String, Object> endData = gpsData.get(endIndex);
-
-                        try {
-                            long startTimestamp = ((Number) Objects.requireNonNull(startData.get("timestamp"))).longValue();
-                            double startLat = ((Number) Objects.requireNonNull(startData.get("latitude"))).doubleValue();
-                            double startLon = ((Number) Objects.requireNonNull(startData.get("longitude"))).doubleValue();
-                            double endLat = ((Number) Objects.requireNonNull(endData.get("latitude"))).doubleValue();
-                            double endLon = ((Number) Objects.requireNonNull(endData.get("longitude"))).doubleValue();
-
-                            // 세그먼트 저장
-                            savePredictionToCSV(finalTransportMode, distancePerSegment, startTimestamp, startLat, startLon, endLat, endLon);
-
-                            Timber.tag(TAG).d("앙상블 세그먼트 %d 저장: 모드: %s (거리: %.2fm, 시작: %.6f,%.6f, 종료: %.6f,%.6f)",
-                                    segment, finalTransportMode, distancePerSegment, startLat, startLon, endLat, endLon);
-
-                        } catch (NullPointerException e) {
-                            Timber.tag(TAG).e(e, "앙상블 세그먼트 %d 데이터 추출 중 NullPointerException", segment);
-                        } catch (Exception e) {
-                            Timber.tag(TAG).e(e, "앙상블 세그먼트 %d 처리 중 예외 발생", segment);
-                        }
-                    }
-                }else{
-                    Timber.tag(TAG).d("앙상블 배치 총 이동 거리: %.2f m. '30m 이하' 이므로 세그먼트 저장 스킵", totalDistance);
-                }
+            extracted = System.nanoTime();
+            Module module = Module.load(file.getAbsolutePath());
+            long loaded = System.nanoTime();
+
+            // 첫 forward 의 지연 초기화를 첫 윈도우가 아니라 여기서 치름
+            Tensor dummy = Tensor.fromBlob(new float[MODEL_INPUT_FEATURE_SIZE * MIN_TIMESTAMP_COUNT], ModelInputLayout.tensorShape());
+            module.forward(IValue.from(dummy));
+            long warmedUp = System.nanoTime();
+
+            Timber.tag(TAG).d("PyTorch 모델 로드 완료: %s", assetPath);
+            return new LoadedModel(module, new ModelLoadStats.Entry(assetPath, true,
+                    (extracted - start) / 1_000_000L, (loaded - extracted) / 1_000_000L, (warmedUp - loaded) / 1_000_000L));
+        } catch (FileNotFoundException e) {
+            if (floatAssetPath.equals(FUSED_MODEL_FILENAME)) {
+                Timber.tag(TAG).d("통합 앙상블 모델 없음. 개별 모델만 사용");
             } else {
-                Timber.tag(TAG).w("앙상블: GPS 데이터 부족 (%d개)하여 세그먼트 저장 불가", gpsData != null ? gpsData.size() : 0);
+                Timber.tag(TAG).e(e, "모델 파일 없음: %s", assetPath);
             }
-
+        } catch (IOException e) {
+            Timber.tag(TAG).e(e, "모델 파일 추출 오류 (%s): %s", assetPath, e.getMessage());
         } catch (Exception e) {
-            Timber.tag(TAG).e(e, "앙상블 예측 또는 세그먼트 저장 중 최상위 오류: %s", e.getMessage());
-            lastPredictedResult = DEFAULT_MODE_UNKNOWN;
-            saveSegmentsWithFallback(gpsData, totalDistance, DEFAULT_MODE_UNKNOWN, speed); // 오류 발생 시 fallback
+            Timber.tag(TAG).e(e, "모델 로드 중 오류 (%s): %s", assetPath, e.getMessage());
         }
+        long now = System.nanoTime();
+        long extractMillis = ((extracted < 0 ? now : extracted) - start) / 1_000_000L;
+        long loadMillis = extracted < 0 ? 0L : (now - extracted) / 1_000_000L;
+        return new LoadedModel(null, new ModelLoadStats.Entry(assetPath, false, extractMillis, loadMillis, 0L));
     }
 
-    /**
-     * 전처리된 센서 데이터 리스트들을 받아 모델 입력에 맞는 텐서 형태로 변환합니다.
-     * 각 타임스텝(열)마다 모든 센서의 특성(feature)들을 합쳐 지정된 크기(MODEL_INPUT_FEATURE_SIZE)의 행을 만듭니다.
-     * @param apData 전처리된 AP 데이터
-     * @param btsData 전처리된 BTS 데이터
-     * @param gpsData 전처리된 GPS 데이터
-     * @param imuData 전처리된 IMU 데이터
-     * @return 모델 입력 텐서 ([1, numFeatures, numTimesteps] 형태) 또는 생성 실패 시 null
-     */
-    private Tensor getProcessedFeatureVector(List<Map<String, Object>> apData,
-                                             List<Map<String, Object>> btsData,
-                                             List<Map<String, Object>> gpsData,
-                                             List<Map<String, Object>> imuData) {
-        // 데이터 정렬 (프로세서가 순서 보장 안 할 경우 대비) 및 타임스탬프 제거 (복사본 사용)
-        List<Map<String, Object>> sortedAP = sortAndRemoveTimestamp(new ArrayList<>(apData));
-        List<Map<String, Object>> sortedBTS = sortAndRemoveTimestamp(new ArrayList<>(btsData));
-        List<Map<String, Object>> sortedGPS = sortAndRemoveTimestamp(new ArrayList<>(gpsData));
-        List<Map<String, Object>> sortedIMU = sortAndRemoveTimestamp(new ArrayList<>(imuData));
-
-        if (sortedGPS.isEmpty() || sortedIMU.isEmpty()) {
-            Timber.tag(TAG).w("정렬/타임스탬프 제거 후 GPS 또는 IMU 데이터가 비어있음.");
-            return null; // 텐서 생성 실패 알림
-        }
-
-        List<Map<String, Object>> combinedData = new ArrayList<>();
-        final int repetitionsPerGpsRecord = 5; // GPS 레코드당 반복 횟수 (기존 로직 유지)
-
-        // 필요한 타임스탬프 개수(MIN_TIMESTAMP_COUNT)만큼 반복
-        for (int i = 0; i < MIN_TIMESTAMP_COUNT; i++) {
-            Map<String, Object> row = new LinkedHashMap<>(); // 순서 보장
-
-            // GPS 데이터 인덱스 계산 (주기적으로 반복)
-            int gpsIndex = i / repetitionsPerGpsRecord;
-            gpsIndex = Math.min(gpsIndex, sortedGPS.size() - 1);
-
-            // AP/BTS/GPS/IMU 데이터를 합쳐 하나의 행(타임스텝) 구성
-            // 주의: 이 순서는 모델이 기대하는 특성 순서와 일치해야 합니다.
-            // 현재 코드는 각 프로세서가 반환하는 Map의 순서에 의존합니다.
-            row.putAll(getWithFallback(sortedAP, 0)); // AP는 첫 번째 데이터 반복 사용
-            row.putAll(getWithFallback(sortedBTS, i % Math.min(12, sortedBTS.size())));
-            row.putAll(getWithFallback(sortedGPS, i % Math.min(12, sortedGPS.size())));
-            row.putAll(getWithFallback(sortedIMU, i)); // IMU는 순차적으로 사용
-
-            combinedData.add(row); // 완성된 타임스텝 데이터 추가
+    private LoadedModel awaitModel(Future<LoadedModel> future, String assetPath) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Timber.tag(TAG).e(e.getCause(), "모델 로드 작업 실패: %s", assetPath);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-
-        return convertListMapToTensor(combinedData); // 최종 텐서 변환
-    }
-
-    // 리스트에서 안전하게 데이터를 가져오는 헬퍼 함수 (인덱스 초과 시 마지막 요소 사용)
-    private static Map<String, Object> getWithFallback(List<Map<String, Object>> list, int index) {
-        if (list == null || list.isEmpty()) return new HashMap<>(); // 리스트가 null이거나 비었으면 빈 맵 반환
-        int actualIndex = Math.min(index, list.size() - 1); // index 또는 마지막 유효 인덱스 사용
-        if (actualIndex < 0) return new HashMap<>(); // list가 비어있을 때 Math.min 결과가 -1이 될 수 있음
-        return list.get(actualIndex);
+        return new LoadedModel(null, new ModelLoadStats.Entry(assetPath, false, 0L, 0L, 0L));
     }
 
-    /**
-     * 여러 센서 데이터가 결합된 리스트를 PyTorch 모델 입력 형식의 텐서로 변환합니다.
-     * 텐서의 각 열(타임스텝)은 여러 센서에서 나온 특성(feature)들을 순서대로 포함하며,
-     * 총 특성 수가 MODEL_INPUT_FEATURE_SIZE와 일치하도록 필요시 0.0f로 패딩합니다.
-     * @param dataList 각 요소가 한 타임스텝의 모든 센서 특성을 포함하는 Map인 리스트
-     * @return 모델 입력 텐서 ([1, MODEL_INPUT_FEATURE_SIZE, MIN_TIMESTAMP_COUNT]) 또는 null (오류 시)
-     */
-    private static Tensor convertListMapToTensor(List<Map<String, Object>> dataList) {
-        // 텐서 형태 정의를 위해 상수 사용
-        int numFeatures = MODEL_INPUT_FEATURE_SIZE; // 텐서의 행 (특성 차원)
-        int numTimesteps = MIN_TIMESTAMP_COUNT;     // 텐서의 열 (시간 차원)
-
-        float[] dataArray = new float[numFeatures * numTimesteps]; // 1차원 배열로 데이터 저장
-        int dataArrayIndex = 0; // 현재 dataArray에 채워넣을 인덱스
-
-        // 입력 데이터 리스트의 타임스텝 수가 요구사항보다 적은지 확인
-        if (dataList.size() < numTimesteps) {
-            Timber.tag(TAG).w("결합된 데이터 리스트 크기(%d)가 필요한 타임스텝(%d)보다 작음. 패딩 처리됩니다.", dataList.size(), numTimesteps);
-            // 아래 패딩 로직이 처리하지만, 로그로 남김
+    // 앱을 다시 설치하거나 업데이트하면 에셋을 다시 추출하도록 버전과 설치 시각을 스탬프로 사용
+    private String assetStamp() {
+        try {
+            PackageInfo info = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            return info.versionName + "/" + info.lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            return "unknown";
         }
+    }
 
-        // 타임스텝 (열) 순회
-        for (int t = 0; t < numTimesteps; t++) {
-            // 현재 타임스텝(t)에 해당하는 데이터 가져오기 (없으면 빈 Map -> 패딩용)
-            Map<String, Object> timestepData = (t < dataList.size()) ? dataList.get(t) : new HashMap<>();
-
-            int featuresInThisTimestep = 0; // 현재 타임스텝에서 추출된 특성 수
-
-            // 현재 타임스텝 데이터(Map)의 모든 값(특성)을 순회하며 dataArray에 추가
-            // 중요: 이 로직은 getProcessedFeatureVector에서 Map에 데이터를 넣은 순서가
-            //       모델이 기대하는 특성 순서와 일치한다고 가정합니다.
-            for (Object value : timestepData.values()) {
-                // 배열 범위 내이고 숫자 타입인 경우에만 추가
-                if (dataArrayIndex < dataArray.length && value instanceof Number) {
-                    dataArray[dataArrayIndex++] = ((Number) value).floatValue();
-                    featuresInThisTimestep++;
-                }
-            }
-
-            // --- 핵심 패딩 로직 ---
-            // 현재 타임스텝에서 추출된 특성 수가 numFeatures보다 적으면 0.0f로 패딩
-            if (featuresInThisTimestep < numFeatures) {
-                // Timber.tag(TAG).v("타임스텝 %d: 특성 %d개 발견, %d개 패딩 필요.", t, featuresInThisTimestep, numFeatures - featuresInThisTimestep);
-                for (int p = featuresInThisTimestep; p < numFeatures; p++) {
-                    if (dataArrayIndex < dataArray.length) {
-                        dataArray[dataArrayIndex++] = 0.0f; // 부족한 특성 0으로 채우기
-                    } else {
-                        // 이 경우는 발생하면 안 됨 (배열 크기 계산 오류 의미)
-                        Timber.tag(TAG).e("오류: 타임스텝 %d 특성 패딩 중 텐서 버퍼 오버플로우.", t);
-                        return null; // 텐서 생성 실패
-                    }
-                }
-            } else if (featuresInThisTimestep > numFeatures) {
-                // 이 경우도 발생하면 안 됨 (getProcessedFeatureVector 로직 오류 의미)
-                Timber.tag(TAG).e("오류: 타임스텝 %d에 특성 %d개가 발견되어 예상치(%d) 초과.", t, featuresInThisTimestep, numFeatures);
-                return null; // 오류 알림
-            }
-            // featuresInThisTimestep == numFeatures 인 경우는 정상
-        }
+    private static final class LoadedModel {
+        final Module module;
+        final ModelLoadStats.Entry stats;
 
-        // 최종 검증: dataArray가 완전히 채워졌는지 확인
-        if (dataArrayIndex != numFeatures * numTimesteps) {
-            Timber.tag(TAG).e("텐서 버퍼 채우기 불일치. 예상 크기: %d, 실제 채워진 크기: %d.", numFeatures * numTimesteps, dataArrayIndex);
-            return null; // 텐서 생성 실패
+        LoadedModel(Module module, ModelLoadStats.Entry stats) {
+            this.module = module;
+            this.stats = stats;
         }
-
-        // 최종 텐서 생성: 형태 [1, 특성 수, 타임스텝 수]
-        return Tensor.fromBlob(dataArray, new long[]{1, numFeatures, numTimesteps});
     }
 
+    /** 추론 결과 캐시 (재사용 비율, 다시 추론했을 때의 차이). 추론 워커 스레드에서만 갱신됩니다. */
+    public CachingClassifier getInferenceCache() {
+        return inferenceCache;
+    }
 
-    /**
-     * 입력된 데이터 리스트의 복사본을 타임스탬프 기준으로 정렬하고, 각 Map에서 "timestamp" 키를 제거합니다.
-     * @param dataList 원본 데이터 리스트
-     * @return 타임스탬프 제거 및 정렬된 새 리스트
-     */
-    private List<Map<String, Object>> sortAndRemoveTimestamp(List<Map<String, Object>> dataList) {
-        if (dataList == null || dataList.isEmpty()) {
-            return new ArrayList<>(); // 입력이 null이거나 비었으면 빈 리스트 반환
-        }
-        // 원본 수정을 피하기 위해 복사본 생성
-        List<Map<String, Object>> sortedList = new ArrayList<>(dataList);
+    /** 단계별 지연 히스토그램, 수집 카운터, 분당 할당량. 어느 스레드에서나 조회할 수 있습니다. */
+    public static PipelineMetrics getMetrics() {
+        return METRICS;
+    }
 
-        // 타임스탬프 기준 정렬 (null 안전 처리 포함)
+    // ART 가 시작 후 할당한 누적 bytes. 값을 얻지 못하면 UNAVAILABLE
+    private static long allocatedBytes() {
+        String value = Debug.getRuntimeStat("art.gc.bytes-allocated");
         try {
-            sortedList.sort(Comparator.comparingLong(m ->
-                    (m != null && m.get("timestamp") instanceof Number) ?
-                            ((Number) Objects.requireNonNull(m.get("timestamp"))).longValue() : Long.MAX_VALUE // null 이거나 timestamp 없으면 맨 뒤로
-            ));
-        } catch (Exception e) {
-            Timber.tag(TAG).e(e, "타임스탬프 정렬 중 오류 발생");
-            // 정렬 실패 시 원본 순서의 복사본 반환 (또는 다른 오류 처리)
-            return new ArrayList<>(dataList);
+            return value != null ? Long.parseLong(value) : PipelineMetrics.UNAVAILABLE;
+        } catch (NumberFormatException e) {
+            return PipelineMetrics.UNAVAILABLE;
         }
+    }
 
-
-        // 정렬된 복사본 리스트의 각 Map에서 "timestamp" 제거
-        for (Map<String, Object> data : sortedList) {
-            if (data != null) {
-                data.remove("timestamp");
-            }
-        }
-        return sortedList;
+    /** 앙상블 모델의 float 에셋 경로 (모델 순서). 변형 경로는 {@link ModelVariant#assetPath} 로 만듭니다. */
+    public static String[] getModelAssetPaths() {
+        return MODEL_FILENAMES.clone();
     }
 
+    /** 모델 로딩/warm-up 소요 시간. 로딩이 끝나기 전에는 null. */
+    public ModelLoadStats getModelLoadStats() {
+        return loadStats;
+    }
 
     /**
-     * 예측이 불가능하거나 신뢰도가 낮을 때, GPS 데이터를 기반으로 세그먼트를 저장하는 함수.
-     * 이 함수도 'STOP' 상태를 판단하여 불필요한 저장을 막습니다.
+     * 센서 데이터를 받아 전처리 후 이동 수단을 예측하고 결과를 저장합니다.
+     * 겹치지 않는 구간(60초 단위)으로 호출하는 경우로, 구간의 모든 초를 저장 대상으로 봅니다.
      * @param gpsData GPS 데이터 리스트
-     * @param totalDistance 해당 배치의 총 이동 거리 (STOP 판정 기준)
-     * @param fallbackMode 사용할 대체 이동 수단 (예: DEFAULT_MODE_UNKNOWN)
-     * @param speed 평균 속도 (Km/h)
+     * @param apData AP 데이터 리스트
+     * @param btsData BTS 데이터 리스트
+     * @param imuData IMU 데이터 리스트
      */
-    private void saveSegmentsWithFallback(List<Map<String, Object>> gpsData, float totalDistance, String fallbackMode, float speed) {
-        // 세그먼트 생성을 위한 최소 GPS 데이터 개수 확인
-        if (gpsData == null || gpsData.size() < SEGMENT_SIZE) {
-            Timber.tag(TAG).w("GPS 데이터 부족 (%d개)하여 세그먼트 저장 불가 (Fallback)", gpsData != null ? gpsData.size() : 0);
-            return;
-        }
-
-        // --- 최종 이동 수단 결정 로직 (Fallback 버전) ---
-        String finalSegmentMode;
-        if (totalDistance < STOP_DISTANCE_THRESHOLD_METER) {
-            // GPS 드리프트 필터링 또는 실제 정지 상태
-            finalSegmentMode = DEFAULT_MODE_STOPPED;
-            Timber.tag(TAG).d("Fallback: 총 이동 거리 (%.2fm)가 STOP 임계값 (%.2fm) 미만. 최종 모드를 '%s'로 설정하고 저장 스킵.", totalDistance, STOP_DISTANCE_THRESHOLD_METER, finalSegmentMode);
-        } else {
-            // 충분한 이동 거리가 있었으므로 fallbackMode 또는 속도 기반 오버라이드 적용
-            finalSegmentMode = fallbackMode;
-
-            // 속도 기반 WALK 오버라이드 (STOP이 아닐 때만)
-            if (speed < WALK_SPEED_THRESHOLD_KMPH) {
-                String originalMode = finalSegmentMode;
-                finalSegmentMode = "WALK";
-                Timber.tag(TAG).d("Fallback - 평균 속도: %.1fKm/h. 예측된 모드 '%s'를 '%s'로 변경 (속도 기반 오버라이드).", speed, originalMode, finalSegmentMode);
-            }
-        }
-
-        // 최종 결정된 모드가 STOP이면 CSV 저장을 스킵
-        if (finalSegmentMode.equals(DEFAULT_MODE_STOPPED)) {
-            Timber.tag(TAG).d("Fallback: 최종 결정된 모드가 '%s'이므로 세그먼트 저장 스킵.", finalSegmentMode);
-            return;
-        }
-
-        // --- 세그먼트 저장 (STOP이 아닌 경우만) ---
-        int totalSegments = gpsData.size() / SEGMENT_SIZE; // 생성 가능한 총 세그먼트 수
-        // 세그먼트당 대략적인 이동 거리 계산
-        double distancePerSegment = (totalSegments > 0) ? (double)totalDistance / totalSegments : 0.0;
-
-        Timber.tag(TAG).d("Fallback: %d개 세그먼트 저장 시도. 최종 모드: %s", totalSegments, finalSegmentMode);
-
-        for (int segment = 0; segment < totalSegments; segment++) {
-            int startIndex = segment * SEGMENT_SIZE;
-            int endIndex = startIndex + SEGMENT_SIZE - 1; // 세그먼트 크기(SEGMENT_SIZE) 보장
-
-            // 인덱스 유효성 재확인 (루프 조건상 불필요하나 안전 장치)
-            if (startIndex >= gpsData.size() || endIndex >= gpsData.size()) {
-                Timber.tag(TAG).w("Fallback 세그먼트 %d에 대한 인덱스(%d-%d)가 GPS 데이터 크기(%d)를 벗어남", segment, startIndex, endIndex, gpsData.size());
-                continue; // 잘못된 인덱스면 해당 세그먼트 건너뛰기
-            }
-
-            Map<String, Object> startData = gpsData.get(startIndex);
-            Map<String, Object> endData = gpsData.get(endIndex);
-
-            try {
-                // 데이터 안전하게 추출 (null 발생 시 예외 처리)
-                long startTimestamp = ((Number) Objects.requireNonNull(startData.get("timestamp"), "시작 타임스탬프 null")).longValue();
-                double startLat = ((Number) Objects.requireNonNull(startData.get("latitude"), "시작 위도 null")).doubleValue();
-                double startLon = ((Number) Objects.requireNonNull(startData.get("longitude"), "시작 경도 null")).doubleValue();
-                double endLat = ((Number) Objects.requireNonNull(endData.get("latitude"), "종료 위도 null")).doubleValue();
-                double endLon = ((Number) Objects.requireNonNull(endData.get("longitude"), "종료 경도 null")).doubleValue();
-
-                // CSV 파일에 저장
-                savePredictionToCSV(finalSegmentMode, distancePerSegment, startTimestamp, startLat, startLon, endLat, endLon);
-
-                Timber.tag(TAG).d("Fallback 세그먼트 %d 저장: 모드=%s, 거리=%.2fm", segment, finalSegmentMode, distancePerSegment);
-
-            } catch (NullPointerException e) {
-                Timber.tag(TAG).e(e, "Fallback 세그먼트 %d 데이터 추출 중 NullPointerException 발생", segment);
-                // 해당 세그먼트 저장 실패 처리
-            } catch (Exception e) {
-                Timber.tag(TAG).e(e, "Fallback 세그먼트 %d 처리 중 예외 발생", segment);
-                // 해당 세그먼트 저장 실패 처리
-            }
-        }
+    public void processSensorData(List<Map<String, Object>> gpsData,
+                                  List<Map<String, Object>> apData,
+                                  List<Map<String, Object>> btsData,
+                                  List<Map<String, Object>> imuData) {
+        processSensorData(gpsData, apData, btsData, imuData, gpsData != null ? gpsData.size() : 0);
     }
 
-
     /**
-     * 예측된 이동 수단 및 관련 정보를 CSV 파일에 저장합니다.
-     * 파일은 날짜별로 생성되며, 데이터는 기존 파일에 추가됩니다.
-     * @param transportMode 예측된 이동 수단 문자열
-     * @param distance 이동 거리 (미터)
-     * @param startTimestamp 세그먼트 시작 타임스탬프
-     * @param startLat 세그먼트 시작 위도
-     * @param startLon 세그먼트 시작 경도
-     * @param endLat 세그먼트 종료 위도
-     * @param endLon 세그먼트 종료 경도
+     * 슬라이딩 윈도우 하나를 전처리 후 이동 수단을 예측하고 결과를 저장합니다.
+     * 예측은 윈도우 전체(최대 60초)로 하되, 저장은 직전 윈도우 이후 새로 들어온 마지막 newSeconds 초에만 반영합니다.
+     * @param gpsData GPS 데이터 리스트 (시간순)
+     * @param apData AP 데이터 리스트
+     * @param btsData BTS 데이터 리스트
+     * @param imuData IMU 데이터 리스트
+     * @param newSeconds 이번 윈도우에서 새로 저장할 초 수 (윈도우 끝 기준)
      */
-    @SuppressLint("DefaultLocale")
-    private void savePredictionToCSV(String transportMode, double distance, long startTimestamp,
-                                     double startLat, double startLon, double endLat, double endLon) {
-        String date = dateFormat.format(startTimestamp); // 시작 타임스탬프 기준으로 날짜 폴더 사용
-        String fileName = date + "_predictions.csv";
-
-        File directory = new File(context.getExternalFilesDir(null), "Map");
-        // 디렉토리 존재 확인 및 생성
-        if (!directory.exists()) {
-            if (!directory.mkdirs()) {
-                Timber.tag(TAG).e("Map 디렉토리 생성 실패");
-                return; // 디렉토리 생성 실패 시 저장 불가
-            }
-            Timber.tag(TAG).d("Map 디렉토리 생성 성공: %s", directory.getAbsolutePath());
-        }
+    public void processSensorData(List<Map<String, Object>> gpsData,
+                                  List<Map<String, Object>> apData,
+                                  List<Map<String, Object>> btsData,
+                                  List<Map<String, Object>> imuData,
+                                  int newSeconds) {
+        // 모델 로딩 중이면 파이프라인이 윈도우를 보관했다가 로딩 후 처리
+        pipeline.processWindow(gpsData, apData, btsData, imuData, newSeconds);
+    }
 
-        File file = new File(directory, fileName);
-        boolean writeHeader = !file.exists() || file.length() == 0; // 새 파일이거나 비어있으면 헤더 작성
+    /**
+     * 링 버퍼 윈도우 스냅샷을 받아 처리합니다. 스냅샷은 복사 없이 기존 Map 기반 프로세서에 그대로 전달됩니다.
+     * @param gps GPS 스냅샷
+     * @param ap AP 스냅샷
+     * @param bts BTS 스냅샷
+     * @param imu IMU 스냅샷
+     * @param newSeconds 이번 윈도우에서 새로 저장할 초 수
+     */
+    public void processSensorData(SensorSnapshot gps, SensorSnapshot ap, SensorSnapshot bts, SensorSnapshot imu,
+                                  int newSeconds) {
+        pipeline.processWindow(gps, ap, bts, imu, newSeconds);
+    }
 
-        // try-with-resources 사용하여 FileWriter 자동 종료
-        try (FileWriter writer = new FileWriter(file, true)) { // true: 이어쓰기 모드
-            if (writeHeader) {
-                // CSV 헤더 작성
-                writer.append("start_timestamp,transport_mode,distance_meters,start_latitude,start_longitude,end_latitude,end_longitude\n");
-            }
-            // 데이터 행 추가 (Locale.US 사용하여 소수점 '.' 보장)
-            writer.append(String.format(Locale.US, "%d,%s,%.2f,%.6f,%.6f,%.6f,%.6f\n",
-                    startTimestamp, transportMode, distance, startLat, startLon, endLat, endLon));
-            // 저장 성공 로그 (verbose 레벨로 변경 또는 제거 가능)
-            // Timber.tag(TAG).v("세그먼트 저장 완료 (%s): 모드=%s, 거리=%.2fm", fileName, transportMode, distance);
-        } catch (IOException e) {
-            Timber.tag(TAG).e(e, "예측 결과 CSV 저장 실패: %s", e.getMessage());
-        }
+    /**
+     * 기기가 가만히 놓여 있는 동안의 윈도우를 특성 추출과 추론 없이 STOP 으로 처리합니다 (추론 워커 스레드).
+     * @param newSeconds 이번 윈도우에서 새로 들어온 초 수
+     */
+    public void recordStationary(int newSeconds) {
+        pipeline.recordStationary(newSeconds);
     }
 
-    // Softmax 함수 구현 (변경 없음)
-    private float[] softmax(float[] logits) {
-        float maxLogit = Float.NEGATIVE_INFINITY;
-        for (float logit : logits) {
-            if (logit > maxLogit) maxLogit = logit;
-        }
-        float sum = 0.0f;
-        float[] expLogits = new float[logits.length];
-        for (int i = 0; i < logits.length; i++) {
-            // 수치 안정성을 위해 최대 logit 빼기
-            expLogits[i] = (float) Math.exp(logits[i] - maxLogit);
-            sum += expLogits[i];
-        }
-        float[] probabilities = new float[logits.length];
-        // 모든 expLogits가 0인 경우 (매우 드묾) 0으로 나누기 방지
-        if (sum == 0) {
-            Timber.tag(TAG).w("Softmax 합계가 0입니다. 균일 확률 반환.");
-            float uniformProb = 1.0f / logits.length;
-            for (int i = 0; i < logits.length; i++) {
-                probabilities[i] = uniformProb;
+    /** 병합 중인 마지막 세그먼트를 저장합니다. 수집을 멈출 때 마지막 윈도우 처리 후 호출합니다 (추론 워커 스레드). */
+    public void flushSegments() {
+        // 로딩 중에 수집이 끝나면 보관한 윈도우를 예측할 수 있도록 잠시 기다림
+        if (!modelsSettled) {
+            try {
+                if (!modelsSettledLatch.await(FLUSH_MODEL_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    Timber.tag(TAG).w("모델 로딩 대기 시간 초과. 보관한 윈도우는 예측 없이 저장");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            return probabilities;
-        }
-        for (int i = 0; i < logits.length; i++) {
-            probabilities[i] = expLogits[i] / sum;
         }
-        return probabilities;
+        pipeline.flushSegments();
     }
 
-    // 가장 이른 타임스탬프 찾는 함수 (null/빈 리스트 처리 추가)
-    private static long findEarliestTimestamp(List<Map<String, Object>> dataList) {
-        if (dataList == null || dataList.isEmpty()) {
-            return System.currentTimeMillis(); // 리스트가 비었으면 현재 시간 반환
-        }
-        return dataList.stream()
-                // null map, timestamp 키 부재, timestamp가 숫자가 아닌 경우 필터링
-                .filter(map -> map != null && map.containsKey("timestamp") && map.get("timestamp") instanceof Number)
-                // Long 값으로 변환
-                .mapToLong(map -> ((Number) Objects.requireNonNull(map.get("timestamp"))).longValue())
-                // 최소값 찾기
-                .min()
-                // 유효한 타임스탬프가 없으면 현재 시간 반환
-                .orElse(System.currentTimeMillis());
+    /**
+     * 닫힌 1초 IMU 구간 하나의 특성 행을 계산해 캐시에 넣습니다. 집계 스레드에서 구간이 닫힐 때마다 호출합니다.
+     * @param bucketSamples 한 구간(같은 timestamp)의 IMU 샘플
+     */
+    public void extractImuFeatures(SensorSnapshot bucketSamples) {
+        pipeline.extractImuFeatures(bucketSamples);
     }
-}
\ No newline at end of file
+}
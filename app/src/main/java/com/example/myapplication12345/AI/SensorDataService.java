@@ -1,5 +1,6 @@
 package com.example.myapplication12345.AI;
 
+import static com.google.android.gms.location.Priority.PRIORITY_BALANCED_POWER_ACCURACY;
 import static com.google.android.gms.location.Priority.PRIORITY_HIGH_ACCURACY;
 
 import android.app.Notification;
@@ -10,19 +11,16 @@ import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
-import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.location.Location;
 import android.net.wifi.ScanResult;
-import android.net.wifi.WifiInfo;
 import android.net.wifi.WifiManager;
 import android.os.Build;
-import android.os.Environment;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.IBinder;
-import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
 import android.telephony.CellIdentityLte;
 import android.telephony.CellInfo;
 import android.telephony.CellInfoLte;
@@ -32,6 +30,15 @@ import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
 import androidx.core.content.ContextCompat;
 
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.capture.SensorCaptureWriter;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics.Counter;
+import com.example.myapplication12345.AI.pipeline.InferenceWorker;
+import com.example.myapplication12345.AI.pipeline.MotionStateDetector;
+import com.example.myapplication12345.AI.pipeline.WindowTicker;
 import com.example.myapplication12345.R;
 import com.example.myapplication12345.SplashActivity;
 import com.google.android.gms.location.FusedLocationProviderClient;
@@ -40,30 +47,27 @@ import com.google.android.gms.location.LocationRequest;
 import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
 
 import timber.log.Timber;
 
 public class SensorDataService extends Service {
-    private static final int PROCESS_INTERVAL_01 = 1000; // 1초 간격
-    private static final int IMU_INTERVAL_MS = 10; // 10ms 간격
-    private static final int MAX_IMU_PER_SECOND = 100; // 1초에 최대 100개
+    private static final int PROCESS_INTERVAL_01 = WindowTicker.TICK_INTERVAL_MS; // 1초 간격
     private static final int INITIAL_DELAY_MS = 3000; // 최초 3초 지연
-    private static final int MIN_TIMESTAMP_COUNT = 60; // 60초(60개의 고유 타임스탬프)
+    // 학습 데이터 수집용 원시 센서 캡처 (.scap, 외부 앱 폴더의 capture/). 평소에는 끔
+    private static final boolean CAPTURE_RAW_SENSORS = false;
+    private static final long CAPTURE_BLOCK_MS = 60_000L; // 센서마다 1분 구간을 블록 하나로 기록
+    private static final long STATIONARY_LOCATION_INTERVAL_MS = 60_000L; // 정지 상태의 위치 갱신 간격
+    private static final long GPS_SPEED_MAX_AGE_MS = 10_000L; // 이보다 오래된 위치의 속도는 움직임 판정에 쓰지 않음
+    // 파이프라인 지표를 외부 앱 폴더의 metrics/ 에 이 분 수마다, 그리고 서비스 종료 시 덮어씀
+    private static final int METRICS_DUMP_MINUTES = 10;
+    private static final String METRICS_FILE_NAME = "pipeline_metrics.txt";
     private static final String TAG = "SensorDataService";
     private static final String NOTIFICATION_CHANNEL_ID = "sensor_service_channel";
     private static final int NOTIFICATION_ID = 1;
@@ -74,21 +78,36 @@ public class SensorDataService extends Service {
     private TelephonyManager telephonyManager;
     private FusedLocationProviderClient fusedLocationProviderClient;
     private SensorManager sensorManager;
-    private final Handler handler = new Handler(Looper.getMainLooper());
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
-
-    // 센서 데이터 버퍼
-    private final List<Map<String, Object>> gpsBuffer = new ArrayList<>();
-    private final List<Map<String, Object>> apBuffer = new ArrayList<>();
-    private final List<Map<String, Object>> btsBuffer = new ArrayList<>();
-    private final List<Map<String, Object>> imuBuffer = new ArrayList<>();
-
-    // 고유 타임스탬프 추적
-    private final Set<Long> uniqueTimestamps = new HashSet<>();
-
-    private SensorDataProcessor dataProcessor;
+    // 수집 파이프라인: 센서 수집 스레드 -> 집계 스레드 -> 추론 워커 (메인 스레드는 사용하지 않음)
+    // - 수집 스레드: IMU 이벤트, GPS 콜백, 1초 틱(AP/BTS/GPS 기록). 모든 링 버퍼의 유일한 쓰기 스레드
+    // - 집계 스레드: WindowTicker.INFERENCE_HOP_SECONDS 마다 최근 60초 윈도우의 링 버퍼 뷰(락 없이 volatile 시퀀스로 구간 확정)를 만들어 추론 워커로 전달
+    // - 추론 워커: 작은 대기열로 작업을 받아 순서대로 SensorDataProcessor 실행 (밀리면 슬라이딩 윈도우끼리 합침)
+    private HandlerThread captureThread;
+    private HandlerThread aggregationThread;
+    private Handler captureHandler;
+    private Handler aggregationHandler;
+    private final InferenceWorker inferenceWorker = new InferenceWorker("SensorInference", WindowTicker.WINDOW_TICKS);
+
+    // 센서 데이터 버퍼 (채널별 기본형 배열 링 버퍼, 수집 스레드에서만 기록)
+    private final SensorRingBuffer gpsBuffer = SensorBuffers.createGpsBuffer();
+    private final SensorRingBuffer apBuffer = SensorBuffers.createApBuffer();
+    private final SensorRingBuffer btsBuffer = SensorBuffers.createBtsBuffer();
+    private final SensorRingBuffer imuBuffer = SensorBuffers.createImuBuffer();
+
+    // 1초 틱 기록 (수집 스레드 전용). 윈도우 경계를 틱 타임스탬프로 정해 집계 스레드로 넘김 (재생 도구와 같은 규칙)
+    private final WindowTicker windowTicker = new WindowTicker(this::postWindow);
+    // 기기가 가만히 놓여 있으면 IMU 감시 모드, AP/BTS 수집 중지, 추론 생략 (수집 스레드 전용)
+    private final MotionStateDetector motionDetector = new MotionStateDetector();
+    private final PipelineMetrics metrics = SensorDataProcessor.getMetrics();
+    private int metricsMinutes = 0; // 수집 스레드 전용
+
+    private ImuCaptureEngine imuCaptureEngine;
+    private SensorDataProcessor dataProcessor; // 집계 스레드에서만 접근
     private LocationCallback locationCallback;
-    private Location lastKnownLocation;
+    private volatile Location lastKnownLocation; // 초기값은 메인 스레드, 이후 수집 스레드에서 갱신
+
+    private SensorCaptureWriter captureWriter; // 집계 스레드에서만 접근
+    private long captureFrom = -1L;            // 아직 캡처하지 않은 구간의 시작 (수집 스레드 전용)
 
     @Override
     public void onCreate() {
@@ -107,10 +126,20 @@ public class SensorDataService extends Service {
             return;
         }
 
-        executorService.execute(() -> {
+        captureThread = new HandlerThread("SensorCapture", Process.THREAD_PRIORITY_MORE_FAVORABLE);
+        captureThread.start();
+        captureHandler = new Handler(captureThread.getLooper());
+        aggregationThread = new HandlerThread("SensorAggregation", Process.THREAD_PRIORITY_BACKGROUND);
+        aggregationThread.start();
+        aggregationHandler = new Handler(aggregationThread.getLooper());
+
+        aggregationHandler.post(() -> {
             dataProcessor = SensorDataProcessor.getInstance(this);
             Timber.tag(TAG).d("SensorDataProcessor 초기화 완료 (비동기)");
         });
+        if (CAPTURE_RAW_SENSORS) {
+            aggregationHandler.post(this::openCaptureWriter);
+        }
 
         if (ContextCompat.checkSelfPermission(this, android.Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
             fusedLocationProviderClient.getLastLocation()
@@ -122,7 +151,7 @@ public class SensorDataService extends Service {
                     });
         }
 
-        handler.postDelayed(this::startDataCollection, INITIAL_DELAY_MS);
+        captureHandler.postDelayed(this::startDataCollection, INITIAL_DELAY_MS);
     }
 
     private Notification createForegroundNotification() {
@@ -199,35 +228,49 @@ public class SensorDataService extends Service {
     private void startDataCollection() {
         startGPSUpdates();
 
+        // IMU 는 한 번만 등록해 두고 캡처 스레드에서 100Hz 로 리샘플링하여 imuBuffer 에 기록
+        if (sensorManager == null) {
+            Timber.tag(TAG).e("SensorManager가 초기화되지 않음");
+        } else {
+            imuCaptureEngine = new ImuCaptureEngine(sensorManager, imuBuffer, captureHandler);
+            // 1초 구간이 닫힐 때마다 집계 스레드에서 그 구간의 IMU 특성을 미리 계산
+            imuCaptureEngine.setBucketListener(bucketTimestamp ->
+                    aggregationHandler.post(() -> extractImuBucket(bucketTimestamp)));
+            imuCaptureEngine.setMotionListener(this::onMotionSecond);
+            imuCaptureEngine.setMetrics(metrics);
+            if (!imuCaptureEngine.start()) {
+                Timber.tag(TAG).e("IMU 수집 엔진 시작 실패");
+            }
+        }
+
         Runnable dataCollectionRunnable = new Runnable() {
             @Override
             public void run() {
                 long timestamp = System.currentTimeMillis();
-                collectIMUData(timestamp);
-                collectAPData(timestamp);
-                collectBTSData(timestamp);
+                if (!motionDetector.isStationary()) {
+                    // 정지 상태에서는 AP/BTS 를 조회하지 않음 (해당 윈도우는 추론하지 않으므로)
+                    collectAPData(timestamp);
+                    collectBTSData(timestamp);
+                }
                 collectGPSData(timestamp);
 
-                synchronized (uniqueTimestamps) {
-                    uniqueTimestamps.add(timestamp);
-                    if (uniqueTimestamps.size() >= MIN_TIMESTAMP_COUNT) {
-                        processBuffers();
-                    }
+                // 60초가 모인 뒤부터 INFERENCE_HOP_SECONDS 마다 최근 60초 윈도우를 추론
+                windowTicker.tick(timestamp);
+                if (CAPTURE_RAW_SENSORS) {
+                    captureTick(timestamp);
+                }
+                if (metrics.tick(timestamp) && ++metricsMinutes % METRICS_DUMP_MINUTES == 0) {
+                    aggregationHandler.post(() -> dumpMetrics());
                 }
 
-                handler.postDelayed(this, PROCESS_INTERVAL_01);
+                captureHandler.postDelayed(this, PROCESS_INTERVAL_01);
             }
         };
-        handler.post(dataCollectionRunnable);
+        captureHandler.post(dataCollectionRunnable);
     }
 
     private void startGPSUpdates() {
         if (ContextCompat.checkSelfPermission(this, android.Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
-            // LocationRequest.Builder 사용
-            LocationRequest locationRequest = new LocationRequest.Builder(PRIORITY_HIGH_ACCURACY, PROCESS_INTERVAL_01)
-                    .setMinUpdateIntervalMillis(PROCESS_INTERVAL_01 / 2) // setFastestInterval 대체
-                    .build();
-
             locationCallback = new LocationCallback() {
                 @Override
                 public void onLocationResult(@NonNull LocationResult locationResult) {
@@ -239,30 +282,70 @@ public class SensorDataService extends Service {
                 }
             };
 
-            fusedLocationProviderClient.requestLocationUpdates(locationRequest, locationCallback, Looper.getMainLooper());
+            requestLocationUpdates(false);
+        }
+    }
+
+    /** 수집 스레드에서 실행: 이동 중에는 1초 간격 고정밀, 정지 상태에서는 긴 간격의 저전력 위치 갱신을 요청합니다. */
+    private void requestLocationUpdates(boolean stationary) {
+        if (locationCallback == null
+                || ContextCompat.checkSelfPermission(this, android.Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        // LocationRequest.Builder 사용
+        LocationRequest locationRequest = stationary
+                ? new LocationRequest.Builder(PRIORITY_BALANCED_POWER_ACCURACY, STATIONARY_LOCATION_INTERVAL_MS).build()
+                : new LocationRequest.Builder(PRIORITY_HIGH_ACCURACY, PROCESS_INTERVAL_01)
+                        .setMinUpdateIntervalMillis(PROCESS_INTERVAL_01 / 2) // setFastestInterval 대체
+                        .build();
+        // 같은 콜백으로 다시 요청하면 기존 요청을 대체함
+        fusedLocationProviderClient.requestLocationUpdates(locationRequest, locationCallback, captureThread.getLooper());
+    }
+
+    /** 수집 스레드에서 실행: IMU 수집 엔진이 1초마다 알리는 움직임 최대값으로 정지 상태를 판정합니다. */
+    private void onMotionSecond(float peakLinearAccel, float peakGyro) {
+        if (motionDetector.onSecond(peakLinearAccel, peakGyro, recentGpsSpeed())) {
+            applyMotionState(motionDetector.isStationary());
+        }
+    }
+
+    // 최근 위치의 속도 (m/s). 속도가 없거나 오래된 위치이면 0
+    private float recentGpsSpeed() {
+        Location location = lastKnownLocation;
+        if (location == null || !location.hasSpeed()) {
+            return 0f;
+        }
+        long ageMs = (SystemClock.elapsedRealtimeNanos() - location.getElapsedRealtimeNanos()) / 1_000_000L;
+        return ageMs <= GPS_SPEED_MAX_AGE_MS ? location.getSpeed() : 0f;
+    }
+
+    /** 수집 스레드에서 실행: 정지 상태이면 IMU 감시 모드와 저전력 위치 갱신으로, 움직이면 원래 수집으로 되돌립니다. */
+    private void applyMotionState(boolean stationary) {
+        Timber.tag(TAG).d(stationary ? "정지 상태 진입: IMU 감시 모드, AP/BTS 수집과 추론 중지" : "움직임 감지: 수집과 추론 재개");
+        if (imuCaptureEngine != null) {
+            imuCaptureEngine.setMotionWatch(stationary);
         }
+        requestLocationUpdates(stationary);
     }
 
     private void collectGPSData(long timestamp) {
         if (ContextCompat.checkSelfPermission(this, android.Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
-            Map<String, Object> data = new LinkedHashMap<>();
-            data.put("timestamp", timestamp);
+            gpsBuffer.beginRow(timestamp);
 
             if (lastKnownLocation != null) {
-                data.put("latitude", lastKnownLocation.getLatitude());
-                data.put("longitude", lastKnownLocation.getLongitude());
-                data.put("accuracy", lastKnownLocation.getAccuracy());
+                gpsBuffer.setDouble(SensorBuffers.GPS_LATITUDE, lastKnownLocation.getLatitude());
+                gpsBuffer.setDouble(SensorBuffers.GPS_LONGITUDE, lastKnownLocation.getLongitude());
+                gpsBuffer.setFloat(SensorBuffers.GPS_ACCURACY, lastKnownLocation.getAccuracy());
 //                Timber.tag(TAG).d("GPS 데이터 추가: %f, %f", lastKnownLocation.getLatitude(), lastKnownLocation.getLongitude());
             } else {
-                data.put("latitude", 0.0);
-                data.put("longitude", 0.0);
-                data.put("accuracy", 0.0f);
+                gpsBuffer.setDouble(SensorBuffers.GPS_LATITUDE, 0.0);
+                gpsBuffer.setDouble(SensorBuffers.GPS_LONGITUDE, 0.0);
+                gpsBuffer.setFloat(SensorBuffers.GPS_ACCURACY, 0.0f);
                 Timber.tag(TAG).w("GPS 데이터 없음, 기본값 사용");
             }
 
-            synchronized (gpsBuffer) {
-                gpsBuffer.add(data);
-            }
+            gpsBuffer.commitRow();
+            metrics.increment(Counter.GPS_ROWS);
         }
     }
 
@@ -272,22 +355,14 @@ public class SensorDataService extends Service {
                 if (wifiManager != null) {
                     List<ScanResult> scanResults = wifiManager.getScanResults();
                     if (!scanResults.isEmpty()) {
+                        // ssid, capabilities 는 APProcessor 에서 사용하지 않으므로 저장하지 않음
                         ScanResult scanResult = scanResults.get(0);
-                        String ssid = "UNKNOWN_SSID";
-                        if (ContextCompat.checkSelfPermission(this, android.Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
-                            WifiInfo wifiInfo = wifiManager.getConnectionInfo();
-                            ssid = wifiInfo.getSSID();
-                        }
-                        Map<String, Object> data = new LinkedHashMap<>();
-                        data.put("timestamp", timestamp);
-                        data.put("bssid", scanResult.BSSID);
-                        data.put("ssid", ssid);
-                        data.put("level", (float) scanResult.level);
-                        data.put("frequency", (float) scanResult.frequency);
-                        data.put("capabilities", scanResult.capabilities);
-                        synchronized (apBuffer) {
-                            apBuffer.add(data);
-                        }
+                        apBuffer.beginRow(timestamp);
+                        apBuffer.setLong(SensorBuffers.AP_BSSID, SensorBuffers.bssidKey(scanResult.BSSID));
+                        apBuffer.setFloat(SensorBuffers.AP_LEVEL, scanResult.level);
+                        apBuffer.setFloat(SensorBuffers.AP_FREQUENCY, scanResult.frequency);
+                        apBuffer.commitRow();
+                        metrics.increment(Counter.AP_ROWS);
                     }
                 }
             } catch (SecurityException e) {
@@ -304,13 +379,11 @@ public class SensorDataService extends Service {
                     for (CellInfo cellInfo : cellInfoList) {
                         if (cellInfo instanceof CellInfoLte) {
                             CellIdentityLte cellIdentity = ((CellInfoLte) cellInfo).getCellIdentity();
-                            Map<String, Object> data = new LinkedHashMap<>();
-                            data.put("timestamp", timestamp);
-                            data.put("ci", cellIdentity.getCi());
-                            data.put("pci", cellIdentity.getPci());
-                            synchronized (btsBuffer) {
-                                btsBuffer.add(data);
-                            }
+                            btsBuffer.beginRow(timestamp);
+                            btsBuffer.setLong(SensorBuffers.BTS_CI, cellIdentity.getCi());
+                            btsBuffer.setLong(SensorBuffers.BTS_PCI, cellIdentity.getPci());
+                            btsBuffer.commitRow();
+                            metrics.increment(Counter.BTS_ROWS);
                         }
                     }
                 }
@@ -320,270 +393,197 @@ public class SensorDataService extends Service {
         }
     }
 
-    private void collectIMUData(long timestamp) {
-        if (sensorManager == null) {
-            Timber.tag(TAG).e("SensorManager가 초기화되지 않음");
-            return;
+    /**
+     * 수집 스레드에서 실행: WindowTicker 가 정한 최대 60초 윈도우를 집계 스레드로 넘깁니다.
+     * newSeconds 는 직전에 넘긴 윈도우 이후의 초 수입니다. 추론 워커는 넘긴 윈도우를 모두 순서대로 실행하고,
+     * 밀려서 윈도우를 합칠 때는 두 윈도우의 새 초 수를 더해 넘기므로 저장되는 초가 빠지거나 겹치지 않습니다.
+     * @param finalWindow 수집 종료 시 마지막 윈도우이면 true (처리 후 병합 중인 세그먼트까지 저장)
+     */
+    private void postWindow(long fromTimestamp, long toTimestamp, int newSeconds, boolean finalWindow) {
+        if (motionDetector.isStationary()) {
+            aggregationHandler.post(() -> recordStationaryWindow(newSeconds, finalWindow));
+        } else {
+            long postedNanos = System.nanoTime();
+            aggregationHandler.post(() -> processWindow(fromTimestamp, toTimestamp, newSeconds, finalWindow, postedNanos));
         }
+    }
 
-        // 각 센서가 존재하는지 확인하고, 없으면 경고 로그를 남깁니다.
-        Sensor accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
-        Sensor gyroscope = sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE);
-        Sensor magnetometer = sensorManager.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD);
-        Sensor rotationVector = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
-        Sensor pressureSensor = sensorManager.getDefaultSensor(Sensor.TYPE_PRESSURE);
-        Sensor gravitySensor = sensorManager.getDefaultSensor(Sensor.TYPE_GRAVITY);
-        Sensor linearAccelSensor = sensorManager.getDefaultSensor(Sensor.TYPE_LINEAR_ACCELERATION);
-
-        if (accelerometer == null || gyroscope == null || magnetometer == null ||
-                rotationVector == null || pressureSensor == null ||
-                gravitySensor == null || linearAccelSensor == null) {
-            Timber.tag(TAG).e("필요한 센서가 장치에 없음");
+    /** 집계 스레드에서 실행: 정지 상태의 윈도우는 스냅샷과 특성 추출 없이 STOP 으로 처리하도록 넘깁니다. */
+    private void recordStationaryWindow(int newSeconds, boolean finalWindow) {
+        if (dataProcessor == null) {
             return;
         }
-
-        final List<Map<String, Object>> tempImuBuffer = new ArrayList<>(MAX_IMU_PER_SECOND);
-        final long startTime = timestamp;
-
-        // isAllSet() 과 boolean 플래그를 제거하고, 단순히 최신 값을 저장하는 홀더로 변경
-        class SensorDataHolder {
-            final float[] accel = new float[3];
-            final float[] gyro = new float[3];
-            final float[] mag = new float[3];
-            final float[] rot = new float[4];
-            final float[] pressure = new float[1];
-            final float[] gravity = new float[3];
-            final float[] linear = new float[3];
-            boolean accelSet, gyroSet, magSet, rotSet, pressureSet, gravitySet, linearSet;
-
-            void update(SensorEvent event) {
-                switch (event.sensor.getType()) {
-                    case Sensor.TYPE_ACCELEROMETER:
-                        System.arraycopy(event.values, 0, accel, 0, 3);
-                        accelSet = true;
-                        break;
-                    case Sensor.TYPE_GYROSCOPE:
-                        System.arraycopy(event.values, 0, gyro, 0, 3);
-                        gyroSet = true;
-                        break;
-                    case Sensor.TYPE_MAGNETIC_FIELD:
-                        System.arraycopy(event.values, 0, mag, 0, 3);
-                        magSet = true;
-                        break;
-                    case Sensor.TYPE_ROTATION_VECTOR:
-                        System.arraycopy(event.values, 0, rot, 0, Math.min(event.values.length, 4));
-                        rotSet = true;
-                        // Rotation Vector는 값이 3, 4, 5개일 수 있으므로 안전하게 처리
-                        int rotLength = Math.min(event.values.length, 4);
-                        System.arraycopy(event.values, 0, rot, 0, rotLength);
-                        break;
-                    case Sensor.TYPE_PRESSURE:
-                        pressure[0] = event.values[0];
-                        pressureSet = true;
-                        break;
-                    case Sensor.TYPE_GRAVITY:
-                        System.arraycopy(event.values, 0, gravity, 0, 3);
-                        gravitySet = true;
-                        break;
-                    case Sensor.TYPE_LINEAR_ACCELERATION:
-                        System.arraycopy(event.values, 0, linear, 0, 3);
-                        linearSet = true;
-                        break;
-                }
-            }
-
-            boolean isAllSet() {
-                return accelSet && gyroSet && magSet && rotSet && pressureSet && gravitySet && linearSet;
-            }
-        }
-
-        final SensorDataHolder sensorData = new SensorDataHolder();
-
-        SensorEventListener listener = new SensorEventListener() {
-            @Override
-            public void onSensorChanged(SensorEvent event) {
-                // 센서 이벤트가 발생할 때마다 홀더의 값을 최신으로 업데이트
-                sensorData.update(event);
+        SensorDataProcessor processor = dataProcessor;
+        inferenceWorker.submit(() -> {
+            processor.recordStationary(newSeconds);
+            if (finalWindow) {
+                processor.flushSegments();
             }
+        });
+    }
 
-            @Override
-            public void onAccuracyChanged(Sensor sensor, int accuracy) {}
-        };
-
-        sensorManager.registerListener(listener, accelerometer, SensorManager.SENSOR_DELAY_FASTEST);
-        sensorManager.registerListener(listener, gyroscope, SensorManager.SENSOR_DELAY_FASTEST);
-        sensorManager.registerListener(listener, magnetometer, SensorManager.SENSOR_DELAY_FASTEST);
-        sensorManager.registerListener(listener, rotationVector, SensorManager.SENSOR_DELAY_FASTEST);
-        sensorManager.registerListener(listener, pressureSensor, SensorManager.SENSOR_DELAY_FASTEST);
-        sensorManager.registerListener(listener, gravitySensor, SensorManager.SENSOR_DELAY_FASTEST);
-        sensorManager.registerListener(listener, linearAccelSensor, SensorManager.SENSOR_DELAY_FASTEST);
-
-        Runnable imuCollector = new Runnable() {
-            private int seq_counter = 0;
-
-            @Override
-            public void run() {
-                if (seq_counter >= MAX_IMU_PER_SECOND || System.currentTimeMillis() - startTime >= 1000) {
-                    // 1초가 지나거나 최대 샘플 수에 도달하면 모든 센서 리스너를 해제
-                    sensorManager.unregisterListener(listener);
-                    if (!tempImuBuffer.isEmpty()) {
-                        synchronized (imuBuffer) {
-                            imuBuffer.addAll(tempImuBuffer);
-                        }
-                    }
-                    Timber.d("IMU 1초 수집 완료, 샘플 수: %d", tempImuBuffer.size());
-                    return;
-                }
-
-                if (sensorData.isAllSet()) {
-                    Map<String, Object> data = new LinkedHashMap<>();
-                    data.put("timestamp", startTime);
-                    data.put("seq", seq_counter++);
-                    data.put("accel.x", sensorData.accel[0]);
-                    data.put("accel.y", sensorData.accel[1]);
-                    data.put("accel.z", sensorData.accel[2]);
-                    data.put("gyro.x", sensorData.gyro[0]);
-                    data.put("gyro.y", sensorData.gyro[1]);
-                    data.put("gyro.z", sensorData.gyro[2]);
-                    data.put("mag.x", sensorData.mag[0]);
-                    data.put("mag.y", sensorData.mag[1]);
-                    data.put("mag.z", sensorData.mag[2]);
-                    float[] quat = new float[4];
-                    SensorManager.getQuaternionFromVector(quat, sensorData.rot);
-                    data.put("rot.w", quat[0]);
-                    data.put("rot.x", quat[1]);
-                    data.put("rot.y", quat[2]);
-                    data.put("rot.z", quat[3]);
-                    data.put("pressure", sensorData.pressure[0]);
-                    data.put("gravity.x", sensorData.gravity[0]);
-                    data.put("gravity.y", sensorData.gravity[1]);
-                    data.put("gravity.z", sensorData.gravity[2]);
-                    data.put("linear_accel.x", sensorData.linear[0]);
-                    data.put("linear_accel.y", sensorData.linear[1]);
-                    data.put("linear_accel.z", sensorData.linear[2]);
-                    tempImuBuffer.add(data);
+    /** 수집 스레드에서 실행: 아직 추론하지 않은 마지막 초들을 처리하도록 마지막 윈도우를 넘깁니다. */
+    private void flushPendingWindow() {
+        if (!windowTicker.flush()) {
+            aggregationHandler.post(() -> {
+                if (dataProcessor != null) {
+                    SensorDataProcessor processor = dataProcessor;
+                    inferenceWorker.submit(processor::flushSegments);
                 }
-                handler.postDelayed(this, IMU_INTERVAL_MS);
-            }
-        };
+            });
+        }
+    }
 
-        handler.post(imuCollector);
+    /** 집계 스레드에서 실행: 닫힌 1초 IMU 구간의 특성을 계산해 SensorDataProcessor 의 캐시에 넣습니다. */
+    private void extractImuBucket(long bucketTimestamp) {
+        if (dataProcessor != null) {
+            dataProcessor.extractImuFeatures(imuBuffer.window(bucketTimestamp, bucketTimestamp + 1));
+        }
     }
 
-    private void processBuffers() {
-        synchronized (gpsBuffer) {
-            synchronized (apBuffer) {
-                synchronized (btsBuffer) {
-                    synchronized (imuBuffer) {
-                        synchronized (uniqueTimestamps) {
-                            if (uniqueTimestamps.size() >= MIN_TIMESTAMP_COUNT) {
-                                Timber.tag(TAG).d("60초 데이터 수집 완료 - GPS: %d, AP: %d, BTS: %d, IMU: %d",
-                                        gpsBuffer.size(), apBuffer.size(), btsBuffer.size(), imuBuffer.size());
-
-                                List<Map<String, Object>> gpsDataCopy = cloneData(gpsBuffer);
-                                List<Map<String, Object>> apDataCopy = cloneData(apBuffer);
-                                List<Map<String, Object>> btsDataCopy = cloneData(btsBuffer);
-                                List<Map<String, Object>> imuDataCopy = cloneData(imuBuffer);
-
-                                // =============================================================
-                                // 여기에 CSV 저장 코드를 호출합니다.
-                                // 파일 I/O는 시간이 걸릴 수 있으므로 백그라운드 스레드에서 실행합니다.
-//                                executorService.execute(() -> saveImuDataToCsv(imuDataCopy));
-                                // =============================================================
-
-                                if (dataProcessor != null) {
-                                    executorService.execute(() -> {
-                                        dataProcessor.processSensorData(gpsDataCopy, apDataCopy, btsDataCopy, imuDataCopy);
-                                        Timber.tag(TAG).d("SensorDataProcessor 처리 완료");
-                                    });
-                                } else {
-                                    Timber.tag(TAG).w("SensorDataProcessor가 초기화 되지 않음");
-                                }
-
-                                gpsBuffer.clear();
-                                apBuffer.clear();
-                                btsBuffer.clear();
-                                imuBuffer.clear();
-                                uniqueTimestamps.clear();
-                            }
-                        }
-                    }
+    /**
+     * 집계 스레드에서 실행: [fromTimestamp, toTimestamp) 윈도우의 스냅샷을 만들어 추론 워커로 넘깁니다.
+     * @param postedNanos 수집 스레드가 윈도우를 넘긴 시각 (추론 워커가 받을 때까지를 hand-off 지연으로 기록)
+     */
+    private void processWindow(long fromTimestamp, long toTimestamp, int newSeconds, boolean finalWindow, long postedNanos) {
+        // 뷰는 집계 스레드에서만 만들고, 각 버퍼의 쓰기 스레드는 수집 스레드 하나뿐이므로 락이 필요 없음
+        SensorSnapshot gpsSnapshot = gpsBuffer.window(fromTimestamp, toTimestamp);
+        SensorSnapshot apSnapshot = apBuffer.window(fromTimestamp, toTimestamp);
+        SensorSnapshot btsSnapshot = btsBuffer.window(fromTimestamp, toTimestamp);
+        SensorSnapshot imuSnapshot = imuBuffer.window(fromTimestamp, toTimestamp);
+
+        Timber.tag(TAG).d("윈도우 데이터 (새 %d초) - GPS: %d, AP: %d, BTS: %d, IMU: %d",
+                newSeconds, gpsSnapshot.size(), apSnapshot.size(), btsSnapshot.size(), imuSnapshot.size());
+
+        if (dataProcessor != null) {
+            SensorDataProcessor processor = dataProcessor;
+            IntConsumer job = seconds -> {
+                metrics.recordSince(PipelineMetrics.Stage.HANDOFF, postedNanos);
+                processor.processSensorData(gpsSnapshot, apSnapshot, btsSnapshot, imuSnapshot, seconds);
+                if (finalWindow) {
+                    processor.flushSegments();
                 }
+                Timber.tag(TAG).d("SensorDataProcessor 처리 완료");
+            };
+            if (finalWindow) {
+                // 마지막 윈도우 뒤에는 세그먼트 저장이 따라오므로 합치지 않음
+                inferenceWorker.submit(() -> job.accept(newSeconds));
+            } else if (!inferenceWorker.submitWindow(newSeconds, job)) {
+                metrics.increment(Counter.COALESCED_WINDOWS);
             }
+        } else {
+            Timber.tag(TAG).w("SensorDataProcessor가 초기화 되지 않음");
         }
     }
 
-    private List<Map<String, Object>> cloneData(List<Map<String, Object>> originalList) {
-        List<Map<String, Object>> clonedList = new ArrayList<>();
-        for (Map<String, Object> originalMap : originalList) {
-            Map<String, Object> clonedMap = new LinkedHashMap<>(originalMap);
-            clonedList.add(clonedMap);
+    /** 집계 스레드에서 실행: 파이프라인 지표 보고서를 파일로 덮어씁니다. */
+    private void dumpMetrics() {
+        File dir = getExternalFilesDir("metrics");
+        if (dir == null) {
+            Timber.tag(TAG).w("외부 저장소를 사용할 수 없어 지표 기록을 건너뜀");
+            return;
+        }
+        try {
+            metrics.dump(new File(dir, METRICS_FILE_NAME));
+            Timber.tag(TAG).d("파이프라인 지표 기록\n%s", metrics.report());
+        } catch (IOException e) {
+            Timber.tag(TAG).e(e, "파이프라인 지표 기록 실패");
         }
-        return clonedList;
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
-        handler.removeCallbacksAndMessages(null);
+        if (imuCaptureEngine != null) {
+            imuCaptureEngine.stop();
+        }
         if (locationCallback != null) {
             fusedLocationProviderClient.removeLocationUpdates(locationCallback);
         }
-        processBuffers();
-        executorService.shutdown();
+        if (captureThread != null) {
+            // 수집 틱을 멈추고, 아직 추론하지 않은 마지막 초들을 처리한 뒤 집계 스레드와 워커를 순서대로 종료
+            captureHandler.removeCallbacksAndMessages(null);
+            captureHandler.post(() -> {
+                if (CAPTURE_RAW_SENSORS) {
+                    long to = System.currentTimeMillis() + 1;
+                    long from = captureFrom;
+                    aggregationHandler.post(() -> {
+                        writeCaptureBlocks(from, to);
+                        closeCaptureWriter();
+                    });
+                }
+                flushPendingWindow();
+                aggregationHandler.post(this::dumpMetrics);
+                aggregationHandler.post(inferenceWorker::shutdown);
+                aggregationThread.quitSafely();
+            });
+            captureThread.quitSafely();
+        } else {
+            inferenceWorker.shutdown();
+        }
         stopForeground(true);
     }
 
     /**
-     * IMU 데이터 리스트를 외부 저장소의 Download 폴더에 CSV 파일로 저장합니다.
-     * @param imuDataList 저장할 IMU 데이터.
+     * 수집 스레드에서 실행: 1분이 쌓일 때마다 지난 구간을 캡처하도록 집계 스레드에 넘깁니다.
+     * IMU 배치 지연을 고려해 윈도우와 같이 구간 끝을 {@link WindowTicker#WINDOW_LAG_TICKS} 틱 늦춥니다.
      */
-    private void saveImuDataToCsv(List<Map<String, Object>> imuDataList) {
-        // 저장할 데이터가 없으면 아무것도 하지 않음
-        if (imuDataList == null || imuDataList.isEmpty()) {
-            Timber.tag(TAG).w("저장할 IMU 데이터가 없습니다.");
+    private void captureTick(long timestamp) {
+        if (captureFrom < 0) {
+            captureFrom = timestamp;
             return;
         }
+        long to = timestamp - (long) WindowTicker.WINDOW_LAG_TICKS * WindowTicker.TICK_INTERVAL_MS;
+        if (to - captureFrom >= CAPTURE_BLOCK_MS) {
+            long from = captureFrom;
+            aggregationHandler.post(() -> writeCaptureBlocks(from, to));
+            captureFrom = to;
+        }
+    }
 
-        // 파일 이름에 타임스탬프를 넣어 고유하게 만듭니다.
-        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
-        String fileName = "imu_data_" + timeStamp + ".csv";
-
-        // 파일을 저장할 경로를 지정합니다. (공용 Download 폴더)
-        File path = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
-        File file = new File(path, fileName);
-
-        // try-with-resources 구문을 사용하여 파일 쓰기 후 리소스가 자동으로 닫히도록 합니다.
-        try (FileWriter fw = new FileWriter(file);
-             BufferedWriter bw = new BufferedWriter(fw)) {
+    /** 집계 스레드에서 실행: 캡처 파일을 새로 엽니다. 센서 번호는 gps, ap, bts, imu 순서입니다. */
+    private void openCaptureWriter() {
+        File dir = getExternalFilesDir("capture");
+        if (dir == null) {
+            Timber.tag(TAG).w("외부 저장소를 사용할 수 없어 센서 캡처를 건너뜀");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String name = "capture_" + new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.US).format(new Date(now)) + ".scap";
+        try {
+            captureWriter = new SensorCaptureWriter(new File(dir, name), now, gpsBuffer, apBuffer, btsBuffer, imuBuffer);
+            Timber.tag(TAG).d("센서 캡처 시작: %s", name);
+        } catch (IOException e) {
+            Timber.tag(TAG).e(e, "센서 캡처 파일 생성 실패");
+        }
+    }
 
-            // 1. CSV 헤더(머리글) 작성
-            // 첫 번째 데이터의 키들을 가져와 헤더로 사용합니다.
-            Map<String, Object> firstPoint = imuDataList.get(0);
-            StringBuilder header = new StringBuilder();
-            for (String key : firstPoint.keySet()) {
-                header.append(key).append(",");
-            }
-            // 마지막 쉼표 제거 및 줄바꿈
-            bw.write(header.substring(0, header.length() - 1));
-            bw.newLine();
-
-            // 2. 데이터 행 작성
-            for (Map<String, Object> dataPoint : imuDataList) {
-                StringBuilder row = new StringBuilder();
-                for (Object value : dataPoint.values()) {
-                    row.append(value.toString()).append(",");
-                }
-                // 마지막 쉼표 제거 및 줄바꿈
-                bw.write(row.substring(0, row.length() - 1));
-                bw.newLine();
+    /** 집계 스레드에서 실행: [fromTimestamp, toTimestamp) 구간을 센서마다 블록 하나로 캡처 파일에 이어 씁니다. */
+    private void writeCaptureBlocks(long fromTimestamp, long toTimestamp) {
+        if (captureWriter == null || fromTimestamp < 0) {
+            return;
+        }
+        SensorRingBuffer[] buffers = {gpsBuffer, apBuffer, btsBuffer, imuBuffer};
+        try {
+            for (int sensorId = 0; sensorId < buffers.length; sensorId++) {
+                captureWriter.writeBlock(sensorId, buffers[sensorId].window(fromTimestamp, toTimestamp));
             }
+        } catch (IOException e) {
+            Timber.tag(TAG).e(e, "센서 캡처 기록 실패, 캡처 중단");
+            closeCaptureWriter();
+        }
+    }
 
-            bw.flush(); // 버퍼에 남은 내용을 파일에 모두 씁니다.
-            Timber.tag(TAG).d("IMU 데이터가 CSV 파일로 성공적으로 저장되었습니다: %s", file.getAbsolutePath());
-
+    private void closeCaptureWriter() {
+        if (captureWriter == null) {
+            return;
+        }
+        try {
+            captureWriter.close();
+            Timber.tag(TAG).d("센서 캡처 종료 (%d bytes)", captureWriter.length());
         } catch (IOException e) {
-            Timber.tag(TAG).e(e, "IMU 데이터를 CSV 파일로 저장하는 중 오류 발생");
+            Timber.tag(TAG).e(e, "센서 캡처 파일 닫기 실패");
         }
+        captureWriter = null;
     }
 }
@@ -0,0 +1,164 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import android.os.Process;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import timber.log.Timber;
+
+/**
+ * 추론 작업을 처리하는 단일 백그라운드 워커.
+ * <p>
+ * 작업은 락 없는 대기열(ConcurrentLinkedDeque)로 넘겨받아 넘겨받은 순서대로 하나씩 실행하며 버리지 않습니다.
+ * 넘기는 쪽은 락을 잡지 않으므로 추론이 오래 걸려도 집계 스레드가 워커를 기다리지 않습니다.
+ * 실행기에 drain 을 예약하는 것은 워커가 쉬고 있을 때(대기 작업 수가 0 에서 1 이 될 때)뿐입니다.
+ * <p>
+ * 추론이 밀려 {@link #MAX_PENDING_JOBS}개가 대기 중인 상태에서 슬라이딩 윈도우가 또 오면, 대기열 맨 끝의 슬라이딩 윈도우 칸을
+ * CAS 로 새 윈도우로 바꾸고 바뀐 윈도우의 새 초 수를 새 윈도우에 더합니다. 새 윈도우가 이전 윈도우의 새 초들까지 덮으므로
+ * 저장되는 초는 빠지지 않습니다. 워커가 그 칸을 먼저 가져갔으면 CAS 가 실패하고 새 윈도우는 대기열에 그대로 들어갑니다.
+ * 정지 상태 윈도우, 마지막 윈도우, 세그먼트 저장 같은 순서 작업({@link #submit(Runnable)})은 합치지 않고 항상 대기열에 넣습니다.
+ * <p>
+ * 작업을 넘기는 스레드는 하나(집계 스레드)여야 합니다. 맨 끝 칸({@code tail})은 그 스레드만 바꿉니다.
+ */
+public class InferenceWorker {
+    private static final String TAG = "InferenceWorker";
+
+    /** 대기 작업 수 상한. 이보다 많이 밀리면 슬라이딩 윈도우를 합침 */
+    public static final int MAX_PENDING_JOBS = 4;
+
+    private final ExecutorService executor;
+    private final int maxWindowSeconds;
+    private final ConcurrentLinkedDeque<Job> jobs = new ConcurrentLinkedDeque<>();
+    // 대기 중이거나 실행 중인 작업 수. 0 에서 1 이 될 때만 drain 을 예약
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // 대기열 맨 끝이 슬라이딩 윈도우이면 그 칸, 아니면 null
+    private final AtomicReference<Job> tail = new AtomicReference<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedSeconds = new AtomicLong();
+
+    /**
+     * @param maxWindowSeconds 윈도우 하나가 덮는 최대 초 수. 합친 새 초 수가 이를 넘으면 넘는 초는 윈도우 밖이므로 버림
+     */
+    public InferenceWorker(String threadName, int maxWindowSeconds) {
+        this.maxWindowSeconds = maxWindowSeconds;
+        executor = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, threadName));
+    }
+
+    /** 순서 작업을 넘깁니다. 다른 작업과 합치지 않고 항상 실행합니다. */
+    public void submit(Runnable job) {
+        // 뒤에 순서 작업이 오면 이전 윈도우와는 더 이상 합칠 수 없음
+        tail.set(null);
+        enqueue(new Job(new Task(0, seconds -> job.run())));
+    }
+
+    /**
+     * 슬라이딩 윈도우 작업을 넘깁니다. 대기열이 찼고 맨 끝 작업이 아직 시작되지 않은 슬라이딩 윈도우이면 그 작업을 이 작업으로 바꿉니다.
+     * @param newSeconds 이 윈도우에서 새로 들어온 초 수
+     * @param task 실행할 때 저장할 새 초 수(합쳐졌으면 바뀐 윈도우의 초 포함)를 받음
+     * @return 대기 중이던 윈도우와 합쳤으면 false
+     */
+    public boolean submitWindow(int newSeconds, IntConsumer task) {
+        Job last = tail.get();
+        if (last != null && pendingCount.get() > MAX_PENDING_JOBS && !executor.isShutdown()) {
+            Task waiting = last.task.get();
+            if (waiting != null) {
+                int merged = waiting.newSeconds + newSeconds;
+                int dropped = Math.max(0, merged - maxWindowSeconds);
+                if (last.task.compareAndSet(waiting, new Task(merged - dropped, task))) {
+                    if (dropped > 0) {
+                        Timber.tag(TAG).w("합친 윈도우가 %d초를 넘어 %d초를 버림 (누적 %d초)",
+                                maxWindowSeconds, dropped, droppedSeconds.addAndGet(dropped));
+                    }
+                    // 이미 drain 이 예약된 칸을 그대로 쓰므로 새로 예약하지 않음
+                    Timber.tag(TAG).w("추론 대기열이 가득 참. 대기 윈도우를 새 윈도우와 합침 (누적 %d건)", coalescedCount.incrementAndGet());
+                    return false;
+                }
+            }
+            // 워커가 그 칸을 먼저 가져감. 새 칸으로 넣음
+        }
+        Job job = new Job(new Task(newSeconds, task));
+        if (enqueue(job)) {
+            tail.set(job);
+        }
+        return true;
+    }
+
+    private boolean enqueue(Job job) {
+        if (executor.isShutdown()) {
+            Timber.tag(TAG).w("워커가 종료됨. 작업 무시");
+            return false;
+        }
+        // 개수보다 먼저 넣어야 drain 이 센 작업을 항상 꺼낼 수 있음
+        jobs.addLast(job);
+        if (pendingCount.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                Timber.tag(TAG).w("워커가 종료됨. 작업 무시");
+                jobs.remove(job);
+                pendingCount.decrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 워커 스레드에서 실행: 대기 작업 수가 0 이 될 때까지 순서대로 실행합니다. */
+    private void drain() {
+        do {
+            Job job = jobs.pollFirst();
+            // 칸을 비워 가져가면 이후 CAS 합치기는 실패하고 새 칸으로 들어감
+            Task task = job != null ? job.task.getAndSet(null) : null;
+            if (task != null) {
+                try {
+                    task.run.accept(task.newSeconds);
+                } catch (RuntimeException e) {
+                    Timber.tag(TAG).e(e, "추론 작업 실행 중 오류");
+                }
+            }
+        } while (pendingCount.decrementAndGet() > 0);
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public long getDroppedSeconds() {
+        return droppedSeconds.get();
+    }
+
+    /** 대기 중인 작업까지 처리한 뒤 워커를 종료합니다. */
+    public void shutdown() {
+        tail.set(null);
+        executor.shutdown();
+    }
+
+    /** 대기열의 한 칸. 워커가 가져가면 null 이 됨 */
+    private static final class Job {
+        final AtomicReference<Task> task;
+
+        Job(Task task) {
+            this.task = new AtomicReference<>(task);
+        }
+    }
+
+    private static final class Task {
+        final int newSeconds;
+        final IntConsumer run;
+
+        Task(int newSeconds, IntConsumer run) {
+            this.newSeconds = newSeconds;
+            this.run = run;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import android.os.Process;
+
+import com.example.myapplication12345.AI.metrics.PipelineMetrics;
+
+import org.pytorch.IValue;
+import org.pytorch.Module;
+import org.pytorch.Tensor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import timber.log.Timber;
+
+/**
+ * 여러 이동 수단 분류 모델의 softmax 확률을 평균내는 앙상블 실행기.
+ * <p>
+ * 실행 방식은 세 가지입니다.
+ * <ul>
+ *   <li>{@link Mode#SEQUENTIAL}: 호출 스레드에서 모델을 차례로 실행 (기존 방식)</li>
+ *   <li>{@link Mode#PARALLEL}: 작은 추론 풀에서 모델을 동시에 실행. 입력 텐서는 읽기 전용으로 공유</li>
+ *   <li>{@link Mode#FUSED}: 빌드 시 세 모델을 묶어 만든 모듈 하나가 forward 한 번으로 평균 확률을 반환
+ *       (tools/fuse_ensemble.py 로 생성, 에셋에 있을 때만 사용)</li>
+ * </ul>
+ * 기기마다 빠른 방식이 다르므로 처음 몇 윈도우 동안 가능한 방식을 번갈아 실행해 지연 시간을 재고,
+ * 가장 빠른 방식으로 고정합니다. 모델별 forward 지연 시간도 함께 기록합니다.
+ * <p>
+ * {@link CascadeGate} 를 주면 방식을 고정한 뒤부터 캐스케이드로 실행합니다. 측정된 가장 빠른 모델 하나를 먼저 실행해
+ * 확신이 충분하면 그 확률을 그대로 쓰고, 아니면 나머지 모델까지 실행해 평균냅니다 (먼저 실행한 모델의 결과는 다시 계산하지 않음).
+ * 고정된 방식이 {@link Mode#FUSED} 이면 캐스케이드를 쓰지 않습니다. 통합 모듈은 먼저 실행한 모델의 결과를 재사용할 수 없어,
+ * 확신이 부족한 윈도우마다 개별 모델 forward 한 번에 통합 forward 한 번이 더해지기 때문입니다.
+ * <p>
+ * {@link PipelineMetrics} 를 주면 모델별(model0, model1, ..., fused) forward 지연 분포도 기록합니다.
+ * <p>
+ * {@link #predict} 는 한 스레드(추론 워커)에서만 호출해야 합니다.
+ */
+public class ModelEnsemble {
+    private static final String TAG = "ModelEnsemble";
+
+    public enum Mode { SEQUENTIAL, PARALLEL, FUSED }
+
+    private static final int WARMUP_ROUNDS = 1;    // 방식별 첫 실행(지연 로딩/초기화 포함)은 측정에서 제외
+    private static final int MEASURE_ROUNDS = 3;   // 방식별 측정 횟수
+    private static final int CASCADE_LOG_INTERVAL = 60; // 캐스케이드 통계를 이 윈도우 수마다 기록 (10초 간격 기준 10분)
+
+    private final List<Module> models;
+    private final Module fusedModel; // 없으면 null
+    private final int numClasses;
+    private final ExecutorService pool; // 모델이 하나뿐이면 null
+
+    private final Mode[] candidates;
+    private final long[] modeNanos;
+    private final int[] modeRuns;
+    private int calibrationCalls = 0;
+    private volatile Mode selectedMode; // 측정이 끝나기 전에는 null
+    private CascadeGate cascade;        // null 이면 항상 전체 앙상블
+    private int cascadeModel = -1;      // 캐스케이드에서 먼저 실행할 모델 (측정이 끝나기 전이나 캐스케이드를 쓰지 않으면 -1)
+    private final PipelineMetrics metrics; // null 이면 지연 분포를 기록하지 않음
+    private final String[] modelNames;
+
+    // 모델별 forward 누적 시간/횟수 (풀 스레드에서도 기록)
+    private final AtomicLongArray modelNanos;
+    private final AtomicLongArray modelRuns;
+
+    /**
+     * @param models 개별 모델 (순서대로 평균)
+     * @param fusedModel 평균 확률을 바로 반환하는 통합 모듈. 없으면 null
+     * @param numClasses 모델 출력 클래스 수
+     */
+    public ModelEnsemble(List<Module> models, Module fusedModel, int numClasses) {
+        this(models, fusedModel, numClasses, null);
+    }
+
+    /**
+     * @param models 개별 모델 (순서대로 평균)
+     * @param fusedModel 평균 확률을 바로 반환하는 통합 모듈. 없으면 null
+     * @param numClasses 모델 출력 클래스 수
+     * @param cascade 캐스케이드 조기 종료 판정. null 이면 항상 모든 모델을 실행
+     */
+    public ModelEnsemble(List<Module> models, Module fusedModel, int numClasses, CascadeGate cascade) {
+        this(models, fusedModel, numClasses, cascade, null);
+    }
+
+    /**
+     * @param models 개별 모델 (순서대로 평균)
+     * @param fusedModel 평균 확률을 바로 반환하는 통합 모듈. 없으면 null
+     * @param numClasses 모델 출력 클래스 수
+     * @param cascade 캐스케이드 조기 종료 판정. null 이면 항상 모든 모델을 실행
+     * @param metrics 모델별 forward 지연을 기록할 지표. null 이면 기록하지 않음
+     */
+    public ModelEnsemble(List<Module> models, Module fusedModel, int numClasses, CascadeGate cascade,
+                         PipelineMetrics metrics) {
+        this.cascade = models.size() > 1 ? cascade : null;
+        this.metrics = metrics;
+        this.models = Collections.unmodifiableList(new ArrayList<>(models));
+        this.fusedModel = fusedModel;
+        this.numClasses = numClasses;
+        this.modelNanos = new AtomicLongArray(this.models.size());
+        this.modelRuns = new AtomicLongArray(this.models.size());
+        this.modelNames = new String[this.models.size()];
+        for (int i = 0; i < modelNames.length; i++) {
+            modelNames[i] = "model" + i;
+        }
+
+        List<Mode> modes = new ArrayList<>();
+        if (!this.models.isEmpty()) modes.add(Mode.SEQUENTIAL);
+        if (this.models.size() > 1) modes.add(Mode.PARALLEL);
+        if (fusedModel != null) modes.add(Mode.FUSED);
+        this.candidates = modes.toArray(new Mode[0]);
+        this.modeNanos = new long[Mode.values().length];
+        this.modeRuns = new int[Mode.values().length];
+        if (candidates.length == 1) {
+            selectedMode = candidates[0];
+        }
+
+        if (this.models.size() > 1) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(this.models.size(), runnable -> {
+                Thread thread = new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }, "EnsembleInference-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            pool = null;
+        }
+    }
+
+    /** 측정 후 고정된 실행 방식. 아직 측정 중이면 null. */
+    public Mode getSelectedMode() {
+        return selectedMode;
+    }
+
+    /** 캐스케이드 통계. 캐스케이드를 쓰지 않으면(모델이 하나뿐이거나 {@link Mode#FUSED} 로 고정되면) null. */
+    public CascadeGate getCascadeGate() {
+        return cascade;
+    }
+
+    /** 모델 i 의 평균 forward 지연 시간 (ms). 아직 실행 기록이 없으면 -1. */
+    public double getModelLatencyMillis(int modelIndex) {
+        long runs = modelRuns.get(modelIndex);
+        return runs == 0 ? -1 : modelNanos.get(modelIndex) / 1e6 / runs;
+    }
+
+    /**
+     * 입력 하나에 대한 앙상블 평균 확률을 계산합니다.
+     * 개별 모델이 실패하거나 출력 크기가 다르면 그 모델만 빼고 평균냅니다.
+     * @param inputTensor 모델 입력 (호출 동안 바뀌면 안 됨)
+     * @return 평균 확률 (길이 numClasses), 유효한 결과가 없으면 null
+     */
+    public float[] predict(Tensor inputTensor) {
+        Mode mode = selectedMode;
+        if (mode != null) {
+            return cascadeModel >= 0 ? runCascade(mode, inputTensor) : run(mode, inputTensor);
+        }
+        mode = candidates[calibrationCalls % candidates.length];
+        int round = calibrationCalls / candidates.length;
+        calibrationCalls++;
+
+        long start = System.nanoTime();
+        float[] probabilities = run(mode, inputTensor);
+        long elapsed = System.nanoTime() - start;
+        if (probabilities == null) {
+            // 실패한 방식은 후보에서 제외할 수 있도록 측정값을 크게 기록
+            elapsed = Long.MAX_VALUE / (WARMUP_ROUNDS + MEASURE_ROUNDS);
+        }
+        if (round >= WARMUP_ROUNDS) {
+            modeNanos[mode.ordinal()] += elapsed;
+            modeRuns[mode.ordinal()]++;
+        }
+        if (calibrationCalls == candidates.length * (WARMUP_ROUNDS + MEASURE_ROUNDS)) {
+            selectMode();
+        }
+        return probabilities;
+    }
+
+    /** 추론 풀을 종료합니다. */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private float[] run(Mode mode, Tensor inputTensor) {
+        return runWithKnown(mode, inputTensor, -1, null);
+    }
+
+    /**
+     * 캐스케이드 실행: 먼저 실행할 모델의 확신이 충분하면 그 확률을, 아니면 전체 앙상블 평균을 반환합니다.
+     * 검증 차례인 조기 종료 윈도우는 전체 앙상블도 실행해 비교하고 전체 앙상블 결과를 반환합니다.
+     */
+    private float[] runCascade(Mode mode, Tensor inputTensor) {
+        float[] first = forwardModel(cascadeModel, inputTensor);
+        float[] result;
+        if (cascade.accepts(first)) {
+            if (cascade.recordEarlyExit()) {
+                float[] full = runWithKnown(mode, inputTensor, cascadeModel, first);
+                cascade.recordAudit(first, full);
+                Timber.tag(TAG).d("캐스케이드: 조기 종료 검증 (모델 %d: %d, 전체 앙상블: %d)", cascadeModel,
+                        CascadeGate.argMax(first), full != null ? CascadeGate.argMax(full) : -1);
+                result = full != null ? full : first;
+            } else {
+                Timber.tag(TAG).d("캐스케이드: 모델 %d 로 조기 종료 (확률 %.3f)", cascadeModel, first[CascadeGate.argMax(first)]);
+                result = first;
+            }
+        } else {
+            cascade.recordFullRun();
+            Timber.tag(TAG).d("캐스케이드: 확신 부족, 전체 앙상블 실행");
+            result = runWithKnown(mode, inputTensor, cascadeModel, first);
+        }
+        if ((cascade.getEarlyExitCount() + cascade.getFullRunCount()) % CASCADE_LOG_INTERVAL == 0) {
+            Timber.tag(TAG).i("캐스케이드 통계: %s", cascade);
+        }
+        return result;
+    }
+
+    /**
+     * 전체 앙상블을 실행합니다. knownIndex 모델의 결과를 이미 구했으면 다시 실행하지 않고 그 값을 씁니다.
+     * @param knownIndex 이미 실행한 모델 번호. 없으면 -1
+     * @param known 그 모델의 확률 (실패했으면 null)
+     */
+    private float[] runWithKnown(Mode mode, Tensor inputTensor, int knownIndex, float[] known) {
+        switch (mode) {
+            case PARALLEL:
+                return runParallel(inputTensor, knownIndex, known);
+            case FUSED:
+                return runFused(inputTensor);
+            default:
+                return runSequential(inputTensor, knownIndex, known);
+        }
+    }
+
+    private float[] runSequential(Tensor inputTensor, int knownIndex, float[] known) {
+        List<float[]> allProbabilities = new ArrayList<>(models.size());
+        for (int i = 0; i < models.size(); i++) {
+            float[] probabilities = i == knownIndex ? known : forwardModel(i, inputTensor);
+            if (probabilities != null) {
+                allProbabilities.add(probabilities);
+            }
+        }
+        return averageProbabilities(allProbabilities);
+    }
+
+    private float[] runParallel(Tensor inputTensor, int knownIndex, float[] known) {
+        List<Future<float[]>> futures = new ArrayList<>(models.size());
+        for (int i = 0; i < models.size(); i++) {
+            final int modelIndex = i;
+            futures.add(i == knownIndex ? null : pool.submit(() -> forwardModel(modelIndex, inputTensor)));
+        }
+        // 결과는 모델 순서대로 모아 순차 실행과 같은 순서로 평균
+        List<float[]> allProbabilities = new ArrayList<>(models.size());
+        for (int i = 0; i < futures.size(); i++) {
+            if (i == knownIndex) {
+                if (known != null) {
+                    allProbabilities.add(known);
+                }
+                continue;
+            }
+            try {
+                float[] probabilities = futures.get(i).get();
+                if (probabilities != null) {
+                    allProbabilities.add(probabilities);
+                }
+            } catch (ExecutionException e) {
+                Timber.tag(TAG).e(e.getCause(), "개별 모델(모델 %d) 병렬 추론 중 오류. 이 모델의 예측은 건너뜁니다.", i);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<float[]> future : futures) {
+                    if (future != null) future.cancel(true);
+                }
+                return null;
+            }
+        }
+        return averageProbabilities(allProbabilities);
+    }
+
+    private float[] runFused(Tensor inputTensor) {
+        try {
+            long start = System.nanoTime();
+            float[] probabilities = fusedModel.forward(IValue.from(inputTensor)).toTensor().getDataAsFloatArray();
+            if (metrics != null) {
+                metrics.recordModelForward("fused", System.nanoTime() - start);
+            }
+            if (probabilities.length != numClasses) {
+                Timber.tag(TAG).e("통합 모델 출력 크기가 예상(%d)과 다름: %d", numClasses, probabilities.length);
+                return null;
+            }
+            return probabilities;
+        } catch (Exception e) {
+            Timber.tag(TAG).e(e, "통합 모델 추론 중 오류");
+            return null;
+        }
+    }
+
+    // 모델 하나의 forward + softmax. 실패하거나 출력 크기가 다르면 null
+    private float[] forwardModel(int modelIndex, Tensor inputTensor) {
+        try {
+            long start = System.nanoTime();
+            float[] logits = models.get(modelIndex).forward(IValue.from(inputTensor)).toTensor().getDataAsFloatArray();
+            long elapsed = System.nanoTime() - start;
+            modelNanos.addAndGet(modelIndex, elapsed);
+            modelRuns.incrementAndGet(modelIndex);
+            if (metrics != null) {
+                metrics.recordModelForward(modelNames[modelIndex], elapsed);
+            }
+
+            if (logits.length != numClasses) {
+                Timber.tag(TAG).e("모델 %d의 출력 크기가 예상(%d)과 다름: %d. 이 모델의 예측은 건너뜁니다.",
+                        modelIndex, numClasses, logits.length);
+                return null;
+            }
+            return softmax(logits);
+        } catch (Exception e) {
+            Timber.tag(TAG).e(e, "개별 모델(모델 %d) 추론 중 오류. 이 모델의 예측은 건너뜁니다.", modelIndex);
+            return null;
+        }
+    }
+
+    private void selectMode() {
+        Mode best = candidates[0];
+        StringBuilder summary = new StringBuilder();
+        for (Mode mode : candidates) {
+            double millis = modeNanos[mode.ordinal()] / 1e6 / Math.max(1, modeRuns[mode.ordinal()]);
+            summary.append(String.format(Locale.US, " %s=%.1fms", mode, millis));
+            if ((double) modeNanos[mode.ordinal()] / Math.max(1, modeRuns[mode.ordinal()])
+                    < (double) modeNanos[best.ordinal()] / Math.max(1, modeRuns[best.ordinal()])) {
+                best = mode;
+            }
+        }
+        for (int i = 0; i < models.size(); i++) {
+            summary.append(String.format(Locale.US, " model%d=%.1fms", i, getModelLatencyMillis(i)));
+        }
+        if (cascade != null && best == Mode.FUSED) {
+            // 통합 모듈은 먼저 실행한 모델 결과를 재사용하지 못하므로 캐스케이드가 지연을 늘리기만 함
+            cascade = null;
+            summary.append(" cascade=off");
+        } else if (cascade != null) {
+            // 측정 중 한 번도 성공하지 않은 모델은 제외하고 가장 빠른 모델
+            int fastest = -1;
+            for (int i = 0; i < models.size(); i++) {
+                double latency = getModelLatencyMillis(i);
+                if (latency >= 0 && (fastest < 0 || latency < getModelLatencyMillis(fastest))) {
+                    fastest = i;
+                }
+            }
+            cascadeModel = fastest;
+            summary.append(" cascade=model").append(cascadeModel);
+        }
+        selectedMode = best;
+        Timber.tag(TAG).i("앙상블 실행 방식 선택: %s (평균 지연%s)", best, summary);
+    }
+
+    /**
+     * 여러 모델의 확률 출력을 평균냅니다.
+     * @param allProbabilities 각 모델의 확률 배열 리스트
+     * @return 평균화된 확률 배열, 또는 입력이 비어있거나 일관성이 없으면 null
+     */
+    private float[] averageProbabilities(List<float[]> allProbabilities) {
+        if (allProbabilities == null || allProbabilities.isEmpty()) {
+            Timber.tag(TAG).w("평균할 확률 리스트가 비어있음.");
+            return null;
+        }
+
+        for (float[] probs : allProbabilities) {
+            if (probs.length != numClasses) {
+                Timber.tag(TAG).e("일치하지 않는 확률 배열 크기 발견. 예상: %d, 실제: %d", numClasses, probs.length);
+                return null;
+            }
+        }
+
+        float[] averagedProbs = new float[numClasses];
+        for (float[] probs : allProbabilities) {
+            for (int i = 0; i < numClasses; i++) {
+                averagedProbs[i] += probs[i];
+            }
+        }
+
+        int numValidModels = allProbabilities.size();
+        for (int i = 0; i < numClasses; i++) {
+            averagedProbs[i] /= numValidModels;
+        }
+        return averagedProbs;
+    }
+
+    // Softmax 함수 구현
+    private static float[] softmax(float[] logits) {
+        float maxLogit = Float.NEGATIVE_INFINITY;
+        for (float logit : logits) {
+            if (logit > maxLogit) maxLogit = logit;
+        }
+        float sum = 0.0f;
+        float[] expLogits = new float[logits.length];
+        for (int i = 0; i < logits.length; i++) {
+            // 수치 안정성을 위해 최대 logit 빼기
+            expLogits[i] = (float) Math.exp(logits[i] - maxLogit);
+            sum += expLogits[i];
+        }
+        float[] probabilities = new float[logits.length];
+        // 모든 expLogits가 0인 경우 (매우 드묾) 0으로 나누기 방지
+        if (sum == 0) {
+            Timber.tag(TAG).w("Softmax 합계가 0입니다. 균일 확률 반환.");
+            float uniformProb = 1.0f / logits.length;
+            for (int i = 0; i < logits.length; i++) {
+                probabilities[i] = uniformProb;
+            }
+            return probabilities;
+        }
+        for (int i = 0; i < logits.length; i++) {
+            probabilities[i] = expLogits[i] / sum;
+        }
+        return probabilities;
+    }
+}
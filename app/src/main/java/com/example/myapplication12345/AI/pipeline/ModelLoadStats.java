@@ -0,0 +1,80 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 시작 시 모델 로딩에 걸린 시간. 모델마다 에셋 추출, 로드, warm-up forward 시간을 따로 기록하고,
+ * 모델들을 병렬로 불러오므로 전체 시간은 각 모델 시간의 합이 아니라 가장 오래 걸린 모델에 가깝습니다.
+ */
+public class ModelLoadStats {
+
+    /** 모델 하나의 로딩 기록. 실패한 모델은 실패 시점까지의 시간만 남습니다. */
+    public static final class Entry {
+        private final String assetPath;
+        private final boolean loaded;
+        private final long extractMillis;
+        private final long loadMillis;
+        private final long warmupMillis;
+
+        public Entry(String assetPath, boolean loaded, long extractMillis, long loadMillis, long warmupMillis) {
+            this.assetPath = assetPath;
+            this.loaded = loaded;
+            this.extractMillis = extractMillis;
+            this.loadMillis = loadMillis;
+            this.warmupMillis = warmupMillis;
+        }
+
+        public String getAssetPath() {
+            return assetPath;
+        }
+
+        public boolean isLoaded() {
+            return loaded;
+        }
+
+        /** 에셋을 내부 저장소로 추출하거나 이미 추출한 파일을 확인하는 데 걸린 시간 */
+        public long getExtractMillis() {
+            return extractMillis;
+        }
+
+        public long getLoadMillis() {
+            return loadMillis;
+        }
+
+        /** 더미 입력 forward 한 번에 걸린 시간 */
+        public long getWarmupMillis() {
+            return warmupMillis;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final long totalMillis;
+
+    public ModelLoadStats(List<Entry> entries, long totalMillis) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+        this.totalMillis = totalMillis;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /** 로딩 시작부터 모든 모델이 끝날 때까지의 시간 */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.US, "전체 %dms", totalMillis));
+        for (Entry entry : entries) {
+            String name = entry.assetPath.substring(entry.assetPath.lastIndexOf('/') + 1);
+            summary.append(String.format(Locale.US, ", %s: %s 추출 %dms 로드 %dms warm-up %dms", name,
+                    entry.loaded ? "성공" : "실패", entry.extractMillis, entry.loadMillis, entry.warmupMillis));
+        }
+        return summary.toString();
+    }
+}
@@ -3,6 +3,7 @@ package com.example.myapplication12345
 import android.content.Context
 import android.content.SharedPreferences
 import android.widget.Toast
+import com.example.myapplication12345.ui.ranking.Leaderboard
 import com.google.firebase.auth.FirebaseAuth
 import com.google.firebase.database.DataSnapshot
 import com.google.firebase.database.DatabaseError
@@ -19,9 +20,38 @@ import androidx.core.content.edit
 
 class ServerManager(private val context: Context) {
 
+    /**
+     * 한 달치 배출량. 배열 인덱스는 (일 - 1) 이고, 기록이 없는 날은 0 입니다.
+     */
+    class MonthEmissions(
+        val month: String,
+        val productEmissions: IntArray,
+        val transportEmissions: IntArray,
+        internal val loadedAt: Long
+    ) {
+        val daysInMonth: Int get() = productEmissions.size
+
+        fun productOf(day: Int): Int = productEmissions[day - 1]
+
+        fun transportOf(day: Int): Int = transportEmissions[day - 1]
+    }
+
+    companion object {
+        // 달력에서 앞뒤 달을 오갈 때 다시 조회하지 않도록 최근 월을 보관 (ServerManager 는 화면마다 새로 만들어지므로 프로세스 단위)
+        private const val MONTH_CACHE_SIZE = 12
+        private const val MONTH_CACHE_TTL_MS = 5 * 60_000L
+
+        // 키: "<uid>/<yyyy-MM>", 접근 순서 LRU. Firebase 콜백과 같은 메인 스레드에서 사용
+        private val monthCache = object : LinkedHashMap<String, MonthEmissions>(16, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, MonthEmissions>): Boolean =
+                size > MONTH_CACHE_SIZE
+        }
+    }
+
     private val database = FirebaseDatabase.getInstance()
     private val auth = FirebaseAuth.getInstance()
     private val prefs: SharedPreferences = context.getSharedPreferences("ScoreCache", Context.MODE_PRIVATE)
+    private val leaderboard = Leaderboard(database)
 
     // Firebase 참조 헬퍼 함수
     private fun getUserReference() = auth.currentUser?.uid?.let { database.getReference("users").child(it) }
@@ -58,6 +88,12 @@ class ServerManager(private val context: Context) {
         return sdf.format(date.time)
     }
 
+    // 월 포맷팅 (YYYY-MM)
+    private fun getFormattedMonth(date: Calendar): String {
+        val sdf = SimpleDateFormat("yyyy-MM", Locale.getDefault())
+        return sdf.format(date.time)
+    }
+
     fun getScoresForDate(date: Calendar, onScoresRetrieved: (Int) -> Unit) {
         getProductEmissions(date, onScoresRetrieved)
     }
@@ -104,6 +140,63 @@ class ServerManager(private val context: Context) {
         })
     }
 
+    /**
+     * 특정 월의 일별 productEmissions / transportEmissions 를 한 번에 가져오는 메서드.
+     * emissions 노드를 날짜 키 범위로 한 번만 조회하고, 결과는 [MONTH_CACHE_TTL_MS] 동안 캐시해 바로 돌려줍니다.
+     * 이 기기에서 배출량을 수정하면 캐시된 월에도 바로 반영됩니다.
+     */
+    fun getMonthEmissions(month: Calendar, onMonthRetrieved: (MonthEmissions) -> Unit) {
+        val monthString = getFormattedMonth(month)
+        val daysInMonth = month.getActualMaximum(Calendar.DAY_OF_MONTH)
+        val uid = auth.currentUser?.uid
+        val userRef = getUserReference()
+        if (uid == null || userRef == null) {
+            Toast.makeText(context, "로그인이 필요해요.", Toast.LENGTH_SHORT).show()
+            onMonthRetrieved(emptyMonth(monthString, daysInMonth))
+            return
+        }
+
+        val cacheKey = "$uid/$monthString"
+        val cached = monthCache[cacheKey]
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < MONTH_CACHE_TTL_MS) {
+            onMonthRetrieved(cached)
+            return
+        }
+
+        val emissionsRef = userRef.child("emissions")
+        emissionsRef.orderByKey().startAt("$monthString-01").endAt("$monthString-31").addListenerForSingleValueEvent(object : ValueEventListener {
+            override fun onDataChange(snapshot: DataSnapshot) {
+                val result = emptyMonth(monthString, daysInMonth)
+                snapshot.children.forEach { dateSnapshot ->
+                    // 키 형식: yyyy-MM-dd
+                    val day = dateSnapshot.key?.substringAfterLast('-')?.toIntOrNull() ?: return@forEach
+                    if (day !in 1..daysInMonth) return@forEach
+                    result.productEmissions[day - 1] = dateSnapshot.child("productEmissions").getValue(Int::class.java) ?: 0
+                    result.transportEmissions[day - 1] = dateSnapshot.child("transportEmissions").getValue(Int::class.java) ?: 0
+                }
+                monthCache[cacheKey] = result
+                Timber.tag("ServerManager").d("월별 배출량 가져오기 성공: $monthString, 기록된 날: ${snapshot.childrenCount}")
+                onMonthRetrieved(result)
+            }
+
+            override fun onCancelled(databaseError: DatabaseError) {
+                handleError(databaseError.toException(), "월별 배출량 조회")
+                // 만료된 캐시라도 있으면 빈 달보다 나음
+                onMonthRetrieved(cached ?: emptyMonth(monthString, daysInMonth))
+            }
+        })
+    }
+
+    private fun emptyMonth(month: String, daysInMonth: Int) =
+        MonthEmissions(month, IntArray(daysInMonth), IntArray(daysInMonth), System.currentTimeMillis())
+
+    // 캐시된 월이 있으면 해당 날짜 값을 갱신 (없으면 다음 조회 때 서버에서 읽음)
+    private fun updateCachedDay(date: Calendar, update: (MonthEmissions, Int) -> Unit) {
+        val uid = auth.currentUser?.uid ?: return
+        val cached = monthCache["$uid/${getFormattedMonth(date)}"] ?: return
+        update(cached, date.get(Calendar.DAY_OF_MONTH) - 1)
+    }
+
     /**
      * 현재 사용자에게 점수를 추가하는 메서드 (트랜잭션 사용)
      */
@@ -136,6 +229,9 @@ class ServerManager(private val context: Context) {
                 } else {
                     val newScore = snapshot?.child("score")?.getValue(Int::class.java) ?: (getCachedScore() + scoreToAdd)
                     cacheScore(newScore)
+                    // 기간별 랭킹 버킷에도 반영
+                    val nickname = snapshot?.child("nickname")?.getValue(String::class.java) ?: getCachedNickname()
+                    snapshot?.key?.let { leaderboard.recordScore(it, nickname, scoreToAdd, newScore) }
                     Toast.makeText(context, "점수가 추가되었어요!", Toast.LENGTH_SHORT).show()
                     onComplete?.invoke()
                 }
@@ -155,6 +251,7 @@ class ServerManager(private val context: Context) {
         userRef.child("score").setValue(newScore)
             .addOnSuccessListener {
                 cacheScore(newScore)
+                userRef.key?.let { leaderboard.recordTotal(it, newScore, prefs.getString("cachedNickname", null)) }
                 Toast.makeText(context, "점수가 업데이트되었어요!", Toast.LENGTH_SHORT).show()
             }
             .addOnFailureListener { exception ->
@@ -258,6 +355,7 @@ class ServerManager(private val context: Context) {
 
         emissionRef.setValue(emissions)
             .addOnSuccessListener {
+                updateCachedDay(date) { month, index -> month.productEmissions[index] = emissions }
                 Timber.tag("ServerManager").d("제품 배출량 업데이트 완료: $dateString}, emissions: $emissions")
                 callback(true)
             }
@@ -282,6 +380,7 @@ class ServerManager(private val context: Context) {
 
         emissionRef.setValue(emissions)
             .addOnSuccessListener {
+                updateCachedDay(date) { month, index -> month.transportEmissions[index] = emissions }
                 Timber.tag("ServerManager").d("이동경로 배출량 업데이트 완료: $dateString, emissions: $emissions")
                 callback(true)
             }
@@ -347,4 +446,17 @@ class ServerManager(private val context: Context) {
             }
         }
     }
+
+    /**
+     * 특정 월의 일별 배출량을 가져오는 suspend 함수
+     */
+    suspend fun getMonthEmissionsSuspend(month: Calendar): MonthEmissions {
+        return suspendCancellableCoroutine { continuation ->
+            getMonthEmissions(month) { emissions ->
+                if (continuation.isActive) {
+                    continuation.resume(emissions)
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+package com.example.myapplication12345.ui.ranking
+
+import com.google.android.gms.tasks.Task
+import com.google.firebase.database.DataSnapshot
+import com.google.firebase.database.DatabaseError
+import com.google.firebase.database.FirebaseDatabase
+import com.google.firebase.database.Query
+import com.google.firebase.database.ServerValue
+import com.google.firebase.database.ValueEventListener
+import timber.log.Timber
+import java.text.SimpleDateFormat
+import java.util.Calendar
+import java.util.Locale
+import java.util.TimeZone
+
+/**
+ * 랭킹 기간. 기간마다 점수를 모으는 버킷 키가 정해집니다 (전체는 버킷이 하나).
+ * 일간/주간/월간은 오늘/이번 주(월요일 시작)/이번 달 달력 구간입니다.
+ */
+enum class LeaderboardPeriod(val key: String) {
+    ALL("all"),
+    DAILY("daily"),
+    WEEKLY("weekly"),
+    MONTHLY("monthly");
+
+    fun bucketKey(timeMillis: Long, timeZone: TimeZone = TimeZone.getDefault()): String {
+        val calendar = Calendar.getInstance(timeZone, Locale.US).apply {
+            firstDayOfWeek = Calendar.MONDAY
+            minimalDaysInFirstWeek = 4 // ISO 주차
+            timeInMillis = timeMillis
+        }
+        return when (this) {
+            ALL -> "all"
+            DAILY -> format("yyyy-MM-dd", calendar, timeZone)
+            WEEKLY -> String.format(Locale.US, "%04d-W%02d", calendar.weekYear, calendar.get(Calendar.WEEK_OF_YEAR))
+            MONTHLY -> format("yyyy-MM", calendar, timeZone)
+        }
+    }
+
+    private fun format(pattern: String, calendar: Calendar, timeZone: TimeZone): String =
+        SimpleDateFormat(pattern, Locale.US).apply { this.timeZone = timeZone }.format(calendar.time)
+}
+
+/**
+ * 미리 집계한 랭킹. 점수가 추가될 때 `leaderboard/<기간>/<버킷>/<uid> = { score, nickname }` 을 갱신해 두고,
+ * 화면에서는 점수 순 상위 N 명을 페이지 단위로, 내 순위는 나보다 점수가 높은 항목 수로 조회합니다.
+ * 사용자 트리 전체나 점수 기록(scores)은 읽지 않습니다.
+ * 집계 이전 사용자의 전체 버킷 항목은 tools/backfill_leaderboard.py 로 한 번 채웁니다.
+ *
+ * 조회에는 데이터베이스 규칙의 `"leaderboard": { "$period": { "$bucket": { ".indexOn": ["score"] } } }` 색인이 필요합니다.
+ * 테스트에서는 에뮬레이터에 연결한 [FirebaseDatabase] 를 넘기면 됩니다.
+ */
+class Leaderboard(private val database: FirebaseDatabase = FirebaseDatabase.getInstance()) {
+
+    class Entry(val userId: String, val nickname: String, val score: Int)
+
+    /** 페이지 경계. 다음 페이지는 이 항목보다 (점수, uid) 순서가 낮은 항목부터입니다. */
+    class Cursor(val score: Int, val userId: String)
+
+    /** 점수 내림차순 항목과 다음 페이지 커서 (마지막 페이지면 null) */
+    class Page(val entries: List<Entry>, val next: Cursor?)
+
+    /** 내 순위. [capped] 이면 나보다 높은 사람이 [MY_RANK_SCAN_LIMIT] 명 이상이라 정확한 순위를 세지 않았습니다. */
+    class MyRank(val rank: Int, val score: Int, val capped: Boolean)
+
+    companion object {
+        const val MY_RANK_SCAN_LIMIT = 1000
+    }
+
+    private fun bucketRef(period: LeaderboardPeriod, timeMillis: Long) =
+        database.getReference("leaderboard").child(period.key).child(period.bucketKey(timeMillis))
+
+    /**
+     * 점수 추가를 모든 기간 버킷에 반영합니다. 전체 버킷은 누적 점수를 그대로 쓰고,
+     * 나머지는 서버 증분으로 더하므로 여러 기기에서 동시에 추가해도 합이 맞습니다.
+     */
+    fun recordScore(userId: String, nickname: String, added: Int, total: Int, timeMillis: Long = System.currentTimeMillis()): Task<Void> {
+        val updates = HashMap<String, Any>()
+        for (period in LeaderboardPeriod.values()) {
+            val path = "${period.key}/${period.bucketKey(timeMillis)}/$userId"
+            updates["$path/score"] = if (period == LeaderboardPeriod.ALL) total else ServerValue.increment(added.toLong())
+            updates["$path/nickname"] = nickname
+        }
+        return database.getReference("leaderboard").updateChildren(updates)
+            .addOnFailureListener { e -> Timber.tag("Leaderboard").w(e, "랭킹 점수 반영 실패: $userId") }
+    }
+
+    /**
+     * 누적 점수만 바뀐 경우 (점수 직접 수정 등) 전체 버킷을 맞춥니다. 닉네임도 함께 써서 새로 생긴 항목이 "익명" 으로 보이지 않게 합니다.
+     * [nickname] 을 모르면 users/<uid>/nickname 을 읽어 쓰고, 읽지 못하면 점수만 씁니다.
+     */
+    fun recordTotal(userId: String, total: Int, nickname: String? = null): Task<Void> {
+        val entryRef = bucketRef(LeaderboardPeriod.ALL, 0L).child(userId)
+        val task = if (nickname != null) {
+            entryRef.updateChildren(mapOf<String, Any>("score" to total, "nickname" to nickname))
+        } else {
+            database.getReference("users").child(userId).child("nickname").get().continueWithTask { nicknameTask ->
+                val stored = if (nicknameTask.isSuccessful) nicknameTask.result?.getValue(String::class.java) else null
+                val updates = HashMap<String, Any>()
+                updates["score"] = total
+                stored?.let { updates["nickname"] = it }
+                entryRef.updateChildren(updates)
+            }
+        }
+        return task.addOnFailureListener { e -> Timber.tag("Leaderboard").w(e, "랭킹 누적 점수 반영 실패: $userId") }
+    }
+
+    /**
+     * 랭킹 집계 이전부터 점수가 있던 사용자의 전체 버킷 항목을 users/<uid> 의 점수와 닉네임으로 채웁니다.
+     * 기존 사용자 전체는 배포 시 tools/backfill_leaderboard.py 로 한 번 채우고, 이 함수는 그 뒤에 빠진 항목만 보완합니다.
+     */
+    fun backfillTotal(userId: String, onDone: () -> Unit) {
+        val userRef = database.getReference("users").child(userId)
+        userRef.child("score").get().addOnCompleteListener { scoreTask ->
+            userRef.child("nickname").get().addOnCompleteListener { nicknameTask ->
+                val score = if (scoreTask.isSuccessful) scoreTask.result?.getValue(Int::class.java) ?: 0 else 0
+                val nickname = if (nicknameTask.isSuccessful) nicknameTask.result?.getValue(String::class.java) ?: "익명" else "익명"
+                if (score <= 0) {
+                    onDone()
+                    return@addOnCompleteListener
+                }
+                bucketRef(LeaderboardPeriod.ALL, 0L).child(userId)
+                    .updateChildren(mapOf<String, Any>("score" to score, "nickname" to nickname))
+                    .addOnCompleteListener { task ->
+                        if (!task.isSuccessful) {
+                            Timber.tag("Leaderboard").w(task.exception, "랭킹 누적 점수 채우기 실패: $userId")
+                        }
+                        onDone()
+                    }
+            }
+        }
+    }
+
+    /**
+     * 현재 버킷에서 [after] 다음 페이지를 점수 내림차순으로 가져옵니다 (null 이면 1등부터).
+     * 실패하면 빈 페이지를 돌려줍니다.
+     */
+    fun loadPage(
+        period: LeaderboardPeriod,
+        after: Cursor?,
+        pageSize: Int,
+        timeMillis: Long = System.currentTimeMillis(),
+        onPageLoaded: (Page) -> Unit
+    ) {
+        var query: Query = bucketRef(period, timeMillis).orderByChild("score")
+        if (after != null) {
+            query = query.endBefore(after.score.toDouble(), after.userId)
+        }
+        query.limitToLast(pageSize).addListenerForSingleValueEvent(object : ValueEventListener {
+            override fun onDataChange(snapshot: DataSnapshot) {
+                // limitToLast 는 오름차순으로 오므로 뒤집음
+                val entries = snapshot.children.mapNotNull { toEntry(it) }.asReversed()
+                val next = if (snapshot.childrenCount >= pageSize && entries.isNotEmpty()) {
+                    entries.last().let { Cursor(it.score, it.userId) }
+                } else {
+                    null
+                }
+                onPageLoaded(Page(entries, next))
+            }
+
+            override fun onCancelled(error: DatabaseError) {
+                Timber.tag("Leaderboard").w(error.toException(), "랭킹 페이지 조회 실패: ${period.key}")
+                onPageLoaded(Page(emptyList(), null))
+            }
+        })
+    }
+
+    /**
+     * 현재 버킷에서 [userId] 의 순위를 구합니다. 이번 기간 점수가 없으면 null 입니다.
+     * 같은 점수는 같은 순위로 칩니다.
+     */
+    fun loadMyRank(
+        period: LeaderboardPeriod,
+        userId: String,
+        timeMillis: Long = System.currentTimeMillis(),
+        onRankLoaded: (MyRank?) -> Unit
+    ) {
+        val bucket = bucketRef(period, timeMillis)
+        bucket.child(userId).child("score").addListenerForSingleValueEvent(object : ValueEventListener {
+            override fun onDataChange(snapshot: DataSnapshot) {
+                val score = snapshot.getValue(Int::class.java)
+                if (score == null) {
+                    onRankLoaded(null)
+                    return
+                }
+                bucket.orderByChild("score").startAfter(score.toDouble()).limitToFirst(MY_RANK_SCAN_LIMIT)
+                    .addListenerForSingleValueEvent(object : ValueEventListener {
+                        override fun onDataChange(higher: DataSnapshot) {
+                            val count = higher.childrenCount.toInt()
+                            onRankLoaded(MyRank(count + 1, score, count >= MY_RANK_SCAN_LIMIT))
+                        }
+
+                        override fun onCancelled(error: DatabaseError) {
+                            Timber.tag("Leaderboard").w(error.toException(), "내 순위 조회 실패: ${period.key}")
+                            onRankLoaded(null)
+                        }
+                    })
+            }
+
+            override fun onCancelled(error: DatabaseError) {
+                Timber.tag("Leaderboard").w(error.toException(), "내 점수 조회 실패: ${period.key}")
+                onRankLoaded(null)
+            }
+        })
+    }
+
+    private fun toEntry(snapshot: DataSnapshot): Entry? {
+        val userId = snapshot.key ?: return null
+        val score = snapshot.child("score").getValue(Int::class.java) ?: return null
+        val nickname = snapshot.child("nickname").getValue(String::class.java) ?: "익명"
+        return Entry(userId, nickname, score)
+    }
+}
@@ -58,10 +58,16 @@ class RankingAdapter(private val profileList: ArrayList<Profiles>) : RecyclerVie
         val ranking = itemView.findViewById<TextView>(R.id.tv_ranking)!!
     }
 
+    // 목록은 랭킹에서 이미 점수 순으로 옴
     fun updateData(newProfiles: ArrayList<Profiles>) {
         profileList.clear()
         profileList.addAll(newProfiles)
-        profileList.sortByDescending { it.score }
         notifyDataSetChanged()
     }
+
+    fun appendData(moreProfiles: ArrayList<Profiles>) {
+        val start = profileList.size
+        profileList.addAll(moreProfiles)
+        notifyItemRangeInserted(start, moreProfiles.size)
+    }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import androidx.recyclerview.widget.RecyclerView
 import com.bumptech.glide.Glide
 import com.example.myapplication12345.R
 import com.google.android.material.tabs.TabLayout
+import com.google.firebase.auth.FirebaseAuth
 import com.google.firebase.database.DataSnapshot
 import com.google.firebase.database.DatabaseError
 import com.google.firebase.database.FirebaseDatabase
@@ -26,15 +27,17 @@ class RankingFragment : Fragment() {
     private lateinit var recyclerView: RecyclerView
     private lateinit var rankingAdapter: RankingAdapter
 
+    private val leaderboard = Leaderboard()
+    private var period = LeaderboardPeriod.ALL
+    private var bucketTime = 0L // 첫 페이지를 읽은 시각. 이어지는 페이지도 같은 버킷에서 읽음
+    private var nextCursor: Leaderboard.Cursor? = null
+    private var loadingPage = false
+    private var generation = 0 // 탭이 바뀌면 이전 탭의 늦은 응답을 버림
+    private var backfillTried = false
+
     companion object {
-        const val TYPE_NOW = "now"
-        const val TYPE_DAILY = "daily"
-        const val TYPE_WEEKLY = "weekly"
-        const val TYPE_MONTHLY = "monthly"
-
-        private const val TWENTY_FOUR_HOURS_MILLIS = 24 * 60 * 60 * 1000L
-        private const val SEVEN_DAYS_MILLIS = 7 * 24 * 60 * 60 * 1000L
-        private const val THIRTY_DAYS_MILLIS = 30 * 24 * 60 * 60 * 1000L
+        private const val PAGE_SIZE = 20
+        private const val PREFETCH_DISTANCE = 5 // 목록 끝에서 이만큼 남으면 다음 페이지 요청
     }
 
     override fun onCreateView(
@@ -51,16 +54,24 @@ class RankingFragment : Fragment() {
 
         rankingAdapter = RankingAdapter(ArrayList())
         recyclerView.adapter = rankingAdapter
+        recyclerView.addOnScrollListener(object : RecyclerView.OnScrollListener() {
+            override fun onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int) {
+                val layoutManager = recyclerView.layoutManager as LinearLayoutManager
+                if (layoutManager.findLastVisibleItemPosition() >= rankingAdapter.itemCount - PREFETCH_DISTANCE) {
+                    loadNextPage()
+                }
+            }
+        })
 
         val tabLayout = view.findViewById<TabLayout>(R.id.tab_layout)
         tabLayout.addOnTabSelectedListener(object : TabLayout.OnTabSelectedListener {
             override fun onTabSelected(tab: TabLayout.Tab?) {
                 tab?.let {
                     when (tab.position) {
-                        0 -> fetchRankingData(TYPE_NOW)
-                        1 -> fetchRankingData(TYPE_DAILY)
-                        2 -> fetchRankingData(TYPE_WEEKLY)
-                        3 -> fetchRankingData(TYPE_MONTHLY)
+                        0 -> fetchRankingData(LeaderboardPeriod.ALL)
+                        1 -> fetchRankingData(LeaderboardPeriod.DAILY)
+                        2 -> fetchRankingData(LeaderboardPeriod.WEEKLY)
+                        3 -> fetchRankingData(LeaderboardPeriod.MONTHLY)
                     }
                 }
             }
@@ -76,63 +87,78 @@ class RankingFragment : Fragment() {
             insets
         }
 
-        fetchRankingData(TYPE_NOW)
+        fetchRankingData(LeaderboardPeriod.ALL)
         return view
     }
 
-    private fun fetchRankingData(rankingType: String) {
-        FirebaseDatabase.getInstance().reference.child("users").get()
-            .addOnSuccessListener { snapshot ->
-                if (!isAdded || fragmentView == null) { // fragmentView null 체크 추가
-                    return@addOnSuccessListener
-                }
+    // 미리 집계된 랭킹에서 첫 페이지(상위 3명 포함)와 내 순위만 읽음
+    private fun fetchRankingData(period: LeaderboardPeriod) {
+        this.period = period
+        bucketTime = System.currentTimeMillis()
+        nextCursor = null
+        loadingPage = true
+        val requested = ++generation
 
-                val profileList = arrayListOf<Profiles>()
-                val currentTimeMillis = System.currentTimeMillis()
-                val timeThreshold = when (rankingType) {
-                    TYPE_DAILY -> TWENTY_FOUR_HOURS_MILLIS
-                    TYPE_WEEKLY -> SEVEN_DAYS_MILLIS
-                    TYPE_MONTHLY -> THIRTY_DAYS_MILLIS
-                    TYPE_NOW -> Long.MAX_VALUE
-                    else -> Long.MAX_VALUE
-                }
+        leaderboard.loadPage(period, null, PAGE_SIZE, bucketTime) { page ->
+            if (requested != generation || !isAdded || fragmentView == null) {
+                return@loadPage
+            }
+            loadingPage = false
+            nextCursor = page.next
 
-                for (userSnapshot in snapshot.children) {
-                    val userId = userSnapshot.key ?: continue
-                    val nickname = userSnapshot.child("nickname").value?.toString() ?: "익명"
-                    var score = 0
-
-                    if (rankingType == TYPE_NOW) {
-                        score = userSnapshot.child("score").getValue(Int::class.java) ?: 0
-                    } else {
-                        val scoresSnapshot = userSnapshot.child("scores")
-                        for (scoreSnapshot in scoresSnapshot.children) {
-                            val scoreValue = scoreSnapshot.child("value").getValue(Int::class.java) ?: 0
-                            val timestamp = scoreSnapshot.child("timestamp").getValue(Long::class.java) ?: 0
-                            if (currentTimeMillis - timestamp <= timeThreshold) {
-                                score += scoreValue
-                            }
-                        }
-                    }
-                    if (score > 0) {
-                        profileList.add(Profiles(userId, nickname, score))
-                    }
-                }
+            val profileList = page.entries.mapTo(arrayListOf()) { Profiles(it.userId, it.nickname, it.score) }
+            updateTopThree(profileList)
+
+            val remainingProfiles = if (profileList.size > 3) {
+                ArrayList(profileList.subList(3, profileList.size))
+            } else {
+                arrayListOf()
+            }
+            rankingAdapter.updateData(remainingProfiles)
+        }
+        fetchMyRank(requested)
+    }
 
-                profileList.sortByDescending { it.score }
+    private fun loadNextPage() {
+        val cursor = nextCursor ?: return
+        if (loadingPage) return
+        loadingPage = true
+        val requested = generation
+
+        leaderboard.loadPage(period, cursor, PAGE_SIZE, bucketTime) { page ->
+            if (requested != generation || !isAdded || fragmentView == null) {
+                return@loadPage
+            }
+            loadingPage = false
+            nextCursor = page.next
+            rankingAdapter.appendData(page.entries.mapTo(arrayListOf()) { Profiles(it.userId, it.nickname, it.score) })
+        }
+    }
 
-                updateTopThree(profileList) // fragmentView가 null이 아님을 확인했으므로 호출
+    private fun fetchMyRank(requested: Int) {
+        val tvMyRank = fragmentView?.findViewById<TextView>(R.id.tv_my_rank) ?: return
+        val userId = FirebaseAuth.getInstance().currentUser?.uid
+        if (userId == null) {
+            tvMyRank.text = ""
+            return
+        }
 
-                val remainingProfiles = if (profileList.size > 3) {
-                    ArrayList(profileList.subList(3, profileList.size))
-                } else {
-                    arrayListOf()
-                }
-                rankingAdapter.updateData(remainingProfiles)
+        leaderboard.loadMyRank(period, userId, bucketTime) { myRank ->
+            if (requested != generation || !isAdded || fragmentView == null) {
+                return@loadMyRank
+            }
+            if (myRank == null && period == LeaderboardPeriod.ALL && !backfillTried) {
+                // 랭킹 집계 전부터 점수가 있던 사용자면 전체 버킷에 한 번 채워 넣고 다시 조회
+                backfillTried = true
+                leaderboard.backfillTotal(userId) { fetchMyRank(requested) }
+                return@loadMyRank
             }
-            .addOnFailureListener { e ->
-                if (isAdded) Timber.e(e, "Failed to load ranking data for $rankingType")
+            tvMyRank.text = when {
+                myRank == null -> "이번 기간 점수 기록이 없어요"
+                myRank.capped -> "내 순위: ${Leaderboard.MY_RANK_SCAN_LIMIT}위 밖 (${myRank.score}점)"
+                else -> "내 순위: ${myRank.rank}위 (${myRank.score}점)"
             }
+        }
     }
 
     private fun updateTopThree(profileList: ArrayList<Profiles>) {
@@ -18,8 +18,6 @@ import androidx.lifecycle.lifecycleScope
 import com.example.myapplication12345.R
 import com.example.myapplication12345.ServerManager
 import com.example.myapplication12345.databinding.FragmentCalendarBinding
-import kotlinx.coroutines.async
-import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.launch
 import timber.log.Timber
 import java.text.SimpleDateFormat
@@ -108,20 +106,11 @@ class CalendarFragment : Fragment() {
         val startDayOfWeek = tempCal.get(Calendar.DAY_OF_WEEK)
         repeat(startDayOfWeek - 1) { newDayList.add(Day("", 0, 0)) }
 
-        val daysInMonth = tempCal.getActualMaximum(Calendar.DAY_OF_MONTH)
-        val deferredEmissions = (1..daysInMonth).map { day ->
-            lifecycleScope.async {
-                val date = Calendar.getInstance().apply { set(tempCal.get(Calendar.YEAR), tempCal.get(Calendar.MONTH), day) }
-
-                // ServerManager에 추가한 확장 suspend 함수 사용
-                val productEmissionDeferred = async { serverManager.getProductEmissionsSuspend(date) }
-                val transportEmissionDeferred = async { serverManager.getTransportEmissionsSuspend(date) }
-
-                Day(day.toString(), productEmissionDeferred.await(), transportEmissionDeferred.await())
-            }
+        // 한 달치를 한 번의 범위 조회(또는 캐시)로 가져옴
+        val month = serverManager.getMonthEmissionsSuspend(tempCal)
+        for (day in 1..month.daysInMonth) {
+            newDayList.add(Day(day.toString(), month.productOf(day), month.transportOf(day)))
         }
-
-        newDayList.addAll(deferredEmissions.awaitAll())
         return newDayList
     }
 
@@ -34,6 +34,7 @@ import com.example.myapplication12345.chatbot.ChatMsg
 import com.example.myapplication12345.databinding.FragmentCameraBinding
 import com.example.myapplication12345.ui.calendar.CalendarViewModel
 import com.example.myapplication12345.ui.home.HomeViewModel
+import com.example.myapplication12345.ui.ranking.Leaderboard
 import com.google.firebase.auth.FirebaseAuth
 import com.google.firebase.database.FirebaseDatabase
 import com.google.mlkit.vision.common.InputImage
@@ -440,6 +441,8 @@ class CameraFragment : Fragment() {
                             Toast.makeText(requireContext(), "점수 추가 실패", Toast.LENGTH_SHORT).show()
                         }
                     } else {
+                        // 전체 랭킹은 누적 점수를 그대로 씀
+                        currentData?.getValue(Int::class.java)?.let { Leaderboard(database).recordTotal(userId, it) }
                         requireActivity().runOnUiThread {
                             Toast.makeText(requireContext(), "50점 추가! 총 탄소 배출량: ${pointsToAdd}kg CO2", Toast.LENGTH_SHORT).show()
                         }
@@ -489,6 +492,8 @@ class CameraFragment : Fragment() {
                             Toast.makeText(requireContext(), "분석 점수 추가 실패", Toast.LENGTH_SHORT).show()
                         }
                     } else {
+                        // 전체 랭킹은 누적 점수를 그대로 씀
+                        currentData?.getValue(Int::class.java)?.let { Leaderboard(database).recordTotal(userId, it) }
                         requireActivity().runOnUiThread {
                             Toast.makeText(requireContext(), "분석 성공! 10점 추가", Toast.LENGTH_SHORT).show()
                         }
@@ -34,13 +34,10 @@ import com.google.android.gms.maps.GoogleMap
 import com.google.android.gms.maps.MapView
 import com.google.android.gms.maps.OnMapReadyCallback
 import com.google.android.gms.maps.model.LatLng
+import com.google.android.gms.maps.model.Polyline
 import com.google.android.gms.maps.model.PolylineOptions
 import timber.log.Timber
-import java.io.BufferedReader
 import java.io.File
-import java.io.FileInputStream
-import java.io.FileWriter
-import java.io.InputStreamReader
 import java.text.SimpleDateFormat
 import java.util.Calendar
 import java.util.Date
@@ -50,6 +47,11 @@ import androidx.fragment.app.activityViewModels
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.ViewModelProvider
 import androidx.lifecycle.lifecycleScope
+import com.example.myapplication12345.AI.route.DayRoutes
+import com.example.myapplication12345.AI.store.PredictionDay
+import com.example.myapplication12345.AI.store.PredictionDayCache
+import com.example.myapplication12345.AI.store.PredictionStore
+import com.example.myapplication12345.AI.store.PredictionStoreWriter
 import com.example.myapplication12345.ServerManager
 import com.example.myapplication12345.ui.calendar.CalendarViewModel
 import kotlinx.coroutines.Dispatchers
@@ -61,15 +63,28 @@ class MapFragment : Fragment(), OnMapReadyCallback {
     companion object {
         private const val TAG = "MapFragment"
         private val dateFormat = SimpleDateFormat("yyyyMMdd", Locale.KOREAN)
+        private const val ROUTE_ZOOM = 17f // 경로를 처음 보여 줄 때의 확대 수준
+        private const val DAY_CACHE_DAYS = 14 // 최근에 본 날짜를 메모리에 보관 (필터 변경, 날짜 왕복 시 디스크를 읽지 않음)
+
+        @Volatile
+        private var dayCache: PredictionDayCache? = null
+
+        /** 예측 세그먼트 저장소 (SensorDataProcessor 가 기록하는 Map 폴더). */
+        fun predictionStore(context: Context) = PredictionStore(File(context.getExternalFilesDir(null), "Map"))
+
+        /** 화면이 다시 만들어져도 유지되는 날짜별 세그먼트 캐시. 파일이 바뀐 날짜만 다시 읽음. */
+        fun predictionDayCache(context: Context): PredictionDayCache =
+            dayCache ?: synchronized(this) {
+                dayCache ?: PredictionDayCache(predictionStore(context.applicationContext), DAY_CACHE_DAYS).also { dayCache = it }
+            }
 
         suspend fun createTestCsvFile(context: Context, date: Date) = withContext(Dispatchers.IO) {
-            val mapDataDir = File(context.getExternalFilesDir(null), "Map").apply { mkdirs() }
-            val file = File(mapDataDir, "${dateFormat.format(date)}_predictions.csv")
-            if (file.exists()) return@withContext
+            val store = predictionStore(context)
+            val day = dateFormat.format(date)
+            if (store.hasDay(day)) return@withContext
 
             try {
-                FileWriter(file).use { writer ->
-                    writer.append("start_timestamp,transport_mode,distance_meters,start_latitude,start_longitude,end_latitude,end_longitude\n")
+                PredictionStoreWriter(store).use { writer ->
                     val modes = listOf("WALK", "BIKE", "BUS", "CAR", "SUBWAY", "ETC", "UNKNOWN_MODE")
                     val centerPoints = listOf(
                         35.177306 to 128.567773, 35.182838 to 128.564494, 35.186558 to 128.563180,
@@ -81,13 +96,14 @@ class MapFragment : Fragment(), OnMapReadyCallback {
                         35.194362 to 128.569659, 35.198268 to 128.570484, 35.202949 to 128.572035,
                         35.201000 to 128.572000
                     )
+                    // 저장소는 시작 시각으로 날짜 파일을 정하므로 선택한 날짜의 정오부터 기록
+                    val noon = date.time + 12 * 60 * 60 * 1000L
                     modes.forEachIndexed { index, mode ->
-                        writer.append(String.format(Locale.ROOT, "%d,%s,%.2f,%.6f,%.6f,%.6f,%.6f\n",
-                            System.currentTimeMillis() + index * 1000L, mode, 500.0 + (index * 50),
-                            centerPoints[index].first, centerPoints[index].second, endPoints[index].first, endPoints[index].second))
+                        writer.onSegment(mode, 500.0 + (index * 50), noon + index * 1000L,
+                            centerPoints[index].first, centerPoints[index].second, endPoints[index].first, endPoints[index].second)
                     }
                 }
-                Timber.tag(TAG).d("테스트 CSV 생성 완료: $file")
+                Timber.tag(TAG).d("테스트 CSV 생성 완료: ${store.dayFile(day)}")
             } catch (e: Exception) {
                 Timber.tag(TAG).e("테스트 CSV 생성 실패: ${e.message}")
             }
@@ -118,6 +134,11 @@ class MapFragment : Fragment(), OnMapReadyCallback {
     private var isMyLocationShown = false
     private var userInteractedWithMap = false
 
+    // 지도에 올린 경로: 이동 수단이 이어지는 구간마다 선 하나, 확대 수준 구간이 바뀌면 꼭짓점만 교체
+    private var dayRoutes: DayRoutes? = null
+    private val routePolylines = mutableListOf<Polyline>()
+    private var renderedZoomBand = -1
+
     private val calendarViewModel: CalendarViewModel by activityViewModels {
         object : ViewModelProvider.Factory {
             override fun <T : ViewModel> create(modelClass: Class<T>): T {
@@ -178,6 +199,7 @@ class MapFragment : Fragment(), OnMapReadyCallback {
         }
         googleMap?.setOnCameraIdleListener {
             viewPager?.isUserInputEnabled = true
+            googleMap?.let { renderRoutes(it.cameraPosition.zoom) }
         }
 
         val selectedDate = arguments?.getString("selectedDate") ?: dateFormat.format(System.currentTimeMillis())
@@ -199,23 +221,19 @@ class MapFragment : Fragment(), OnMapReadyCallback {
         if (!isAdded || googleMap == null) return
 
         googleMap?.clear()
+        clearRoutes()
 
         viewLifecycleOwner.lifecycleScope.launch {
             textDistanceInfo.text = "데이터 로딩 중..."
 
-            val predictionData = withContext(Dispatchers.IO) {
-                val file = File(requireContext().getExternalFilesDir(null), "Map/${date}_predictions.csv")
-                if (file.exists()) loadCsvData(file) else null
-            }
+            val cache = predictionDayCache(requireContext())
+            val predictionData = withContext(Dispatchers.IO) { loadPredictionDay(cache, date) }
 
             if (!isAdded) return@launch
 
             if (predictionData == null) {
                 "데이터 없음: $date".also { textDistanceInfo.text = it }
                 googleMap?.moveCamera(CameraUpdateFactory.newLatLngZoom(LatLng(35.177306, 128.567773), 15f))
-            } else if (predictionData.isEmpty()) {
-                "데이터 없음: $date (파일 내용 없음)".also { textDistanceInfo.text = it }
-                googleMap?.moveCamera(CameraUpdateFactory.newLatLngZoom(LatLng(35.177306, 128.567773), 15f))
             } else {
                 displayPredictionOnMap(predictionData)
             }
@@ -223,23 +241,14 @@ class MapFragment : Fragment(), OnMapReadyCallback {
         }
     }
 
-    private fun loadCsvData(file: File): List<Map<String, String>> {
-        val data = mutableListOf<Map<String, String>>()
+    // 하루치를 통째로 캐시에 두고, 이동 수단 필터는 표시할 때 배열 위에서 적용
+    private fun loadPredictionDay(cache: PredictionDayCache, date: String): PredictionDay? =
         try {
-            BufferedReader(InputStreamReader(FileInputStream(file))).use { reader ->
-                val headers = reader.readLine()?.split(",") ?: return emptyList()
-                reader.forEachLine { line ->
-                    val values = line.split(",")
-                    if (values.size == headers.size) {
-                        data.add(headers.zip(values).toMap())
-                    }
-                }
-            }
+            cache.get(date)
         } catch (e: Exception) {
-            Timber.tag(TAG).e(e, "CSV 로딩 실패: ${file.path}")
+            Timber.tag(TAG).e(e, "예측 데이터 로딩 실패: $date")
+            null
         }
-        return data
-    }
 
     private fun handleTestMapButtonClick() {
         viewLifecycleOwner.lifecycleScope.launch {
@@ -262,9 +271,8 @@ class MapFragment : Fragment(), OnMapReadyCallback {
 
     private fun updateTestMapButtonState(date: String) {
         viewLifecycleOwner.lifecycleScope.launch {
-            val fileExists = withContext(Dispatchers.IO) {
-                File(requireContext().getExternalFilesDir(null), "Map/${date}_predictions.csv").exists()
-            }
+            val store = predictionStore(requireContext())
+            val fileExists = withContext(Dispatchers.IO) { store.hasDay(date) }
             if(isAdded) testMapButton.isEnabled = !fileExists
         }
     }
@@ -411,45 +419,31 @@ class MapFragment : Fragment(), OnMapReadyCallback {
 
     // --- [수정됨] 캘린더 업데이트 기능이 추가된 함수 ---
     @SuppressLint("DefaultLocale")
-    private fun displayPredictionOnMap(predictionData: List<Map<String, String>>) {
+    private fun displayPredictionOnMap(predictionDay: PredictionDay) {
         if (!isAdded || googleMap == null) return
 
         val distanceInfo = StringBuilder("이동 거리 합계:\n")
-        var firstPoint: LatLng? = null
         var totalOverallDistance = 0.0
         var totalTransportEmissions = 0.0
 
         val modeNames = mapOf("WALK" to "걷기", "BIKE" to "자전거", "CAR" to "자동차", "BUS" to "버스", "SUBWAY" to "지하철", "ETC" to "기타")
-        val definedModes = TRANSPORT_MODES.toSet()
+        val modeMask = PredictionDay.modeMask(selectedModes)
 
-        val filteredData = predictionData.map { data ->
-            val mode = data["transport_mode"]?.uppercase(Locale.ROOT)
-            if (mode != null && definedModes.contains(mode)) data else data + ("transport_mode" to "ETC")
-        }.filter { selectedModes.contains(it["transport_mode"]) }
-
-        if (filteredData.isEmpty()) {
+        clearRoutes()
+        val routes = DayRoutes.build(predictionDay, modeMask)
+        if (routes.isEmpty) {
             textDistanceInfo.text = "선택된 이동수단에 대한 데이터 없음"
             updateCalendarAndServer(0.0)
             return
         }
 
-        filteredData.groupBy { it["transport_mode"]!! }.forEach { (mode, dataList) ->
-            var distanceForMode = 0.0
-            dataList.forEach { data ->
-                val dist = data["distance_meters"]?.toDoubleOrNull() ?: 0.0
-                val startLat = data["start_latitude"]?.toDoubleOrNull()
-                val startLon = data["start_longitude"]?.toDoubleOrNull()
-                val endLat = data["end_latitude"]?.toDoubleOrNull()
-                val endLon = data["end_longitude"]?.toDoubleOrNull()
-
-                if (startLat != null && startLon != null && endLat != null && endLon != null) {
-                    val start = LatLng(startLat, startLon)
-                    val end = LatLng(endLat, endLon)
-                    distanceForMode += dist
-                    if (firstPoint == null) firstPoint = start
-                    googleMap?.addPolyline(PolylineOptions().add(start, end).color(getTransportColor(mode)).width(8f))
-                }
-            }
+        val firstPoint = routes.runs.firstOrNull()?.let { LatLng(it.getLatitude(0), it.getLongitude(0)) }
+        dayRoutes = routes
+        renderRoutes(ROUTE_ZOOM) // 아래에서 첫 지점으로 ROUTE_ZOOM 만큼 확대
+
+        val distanceByMode = predictionDay.distanceByMode(modeMask)
+        PredictionStore.MODES.forEachIndexed { code, mode ->
+            val distanceForMode = distanceByMode[code]
             if (distanceForMode > 0) {
                 totalOverallDistance += distanceForMode
                 val emissions = (distanceForMode / 100.0) * getEmissionFactor(mode)
@@ -463,7 +457,7 @@ class MapFragment : Fragment(), OnMapReadyCallback {
             distanceInfo.append(String.format(Locale.KOREAN, "총 이동거리: %.2f m\n", totalOverallDistance))
             distanceInfo.append(String.format(Locale.KOREAN, "총 탄소 배출량: %.2f g CO₂", totalTransportEmissions))
             textDistanceInfo.text = distanceInfo.toString()
-            firstPoint?.let { googleMap?.moveCamera(CameraUpdateFactory.newLatLngZoom(it, 17f)) }
+            firstPoint?.let { googleMap?.moveCamera(CameraUpdateFactory.newLatLngZoom(it, ROUTE_ZOOM)) }
 
             // [추가됨] 계산된 총 탄소 배출량으로 캘린더 및 서버 데이터 업데이트
             updateCalendarAndServer(totalTransportEmissions)
@@ -510,6 +504,35 @@ class MapFragment : Fragment(), OnMapReadyCallback {
     }
 
 
+    /** 현재 경로를 확대 수준 구간에 맞게 단순화해 그립니다. 같은 구간이면 아무것도 하지 않습니다. */
+    private fun renderRoutes(zoom: Float) {
+        val map = googleMap ?: return
+        val routes = dayRoutes ?: return
+        val band = DayRoutes.bandFor(zoom)
+        if (band == renderedZoomBand) return
+
+        val runs = routes.forBand(band)
+        runs.forEachIndexed { index, run ->
+            val points = ArrayList<LatLng>(run.size())
+            for (i in 0 until run.size()) points.add(LatLng(run.getLatitude(i), run.getLongitude(i)))
+            if (index < routePolylines.size) {
+                routePolylines[index].points = points
+            } else {
+                val color = getTransportColor(PredictionStore.MODES[run.modeCode])
+                routePolylines.add(map.addPolyline(PolylineOptions().addAll(points).color(color).width(8f)))
+            }
+        }
+        renderedZoomBand = band
+        Timber.tag(TAG).d("경로 %d개, 꼭짓점 %d개 (확대 구간 %d)", runs.size, routes.getVertexCount(band), band)
+    }
+
+    private fun clearRoutes() {
+        routePolylines.forEach { it.remove() }
+        routePolylines.clear()
+        dayRoutes = null
+        renderedZoomBand = -1
+    }
+
     private fun getEmissionFactor(mode: String): Double = when (mode.uppercase(Locale.ROOT)) {
         "WALK", "BIKE" -> 0.0
         "CAR" -> 12.0; "BUS" -> 6.0; "SUBWAY" -> 4.0; else -> 8.0
@@ -547,6 +570,9 @@ class MapFragment : Fragment(), OnMapReadyCallback {
         if (::fusedLocationClient.isInitialized) {
             fusedLocationClient.removeLocationUpdates(locationCallback)
         }
+        routePolylines.clear()
+        dayRoutes = null
+        renderedZoomBand = -1
         mapView?.onDestroy()
         mapView = null
         googleMap = null
@@ -0,0 +1,40 @@
+package com.example.myapplication12345.ui.ranking
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.util.Calendar
+import java.util.TimeZone
+
+class LeaderboardPeriodTest {
+
+    private val seoul = TimeZone.getTimeZone("Asia/Seoul")
+
+    private fun millis(year: Int, month: Int, day: Int, hour: Int = 12): Long =
+        Calendar.getInstance(seoul).apply {
+            clear()
+            set(year, month - 1, day, hour, 0)
+        }.timeInMillis
+
+    @Test
+    fun bucketKeysFollowCalendarPeriods() {
+        val time = millis(2024, 3, 7)
+        assertEquals("all", LeaderboardPeriod.ALL.bucketKey(time, seoul))
+        assertEquals("2024-03-07", LeaderboardPeriod.DAILY.bucketKey(time, seoul))
+        assertEquals("2024-W10", LeaderboardPeriod.WEEKLY.bucketKey(time, seoul))
+        assertEquals("2024-03", LeaderboardPeriod.MONTHLY.bucketKey(time, seoul))
+    }
+
+    @Test
+    fun dayBucketUsesLocalMidnight() {
+        assertEquals("2024-03-07", LeaderboardPeriod.DAILY.bucketKey(millis(2024, 3, 7, 0), seoul))
+        assertEquals("2024-03-06", LeaderboardPeriod.DAILY.bucketKey(millis(2024, 3, 7, 0) - 1, seoul))
+    }
+
+    @Test
+    fun weekBucketUsesIsoWeekYear() {
+        // 월요일 시작, 연초 주차는 목요일이 속한 해
+        assertEquals("2025-W01", LeaderboardPeriod.WEEKLY.bucketKey(millis(2024, 12, 30), seoul))
+        assertEquals("2020-W53", LeaderboardPeriod.WEEKLY.bucketKey(millis(2021, 1, 3), seoul))
+        assertEquals("2021-W01", LeaderboardPeriod.WEEKLY.bucketKey(millis(2021, 1, 4), seoul))
+    }
+}
@@ -0,0 +1,34 @@
+plugins {
+    `java-library`
+}
+
+// 센서 전처리/특성 추출 코드 (Android 의존성 없음). 앱은 implementation(project(":features")) 로 사용
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+tasks.test {
+    // 센서 파이프라인 벤치마크: ./gradlew :features:test -Pbenchmark [-Pbenchmark.traces=<csv 폴더>]
+    systemProperty("benchmark", project.hasProperty("benchmark"))
+    project.findProperty("benchmark.traces")?.let { systemProperty("benchmark.traces", it) }
+}
+
+// 녹화 트레이스 재생: ./gradlew :features:replay -Ptrace=<트레이스 폴더 또는 .scap 캡처 파일> [-Pout=<출력 폴더>] [-Pspeed=10] [-Pclassifier=<클래스>]
+tasks.register<JavaExec>("replay") {
+    group = "verification"
+    description = "Replays a recorded sensor trace through the transport mode pipeline."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.myapplication12345.AI.replay.TraceReplay")
+    val replayArgs = mutableListOf(
+        project.findProperty("trace")?.toString() ?: "",
+        project.findProperty("out")?.toString() ?: layout.buildDirectory.dir("replay").get().asFile.path
+    )
+    project.findProperty("speed")?.let { replayArgs += listOf("--speed", it.toString()) }
+    project.findProperty("classifier")?.let { replayArgs += listOf("--classifier", it.toString()) }
+    args = replayArgs
+}
@@ -0,0 +1,96 @@
+package com.example.myapplication12345.AI.AP;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.GroupedLongs;
+import com.example.myapplication12345.AI.feature.TimeBuckets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class APProcessor {
+    /** 모델 입력 특성 이름 (스키마 내 순서) */
+    public static final String[] FEATURE_NAMES = {"wifi_cnt"};
+
+    private static final long STEP = 60 * 1000; // 60초(1분) 단위 처리
+    private static final long RANGE = 10 * 60 * 1000;
+    private static final int WINDOWS = (int) (RANGE / STEP);
+
+    public static List<Map<String, Object>> processAP(List<Map<String, Object>> apData, long startTimestamp) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        boolean hasData = false; // wifi_cnt > 0인 데이터가 있는지 확인하는 변수
+
+        int[] counts = countUniqueBssids(apData, startTimestamp);
+        for (int w = 0; w < WINDOWS; w++) {
+            if (counts[w] > 0) {
+                hasData = true; // wifi_cnt가 0보다 큰 값이 하나라도 있으면 true 설정
+                Map<String, Object> result = new HashMap<>();
+                result.put("timestamp", startTimestamp + w * STEP);
+                result.put("wifi_cnt", counts[w]); // 고유한 AP 개수
+                results.add(result);
+            }
+        }
+
+        // ✅ 모든 결과가 비어 있으면 "wifi_cnt: 0" 한 번만 추가
+        if (!hasData) {
+            Map<String, Object> emptyResult = new HashMap<>();
+            emptyResult.put("timestamp", startTimestamp);
+            emptyResult.put("wifi_cnt", 0);
+            results.add(emptyResult);
+        }
+
+        return results;
+    }
+
+    /**
+     * 모델 입력 프레임에 AP 특성을 기록합니다.
+     * processAP 의 첫 번째 결과(데이터가 있는 첫 1분 구간의 wifi_cnt, 없으면 0)를 모든 타임스텝에 반복 사용합니다.
+     */
+    public static void writeFeatures(List<Map<String, Object>> apData, long startTimestamp, FeatureFrame frame) {
+        int offset = frame.getSchema().offsetOf(FEATURE_NAMES);
+        int wifiCount = 0;
+        for (int count : countUniqueBssids(apData, startTimestamp)) {
+            wifiCount = count;
+            if (wifiCount > 0) break;
+        }
+        for (int t = 0; t < frame.getTimesteps(); t++) {
+            frame.put(t, offset, wifiCount);
+        }
+    }
+
+    /**
+     * ✅ 입력을 한 번만 훑어 1분 구간별 고유 BSSID 수를 구합니다.
+     * BSSID 는 {@link SensorBuffers#bssidKey(String)} 값으로 비교하므로, 형식이 맞지 않는 BSSID 도 이전 구현처럼 문자열마다 따로 셉니다.
+     */
+    private static int[] countUniqueBssids(List<Map<String, Object>> apData, long startTimestamp) {
+        GroupedLongs bssids = new GroupedLongs();
+        SensorSnapshot columns = SensorSnapshot.backing(apData);
+        if (columns != null) {
+            for (int row = 0; row < columns.size(); row++) {
+                int bucket = TimeBuckets.indexOf(columns.getTimestamp(row), startTimestamp, STEP, WINDOWS);
+                if (bucket >= 0) {
+                    bssids.add(bucket, columns.getLong(SensorBuffers.AP_BSSID, row));
+                }
+            }
+        } else {
+            for (Map<String, Object> record : apData) {
+                long timestamp = ((Number) Objects.requireNonNull(record.get("timestamp"))).longValue();
+                int bucket = TimeBuckets.indexOf(timestamp, startTimestamp, STEP, WINDOWS);
+                if (bucket >= 0) {
+                    // 이전 구현처럼 bssid 키가 없으면 "N/A" 문자열로 셈
+                    bssids.add(bucket, SensorBuffers.bssidKey((String) record.getOrDefault("bssid", "N/A")));
+                }
+            }
+        }
+        bssids.seal(WINDOWS);
+        int[] counts = new int[WINDOWS];
+        for (int w = 0; w < WINDOWS; w++) {
+            counts[w] = bssids.distinctCount(w);
+        }
+        return counts;
+    }
+}
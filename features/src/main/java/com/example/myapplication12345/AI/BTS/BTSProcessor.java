@@ -0,0 +1,260 @@
+package com.example.myapplication12345.AI.BTS;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.GroupedLongs;
+import com.example.myapplication12345.AI.feature.TimeBuckets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BTSProcessor {
+    /** 모델 입력 특성 이름 (스키마 내 순서) */
+    public static final String[] FEATURE_NAMES = {"total", "jerk_min", "jerk_max", "jerk_mean", "jerk_std"};
+
+    private static final int MILLI_INTERVAL = 5000;
+    private static final int STEP = MILLI_INTERVAL;
+    private static final int PROCESSING_WINDOW = 60 * 1000;
+    private static final int WINDOWS = PROCESSING_WINDOW / STEP;
+
+    /** ci 나 pci 가 없을 때(null) 대신 쓰는 값. 실제 셀 ID 로는 나오지 않는 값 */
+    public static final int MISSING_ID = Integer.MIN_VALUE;
+
+    public static List<Map<String, Object>> processBTS(List<Map<String, Object>> btsData, long startTimestamp) {
+        List<Map<String, Object>> processedData = new ArrayList<>();
+
+        if (btsData == null) {
+            return processedData; // 빈 리스트 반환
+        }
+
+        float[][] rows = computeWindows(btsData, startTimestamp);
+        for (int w = 0; w < WINDOWS; w++) {
+            processedData.add(createResult(startTimestamp + (long) w * STEP, rows[w]));
+        }
+
+        return processedData;
+    }
+
+    /**
+     * 모델 입력 프레임에 BTS 특성을 기록합니다.
+     * 5초 구간 12개의 결과를 타임스텝 t 에 t % 12 번째 구간으로 반복 배치합니다.
+     * @return 기록했으면 true (btsData 가 null 이면 false)
+     */
+    public static boolean writeFeatures(List<Map<String, Object>> btsData, long startTimestamp, FeatureFrame frame) {
+        if (btsData == null) {
+            return false;
+        }
+        int offset = frame.getSchema().offsetOf(FEATURE_NAMES);
+        float[][] rows = computeWindows(btsData, startTimestamp);
+        for (int t = 0; t < frame.getTimesteps(); t++) {
+            frame.putRow(t, offset, rows[t % WINDOWS], FEATURE_NAMES.length);
+        }
+        return true;
+    }
+
+    /** 셀 하나의 (ci, pci) 를 long 하나로 압축합니다 (상위 32비트 ci, 하위 32비트 pci). */
+    public static long packCell(int ci, int pci) {
+        return ((long) ci << 32) | (pci & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 입력을 한 번만 훑어 5초 구간마다 total, jerk_min, jerk_max, jerk_mean, jerk_std 를 구합니다.
+     * 구간 안에서 같은 timestamp 의 행을 한 그룹(그 시각에 보인 셀 집합)으로 묶고, 이웃한 그룹 사이에 나타나거나 사라진 셀 수가 jerk 입니다.
+     * 그룹이 2개 미만인 구간은 모든 값이 -1 입니다. 링 버퍼 스냅샷이면 열에서 바로 읽습니다.
+     */
+    private static float[][] computeWindows(List<Map<String, Object>> btsData, long startTimestamp) {
+        CellBuckets buckets = new CellBuckets();
+        SensorSnapshot columns = SensorSnapshot.backing(btsData);
+        if (columns != null) {
+            for (int row = 0; row < columns.size(); row++) {
+                long timestamp = columns.getTimestamp(row);
+                int bucket = TimeBuckets.indexOf(timestamp, startTimestamp, STEP, WINDOWS);
+                if (bucket >= 0) {
+                    buckets.add(bucket, timestamp, packCell((int) columns.getLong(SensorBuffers.BTS_CI, row),
+                            (int) columns.getLong(SensorBuffers.BTS_PCI, row)));
+                }
+            }
+        } else {
+            for (Map<String, Object> record : btsData) {
+                Object tsObj = record.get("timestamp");
+                if (!(tsObj instanceof Long)) continue;
+                long timestamp = (long) tsObj;
+                int bucket = TimeBuckets.indexOf(timestamp, startTimestamp, STEP, WINDOWS);
+                if (bucket >= 0) {
+                    buckets.add(bucket, timestamp, packCell(idOf(record.get("ci")), idOf(record.get("pci"))));
+                }
+            }
+        }
+        return buckets.stats();
+    }
+
+    // 숫자가 아니면(null 포함) 없는 값으로 봄
+    private static int idOf(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : MISSING_ID;
+    }
+
+    // 결과 Map 생성 (모든 특성은 float 타입)
+    private static Map<String, Object> createResult(long timestamp, float[] values) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", timestamp);
+        for (int i = 0; i < FEATURE_NAMES.length; i++) {
+            result.put(FEATURE_NAMES[i], values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 구간별 timestamp 그룹과 셀 집합. 그룹 번호는 처음 나타난 순서로 매기고, 구간마다 그룹을 연결 리스트로 잇습니다.
+     * <p>
+     * jerk 를 계산하는 그룹 순서는 이전 구현(Collectors.groupingBy 의 HashMap)의 순회 순서를 그대로 따릅니다.
+     * 시간순과 다를 수 있지만, 순서를 바꾸면 모델 입력이 달라지므로 재학습 없이 바꾸지 않습니다.
+     */
+    private static final class CellBuckets {
+        // java.util.HashMap 의 기본 용량과 트리 변환 기준 (트리 변환은 용량 64 이상에서 한 칸에 8개 이상 몰려야 일어나므로 다루지 않음)
+        private static final int INITIAL_TABLE_SIZE = 16;
+        private static final int TREEIFY_THRESHOLD = 8;
+        private static final int MIN_TREEIFY_TABLE_SIZE = 64;
+
+        private final GroupedLongs cellsByGroup = new GroupedLongs();
+        private final GroupedLongs cellsByBucket = new GroupedLongs();
+        private final int[] firstGroup = new int[WINDOWS];
+        private final int[] lastGroup = new int[WINDOWS];
+        private final int[] groupCounts = new int[WINDOWS];
+        private final int[] tableSizes = new int[WINDOWS];
+        private long[] groupTimestamps = new long[WINDOWS * 8];
+        private int[] nextGroup = new int[WINDOWS * 8];
+        private int groupCount = 0;
+        private int recentGroup = -1; // 같은 timestamp 의 행은 보통 연달아 들어오므로 직전 그룹부터 확인
+
+        CellBuckets() {
+            Arrays.fill(firstGroup, -1);
+            Arrays.fill(tableSizes, INITIAL_TABLE_SIZE);
+        }
+
+        void add(int bucket, long timestamp, long cell) {
+            // HashMap.computeIfAbsent 는 호출마다(기존 키 포함) 넣기 전에 크기가 임계값(용량의 3/4)을 넘었는지 보고 늘림
+            if (groupCounts[bucket] > tableSizes[bucket] / 4 * 3) {
+                tableSizes[bucket] *= 2;
+            }
+            int group = findGroup(bucket, timestamp);
+            if (group < 0) {
+                group = newGroup(bucket, timestamp);
+                // 새 키를 넣은 칸에 이미 7개 이상 있으면 트리로 바꾸는 대신 (용량 64 미만이라) 용량을 늘림
+                if (tableSizes[bucket] < MIN_TREEIFY_TABLE_SIZE && sameSlotCount(bucket, group) >= TREEIFY_THRESHOLD - 1) {
+                    tableSizes[bucket] *= 2;
+                }
+            }
+            recentGroup = group;
+            cellsByGroup.add(group, cell);
+            cellsByBucket.add(bucket, cell);
+        }
+
+        private int findGroup(int bucket, long timestamp) {
+            if (recentGroup >= 0 && groupTimestamps[recentGroup] == timestamp) {
+                return recentGroup;
+            }
+            for (int g = firstGroup[bucket]; g >= 0; g = nextGroup[g]) {
+                if (groupTimestamps[g] == timestamp) {
+                    return g;
+                }
+            }
+            return -1;
+        }
+
+        // 구간에서 group 보다 먼저 생긴 그룹 중 지금 용량에서 같은 해시 칸에 드는 수
+        private int sameSlotCount(int bucket, int group) {
+            int slot = slotOf(groupTimestamps[group], tableSizes[bucket]);
+            int count = 0;
+            for (int g = firstGroup[bucket]; g != group; g = nextGroup[g]) {
+                if (slotOf(groupTimestamps[g], tableSizes[bucket]) == slot) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static int slotOf(long timestamp, int tableSize) {
+            int hash = Long.hashCode(timestamp);
+            return (hash ^ (hash >>> 16)) & (tableSize - 1);
+        }
+
+        private int newGroup(int bucket, long timestamp) {
+            if (groupCount == groupTimestamps.length) {
+                groupTimestamps = Arrays.copyOf(groupTimestamps, groupCount * 2);
+                nextGroup = Arrays.copyOf(nextGroup, groupCount * 2);
+            }
+            int group = groupCount++;
+            groupTimestamps[group] = timestamp;
+            nextGroup[group] = -1;
+            if (firstGroup[bucket] < 0) {
+                firstGroup[bucket] = group;
+            } else {
+                nextGroup[lastGroup[bucket]] = group;
+            }
+            lastGroup[bucket] = group;
+            groupCounts[bucket]++;
+            return group;
+        }
+
+        float[][] stats() {
+            cellsByGroup.seal(groupCount);
+            cellsByBucket.seal(WINDOWS);
+            float[][] out = new float[WINDOWS][FEATURE_NAMES.length];
+            for (int b = 0; b < WINDOWS; b++) {
+                int n = groupCounts[b];
+                if (n < 2) {
+                    Arrays.fill(out[b], -1f);
+                    continue;
+                }
+                int[] order = hashMapOrder(b);
+                int[] jerks = new int[n - 1];
+                int jerkMin = Integer.MAX_VALUE;
+                int jerkMax = Integer.MIN_VALUE;
+                long jerkSum = 0;
+                for (int i = 1; i < n; i++) {
+                    jerks[i - 1] = cellsByGroup.symmetricDifference(order[i - 1], order[i]);
+                    jerkMin = Math.min(jerkMin, jerks[i - 1]);
+                    jerkMax = Math.max(jerkMax, jerks[i - 1]);
+                    jerkSum += jerks[i - 1];
+                }
+                double jerkMean = (double) jerkSum / jerks.length;
+                double squaredDeviations = 0.0;
+                for (int jerk : jerks) {
+                    squaredDeviations += (jerk - jerkMean) * (jerk - jerkMean);
+                }
+
+                out[b][0] = (float) cellsByBucket.distinctCount(b);
+                out[b][1] = (float) jerkMin;
+                out[b][2] = (float) jerkMax;
+                out[b][3] = (float) jerkMean;
+                out[b][4] = (float) Math.sqrt(squaredDeviations / jerks.length);
+            }
+            return out;
+        }
+
+        // 구간의 그룹을 HashMap<Long, ?> 순회 순서로: 해시 칸 번호 오름차순, 같은 칸이면 나중에 넣은 것부터
+        // (computeIfAbsent 는 새 키를 칸 맨 앞에 넣고, 용량을 늘릴 때는 칸 안의 순서를 유지함)
+        private int[] hashMapOrder(int bucket) {
+            int[] order = new int[groupCounts[bucket]];
+            int[] slots = new int[order.length];
+            int n = 0;
+            for (int g = firstGroup[bucket]; g >= 0; g = nextGroup[g]) {
+                int slot = slotOf(groupTimestamps[g], tableSizes[bucket]);
+                // 삽입 정렬 (그룹 수는 구간당 몇 개뿐)
+                int i = n++;
+                while (i > 0 && slots[i - 1] >= slot) {
+                    slots[i] = slots[i - 1];
+                    order[i] = order[i - 1];
+                    i--;
+                }
+                slots[i] = slot;
+                order[i] = g;
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.myapplication12345.AI.GPS;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.TimeBuckets;
+
+import java.util.*;
+
+public class GPSProcessor {
+    /** 모델 입력 특성 이름 (스키마 내 순서) */
+    public static final String[] FEATURE_NAMES = {"speed_min", "speed_max", "speed_mean", "speed_std"};
+
+    private static final int MILLI = 1000;
+    private static final int STEP = 5 * MILLI; // 5초 간격
+    private static final int PROCESSING_WINDOW = 60 * MILLI;
+    private static final int WINDOWS = PROCESSING_WINDOW / STEP;
+    private static final double EARTH_RADIUS_KM = 6371.0; // 지구 반경 (km)
+
+    // Haversine 공식 기반 거리 계산 (km)
+    public static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.pow(Math.sin(dLon / 2), 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c; // 결과는 km
+    }
+
+    public static List<Map<String, Object>> processGPS(List<Map<String, Object>> gpsData, long startTimestamp) {
+        List<Map<String, Object>> processedData = new ArrayList<>();
+
+        double[][] rows = computeWindows(gpsData, startTimestamp);
+        for (int w = 0; w < WINDOWS; w++) {
+            processedData.add(createResult(startTimestamp + (long) w * STEP, rows[w]));
+        }
+
+        return processedData;
+    }
+
+    /**
+     * 모델 입력 프레임에 GPS 특성을 기록합니다.
+     * 5초 구간 12개의 결과를 타임스텝 t 에 t % 12 번째 구간으로 반복 배치합니다.
+     */
+    public static void writeFeatures(List<Map<String, Object>> gpsData, long startTimestamp, FeatureFrame frame) {
+        int offset = frame.getSchema().offsetOf(FEATURE_NAMES);
+        double[][] rows = computeWindows(gpsData, startTimestamp);
+        for (int t = 0; t < frame.getTimesteps(); t++) {
+            frame.putRow(t, offset, rows[t % WINDOWS], FEATURE_NAMES.length);
+        }
+    }
+
+    /**
+     * 입력을 한 번만 훑어 5초 구간마다 speed_min, speed_max, speed_mean, speed_std 를 구합니다 (속도를 구할 점이 없으면 -1).
+     * 구간마다 입력 순서대로 이웃한 두 점 사이의 속도(m/h)를 씁니다. 링 버퍼 스냅샷이면 열에서 바로 읽습니다.
+     */
+    private static double[][] computeWindows(List<Map<String, Object>> gpsData, long startTimestamp) {
+        SpeedBuckets buckets = new SpeedBuckets();
+        SensorSnapshot columns = SensorSnapshot.backing(gpsData);
+        if (columns != null) {
+            for (int row = 0; row < columns.size(); row++) {
+                long timestamp = columns.getTimestamp(row);
+                int bucket = TimeBuckets.indexOf(timestamp, startTimestamp, STEP, WINDOWS);
+                if (bucket >= 0) {
+                    buckets.add(bucket, timestamp, columns.getDouble(SensorBuffers.GPS_LATITUDE, row),
+                            columns.getDouble(SensorBuffers.GPS_LONGITUDE, row));
+                }
+            }
+        } else {
+            for (Map<String, Object> record : gpsData) {
+                long timestamp = ((Number) Objects.requireNonNull(record.get("timestamp"))).longValue();
+                int bucket = TimeBuckets.indexOf(timestamp, startTimestamp, STEP, WINDOWS);
+                if (bucket >= 0) {
+                    buckets.add(bucket, timestamp, ((Number) Objects.requireNonNull(record.get("latitude"))).doubleValue(),
+                            ((Number) Objects.requireNonNull(record.get("longitude"))).doubleValue());
+                }
+            }
+        }
+        return buckets.stats();
+    }
+
+    private static Map<String, Object> createResult(long timestamp, double[] values) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", timestamp);
+        for (int i = 0; i < FEATURE_NAMES.length; i++) {
+            result.put(FEATURE_NAMES[i], values[i]);
+        }
+        return result;
+    }
+
+    /** 구간별 직전 점과 속도 목록. 속도는 구간 번호와 함께 한 배열에 들어온 순서대로 쌓습니다. */
+    private static final class SpeedBuckets {
+        private final boolean[] hasPrevious = new boolean[WINDOWS];
+        private final long[] previousTime = new long[WINDOWS];
+        private final double[] previousLat = new double[WINDOWS];
+        private final double[] previousLon = new double[WINDOWS];
+        private double[] speeds = new double[WINDOWS * 8];
+        private int[] speedBuckets = new int[WINDOWS * 8];
+        private int speedCount = 0;
+
+        void add(int bucket, long timestamp, double lat, double lon) {
+            if (hasPrevious[bucket]) {
+                double distanceMeters = haversineDistance(previousLat[bucket], previousLon[bucket], lat, lon) * 1000.0;
+                double timeDiff = timestamp - previousTime[bucket]; // milliseconds
+                if (timeDiff > 0) {
+                    addSpeed(bucket, (distanceMeters / timeDiff) * 3600000.0); // m/h
+                }
+            }
+            hasPrevious[bucket] = true;
+            previousTime[bucket] = timestamp;
+            previousLat[bucket] = lat;
+            previousLon[bucket] = lon;
+        }
+
+        private void addSpeed(int bucket, double speed) {
+            if (speedCount == speeds.length) {
+                speeds = Arrays.copyOf(speeds, speedCount * 2);
+                speedBuckets = Arrays.copyOf(speedBuckets, speedCount * 2);
+            }
+            speeds[speedCount] = speed;
+            speedBuckets[speedCount] = bucket;
+            speedCount++;
+        }
+
+        // 구간별 [min, max, mean, std]. 평균을 먼저 구한 뒤 편차 제곱의 평균으로 표준편차 (모집단 표준편차)
+        double[][] stats() {
+            int[] counts = new int[WINDOWS];
+            double[] sums = new double[WINDOWS];
+            double[][] out = new double[WINDOWS][FEATURE_NAMES.length];
+            for (double[] row : out) {
+                row[0] = Double.POSITIVE_INFINITY;
+                row[1] = Double.NEGATIVE_INFINITY;
+            }
+            for (int i = 0; i < speedCount; i++) {
+                int b = speedBuckets[i];
+                counts[b]++;
+                sums[b] += speeds[i];
+                out[b][0] = Math.min(out[b][0], speeds[i]);
+                out[b][1] = Math.max(out[b][1], speeds[i]);
+            }
+            double[] squaredDeviations = new double[WINDOWS];
+            for (int i = 0; i < speedCount; i++) {
+                int b = speedBuckets[i];
+                double deviation = speeds[i] - sums[b] / counts[b];
+                squaredDeviations[b] += deviation * deviation;
+            }
+            for (int b = 0; b < WINDOWS; b++) {
+                if (counts[b] == 0) {
+                    Arrays.fill(out[b], -1.0);
+                } else {
+                    out[b][2] = sums[b] / counts[b];
+                    out[b][3] = Math.sqrt(squaredDeviations[b] / counts[b]);
+                }
+            }
+            return out;
+        }
+    }
+}
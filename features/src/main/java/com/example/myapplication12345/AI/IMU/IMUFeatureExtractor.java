@@ -0,0 +1,312 @@
+package com.example.myapplication12345.AI.IMU;
+
+/**
+ * 윈도우 하나에 대한 통계/스펙트럼 피처 커널.
+ * <p>
+ * 모든 함수는 (배열, 유효 길이) 를 받아 호출 측이 넘긴 출력 배열과 작업 배열만 사용하므로 힙 할당이 없습니다.
+ * 백분위수는 정렬 대신 선택 알고리즘으로 구하며 Commons Math {@code Percentile}(R_7, NaN 제거)과 같은 값을 냅니다.
+ */
+public class IMUFeatureExtractor {
+
+    /** 통계 피처 수와 출력 순서: mean, std, max, min, mad, iqr, max.corr, idx.max.corr, zcr, fzc */
+    public static final int STAT_FEATURE_COUNT = 10;
+    /** 스펙트럼 피처 수와 출력 순서: max.psd, entropy, fc, kurt, skew */
+    public static final int SPECTRAL_FEATURE_COUNT = 5;
+
+    // --- 통계 피처 계산 함수들 ---
+
+    /**
+     * 통계 피처 10개를 out[offset..] 에 씁니다.
+     * @param data 윈도우
+     * @param n 유효 길이 (0 이면 모두 NaN)
+     * @param autocorrelation data 의 자기상관 (lag 0 ~ n-1, {@link SpectralEngine#autocorrelation()})
+     * @param scratch 길이 n 이상의 작업 배열 (내용이 덮어쓰임)
+     */
+    public static void writeStatFeatures(double[] data, int n, double[] autocorrelation, double[] scratch,
+                                         double[] out, int offset) {
+        boolean hasOnlyNaN = true;
+        for (int i = 0; i < n; i++) { if (!Double.isNaN(data[i])) { hasOnlyNaN = false; break; } }
+        if (hasOnlyNaN) {
+            for (int k = 0; k < STAT_FEATURE_COUNT; k++) out[offset + k] = Double.NaN;
+            return;
+        }
+
+        double mean = mean(data, n);
+        out[offset] = mean;
+        out[offset + 1] = populationStd(data, n, mean);
+        out[offset + 2] = max(data, n);
+        out[offset + 3] = min(data, n);
+        out[offset + 4] = computeRawMAD(data, n, scratch);
+        out[offset + 5] = percentileR7(data, n, 75.0, scratch) - percentileR7(data, n, 25.0, scratch);
+
+        // 최댓값과 그 위치 (NaN 제외)
+        double maxValue = autocorrelation[0]; int maxIndex = 0; boolean allNaN = Double.isNaN(maxValue);
+        for (int i = 1; i < n; i++) {
+            double v = autocorrelation[i];
+            if (!Double.isNaN(v)) {
+                allNaN = false;
+                if (v > maxValue) { maxValue = v; maxIndex = i; }
+            }
+        }
+        out[offset + 6] = allNaN ? Double.NaN : maxValue;
+        out[offset + 7] = allNaN ? Double.NaN : maxIndex;
+        out[offset + 8] = computeZCR(autocorrelation, n);
+        out[offset + 9] = computeFZC(autocorrelation, n);
+    }
+
+    /** 산술 평균 (Commons Math Mean 과 같은 보정 2-pass). NaN 이 있으면 NaN. */
+    public static double mean(double[] data, int n) {
+        double sum = 0;
+        for (int i = 0; i < n; i++) sum += data[i];
+        double sample = sum / n;
+        double correction = 0;
+        for (int i = 0; i < n; i++) correction += data[i] - sample;
+        return sample + correction / n;
+    }
+
+    /** 모표준편차 (Commons Math StandardDeviation(false) 와 같은 계산). */
+    public static double populationStd(double[] data, int n, double mean) {
+        if (n == 1) return 0.0;
+        double accum = 0, accum2 = 0;
+        for (int i = 0; i < n; i++) {
+            double dev = data[i] - mean;
+            accum += dev * dev;
+            accum2 += dev;
+        }
+        return Math.sqrt((accum - (accum2 * accum2 / n)) / n);
+    }
+
+    /** NaN 을 제외한 최댓값. */
+    public static double max(double[] data, int n) {
+        double max = data[0];
+        for (int i = 1; i < n; i++) {
+            if (!Double.isNaN(data[i])) max = (max > data[i]) ? max : data[i];
+        }
+        return max;
+    }
+
+    /** NaN 을 제외한 최솟값. */
+    public static double min(double[] data, int n) {
+        double min = data[0];
+        for (int i = 1; i < n; i++) {
+            if (!Double.isNaN(data[i])) min = (min < data[i]) ? min : data[i];
+        }
+        return min;
+    }
+
+    /**
+     * R_7 방식 백분위수 (NaN 제외). numpy.percentile 기본값과 같습니다.
+     * @param p 0 ~ 100
+     * @param scratch 길이 n 이상의 작업 배열 (내용이 덮어쓰임)
+     */
+    public static double percentileR7(double[] data, int n, double p, double[] scratch) {
+        int m = copyNonNaN(data, n, scratch);
+        return selectPercentileR7(scratch, m, p);
+    }
+
+    private static double computeRawMAD(double[] data, int n, double[] scratch) {
+        int m = copyNonNaN(data, n, scratch);
+        if (m == 0) return Double.NaN;
+        double median = selectPercentileR7(scratch, m, 50.0);
+        if (Double.isNaN(median)) return Double.NaN;
+        // 선택 과정에서 scratch 순서가 바뀌었으므로 원본에서 다시 편차를 구함
+        m = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(data[i])) scratch[m++] = Math.abs(data[i] - median);
+        }
+        return selectPercentileR7(scratch, m, 50.0);
+    }
+
+    private static int copyNonNaN(double[] data, int n, double[] dst) {
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(data[i])) dst[m++] = data[i];
+        }
+        return m;
+    }
+
+    // a[0..m) 를 재배열하며 R_7 백분위수를 구함 (Commons Math Percentile.EstimationType.R_7 과 같은 보간)
+    private static double selectPercentileR7(double[] a, int m, double p) {
+        if (m == 0) return Double.NaN;
+        if (m == 1) return a[0];
+        double q = p / 100.0;
+        double pos = (q == 0.0) ? 0 : (q == 1.0) ? m : 1 + (m - 1) * q;
+        double fpos = Math.floor(pos);
+        int intPos = (int) fpos;
+        double dif = pos - fpos;
+        if (pos < 1) return select(a, m, 0);
+        if (pos >= m) return select(a, m, m - 1);
+        double lower = select(a, m, intPos - 1);
+        // 선택 후 a[intPos..] 는 모두 lower 이상이므로 그중 최솟값이 다음 순위 값
+        double upper = a[intPos];
+        for (int i = intPos + 1; i < m; i++) if (a[i] < upper) upper = a[i];
+        return lower + dif * (upper - lower);
+    }
+
+    // k 번째(0부터) 작은 값을 a[k] 에 놓고 반환. 중복 값이 많아도 선형 시간에 가깝게 동작 (Hoare 분할)
+    private static double select(double[] a, int m, int k) {
+        int left = 0, right = m - 1;
+        while (right > left) {
+            int mid = (left + right) >>> 1;
+            // 중앙값 피벗: a[left] <= a[mid] <= a[right]
+            if (a[mid] < a[left]) swap(a, mid, left);
+            if (a[right] < a[left]) swap(a, right, left);
+            if (a[right] < a[mid]) swap(a, right, mid);
+            double pivot = a[mid];
+            int i = left, j = right;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) { swap(a, i, j); i++; j--; }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else break; // j < k < i 이면 a[k] == pivot
+        }
+        return a[k];
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i]; a[i] = a[j]; a[j] = t;
+    }
+
+    private static double computeZCR(double[] data, int n) {
+        if (n < 2) return 0.0;
+        int S = 0;
+        int previousSign = signOf(data[0]);
+        for (int i = 1; i < n; i++) {
+            int sign = signOf(data[i]);
+            S += Math.abs(sign - previousSign);
+            previousSign = sign;
+        }
+        return (0.5 * S) / n;
+    }
+
+    // NaN 은 0 으로 보고, 0 이상이면 1
+    private static int signOf(double v) {
+        return (Double.isNaN(v) || v >= 0) ? 1 : -1;
+    }
+
+    private static double computeFZC(double[] data, int n) {
+        if (n < 2) return 0.0;
+        for (int i = 0; i < n - 1; i++) {
+            double a = Double.isNaN(data[i]) ? 0.0 : data[i];
+            double b = Double.isNaN(data[i + 1]) ? 0.0 : data[i + 1];
+            if (Math.signum(a) != Math.signum(b)) return i + 1;
+        }
+        return 0;
+    }
+
+    // --- 스펙트럼 피처 계산 함수들 ---
+
+    /**
+     * 스펙트럼 피처 5개를 out[offset..] 에 씁니다.
+     * @param psd 단측 PSD ({@link SpectralEngine#psd()})
+     * @param nfftUsedForPsd PSD 를 만든 FFT 크기
+     */
+    public static void writeSpectralFeatures(double[] psd, int fs, int nfftUsedForPsd, double[] out, int offset) {
+        out[offset] = findMax(psd);
+        out[offset + 1] = computeEntropy(psd);
+        out[offset + 2] = computeFrequencyCenter(psd, fs, nfftUsedForPsd);
+        out[offset + 3] = calculateKurtosisSciPyStyle(psd);
+        out[offset + 4] = calculateSkewnessSciPyStyle(psd);
+    }
+
+    public static int getNextPowerOfTwo(int number) {
+        if (number <= 0) return 2;
+        int power = 1;
+        while (power < number) { power <<= 1; if (power <= 0) throw new IllegalArgumentException("Number too large"); }
+        return power;
+    }
+
+    public static double computeEntropy(double[] psd) {
+        if (psd == null || psd.length == 0) return 0.0;
+        double sumPk = 0; for (double p_val : psd) if (!Double.isNaN(p_val) && p_val > 0) sumPk += p_val;
+        double safeSumPk = (sumPk == 0.0) ? 1e-6 : sumPk; double entropy = 0.0;
+        for (double p_val : psd) {
+            if (Double.isNaN(p_val) || p_val <= 0) continue;
+            double pk_norm = p_val / safeSumPk;
+            if (pk_norm > 1e-15) entropy -= pk_norm * Math.log(pk_norm); // Math.log is natural log
+        }
+        return entropy;
+    }
+
+    public static double computeFrequencyCenter(double[] psd, int fs, int nfftUsedForPsd) {
+        if (psd == null || psd.length == 0) return Double.NaN;
+        int nfft = nfftUsedForPsd;
+        if (nfft <= 0 || psd.length != (nfft / 2 + 1)) {
+            if (psd.length > 1) nfft = (psd.length - 1) * 2;
+            else nfft = 2;
+        }
+        if (nfft < 1) return Double.NaN;
+        double sumPsdRaw = 0; double weightedSumRaw = 0;
+        double freqStep = fs == 0 ? 0 : (double) fs / nfft;
+        for (int k = 0; k < psd.length; k++) {
+            if (!Double.isNaN(psd[k]) && psd[k] >=0) { sumPsdRaw += psd[k]; weightedSumRaw += (k * freqStep) * psd[k]; }
+        }
+        double denominatorForFc = (sumPsdRaw == 0.0) ? 1e-6 : sumPsdRaw;
+        return weightedSumRaw / denominatorForFc;
+    }
+
+    /** SciPy kurtosis(fisher=True, bias=True). NaN/무한대 값은 제외합니다. */
+    public static double calculateKurtosisSciPyStyle(double[] data) {
+        int n = 0;
+        double mean = 0;
+        for (double v : data) if (Double.isFinite(v)) { mean += v; n++; }
+        if (n == 0) return Double.NaN;
+        if (n == 1) return -3.0; // SciPy: fisher=True, bias=True
+        // For n < 4, SciPy kurtosis with bias=True, fisher=True might return NaN if variance is not well-defined or zero.
+        mean /= n;
+
+        double m2 = 0, m4 = 0;
+        for (double v : data) { if (!Double.isFinite(v)) continue; double d = v - mean; m2 += d * d; m4 += d * d * d * d; }
+        m2 /= n; m4 /= n;
+
+        if (Math.abs(m2) < 1e-40) {
+            return Double.NaN;
+        }
+        double denom = m2 * m2;
+        if (Math.abs(denom) < 1e-80) { // 분모가 극도로 작음
+            return Double.NaN;
+        }
+        double kurt = (m4 / denom) - 3.0;
+        return Double.isFinite(kurt) ? kurt : Double.NaN; // 최종 결과가 유한한지 확인
+    }
+
+    /** SciPy skew(bias=True). NaN/무한대 값은 제외합니다. */
+    public static double calculateSkewnessSciPyStyle(double[] data) {
+        int n = 0;
+        double mean = 0;
+        for (double v : data) if (Double.isFinite(v)) { mean += v; n++; }
+        if (n == 0) return Double.NaN;
+        if (n == 1) return 0.0;
+        mean /= n;
+
+        double m2 = 0, m3 = 0;
+        for (double v : data) { if (!Double.isFinite(v)) continue; double d = v - mean; m2 += d * d; m3 += d * d * d; }
+        m2 /= n; m3 /= n;
+
+        if (Math.abs(m2) < 1e-40) {
+            return Double.NaN;
+        }
+        double m2_pow_1_5 = Math.pow(m2, 1.5);
+        if (Double.isNaN(m2_pow_1_5) || Math.abs(m2_pow_1_5) < 1e-60) {
+            return (Math.abs(m3) < 1e-60 && m3 != 0) ? Double.NaN : 0.0;
+        }
+        double skew = m3 / m2_pow_1_5;
+        return Double.isFinite(skew) ? skew : Double.NaN;
+    }
+
+    public static double findMax(double[] data) {
+        if (data == null || data.length == 0) return Double.NaN;
+        double maxVal = Double.NEGATIVE_INFINITY;
+        boolean foundNumeric = false;
+        for (double v : data) {
+            if (!Double.isNaN(v) && Double.isFinite(v)) {
+                foundNumeric = true;
+                if (v > maxVal) maxVal = v;
+            }
+        }
+        return foundNumeric ? maxVal : Double.NaN;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.myapplication12345.AI.IMU;
+
+import java.util.Map;
+
+/**
+ * 피처셋 하나(예: "accel", "jerk_h")를 1초 윈도우에 적용해 피처 벡터의 정해진 위치에 쓰는 처리기.
+ * 축 변환, 크기, 저크 결과는 모두 {@link ImuWorkspace} 의 배열을 재사용합니다.
+ */
+public class IMUProcessing {
+    private static final int CONST_FS = 100;
+
+    private static final String[] AXIS_SUFFIXES = {"M", "X", "Y", "Z"};
+
+    /** 피처셋 설정과 피처 벡터 내 출력 위치. IMUConfig 와 헤더 순서로부터 한 번만 만듭니다. */
+    static final class FeatureSetPlan {
+        final String featureSetPrefix;     // 예: "accel", "jerk_h"
+        final String sourceSensor;         // config.ini "using_sensor_data"
+        final int numChannels;             // 피처셋 이름 기준 채널 수 (accel_h 등은 0 → x 축만 사용)
+        final String processType;          // config.ini "process" (예: "rotate", "horizontal")
+        final boolean calculateJerk;       // config.ini "calculate_jerk" 값
+        final String detrendType;
+        // M, X, Y, Z 순서의 통계/스펙트럼 피처 시작 위치 (계산하지 않는 축은 -1)
+        final int[] statOffsets = new int[AXIS_SUFFIXES.length];
+        final int[] spectralOffsets = new int[AXIS_SUFFIXES.length];
+
+        FeatureSetPlan(String featureSetPrefix, Map<String, Integer> featureIndex) {
+            this.featureSetPrefix = featureSetPrefix;
+            this.sourceSensor = IMUConfig.getUsingSensorData(featureSetPrefix);
+            this.numChannels = IMUConfig.getSensorChannels(featureSetPrefix);
+            this.processType = IMUConfig.getProcessType(featureSetPrefix);
+            this.calculateJerk = IMUConfig.isCalculateJerkEnabled(featureSetPrefix);
+            this.detrendType = IMUConfig.getDetrendTypeForWelch(featureSetPrefix);
+
+            boolean eachAxis = IMUConfig.isProcessEachAxis(featureSetPrefix) && numChannels > 1 && !calculateJerk;
+            for (int axis = 0; axis < AXIS_SUFFIXES.length; axis++) {
+                String name = featureSetPrefix + AXIS_SUFFIXES[axis];
+                Integer stat = featureIndex.get(name + "_mean");
+                Integer spectral = featureIndex.get(name + "_max.psd");
+                boolean computed = (axis == 0 || (eachAxis && axis <= numChannels)) && stat != null && spectral != null;
+                statOffsets[axis] = computed ? stat : -1;
+                spectralOffsets[axis] = computed ? spectral : -1;
+                if (computed) {
+                    checkContiguous(featureIndex, name, stat, IMUFeatureExtractor.STAT_FEATURE_COUNT);
+                    checkContiguous(featureIndex, name, spectral, IMUFeatureExtractor.SPECTRAL_FEATURE_COUNT);
+                }
+            }
+            if (statOffsets[0] < 0) {
+                throw new IllegalStateException("No feature columns for " + featureSetPrefix + "M");
+            }
+        }
+
+        private static void checkContiguous(Map<String, Integer> featureIndex, String name, int start, int count) {
+            for (Map.Entry<String, Integer> e : featureIndex.entrySet()) {
+                int idx = e.getValue();
+                if (idx >= start && idx < start + count && !e.getKey().startsWith(name + "_")) {
+                    throw new IllegalStateException("Feature columns of " + name + " are not contiguous at " + e.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * 작업 공간에 올라온 1초 윈도우에 피처셋 하나를 적용해 out 의 해당 위치에 씁니다.
+     * 결과에 NaN 이 있을 수 있으며 호출 측에서 0 으로 바꿉니다.
+     */
+    static void processWindow(ImuWorkspace ws, FeatureSetPlan plan, double[] out) {
+        final int n = ImuWorkspace.WINDOW_SIZE;
+        double[][] source = ws.sensor(plan.sourceSensor);
+        if (source == null) {
+            return;
+        }
+        int numChannels = plan.numChannels;
+        double[] x = source[0];
+        double[] y = (numChannels >= 2) ? source[1] : null;
+        double[] z = (numChannels >= 3) ? source[2] : null;
+
+        // 피처 계산에 사용될 1D 데이터 (저크의 경우 길이 n - 1)
+        double[] magnitudeSource;
+        if (numChannels >= 3) {
+            if ("rotate".equals(plan.processType)) {
+                double[][] rot = ws.sensor("rot");
+                IMUUtils.rotateAxis(x, y, z, rot[0], rot[1], rot[2], rot[3], n, ws.axisX, ws.axisY, ws.axisZ);
+                x = ws.axisX; // 축별 피처도 회전된 축으로 계산
+                y = ws.axisY;
+                z = ws.axisZ;
+                IMUUtils.magnitude(x, y, z, n, ws.magnitude);
+            } else if ("horizontal".equals(plan.processType) || "vertical".equals(plan.processType)) {
+                double[][] gravity = ws.sensor("gravity");
+                IMUUtils.calculateAngle(x, y, z, gravity[0], gravity[1], gravity[2], n, ws.theta);
+                IMUUtils.magnitude(x, y, z, n, ws.magnitude);
+                boolean horizontal = "horizontal".equals(plan.processType);
+                for (int j = 0; j < n; j++) {
+                    ws.magnitude[j] = ws.magnitude[j] * (horizontal ? Math.cos(ws.theta[j]) : Math.sin(ws.theta[j]));
+                }
+            } else { // process is null or other
+                IMUUtils.magnitude(x, y, z, n, ws.magnitude);
+            }
+            magnitudeSource = ws.magnitude;
+        } else {
+            magnitudeSource = x;
+        }
+
+        int length = n;
+        if (plan.calculateJerk) {
+            length = IMUUtils.diff(magnitudeSource, n, ws.jerk);
+            magnitudeSource = ws.jerk;
+        }
+
+        writeFeatures(ws, magnitudeSource, length, plan, 0, out);
+        if (plan.statOffsets[1] >= 0) writeFeatures(ws, x, n, plan, 1, out);
+        if (plan.statOffsets[2] >= 0) writeFeatures(ws, y, n, plan, 2, out);
+        if (plan.statOffsets[3] >= 0) writeFeatures(ws, z, n, plan, 3, out);
+    }
+
+    // 통계 + 스펙트럼 피처를 윈도우당 FFT 한 번으로 함께 계산
+    private static void writeFeatures(ImuWorkspace ws, double[] data, int length, FeatureSetPlan plan, int axis,
+                                      double[] out) {
+        int statOffset = plan.statOffsets[axis];
+        int spectralOffset = plan.spectralOffsets[axis];
+        if (length == 0) {
+            for (int k = 0; k < IMUFeatureExtractor.STAT_FEATURE_COUNT; k++) out[statOffset + k] = Double.NaN;
+            for (int k = 0; k < IMUFeatureExtractor.SPECTRAL_FEATURE_COUNT; k++) out[spectralOffset + k] = Double.NaN;
+            return;
+        }
+        SpectralEngine engine = ws.spectralEngine(length);
+        engine.transform(data, CONST_FS, plan.detrendType);
+        IMUFeatureExtractor.writeStatFeatures(data, length, engine.autocorrelation(), ws.scratch, out, statOffset);
+        IMUFeatureExtractor.writeSpectralFeatures(engine.psd(), CONST_FS, engine.getWelchNfft(), out, spectralOffset);
+    }
+}
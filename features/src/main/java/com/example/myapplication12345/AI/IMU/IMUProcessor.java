@@ -0,0 +1,204 @@
+package com.example.myapplication12345.AI.IMU;
+
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class IMUProcessor {
+
+    // 계산할 피처셋 (출력 순서는 predefinedHeaders 가 결정)
+    private static final List<String> ENABLED_FEATURE_SETS = Arrays.asList("gyro", "accel", "linear_accel", "accel_h", "accel_v", "jerk_h",
+            "jerk_v", "mag", "gravity", "pressure");
+
+    // 피처 작업 공간은 스레드별로 하나 (집계 스레드와 추론 워커가 동시에 호출할 수 있음)
+    private static final ThreadLocal<ImuWorkspace> WORKSPACE = ThreadLocal.withInitial(ImuWorkspace::new);
+
+    /**
+     * 1초 구간 하나의 IMU 원본 샘플로 피처 벡터를 계산합니다.
+     * 링 버퍼 열에서 바로 격자를 채우므로 Map 을 만들지 않으며, 정상 상태에서는 힙 할당이 없습니다.
+     * @param bucketSamples 같은 timestamp 를 가진 한 구간의 샘플 (비어 있으면 안 됨)
+     * @param out 길이 {@link #FEATURE_COUNT} 이상. {@link #getFeatureNames()} 순서로 채워짐
+     * @return 구간 timestamp
+     */
+    public static long extractFeatures(SensorSnapshot bucketSamples, double[] out) {
+        if (bucketSamples.isEmpty()) {
+            throw new IllegalArgumentException("⚠ IMU 데이터가 비어 있습니다!");
+        }
+        ImuWorkspace ws = WORKSPACE.get();
+        ws.load(bucketSamples);
+        computeFeatures(ws, out);
+        return bucketSamples.getTimestamp(0);
+    }
+
+    /**
+     * 1초 구간 하나의 IMU 원본 샘플(Map)로 피처 벡터를 계산합니다. 결과는 {@link #preImu} 의 해당 행과 같습니다.
+     * @param bucketSamples 같은 timestamp 를 가진 한 구간의 샘플 (비어 있으면 안 됨)
+     * @param out 길이 {@link #FEATURE_COUNT} 이상. {@link #getFeatureNames()} 순서로 채워짐
+     */
+    public static void extractFeatures(List<Map<String, Object>> bucketSamples, double[] out) {
+        if (bucketSamples == null || bucketSamples.isEmpty()) {
+            throw new IllegalArgumentException("⚠ IMU 데이터가 비어 있습니다!");
+        }
+        ImuWorkspace ws = WORKSPACE.get();
+        ws.load(bucketSamples);
+        computeFeatures(ws, out);
+    }
+
+    /**
+     * IMU 원본 샘플(Map)을 1초 구간별 피처 행으로 변환합니다.
+     * @return 구간 시간순 행. 각 행은 "timestamp" 와 {@link #getFeatureNames()} 순서의 피처를 담은 새 LinkedHashMap
+     */
+    public static List<Map<String, Object>> preImu(List<Map<String, Object>> imu) {
+        if (imu == null || imu.isEmpty()) {
+            throw new IllegalArgumentException("⚠ IMU 데이터가 비어 있습니다!");
+        }
+
+        // 1. 타임스탬프별로 데이터 그룹화
+        TreeMap<Long, List<Map<String, Object>>> groupedByTimestamp = groupByTimestamp(imu);
+
+        // 2. 각 윈도우를 균일한 100Hz 격자로 리샘플링 후 피처 추출
+        ImuWorkspace ws = WORKSPACE.get();
+        List<Map<String, Object>> resultList = new ArrayList<>(groupedByTimestamp.size());
+        for (Map.Entry<Long, List<Map<String, Object>>> window : groupedByTimestamp.entrySet()) {
+            ws.load(window.getValue());
+            computeFeatures(ws, ws.features);
+            resultList.add(toFeatureRow(window.getKey(), ws.features));
+        }
+        return resultList;
+    }
+
+    /** 피처 벡터를 기존 Map 기반 코드가 쓰는 행 형태로 바꿉니다. */
+    public static Map<String, Object> toFeatureRow(long timestamp, double[] features) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", timestamp);
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            entry.put(FEATURE_NAMES.get(i), features[i]);
+        }
+        return entry;
+    }
+
+    /** 피처 벡터의 열 이름 (timestamp 제외, predefinedHeaders 순서). */
+    public static List<String> getFeatureNames() {
+        return FEATURE_NAMES;
+    }
+
+    private static void computeFeatures(ImuWorkspace ws, double[] out) {
+        for (IMUProcessing.FeatureSetPlan plan : PLANS) {
+            IMUProcessing.processWindow(ws, plan, out);
+        }
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            if (Double.isNaN(out[i])) out[i] = 0.0;
+        }
+    }
+
+    private static TreeMap<Long, List<Map<String, Object>>> groupByTimestamp(List<Map<String, Object>> imuData) {
+        TreeMap<Long, List<Map<String, Object>>> grouped = new TreeMap<>();
+        for (Map<String, Object> entry : imuData) {
+            long timestamp = getNumberAsLong(entry.get("timestamp"));
+            grouped.computeIfAbsent(timestamp, k -> new ArrayList<>()).add(entry);
+        }
+        return grouped;
+    }
+
+    private static long getNumberAsLong(Object obj) {
+        if (obj instanceof Number) {
+            return ((Number) obj).longValue();
+        }
+        return 0L;
+    }
+
+    // predefinedHeaders 리스트는 기존과 동일
+    private static final List<String> predefinedHeaders = Arrays.asList(
+            "timestamp",
+            "accelM_mean", "accelM_std", "accelM_max", "accelM_min", "accelM_mad", "accelM_iqr",
+            "accelM_max.corr", "accelM_idx.max.corr", "accelM_zcr", "accelM_fzc",
+            "accelX_mean", "accelX_std", "accelX_max", "accelX_min", "accelX_mad", "accelX_iqr",
+            "accelX_max.corr", "accelX_idx.max.corr", "accelX_zcr", "accelX_fzc",
+            "accelY_mean", "accelY_std", "accelY_max", "accelY_min", "accelY_mad", "accelY_iqr",
+            "accelY_max.corr", "accelY_idx.max.corr", "accelY_zcr", "accelY_fzc",
+            "accelZ_mean", "accelZ_std", "accelZ_max", "accelZ_min", "accelZ_mad", "accelZ_iqr",
+            "accelZ_max.corr", "accelZ_idx.max.corr", "accelZ_zcr", "accelZ_fzc",
+            "accelM_max.psd", "accelM_entropy", "accelM_fc", "accelM_kurt", "accelM_skew",
+            "accelX_max.psd", "accelX_entropy", "accelX_fc", "accelX_kurt", "accelX_skew",
+            "accelY_max.psd", "accelY_entropy", "accelY_fc", "accelY_kurt", "accelY_skew",
+            "accelZ_max.psd", "accelZ_entropy", "accelZ_fc", "accelZ_kurt", "accelZ_skew",
+            "accel_hM_mean", "accel_hM_std", "accel_hM_max", "accel_hM_min", "accel_hM_mad", "accel_hM_iqr",
+            "accel_hM_max.corr", "accel_hM_idx.max.corr", "accel_hM_zcr", "accel_hM_fzc",
+            "accel_hM_max.psd", "accel_hM_entropy", "accel_hM_fc", "accel_hM_kurt", "accel_hM_skew",
+            "accel_vM_mean", "accel_vM_std", "accel_vM_max", "accel_vM_min", "accel_vM_mad", "accel_vM_iqr",
+            "accel_vM_max.corr", "accel_vM_idx.max.corr", "accel_vM_zcr", "accel_vM_fzc",
+            "accel_vM_max.psd", "accel_vM_entropy", "accel_vM_fc", "accel_vM_kurt", "accel_vM_skew",
+            "gravityM_mean", "gravityM_std", "gravityM_max", "gravityM_min", "gravityM_mad", "gravityM_iqr",
+            "gravityM_max.corr", "gravityM_idx.max.corr", "gravityM_zcr", "gravityM_fzc",
+            "gravityX_mean", "gravityX_std", "gravityX_max", "gravityX_min", "gravityX_mad", "gravityX_iqr",
+            "gravityX_max.corr", "gravityX_idx.max.corr", "gravityX_zcr", "gravityX_fzc",
+            "gravityY_mean", "gravityY_std", "gravityY_max", "gravityY_min", "gravityY_mad", "gravityY_iqr",
+            "gravityY_max.corr", "gravityY_idx.max.corr", "gravityY_zcr", "gravityY_fzc",
+            "gravityZ_mean", "gravityZ_std", "gravityZ_max", "gravityZ_min", "gravityZ_mad", "gravityZ_iqr",
+            "gravityZ_max.corr", "gravityZ_idx.max.corr", "gravityZ_zcr", "gravityZ_fzc",
+            "gravityM_max.psd", "gravityM_entropy", "gravityM_fc", "gravityM_kurt", "gravityM_skew",
+            "gravityX_max.psd", "gravityX_entropy", "gravityX_fc", "gravityX_kurt", "gravityX_skew",
+            "gravityY_max.psd", "gravityY_entropy", "gravityY_fc", "gravityY_kurt", "gravityY_skew",
+            "gravityZ_max.psd", "gravityZ_entropy", "gravityZ_fc", "gravityZ_kurt", "gravityZ_skew",
+            "gyroM_mean", "gyroM_std", "gyroM_max", "gyroM_min", "gyroM_mad", "gyroM_iqr",
+            "gyroM_max.corr", "gyroM_idx.max.corr", "gyroM_zcr", "gyroM_fzc",
+            "gyroX_mean", "gyroX_std", "gyroX_max", "gyroX_min", "gyroX_mad", "gyroX_iqr",
+            "gyroX_max.corr", "gyroX_idx.max.corr", "gyroX_zcr", "gyroX_fzc",
+            "gyroY_mean", "gyroY_std", "gyroY_max", "gyroY_min", "gyroY_mad", "gyroY_iqr",
+            "gyroY_max.corr", "gyroY_idx.max.corr", "gyroY_zcr", "gyroY_fzc",
+            "gyroZ_mean", "gyroZ_std", "gyroZ_max", "gyroZ_min", "gyroZ_mad", "gyroZ_iqr",
+            "gyroZ_max.corr", "gyroZ_idx.max.corr", "gyroZ_zcr", "gyroZ_fzc",
+            "gyroM_max.psd", "gyroM_entropy", "gyroM_fc", "gyroM_kurt", "gyroM_skew",
+            "gyroX_max.psd", "gyroX_entropy", "gyroX_fc", "gyroX_kurt", "gyroX_skew",
+            "gyroY_max.psd", "gyroY_entropy", "gyroY_fc", "gyroY_kurt", "gyroY_skew",
+            "gyroZ_max.psd", "gyroZ_entropy", "gyroZ_fc", "gyroZ_kurt", "gyroZ_skew",
+            "jerk_hM_mean", "jerk_hM_std", "jerk_hM_max", "jerk_hM_min", "jerk_hM_mad", "jerk_hM_iqr",
+            "jerk_hM_max.corr", "jerk_hM_idx.max.corr", "jerk_hM_zcr", "jerk_hM_fzc",
+            "jerk_hM_max.psd", "jerk_hM_entropy", "jerk_hM_fc", "jerk_hM_kurt", "jerk_hM_skew",
+            "jerk_vM_mean", "jerk_vM_std", "jerk_vM_max", "jerk_vM_min", "jerk_vM_mad", "jerk_vM_iqr",
+            "jerk_vM_max.corr", "jerk_vM_idx.max.corr", "jerk_vM_zcr", "jerk_vM_fzc",
+            "jerk_vM_max.psd", "jerk_vM_entropy", "jerk_vM_fc", "jerk_vM_kurt", "jerk_vM_skew",
+            "linear_accelM_mean", "linear_accelM_std", "linear_accelM_max", "linear_accelM_min", "linear_accelM_mad", "linear_accelM_iqr",
+            "linear_accelM_max.corr", "linear_accelM_idx.max.corr", "linear_accelM_zcr", "linear_accelM_fzc",
+            "linear_accelM_max.psd", "linear_accelM_entropy", "linear_accelM_fc", "linear_accelM_kurt", "linear_accelM_skew",
+            "magM_mean", "magM_std", "magM_max", "magM_min", "magM_mad", "magM_iqr",
+            "magM_max.corr", "magM_idx.max.corr", "magM_zcr", "magM_fzc",
+            "magX_mean", "magX_std", "magX_max", "magX_min", "magX_mad", "magX_iqr",
+            "magX_max.corr", "magX_idx.max.corr", "magX_zcr", "magX_fzc",
+            "magY_mean", "magY_std", "magY_max", "magY_min", "magY_mad", "magY_iqr",
+            "magY_max.corr", "magY_idx.max.corr", "magY_zcr", "magY_fzc",
+            "magZ_mean", "magZ_std", "magZ_max", "magZ_min", "magZ_mad", "magZ_iqr",
+            "magZ_max.corr", "magZ_idx.max.corr", "magZ_zcr", "magZ_fzc",
+            "magM_max.psd", "magM_entropy", "magM_fc", "magM_kurt", "magM_skew",
+            "magX_max.psd", "magX_entropy", "magX_fc", "magX_kurt", "magX_skew",
+            "magY_max.psd", "magY_entropy", "magY_fc", "magY_kurt", "magY_skew",
+            "magZ_max.psd", "magZ_entropy", "magZ_fc", "magZ_kurt", "magZ_skew",
+            "pressureM_mean", "pressureM_std", "pressureM_max", "pressureM_min", "pressureM_mad", "pressureM_iqr",
+            "pressureM_max.corr", "pressureM_idx.max.corr", "pressureM_zcr", "pressureM_fzc",
+            "pressureM_max.psd", "pressureM_entropy", "pressureM_fc", "pressureM_kurt", "pressureM_skew"
+    );
+
+    /** 피처 벡터 길이 (predefinedHeaders 에서 timestamp 를 뺀 수). */
+    public static final int FEATURE_COUNT = predefinedHeaders.size() - 1;
+    private static final List<String> FEATURE_NAMES =
+            Collections.unmodifiableList(new ArrayList<>(predefinedHeaders.subList(1, predefinedHeaders.size())));
+    private static final IMUProcessing.FeatureSetPlan[] PLANS;
+
+    static {
+        Map<String, Integer> featureIndex = new HashMap<>();
+        for (int i = 0; i < FEATURE_NAMES.size(); i++) {
+            featureIndex.put(FEATURE_NAMES.get(i), i);
+        }
+        PLANS = new IMUProcessing.FeatureSetPlan[ENABLED_FEATURE_SETS.size()];
+        for (int i = 0; i < PLANS.length; i++) {
+            PLANS[i] = new IMUProcessing.FeatureSetPlan(ENABLED_FEATURE_SETS.get(i), featureIndex);
+        }
+    }
+}
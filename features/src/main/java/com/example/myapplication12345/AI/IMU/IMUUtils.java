@@ -0,0 +1,95 @@
+package com.example.myapplication12345.AI.IMU;
+
+/**
+ * 윈도우 단위 축 변환 유틸리티.
+ * 모든 함수는 호출 측이 넘긴 출력 배열에 결과를 쓰며 내부에서 배열을 만들지 않습니다.
+ * 입력/출력 배열은 길이 n 이상이어야 하고, 출력 배열이 입력 배열과 같아도 됩니다.
+ */
+public class IMUUtils {
+
+    /** 쿼터니언(qx, qy, qz, qw)으로 세 축을 회전합니다. (학습 코드의 회전 공식을 그대로 사용) */
+    public static void rotateAxis(double[] ax, double[] ay, double[] az,
+                                  double[] qxs, double[] qys, double[] qzs, double[] qws, int n,
+                                  double[] outX, double[] outY, double[] outZ) {
+        for (int j = 0; j < n; j++) {
+            double qx = qxs[j];
+            double qy = qys[j];
+            double qz = qzs[j];
+            double qw = qws[j];
+
+            // 입력 벡터 (회전 대상)
+            double current_ax = ax[j];
+            double current_ay = ay[j];
+            double current_az = az[j];
+
+            // --- 회전 공식 ---
+            outX[j] = (
+                    1.0
+                            - 2.0 * (qy*qy + qz*qz) * current_ax
+                            + 2.0 * (qx * qy - qw * qz) * current_ay
+                            + 2.0 * (qx * qz + qw * qy) * current_az
+            );
+
+            outY[j] = (
+                    2.0 * (qx * qy + qw * qz) * current_ax
+                            + 1.0
+                            - 2.0 * (qx*qx + qz*qz) * current_ay
+                            + 2.0 * (qy * qz - qw * qx) * current_az
+            );
+
+            outZ[j] = (
+                    2.0 * (qx * qz - qw * qy) * current_ax
+                            + 2.0 * (qy * qz + qw * qx) * current_ay
+                            + 1.0
+                            - 2.0 * (qx*qx + qy*qy) * current_az
+            );
+        }
+    }
+
+    /** 중력 벡터와 입력 벡터 사이의 각도(rad)를 구합니다. NaN 성분은 0 으로 봅니다. */
+    public static void calculateAngle(double[] lx, double[] ly, double[] lz,
+                                      double[] gxs, double[] gys, double[] gzs, int n, double[] theta) {
+        for (int j = 0; j < n; j++) {
+            double gx = Double.isNaN(gxs[j]) ? 0.0 : gxs[j];
+            double gy = Double.isNaN(gys[j]) ? 0.0 : gys[j];
+            double gz = Double.isNaN(gzs[j]) ? 0.0 : gzs[j];
+            double currentLx = Double.isNaN(lx[j]) ? 0.0 : lx[j];
+            double currentLy = Double.isNaN(ly[j]) ? 0.0 : ly[j];
+            double currentLz = Double.isNaN(lz[j]) ? 0.0 : lz[j];
+
+            double dotProduct = gx * currentLx + gy * currentLy + gz * currentLz;
+            double magG = Math.sqrt(gx * gx + gy * gy + gz * gz);
+            double magL = Math.sqrt(currentLx * currentLx + currentLy * currentLy + currentLz * currentLz);
+
+            double denominator = magG * magL;
+            if (denominator == 0.0) {
+                denominator = 1e-6;
+            }
+
+            double cosThetaVal = dotProduct / denominator;
+            cosThetaVal = Math.max(-1.0, Math.min(1.0, cosThetaVal));
+            theta[j] = Math.acos(cosThetaVal);
+        }
+    }
+
+    /**
+     * 1차 차분을 구합니다.
+     * @return 차분 결과 길이 (n - 1, n 이 2 미만이면 0)
+     */
+    public static int diff(double[] src, int n, double[] dst) {
+        if (n < 2) { // 차분을 계산할 수 없는 경우 (Python도 0 열 반환)
+            return 0;
+        }
+        for (int j = 0; j < n - 1; j++) {
+            dst[j] = src[j + 1] - src[j];
+        }
+        return n - 1;
+    }
+
+    /** 세 축의 크기(유클리드 노름)를 구합니다. */
+    public static void magnitude(double[] x, double[] y, double[] z, int n, double[] out) {
+        for (int j = 0; j < n; j++) {
+            out[j] = Math.sqrt(x[j] * x[j] + y[j] * y[j] + z[j] * z[j]);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.myapplication12345.AI.IMU;
+
+/**
+ * 1초 IMU 구간별 피처 벡터({@link IMUProcessor#getFeatureNames()} 순서)를 보관하는 고정 크기 슬롯 캐시.
+ * <p>
+ * 구간이 닫히는 즉시 집계 스레드가 피처를 계산해 넣고, 추론 워커는 윈도우를 만들 때 여기서 벡터를 복사해 씁니다.
+ * 슬롯은 구간 타임스탬프(초)로 정해지며 오래된 구간은 같은 슬롯의 새 구간으로 자연스럽게 덮어쓰입니다.
+ * 슬롯 배열은 생성 시 한 번만 만들고 값을 복사해 넣으므로 정상 상태에서 힙 할당이 없습니다.
+ * 슬롯별 락은 경합이 거의 없는 짧은 복사 구간만 보호합니다.
+ */
+public class ImuFeatureCache {
+
+    private static final class Slot {
+        long bucketTimestamp = Long.MIN_VALUE;
+        final double[] row;
+
+        Slot(int rowLength) {
+            this.row = new double[rowLength];
+        }
+    }
+
+    private final Slot[] slots;
+    private final int rowLength;
+
+    public ImuFeatureCache(int capacity, int rowLength) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.rowLength = rowLength;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(rowLength);
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /** 구간의 피처 벡터를 복사해 저장합니다. */
+    public void put(long bucketTimestamp, double[] row) {
+        Slot slot = slots[slotOf(bucketTimestamp)];
+        synchronized (slot) {
+            System.arraycopy(row, 0, slot.row, 0, rowLength);
+            slot.bucketTimestamp = bucketTimestamp;
+        }
+    }
+
+    /**
+     * 구간의 피처 벡터를 dst 로 복사합니다.
+     * @return 아직 계산되지 않았거나 이미 덮어쓰였으면 false (dst 는 그대로)
+     */
+    public boolean copyRow(long bucketTimestamp, double[] dst) {
+        Slot slot = slots[slotOf(bucketTimestamp)];
+        synchronized (slot) {
+            if (slot.bucketTimestamp != bucketTimestamp) {
+                return false;
+            }
+            System.arraycopy(slot.row, 0, dst, 0, rowLength);
+            return true;
+        }
+    }
+
+    private int slotOf(long bucketTimestamp) {
+        return (int) Math.floorMod(Math.floorDiv(bucketTimestamp, 1000L), (long) slots.length);
+    }
+}
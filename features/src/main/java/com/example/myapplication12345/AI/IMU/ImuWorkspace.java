@@ -0,0 +1,157 @@
+package com.example.myapplication12345.AI.IMU;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 1초(100 샘플) IMU 윈도우의 피처 계산에 쓰는 작업 공간.
+ * <p>
+ * 센서별 균일 격자와 축 변환/크기/저크 결과, 백분위수 선택용 배열, 길이별 {@link SpectralEngine} 을 한 번만 만들어 두고
+ * 윈도우마다 재사용하므로 정상 상태에서는 피처 계산 중 힙 할당이 없습니다.
+ * 한 스레드에서만 사용해야 하며, {@link IMUProcessor} 가 스레드별로 하나씩 보관합니다.
+ */
+final class ImuWorkspace {
+
+    static final int WINDOW_SIZE = 100; // 1초에 100개 샘플 목표
+
+    private static final String[] SENSORS = {"gyro", "accel", "mag", "rot", "pressure", "gravity", "linear_accel"};
+    private static final String[][] SAMPLE_KEYS = new String[SENSORS.length][];
+
+    static {
+        for (int s = 0; s < SENSORS.length; s++) {
+            String[] axes = "rot".equals(SENSORS[s]) ? new String[]{"x", "y", "z", "w"}
+                    : "pressure".equals(SENSORS[s]) ? new String[]{"x"}
+                    : new String[]{"x", "y", "z"};
+            SAMPLE_KEYS[s] = new String[axes.length];
+            for (int ch = 0; ch < axes.length; ch++) {
+                SAMPLE_KEYS[s][ch] = SENSORS[s] + "." + axes[ch];
+            }
+        }
+    }
+
+    // 센서별 균일 격자 [sensor][channel][seq]
+    private final double[][][] grid = new double[SENSORS.length][][];
+    private final boolean[] present = new boolean[WINDOW_SIZE];
+    private final int[] nextPresent = new int[WINDOW_SIZE];
+    private final SpectralEngine[] engines = new SpectralEngine[WINDOW_SIZE + 1];
+
+    // 링 버퍼 채널 인덱스 (SAMPLE_KEYS 와 같은 모양, 없는 채널은 -1). resolvedBuffer 기준으로 한 번만 찾음
+    private final int[][] snapshotChannels = new int[SENSORS.length][];
+    private SensorRingBuffer resolvedBuffer;
+
+    final double[] axisX = new double[WINDOW_SIZE];
+    final double[] axisY = new double[WINDOW_SIZE];
+    final double[] axisZ = new double[WINDOW_SIZE];
+    final double[] magnitude = new double[WINDOW_SIZE];
+    final double[] theta = new double[WINDOW_SIZE];
+    final double[] jerk = new double[WINDOW_SIZE];
+    final double[] scratch = new double[WINDOW_SIZE];
+    final double[] features = new double[IMUProcessor.FEATURE_COUNT];
+
+    ImuWorkspace() {
+        for (int s = 0; s < SENSORS.length; s++) {
+            grid[s] = new double[SAMPLE_KEYS[s].length][WINDOW_SIZE];
+            snapshotChannels[s] = new int[SAMPLE_KEYS[s].length];
+        }
+    }
+
+    /** 센서의 채널별 격자 (channel -> 100 샘플). 없는 센서면 null. */
+    double[][] sensor(String name) {
+        for (int s = 0; s < SENSORS.length; s++) {
+            if (SENSORS[s].equals(name)) return grid[s];
+        }
+        return null;
+    }
+
+    /** 같은 윈도우(같은 timestamp)의 샘플 Map 들로 격자를 채웁니다. */
+    void load(List<Map<String, Object>> samples) {
+        Arrays.fill(present, false);
+        for (Map<String, Object> sample : samples) {
+            int seq = (Integer) sample.getOrDefault("seq", 0);
+            if (seq < 0 || seq >= WINDOW_SIZE) continue;
+            present[seq] = true;
+            for (int s = 0; s < SENSORS.length; s++) {
+                for (int ch = 0; ch < SAMPLE_KEYS[s].length; ch++) {
+                    Object value = sample.get(SAMPLE_KEYS[s][ch]);
+                    grid[s][ch][seq] = (value instanceof Number) ? ((Number) value).doubleValue() : 0.0;
+                }
+            }
+        }
+        fillGaps();
+    }
+
+    /** 링 버퍼 스냅샷(한 윈도우)의 열에서 바로 격자를 채웁니다. */
+    void load(SensorSnapshot samples) {
+        if (samples.getBuffer() != resolvedBuffer) {
+            resolvedBuffer = samples.getBuffer();
+            for (int s = 0; s < SENSORS.length; s++) {
+                for (int ch = 0; ch < SAMPLE_KEYS[s].length; ch++) {
+                    snapshotChannels[s][ch] = resolvedBuffer.indexOf(SAMPLE_KEYS[s][ch]);
+                }
+            }
+        }
+        Arrays.fill(present, false);
+        for (int row = 0; row < samples.size(); row++) {
+            int seq = (int) samples.getLong(SensorBuffers.IMU_SEQ, row);
+            if (seq < 0 || seq >= WINDOW_SIZE) continue;
+            present[seq] = true;
+            for (int s = 0; s < SENSORS.length; s++) {
+                for (int ch = 0; ch < snapshotChannels[s].length; ch++) {
+                    int channel = snapshotChannels[s][ch];
+                    // Map 경로에서 키가 없으면 0 으로 보는 것과 같게 처리 (예: 버퍼의 "pressure" 는 "pressure.x" 로 읽지 않음)
+                    grid[s][ch][seq] = channel >= 0 ? samples.getFloat(channel, row) : 0.0;
+                }
+            }
+        }
+        fillGaps();
+    }
+
+    /** 윈도우 길이에 맞는 스펙트럼 엔진 (저크는 99). */
+    SpectralEngine spectralEngine(int length) {
+        SpectralEngine engine = engines[length];
+        if (engine == null) {
+            engine = new SpectralEngine(length);
+            engines[length] = engine;
+        }
+        return engine;
+    }
+
+    // 빠진 seq 를 앞뒤 샘플로 선형 보간 (앞/뒤가 없으면 가장 가까운 샘플 값 유지)
+    private void fillGaps() {
+        int next = -1;
+        for (int seq = WINDOW_SIZE - 1; seq >= 0; seq--) {
+            if (present[seq]) next = seq;
+            nextPresent[seq] = next;
+        }
+        int first = nextPresent[0];
+        if (first < 0) {
+            // 샘플이 하나도 없으면 0
+            for (double[][] channels : grid) for (double[] values : channels) Arrays.fill(values, 0.0);
+            return;
+        }
+        int before = -1;
+        for (int seq = 0; seq < WINDOW_SIZE; seq++) {
+            if (present[seq]) {
+                before = seq;
+                continue;
+            }
+            int b = before >= 0 ? before : first;
+            int a = nextPresent[seq] >= 0 ? nextPresent[seq] : before;
+            for (double[][] channels : grid) {
+                for (double[] values : channels) {
+                    if (a == b) {
+                        values[seq] = values[b];
+                    } else {
+                        double ratio = (double) (seq - b) / (a - b);
+                        values[seq] = values[b] + (values[a] - values[b]) * ratio;
+                    }
+                }
+            }
+        }
+    }
+}
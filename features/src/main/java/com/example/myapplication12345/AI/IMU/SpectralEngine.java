@@ -0,0 +1,240 @@
+package com.example.myapplication12345.AI.IMU;
+
+import java.util.Arrays;
+
+/**
+ * 한 윈도우의 자기상관과 Welch PSD 를 한 번의 FFT 로 함께 구하는 스펙트럼 엔진.
+ * <p>
+ * 길이 n 인 윈도우에 대해 크기 N = 2 * nextPow2(n) 의 복소 FFT 하나를 사용합니다.
+ * 실수부에는 원신호(NaN→0)를, 허수부에는 디트렌딩 + Hann 윈도우를 적용한 신호를 넣어 두 실수 신호를 동시에 변환한 뒤
+ * 켤레 대칭으로 분리합니다.
+ * <ul>
+ *   <li>자기상관: N ≥ 2n-1 이므로 |X[k]|² 의 역변환이 선형(비순환) 자기상관과 같습니다.</li>
+ *   <li>Welch PSD: 길이 ≤ nextPow2(n) 인 신호를 N 점으로 0 패딩한 FFT 의 짝수 bin 은
+ *       nextPow2(n) 점 FFT 와 같으므로, SciPy welch(nperseg=n, window='hann', nfft=nextPow2(n)) 와 같은 스펙트럼을 얻습니다.</li>
+ * </ul>
+ * 디트렌딩 결과가 반올림 오차 수준으로만 0 이 아닌 윈도우는 PSD 를 0 으로 둡니다 (기존 구현과 같은 entropy/fc = 0).
+ * 버퍼와 회전 인자는 생성 시 한 번만 만들고 재사용하므로 인스턴스는 한 스레드에서만 사용해야 합니다.
+ */
+public class SpectralEngine {
+
+    // 디트렌딩 잔차를 0 으로 보는 상대 크기 (double 반올림 오차 ~1e-16 보다 충분히 크고, float 센서 값의 분해능 ~1e-7 보다 충분히 작음)
+    private static final double ZERO_RESIDUAL_TOLERANCE = 1e-12;
+
+    private final int windowLength;
+    private final int welchNfft;   // Welch PSD 의 nfft (nextPow2(n), 최소 2)
+    private final int fftSize;     // 실제 변환 크기 (welchNfft * 2 ≥ 2n - 1)
+    private final int log2FftSize;
+
+    private final double[] cosTable;
+    private final double[] sinTable;
+    private final int[] bitReverse;
+    private final double[] hannWindow;
+    private final double hannSumSq;
+
+    private final double[] re;
+    private final double[] im;
+    private final double[] detrended;
+    private final double[] autocorrelation;
+    private final double[] psd;
+
+    public SpectralEngine(int windowLength) {
+        if (windowLength <= 0) {
+            throw new IllegalArgumentException("windowLength must be positive: " + windowLength);
+        }
+        this.windowLength = windowLength;
+        this.welchNfft = Math.max(2, IMUFeatureExtractor.getNextPowerOfTwo(windowLength));
+        this.fftSize = welchNfft * 2;
+        this.log2FftSize = Integer.numberOfTrailingZeros(fftSize);
+
+        cosTable = new double[fftSize / 2];
+        sinTable = new double[fftSize / 2];
+        for (int k = 0; k < fftSize / 2; k++) {
+            double angle = -2.0 * Math.PI * k / fftSize;
+            cosTable[k] = Math.cos(angle);
+            sinTable[k] = Math.sin(angle);
+        }
+        bitReverse = new int[fftSize];
+        for (int i = 0; i < fftSize; i++) {
+            bitReverse[i] = Integer.reverse(i) >>> (32 - log2FftSize);
+        }
+
+        // SciPy hann(M, sym=False) => 분모 M
+        hannWindow = new double[windowLength];
+        if (windowLength == 1) {
+            hannWindow[0] = 1.0;
+        } else {
+            for (int k = 0; k < windowLength; k++) {
+                hannWindow[k] = 0.5 * (1.0 - Math.cos(2.0 * Math.PI * k / (double) windowLength));
+            }
+        }
+        double sumSq = 0;
+        for (double v : hannWindow) sumSq += v * v;
+        hannSumSq = (sumSq == 0) ? 1.0 : sumSq;
+
+        re = new double[fftSize];
+        im = new double[fftSize];
+        detrended = new double[windowLength];
+        autocorrelation = new double[windowLength];
+        psd = new double[welchNfft / 2 + 1];
+    }
+
+    public int getWindowLength() {
+        return windowLength;
+    }
+
+    /** PSD 계산에 해당하는 FFT 크기 (주파수 중심 계산 시 사용). */
+    public int getWelchNfft() {
+        return welchNfft;
+    }
+
+    /** 마지막 {@link #transform} 의 자기상관 (lag 0 ~ n-1). 다음 호출 시 덮어쓰입니다. */
+    public double[] autocorrelation() {
+        return autocorrelation;
+    }
+
+    /** 마지막 {@link #transform} 의 단측 PSD (nfft/2 + 1 개). 다음 호출 시 덮어쓰입니다. */
+    public double[] psd() {
+        return psd;
+    }
+
+    /**
+     * 윈도우 하나를 변환해 자기상관과 PSD 를 갱신합니다.
+     * @param x 앞쪽 windowLength 개를 윈도우로 사용
+     * @param fs 샘플링 주파수
+     * @param detrendType "mean"/"constant", "linear", 그 외(디트렌딩 없음)
+     */
+    public void transform(double[] x, int fs, String detrendType) {
+        if (x.length < windowLength) {
+            throw new IllegalArgumentException("Expected at least " + windowLength + " samples but got " + x.length);
+        }
+        int n = windowLength;
+        boolean psdFinite = detrend(x, detrendType);
+        // 디트렌딩 결과가 사실상 0 이면(상수 채널, 샘플 하나로 채운 구간) PSD 는 정확히 0.
+        // 실수부 원신호의 반올림 오차가 허수부로 새어 생긴 잡음을 정규화하면 entropy/fc 가 최대값처럼 나오므로 변환하지 않음
+        boolean psdZero = psdFinite && isNumericallyZero(x);
+
+        Arrays.fill(re, 0.0);
+        Arrays.fill(im, 0.0);
+        for (int j = 0; j < n; j++) {
+            re[j] = Double.isNaN(x[j]) ? 0.0 : x[j];
+            // 기존 구현은 NaN 이 하나라도 있으면 PSD 전체가 NaN 이 되므로, 그 경우 자기상관만 변환
+            if (psdFinite && !psdZero) im[j] = detrended[j] * hannWindow[j];
+        }
+        fft(re, im);
+
+        // 두 실수 신호 분리: X[k] = (Z[k] + conj(Z[N-k])) / 2, Y[k] = (Z[k] - conj(Z[N-k])) / 2i
+        int half = fftSize / 2;
+        double scaleFactor = fs * hannSumSq;
+        if (scaleFactor == 0) scaleFactor = hannSumSq;
+        for (int k = 0; k <= half; k++) {
+            int j = (fftSize - k) & (fftSize - 1);
+            double zr = re[k], zi = im[k], wr = re[j], wi = im[j];
+            if (psdFinite && !psdZero && (k & 1) == 0) {
+                double yr = 0.5 * (zi + wi);
+                double yi = -0.5 * (zr - wr);
+                int bin = k >> 1;
+                double p = yr * yr + yi * yi;
+                if (bin > 0 && bin < psd.length - 1) p *= 2.0; // nfft 는 항상 짝수이므로 마지막 bin 은 제외
+                psd[bin] = p / scaleFactor;
+            }
+            double xr = 0.5 * (zr + wr);
+            double xi = 0.5 * (zi - wi);
+            double power = xr * xr + xi * xi;
+            // |X|² 는 실수 우함수이므로 역변환 대신 순방향 변환 후 N 으로 나눔
+            re[k] = power;
+            re[j] = power;
+            im[k] = 0.0;
+            im[j] = 0.0;
+        }
+        if (!psdFinite) Arrays.fill(psd, Double.NaN);
+        else if (psdZero) Arrays.fill(psd, 0.0);
+
+        fft(re, im);
+        // 0 이 아닌 샘플 구간보다 긴 lag 는 직접 합에서 정확히 0 이므로, 반올림 오차로 부호가 생기지 않게 0 으로 고정
+        // (zcr/fzc 가 부호만 보므로 필요)
+        int firstNonZero = -1, lastNonZero = -1;
+        for (int j = 0; j < n; j++) {
+            if (x[j] != 0.0 && !Double.isNaN(x[j])) {
+                if (firstNonZero < 0) firstNonZero = j;
+                lastNonZero = j;
+            }
+        }
+        int support = firstNonZero < 0 ? 0 : lastNonZero - firstNonZero + 1;
+        for (int lag = 0; lag < n; lag++) {
+            autocorrelation[lag] = lag < support ? re[lag] / fftSize : 0.0;
+        }
+    }
+
+    // 디트렌딩 결과를 detrended 에 기록. 결과에 NaN/무한대가 있으면 false
+    private boolean detrend(double[] x, String detrendType) {
+        int n = windowLength;
+        if ("mean".equalsIgnoreCase(detrendType) || "constant".equalsIgnoreCase(detrendType)) {
+            double sum = 0;
+            for (int k = 0; k < n; k++) sum += x[k];
+            double mean = sum / n;
+            for (int k = 0; k < n; k++) detrended[k] = x[k] - mean;
+        } else if ("linear".equalsIgnoreCase(detrendType)) {
+            if (n > 1) {
+                double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+                for (int k = 0; k < n; ++k) { sumX += k; sumY += x[k]; sumXY += (double) k * x[k]; sumXX += (double) k * k; }
+                double slopeDeno = (double) n * sumXX - sumX * sumX;
+                double slope = (slopeDeno == 0) ? 0 : ((double) n * sumXY - sumX * sumY) / slopeDeno;
+                if (Double.isNaN(slope) || Double.isInfinite(slope)) slope = 0;
+                double intercept = (sumY - slope * sumX) / n;
+                if (Double.isNaN(intercept) || Double.isInfinite(intercept)) intercept = sumY / n;
+                for (int k = 0; k < n; k++) detrended[k] = x[k] - (slope * k + intercept);
+            } else {
+                detrended[0] = 0.0;
+            }
+        } else {
+            System.arraycopy(x, 0, detrended, 0, n);
+        }
+        for (int k = 0; k < n; k++) {
+            if (!Double.isFinite(detrended[k])) return false;
+        }
+        return true;
+    }
+
+    // 디트렌딩 잔차의 최댓값이 원신호 평균 크기에 비해 반올림 오차 수준(1e-12 배, 평균이 1 보다 작으면 1e-12)이면 true.
+    // 기존 구현은 BigDecimal 로 평균을 빼서 이 경우 잔차가 정확히 0 이었음
+    private boolean isNumericallyZero(double[] x) {
+        int n = windowLength;
+        double sum = 0;
+        double maxResidual = 0;
+        for (int k = 0; k < n; k++) {
+            sum += x[k];
+            maxResidual = Math.max(maxResidual, Math.abs(detrended[k]));
+        }
+        return maxResidual <= ZERO_RESIDUAL_TOLERANCE * Math.max(1.0, Math.abs(sum / n));
+    }
+
+    // 제자리 radix-2 복소 FFT (순방향, 정규화 없음)
+    private void fft(double[] real, double[] imag) {
+        for (int i = 0; i < fftSize; i++) {
+            int j = bitReverse[i];
+            if (j > i) {
+                double t = real[i]; real[i] = real[j]; real[j] = t;
+                t = imag[i]; imag[i] = imag[j]; imag[j] = t;
+            }
+        }
+        for (int size = 2; size <= fftSize; size <<= 1) {
+            int halfSize = size >> 1;
+            int step = fftSize / size;
+            for (int start = 0; start < fftSize; start += size) {
+                for (int k = 0; k < halfSize; k++) {
+                    double c = cosTable[k * step];
+                    double s = sinTable[k * step];
+                    int a = start + k;
+                    int b = a + halfSize;
+                    double tr = real[b] * c - imag[b] * s;
+                    double ti = real[b] * s + imag[b] * c;
+                    real[b] = real[a] - tr;
+                    imag[b] = imag[a] - ti;
+                    real[a] += tr;
+                    imag[a] += ti;
+                }
+            }
+        }
+    }
+}
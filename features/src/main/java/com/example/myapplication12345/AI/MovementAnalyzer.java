@@ -1,10 +1,16 @@
 package com.example.myapplication12345.AI;
 
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
 import java.util.List;
 import java.util.Map;
-import timber.log.Timber;
+import java.util.logging.Logger;
 
 public class MovementAnalyzer {
+    // 순수 Java 모듈이므로 Timber 대신 java.util.logging 사용 (Android 에서는 logcat 으로 출력됨)
+    private static final Logger LOG = Logger.getLogger("MovementAnalyzer");
+
     private final List<Map<String, Object>> gpsData; // 보조 데이터 (선택적)
     private final List<Map<String, Object>> imuData; // 주 데이터
 
@@ -42,6 +48,13 @@ public class MovementAnalyzer {
     private static final float STATIC_LINEAR_ACCEL_THRESHOLD = 0.4f; // m/s^2 (이하일 때 정지 가능성 높음)
     private static final float STATIC_GYRO_THRESHOLD = 0.2f; // rad/s (이하일 때 회전 없음)
 
+    // 센서 값 묶음의 레코드 키와 링 버퍼 첫 채널 (링 버퍼에서 묶음의 채널은 키 순서대로 연속)
+    private static final String[] LINEAR_ACCEL_KEYS = {"linear_accel.x", "linear_accel.y", "linear_accel.z"};
+    private static final String[] GYRO_KEYS = {"gyro.x", "gyro.y", "gyro.z"};
+    private static final String[] ROTATION_KEYS = {"rot.w", "rot.x", "rot.y", "rot.z"};
+    private static final String[] ACCEL_KEYS = {"accel.x", "accel.y", "accel.z"};
+    private static final String[] GRAVITY_KEYS = {"gravity.x", "gravity.y", "gravity.z"};
+
     public MovementAnalyzer(List<Map<String, Object>> gpsData, List<Map<String, Object>> imuData) {
         this.gpsData = gpsData;
         this.imuData = imuData;
@@ -72,16 +85,17 @@ public class MovementAnalyzer {
         float prevPositionY = 0.0f;
 
         if (imuData == null || imuData.isEmpty()) {
-            Timber.tag("MovementAnalyzer").w("IMU 데이터 없음 (calculateIMUDistance)");
+            LOG.warning("IMU 데이터 없음 (calculateIMUDistance)");
             return totalPathDistance;
         }
 
+        // 링 버퍼 스냅샷이면 행 Map 을 만들지 않고 열에서 바로 읽음
+        SensorSnapshot columns = SensorSnapshot.backing(imuData);
         // 첫 번째 데이터의 타임스탬프를 시작 시간으로 기록 (totalTime 계산용)
-        long startTime = (long) imuData.get(0).get("timestamp");
+        long startTime = timestampAt(imuData, columns, 0);
 
         for (int i = 0; i < imuData.size(); i++) {
-            Map<String, Object> curr = imuData.get(i);
-            long timestamp = (long) curr.get("timestamp");
+            long timestamp = timestampAt(imuData, columns, i);
 
             if (i == 0) {
                 prevTime = timestamp;
@@ -101,9 +115,11 @@ public class MovementAnalyzer {
             float[] currentGyro = new float[3];
             float[] currentQuat = new float[4]; // w, x, y, z
 
-            boolean hasLinearAccel = getFloatArrayFromMap(curr, "linear_accel.x", "linear_accel.y", "linear_accel.z", currentLinearAcc);
-            boolean hasGyro = getFloatArrayFromMap(curr, "gyro.x", "gyro.y", "gyro.z", currentGyro);
-            boolean hasQuat = getFloatArrayFromMap(curr, "rot.w", "rot.x", "rot.y", "rot.z", currentQuat);
+            // 같은 1초 구간의 행은 위에서 건너뛰므로 행 Map 은 시간이 바뀐 행에서만 만듦
+            Map<String, Object> curr = columns == null ? imuData.get(i) : null;
+            boolean hasLinearAccel = readChannels(curr, columns, i, SensorBuffers.IMU_LINEAR_ACCEL_X, LINEAR_ACCEL_KEYS, currentLinearAcc);
+            boolean hasGyro = readChannels(curr, columns, i, SensorBuffers.IMU_GYRO_X, GYRO_KEYS, currentGyro);
+            boolean hasQuat = readChannels(curr, columns, i, SensorBuffers.IMU_ROT_W, ROTATION_KEYS, currentQuat);
 
             float[] accToRotate = new float[3]; // 회전시킬 가속도 벡터 (장치 좌표계)
 
@@ -115,12 +131,12 @@ public class MovementAnalyzer {
             } else {
                 // linear_accel이 없다면 raw accel에서 중력 제거 시도 (fallback)
                 float[] rawAcc = new float[3];
-                boolean hasRawAcc = getFloatArrayFromMap(curr, "accel.x", "accel.y", "accel.z", rawAcc);
+                boolean hasRawAcc = readChannels(curr, columns, i, SensorBuffers.IMU_ACCEL_X, ACCEL_KEYS, rawAcc);
 
                 if (hasRawAcc) {
                     float[] sensorGravity = new float[3];
                     // gravity 센서 데이터가 있다면 사용
-                    if (getFloatArrayFromMap(curr, "gravity.x", "gravity.y", "gravity.z", sensorGravity)) {
+                    if (readChannels(curr, columns, i, SensorBuffers.IMU_GRAVITY_X, GRAVITY_KEYS, sensorGravity)) {
                         accToRotate[0] = rawAcc[0] - sensorGravity[0];
                         accToRotate[1] = rawAcc[1] - sensorGravity[1];
                         accToRotate[2] = rawAcc[2] - sensorGravity[2];
@@ -135,7 +151,7 @@ public class MovementAnalyzer {
                     }
                 } else {
                     // 가속도 데이터 자체가 없는 경우 (이런 일은 거의 없겠지만)
-                    Timber.tag("MovementAnalyzer").w("가속도 데이터 없음. 건너뛰기.");
+                    LOG.warning("가속도 데이터 없음. 건너뛰기.");
                     continue;
                 }
             }
@@ -153,7 +169,7 @@ public class MovementAnalyzer {
                 // 쿼터니언이 없다면 2D 위치 추적은 불가능함.
                 // 이 경우 기존처럼 가속도 크기만을 사용하여 총 이동 거리를 누적하거나, 0으로 처리하는 것이 합리적.
                 // 여기서는 2D 추적의 의미를 살리기 위해 경고를 남기고 ZVU와 유사하게 처리 (움직임 없다고 가정)
-                Timber.tag("MovementAnalyzer").w("쿼터니언 데이터 없음. 정확한 2D IMU 추적 불가.");
+                LOG.warning("쿼터니언 데이터 없음. 정확한 2D IMU 추적 불가.");
                 globalLinearAcc[0] = 0.0f;
                 globalLinearAcc[1] = 0.0f;
                 globalLinearAcc[2] = 0.0f;
@@ -219,22 +235,22 @@ public class MovementAnalyzer {
 
         // 최종 거리 검증
         this.finalDistance = totalPathDistance;
-        long endTime = (long) imuData.get(imuData.size() - 1).get("timestamp");
+        long endTime = timestampAt(imuData, columns, imuData.size() - 1);
         float totalTime = (endTime - startTime) / 1000.0f; // 총 시간 계산 (밀리초 가정)
 
         if (this.finalDistance < 0) {
-            Timber.tag("MovementAnalyzer").w("비정상 거리 감지: 음수 거리 %s", this.finalDistance);
+            LOG.warning("비정상 거리 감지: 음수 거리 " + this.finalDistance);
             this.finalDistance = 0.0f;
         } else if (totalTime > 1.0f && this.finalDistance < MIN_DISTANCE_THRESHOLD ) { // 1초 이상 움직였는데 거리가 매우 작으면 0으로 처리
-            Timber.tag("MovementAnalyzer").w("비정상 거리 감지: 너무 작은 거리 " + this.finalDistance + " (시간: " + totalTime + "s)");
+            LOG.warning("비정상 거리 감지: 너무 작은 거리 " + this.finalDistance + " (시간: " + totalTime + "s)");
             this.finalDistance = 0.0f;
         } else if (totalTime > 0 && (this.finalDistance / totalTime) > MAX_REALISTIC_SPEED) {
-            Timber.tag("MovementAnalyzer").w("비정상 거리 감지: 비현실적인 속도 " + (this.finalDistance / totalTime) + " m/s");
+            LOG.warning("비정상 거리 감지: 비현실적인 속도 " + (this.finalDistance / totalTime) + " m/s");
             this.finalDistance = 0.0f; // 비현실적인 속도의 경우 0으로 처리
         }
 
-        Timber.tag("MovementAnalyzer").d("IMU Total Path Distance: " + totalPathDistance + " meters");
-        Timber.tag("MovementAnalyzer").d("Final Distance (after validation): " + this.finalDistance + " meters");
+        LOG.fine("IMU Total Path Distance: " + totalPathDistance + " meters");
+        LOG.fine("Final Distance (after validation): " + this.finalDistance + " meters");
         return this.finalDistance;
     }
 
@@ -288,40 +304,32 @@ public class MovementAnalyzer {
         return totalDistance > 0 ? totalDistance : -1.0f;
     }
 
-    /**
-     * Map에서 float 배열 값들을 안전하게 가져오는 헬퍼 메서드 (3개 요소).
-     * @return 모든 키가 성공적으로 파싱되면 true, 그렇지 않으면 false.
-     */
-    private boolean getFloatArrayFromMap(Map<String, Object> map, String key1, String key2, String key3, float[] outArray) {
-        Number num1 = (Number) map.get(key1);
-        Number num2 = (Number) map.get(key2);
-        Number num3 = (Number) map.get(key3);
-        if (num1 != null && num2 != null && num3 != null) {
-            outArray[0] = num1.floatValue();
-            outArray[1] = num2.floatValue();
-            outArray[2] = num3.floatValue();
-            return true;
-        }
-        return false;
+    private static long timestampAt(List<Map<String, Object>> data, SensorSnapshot columns, int row) {
+        return columns != null ? columns.getTimestamp(row) : (long) data.get(row).get("timestamp");
     }
 
     /**
-     * Map에서 float 배열 값들을 안전하게 가져오는 헬퍼 메서드 (4개 요소, 쿼터니언용).
-     * @return 모든 키가 성공적으로 파싱되면 true, 그렇지 않으면 false.
+     * 센서 값 묶음(3축 또는 쿼터니언 w, x, y, z)을 out 에 읽습니다.
+     * 스냅샷이면 firstChannel 부터 연속한 열에서, 아니면 record 의 keys 에서 읽습니다.
+     * @return 모든 값을 읽었으면 true, Map 에 없는 키가 있으면 false
      */
-    private boolean getFloatArrayFromMap(Map<String, Object> map, String key0, String key1, String key2, String key3, float[] outArray) {
-        Number num0 = (Number) map.get(key0);
-        Number num1 = (Number) map.get(key1);
-        Number num2 = (Number) map.get(key2);
-        Number num3 = (Number) map.get(key3);
-        if (num0 != null && num1 != null && num2 != null && num3 != null) {
-            outArray[0] = num0.floatValue(); // w
-            outArray[1] = num1.floatValue(); // x
-            outArray[2] = num2.floatValue(); // y
-            outArray[3] = num3.floatValue(); // z
+    private static boolean readChannels(Map<String, Object> record, SensorSnapshot columns, int row,
+                                        int firstChannel, String[] keys, float[] out) {
+        if (columns != null) {
+            for (int k = 0; k < keys.length; k++) {
+                out[k] = columns.getFloat(firstChannel + k, row);
+            }
             return true;
         }
-        return false;
+        for (String key : keys) {
+            if (record.get(key) == null) {
+                return false;
+            }
+        }
+        for (int k = 0; k < keys.length; k++) {
+            out[k] = ((Number) record.get(keys[k])).floatValue();
+        }
+        return true;
     }
 
     /**
@@ -365,7 +373,7 @@ public class MovementAnalyzer {
     public void analyze() {
         // 갱신된 로직 사용
         this.finalDistance = calculateIMUDistance();
-        Timber.tag("MovementAnalyzer").d("Analysis completed. Final Distance: " + this.finalDistance + " meters");
+        LOG.fine("Analysis completed. Final Distance: " + this.finalDistance + " meters");
     }
 
     // Getter 메서드
@@ -382,7 +390,7 @@ public class MovementAnalyzer {
      */
     public float calculateAverageSpeedFromIMU(List<Map<String, Object>> imuDataToProcess) {
         if (imuDataToProcess == null || imuDataToProcess.size() < 2) {
-            Timber.tag("MovementAnalyzer").w("IMU 데이터가 부족하여 평균 속도를 계산할 수 없습니다.");
+            LOG.warning("IMU 데이터가 부족하여 평균 속도를 계산할 수 없습니다.");
             return 0.0f;
         }
 
@@ -407,9 +415,9 @@ public class MovementAnalyzer {
         float prevPositionY = 0.0f;
 
 
+        SensorSnapshot columns = SensorSnapshot.backing(imuDataToProcess);
         for (int i = 0; i < imuDataToProcess.size(); i++) {
-            Map<String, Object> curr = imuDataToProcess.get(i);
-            long timestamp = (long) curr.get("timestamp");
+            long timestamp = timestampAt(imuDataToProcess, columns, i);
 
             if (i == 0) {
                 firstTimestamp = timestamp;
@@ -430,9 +438,11 @@ public class MovementAnalyzer {
             float[] currentGyro = new float[3];
             float[] currentQuat = new float[4];
 
-            boolean hasLinearAccel = getFloatArrayFromMap(curr, "linear_accel.x", "linear_accel.y", "linear_accel.z", currentLinearAcc);
-            boolean hasGyro = getFloatArrayFromMap(curr, "gyro.x", "gyro.y", "gyro.z", currentGyro);
-            boolean hasQuat = getFloatArrayFromMap(curr, "rot.w", "rot.x", "rot.y", "rot.z", currentQuat);
+            // 같은 1초 구간의 행은 위에서 건너뛰므로 행 Map 은 시간이 바뀐 행에서만 만듦
+            Map<String, Object> curr = columns == null ? imuDataToProcess.get(i) : null;
+            boolean hasLinearAccel = readChannels(curr, columns, i, SensorBuffers.IMU_LINEAR_ACCEL_X, LINEAR_ACCEL_KEYS, currentLinearAcc);
+            boolean hasGyro = readChannels(curr, columns, i, SensorBuffers.IMU_GYRO_X, GYRO_KEYS, currentGyro);
+            boolean hasQuat = readChannels(curr, columns, i, SensorBuffers.IMU_ROT_W, ROTATION_KEYS, currentQuat);
 
             float[] accToRotate = new float[3];
 
@@ -442,10 +452,10 @@ public class MovementAnalyzer {
                 accToRotate[2] = currentLinearAcc[2];
             } else {
                 float[] rawAcc = new float[3];
-                boolean hasRawAcc = getFloatArrayFromMap(curr, "accel.x", "accel.y", "accel.z", rawAcc);
+                boolean hasRawAcc = readChannels(curr, columns, i, SensorBuffers.IMU_ACCEL_X, ACCEL_KEYS, rawAcc);
                 if (hasRawAcc) {
                     float[] sensorGravity = new float[3];
-                    if (getFloatArrayFromMap(curr, "gravity.x", "gravity.y", "gravity.z", sensorGravity)) {
+                    if (readChannels(curr, columns, i, SensorBuffers.IMU_GRAVITY_X, GRAVITY_KEYS, sensorGravity)) {
                         accToRotate[0] = rawAcc[0] - sensorGravity[0];
                         accToRotate[1] = rawAcc[1] - sensorGravity[1];
                         accToRotate[2] = rawAcc[2] - sensorGravity[2];
@@ -525,14 +535,14 @@ public class MovementAnalyzer {
         }
 
         if (firstTimestamp == -1 || lastTimestamp == -1 || firstTimestamp == lastTimestamp) {
-            Timber.tag("MovementAnalyzer").w("유효한 시간 간격을 계산할 수 없어 평균 속도를 0으로 반환합니다.");
+            LOG.warning("유효한 시간 간격을 계산할 수 없어 평균 속도를 0으로 반환합니다.");
             return 0.0f;
         }
 
         float totalTimeSeconds = (lastTimestamp - firstTimestamp) / 1000.0f;
 
         if (totalTimeSeconds <= 0) {
-            Timber.tag("MovementAnalyzer").w("총 이동 시간이 0 또는 음수이므로 평균 속도를 계산할 수 없습니다.");
+            LOG.warning("총 이동 시간이 0 또는 음수이므로 평균 속도를 계산할 수 없습니다.");
             return 0.0f;
         }
 
@@ -540,10 +550,10 @@ public class MovementAnalyzer {
 
         // 비정상 속도 검증 (옵션)
         if (averageSpeed > MAX_REALISTIC_SPEED) {
-            Timber.tag("MovementAnalyzer").w("계산된 평균 속도(" + averageSpeed + " m/s)가 비현실적입니다. IMU 데이터에 노이즈가 많을 수 있습니다.");
+            LOG.warning("계산된 평균 속도(" + averageSpeed + " m/s)가 비현실적입니다. IMU 데이터에 노이즈가 많을 수 있습니다.");
         }
 
-        Timber.tag("MovementAnalyzer").d("IMU 기반 평균 속도: " + averageSpeed + " m/s (거리: " + totalPathDistance + "m, 시간: " + totalTimeSeconds + "s)");
+        LOG.fine("IMU 기반 평균 속도: " + averageSpeed + " m/s (거리: " + totalPathDistance + "m, 시간: " + totalTimeSeconds + "s)");
         return averageSpeed;
     }
 }
\ No newline at end of file
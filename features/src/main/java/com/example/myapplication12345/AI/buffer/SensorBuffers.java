@@ -0,0 +1,137 @@
+package com.example.myapplication12345.AI.buffer;
+
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer.ColumnType;
+
+/**
+ * SensorDataService 가 사용하는 네 가지 센서 버퍼(GPS, AP, BTS, IMU)의 열 구성과 용량 정의.
+ * 채널 이름은 기존 Map 레코드의 키와 동일하며, 인덱스 상수는 수집 코드에서 setXxx 호출에 사용합니다.
+ */
+public final class SensorBuffers {
+    // 1분 처리 구간을 두 개 이상 담을 수 있도록 용량을 잡음 (처리 중 스냅샷 + 다음 구간 쓰기)
+    private static final int RETAINED_WINDOWS = 2;
+
+    public static final int IMU_ROWS_PER_MINUTE = 6000; // 100Hz * 60초
+    public static final int GPS_ROWS_PER_MINUTE = 64;   // 1초 1회 + 여유
+    public static final int AP_ROWS_PER_MINUTE = 64;    // 1초 1회 + 여유
+    public static final int BTS_ROWS_PER_MINUTE = 1024; // 1초마다 주변 LTE 셀 여러 개
+
+    // --- GPS ---
+    public static final int GPS_LATITUDE = 0;
+    public static final int GPS_LONGITUDE = 1;
+    public static final int GPS_ACCURACY = 2;
+
+    // --- AP ---
+    public static final int AP_BSSID = 0;
+    public static final int AP_LEVEL = 1;
+    public static final int AP_FREQUENCY = 2;
+
+    // --- BTS ---
+    public static final int BTS_CI = 0;
+    public static final int BTS_PCI = 1;
+
+    // --- IMU (기존 레코드 키 순서와 동일) ---
+    public static final int IMU_SEQ = 0;
+    public static final int IMU_ACCEL_X = 1;
+    public static final int IMU_ACCEL_Y = 2;
+    public static final int IMU_ACCEL_Z = 3;
+    public static final int IMU_GYRO_X = 4;
+    public static final int IMU_GYRO_Y = 5;
+    public static final int IMU_GYRO_Z = 6;
+    public static final int IMU_MAG_X = 7;
+    public static final int IMU_MAG_Y = 8;
+    public static final int IMU_MAG_Z = 9;
+    public static final int IMU_ROT_W = 10;
+    public static final int IMU_ROT_X = 11;
+    public static final int IMU_ROT_Y = 12;
+    public static final int IMU_ROT_Z = 13;
+    public static final int IMU_PRESSURE = 14;
+    public static final int IMU_GRAVITY_X = 15;
+    public static final int IMU_GRAVITY_Y = 16;
+    public static final int IMU_GRAVITY_Z = 17;
+    public static final int IMU_LINEAR_ACCEL_X = 18;
+    public static final int IMU_LINEAR_ACCEL_Y = 19;
+    public static final int IMU_LINEAR_ACCEL_Z = 20;
+    public static final int IMU_EVENT_TIME = 21; // 리샘플링 격자 시각 (SensorEvent.timestamp 시간축, ns)
+
+    private static final String[] IMU_CHANNELS = {
+            "seq",
+            "accel.x", "accel.y", "accel.z",
+            "gyro.x", "gyro.y", "gyro.z",
+            "mag.x", "mag.y", "mag.z",
+            "rot.w", "rot.x", "rot.y", "rot.z",
+            "pressure",
+            "gravity.x", "gravity.y", "gravity.z",
+            "linear_accel.x", "linear_accel.y", "linear_accel.z",
+            "event_time_ns"
+    };
+
+    private SensorBuffers() {
+    }
+
+    public static SensorRingBuffer createGpsBuffer() {
+        return new SensorRingBuffer("gps", GPS_ROWS_PER_MINUTE * RETAINED_WINDOWS,
+                new String[]{"latitude", "longitude", "accuracy"},
+                new ColumnType[]{ColumnType.DOUBLE, ColumnType.DOUBLE, ColumnType.FLOAT});
+    }
+
+    public static SensorRingBuffer createApBuffer() {
+        return new SensorRingBuffer("ap", AP_ROWS_PER_MINUTE * RETAINED_WINDOWS,
+                new String[]{"bssid", "level", "frequency"},
+                new ColumnType[]{ColumnType.MAC, ColumnType.FLOAT, ColumnType.FLOAT});
+    }
+
+    public static SensorRingBuffer createBtsBuffer() {
+        return new SensorRingBuffer("bts", BTS_ROWS_PER_MINUTE * RETAINED_WINDOWS,
+                new String[]{"ci", "pci"},
+                new ColumnType[]{ColumnType.INT, ColumnType.INT});
+    }
+
+    public static SensorRingBuffer createImuBuffer() {
+        ColumnType[] types = new ColumnType[IMU_CHANNELS.length];
+        types[IMU_SEQ] = ColumnType.INT;
+        for (int ch = IMU_ACCEL_X; ch <= IMU_LINEAR_ACCEL_Z; ch++) {
+            types[ch] = ColumnType.FLOAT;
+        }
+        types[IMU_EVENT_TIME] = ColumnType.LONG;
+        return new SensorRingBuffer("imu", IMU_ROWS_PER_MINUTE * RETAINED_WINDOWS, IMU_CHANNELS, types);
+    }
+
+    /**
+     * "aa:bb:cc:dd:ee:ff" 형식의 MAC 주소(BSSID)를 48비트 long 으로 압축합니다.
+     * null 이거나 형식이 맞지 않으면 -1 을 반환합니다. 문자열을 만들지 않으므로 수집 경로에서 할당이 없습니다.
+     */
+    public static long packMac(String mac) {
+        if (mac == null || mac.length() != 17) return -1L;
+        long packed = 0;
+        for (int i = 0; i < 17; i++) {
+            char c = mac.charAt(i);
+            if (i % 3 == 2) {
+                if (c != ':') return -1L;
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0) return -1L;
+            packed = (packed << 4) | digit;
+        }
+        return packed;
+    }
+
+    /**
+     * AP BSSID 를 링 버퍼 열 값으로 바꿉니다. MAC 형식이면 {@link #packMac(String)} 값, null 이면 -1 이고,
+     * 형식이 맞지 않는 문자열(무작위·비정상 BSSID)은 문자열마다 다른 음수 해시(FNV-1a, -1 제외)입니다.
+     * 고유 AP 수를 셀 때 문자열끼리 비교한 것과 같은 결과가 나오도록, 잘못된 BSSID 를 한 값으로 합치지 않습니다.
+     * 음수 값은 {@link SensorSnapshot#formatMac(long)} 에서 null 로 되돌아갑니다.
+     */
+    public static long bssidKey(String bssid) {
+        if (bssid == null) return -1L;
+        long packed = packMac(bssid);
+        if (packed >= 0) return packed;
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < bssid.length(); i++) {
+            hash ^= bssid.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        long key = hash | Long.MIN_VALUE; // 올바른 MAC(48비트 양수)과 겹치지 않게 음수로
+        return key == -1L ? -2L : key;
+    }
+}
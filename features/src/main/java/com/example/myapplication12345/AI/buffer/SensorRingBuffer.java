@@ -0,0 +1,206 @@
+package com.example.myapplication12345.AI.buffer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 센서 샘플을 채널별 기본형 배열(column)로 보관하는 고정 크기 링 버퍼.
+ * <p>
+ * 샘플 하나를 Map 으로 만들지 않고 timestamp 는 long[], 각 채널은 long[]/float[]/double[] 열에 바로 기록합니다.
+ * 모든 배열은 생성 시 한 번만 할당되므로 정상 상태에서는 쓰기 경로에서 힙 할당이 없습니다.
+ * <p>
+ * 쓰기는 단일 스레드(수집 스레드)에서만 수행해야 합니다. {@link #snapshot()} 은 마지막 스냅샷 이후 기록된 구간을
+ * 복사 없이 가리키는 읽기 전용 뷰를 반환하며, 쓰기 스레드가 아닌 다른 한 스레드에서 호출해도 됩니다.
+ * 만들어진 뷰는 어느 스레드에서 읽어도 됩니다.
+ * 용량은 최소 두 구간(예: 2분)을 담도록 잡아서, 처리 중인 스냅샷 구간을 다음 구간의 쓰기가 덮어쓰지 않도록 합니다.
+ */
+public class SensorRingBuffer {
+
+    /** 채널 저장 형식. 기존 Map 기반 코드와의 호환을 위해 박싱 타입까지 구분합니다. */
+    public enum ColumnType {
+        LONG,   // long[] 저장, Long 으로 노출
+        INT,    // long[] 저장, Integer 로 노출
+        FLOAT,  // float[] 저장, Float 으로 노출
+        DOUBLE, // double[] 저장, Double 로 노출
+        MAC     // long[] 저장 (48비트 MAC 주소), "aa:bb:cc:dd:ee:ff" 문자열로 노출
+    }
+
+    private final String name;
+    private final int capacity;
+    private final String[] channelNames;
+    private final ColumnType[] channelTypes;
+    private final int[] channelSlots; // 채널 -> 해당 타입 배열 내 인덱스
+    private final Map<String, Integer> channelIndex = new HashMap<>();
+
+    private final long[] timestamps;
+    private final long[][] longColumns;
+    private final float[][] floatColumns;
+    private final double[][] doubleColumns;
+
+    // 지금까지 기록된 전체 행 수 (단조 증가). 읽기 스레드가 덮어쓰기 여부를 판단할 때 사용
+    private volatile long writeSeq = 0;
+    // 다음 스냅샷이 시작될 행 번호
+    private long sealedSeq = 0;
+    // 현재 작성 중인 행의 물리 인덱스 (beginRow ~ commitRow 사이에서만 유효)
+    private int pendingRow = -1;
+
+    public SensorRingBuffer(String name, int capacity, String[] channelNames, ColumnType[] channelTypes) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (channelNames.length != channelTypes.length) {
+            throw new IllegalArgumentException("channelNames and channelTypes must have the same length.");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.channelNames = channelNames.clone();
+        this.channelTypes = channelTypes.clone();
+        this.channelSlots = new int[channelNames.length];
+
+        int longCount = 0, floatCount = 0, doubleCount = 0;
+        for (int ch = 0; ch < channelNames.length; ch++) {
+            switch (channelTypes[ch]) {
+                case FLOAT:
+                    channelSlots[ch] = floatCount++;
+                    break;
+                case DOUBLE:
+                    channelSlots[ch] = doubleCount++;
+                    break;
+                default:
+                    channelSlots[ch] = longCount++;
+                    break;
+            }
+            if (channelIndex.put(channelNames[ch], ch) != null) {
+                throw new IllegalArgumentException("Duplicate channel name: " + channelNames[ch]);
+            }
+        }
+
+        this.timestamps = new long[capacity];
+        this.longColumns = new long[longCount][capacity];
+        this.floatColumns = new float[floatCount][capacity];
+        this.doubleColumns = new double[doubleCount][capacity];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getChannelCount() {
+        return channelNames.length;
+    }
+
+    public String getChannelName(int channel) {
+        return channelNames[channel];
+    }
+
+    public ColumnType getChannelType(int channel) {
+        return channelTypes[channel];
+    }
+
+    /** 채널 이름으로 인덱스를 찾습니다. 없으면 -1. */
+    public int indexOf(String channelName) {
+        Integer idx = channelIndex.get(channelName);
+        return idx != null ? idx : -1;
+    }
+
+    // --- 쓰기 (수집 스레드 전용) ---
+
+    /**
+     * 새 행 기록을 시작합니다. 이어서 set* 으로 채널 값을 채우고 {@link #commitRow()} 로 확정합니다.
+     * 확정 전까지는 스냅샷에 포함되지 않습니다.
+     */
+    public void beginRow(long timestamp) {
+        pendingRow = (int) (writeSeq % capacity);
+        timestamps[pendingRow] = timestamp;
+    }
+
+    public void setLong(int channel, long value) {
+        longColumns[channelSlots[channel]][pendingRow] = value;
+    }
+
+    public void setFloat(int channel, float value) {
+        floatColumns[channelSlots[channel]][pendingRow] = value;
+    }
+
+    public void setDouble(int channel, double value) {
+        doubleColumns[channelSlots[channel]][pendingRow] = value;
+    }
+
+    public void commitRow() {
+        if (pendingRow < 0) {
+            throw new IllegalStateException("commitRow() called without beginRow().");
+        }
+        pendingRow = -1;
+        writeSeq = writeSeq + 1; // volatile 쓰기로 앞선 열 쓰기를 읽기 스레드에 공개
+    }
+
+    /** 마지막 스냅샷 이후 확정된 행 수 (덮어쓰기로 유실된 행은 제외). */
+    public int pendingCount() {
+        return (int) Math.min(writeSeq - sealedSeq, capacity);
+    }
+
+    /**
+     * 마지막 스냅샷 이후 기록된 행들을 가리키는 읽기 전용 뷰를 만들고, 다음 구간을 시작합니다.
+     * 데이터는 복사하지 않습니다. 용량을 초과해 덮어쓰인 가장 오래된 행은 뷰에서 제외됩니다.
+     */
+    public SensorSnapshot snapshot() {
+        long end = writeSeq;
+        long start = Math.max(sealedSeq, end - capacity);
+        sealedSeq = end;
+        return new SensorSnapshot(this, start, (int) (end - start));
+    }
+
+    /**
+     * 타임스탬프가 [fromTimestamp, toTimestamp) 인 행들을 가리키는 읽기 전용 뷰를 만듭니다.
+     * {@link #snapshot()} 과 달리 구간을 확정하지 않으므로 겹치는 슬라이딩 윈도우를 반복해서 만들 수 있습니다.
+     * 행의 타임스탬프는 기록 순서대로 증가한다고 가정하며, 최신 행부터 거꾸로 탐색합니다.
+     */
+    public SensorSnapshot window(long fromTimestamp, long toTimestamp) {
+        long end = writeSeq;
+        long oldest = Math.max(0, end - capacity);
+        long hi = end;
+        while (hi > oldest && timestamps[physicalIndex(hi - 1)] >= toTimestamp) {
+            hi--;
+        }
+        long lo = hi;
+        while (lo > oldest && timestamps[physicalIndex(lo - 1)] >= fromTimestamp) {
+            lo--;
+        }
+        return new SensorSnapshot(this, lo, (int) (hi - lo));
+    }
+
+    /** 기록된 데이터를 모두 버리고 처음 상태로 되돌립니다. 이전에 만든 스냅샷은 무효가 됩니다. */
+    public void clear() {
+        sealedSeq = writeSeq;
+    }
+
+    // --- 읽기 (SensorSnapshot 에서 사용) ---
+
+    long getWriteSeq() {
+        return writeSeq;
+    }
+
+    int physicalIndex(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    long timestampAt(int physical) {
+        return timestamps[physical];
+    }
+
+    long longAt(int channel, int physical) {
+        return longColumns[channelSlots[channel]][physical];
+    }
+
+    float floatAt(int channel, int physical) {
+        return floatColumns[channelSlots[channel]][physical];
+    }
+
+    double doubleAt(int channel, int physical) {
+        return doubleColumns[channelSlots[channel]][physical];
+    }
+}
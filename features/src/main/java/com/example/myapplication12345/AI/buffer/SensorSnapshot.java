@@ -0,0 +1,222 @@
+package com.example.myapplication12345.AI.buffer;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@link SensorRingBuffer} 의 한 구간을 복사 없이 가리키는 읽기 전용 뷰.
+ * <p>
+ * 인덱스 0 이 구간의 가장 오래된 행입니다. 링 버퍼의 쓰기는 계속 진행되므로,
+ * 처리 도중 용량 이상 새 데이터가 기록되면 구간이 덮어쓰일 수 있습니다. 처리 전후로 {@link #isIntact()} 를 확인하세요.
+ */
+public class SensorSnapshot {
+    private final SensorRingBuffer buffer;
+    private final long startSeq;
+    private final int size;
+
+    SensorSnapshot(SensorRingBuffer buffer, long startSeq, int size) {
+        this.buffer = buffer;
+        this.startSeq = startSeq;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public SensorRingBuffer getBuffer() {
+        return buffer;
+    }
+
+    /** 뷰가 가리키는 구간이 아직 덮어쓰이지 않았는지 확인합니다. */
+    public boolean isIntact() {
+        return buffer.getWriteSeq() - startSeq <= buffer.getCapacity();
+    }
+
+    public int indexOf(String channelName) {
+        return buffer.indexOf(channelName);
+    }
+
+    public long getTimestamp(int row) {
+        return buffer.timestampAt(physical(row));
+    }
+
+    public long getLong(int channel, int row) {
+        return buffer.longAt(channel, physical(row));
+    }
+
+    public float getFloat(int channel, int row) {
+        return buffer.floatAt(channel, physical(row));
+    }
+
+    public double getDouble(int channel, int row) {
+        return buffer.doubleAt(channel, physical(row));
+    }
+
+    /** 채널 저장 형식과 관계없이 double 로 읽습니다. */
+    public double getAsDouble(int channel, int row) {
+        switch (buffer.getChannelType(channel)) {
+            case FLOAT:
+                return getFloat(channel, row);
+            case DOUBLE:
+                return getDouble(channel, row);
+            default:
+                return getLong(channel, row);
+        }
+    }
+
+    /** [fromRow, toRow) 행만 가리키는 뷰. 복사하지 않으며 덮어쓰기 확인은 원래 뷰와 같은 버퍼 기준입니다. */
+    public SensorSnapshot slice(int fromRow, int toRow) {
+        if (fromRow < 0 || toRow > size || fromRow > toRow) {
+            throw new IndexOutOfBoundsException("slice [" + fromRow + ", " + toRow + ") out of [0, " + size + ")");
+        }
+        return new SensorSnapshot(buffer, startSeq + fromRow, toRow - fromRow);
+    }
+
+    /** 구간 내 가장 이른 타임스탬프. 비어 있으면 fallback 을 반환합니다. */
+    public long earliestTimestamp(long fallback) {
+        if (size == 0) return fallback;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            long ts = getTimestamp(i);
+            if (ts < min) min = ts;
+        }
+        return min;
+    }
+
+    private int physical(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of [0, " + size + ")");
+        }
+        return buffer.physicalIndex(startSeq + row);
+    }
+
+    /**
+     * 기존 List&lt;Map&lt;String, Object&gt;&gt; 기반 프로세서를 위한 읽기 전용 어댑터.
+     * 행 Map 은 요청 시 만들어지는 가벼운 뷰이며 원본 열 데이터를 복사하지 않습니다.
+     * 키 순서와 박싱 타입은 기존 LinkedHashMap 레코드("timestamp" 다음에 채널 순서)와 동일합니다.
+     */
+    public List<Map<String, Object>> asRecords() {
+        return new RecordList();
+    }
+
+    /**
+     * records 가 {@link #asRecords()} 로 만든 어댑터이면 그 스냅샷을 반환합니다.
+     * Map 기반 프로세서가 같은 데이터를 박싱 없이 열에서 바로 읽을 수 있는지 확인할 때 씁니다.
+     * @return 스냅샷, 다른 리스트이면 null
+     */
+    public static SensorSnapshot backing(List<?> records) {
+        return records instanceof RecordList ? ((RecordList) records).snapshot() : null;
+    }
+
+    private final class RecordList extends AbstractList<Map<String, Object>> {
+        @Override
+        public Map<String, Object> get(int index) {
+            physical(index); // 범위 확인
+            return new RowView(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        SensorSnapshot snapshot() {
+            return SensorSnapshot.this;
+        }
+    }
+
+    private Object boxedValue(int channel, int row) {
+        switch (buffer.getChannelType(channel)) {
+            case LONG:
+                return getLong(channel, row);
+            case INT:
+                return (int) getLong(channel, row);
+            case FLOAT:
+                return getFloat(channel, row);
+            case DOUBLE:
+                return getDouble(channel, row);
+            case MAC:
+                return formatMac(getLong(channel, row));
+            default:
+                throw new IllegalStateException("Unknown column type");
+        }
+    }
+
+    /** {@link SensorBuffers#packMac(String)} 로 압축한 MAC 주소를 문자열로 되돌립니다. 음수는 null. */
+    public static String formatMac(long packed) {
+        if (packed < 0) return null;
+        return String.format(Locale.US, "%02x:%02x:%02x:%02x:%02x:%02x",
+                (packed >>> 40) & 0xff, (packed >>> 32) & 0xff, (packed >>> 24) & 0xff,
+                (packed >>> 16) & 0xff, (packed >>> 8) & 0xff, packed & 0xff);
+    }
+
+    private final class RowView extends AbstractMap<String, Object> {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if ("timestamp".equals(key)) return getTimestamp(row);
+            if (!(key instanceof String)) return null;
+            int channel = buffer.indexOf((String) key);
+            return channel >= 0 ? boxedValue(channel, row) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return "timestamp".equals(key) || (key instanceof String && buffer.indexOf((String) key) >= 0);
+        }
+
+        @Override
+        public int size() {
+            return buffer.getChannelCount() + 1;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int column = -1; // -1 은 timestamp
+
+                        @Override
+                        public boolean hasNext() {
+                            return column < buffer.getChannelCount();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            int current = column++;
+                            if (current == -1) {
+                                return new SimpleImmutableEntry<>("timestamp", getTimestamp(row));
+                            }
+                            return new SimpleImmutableEntry<>(buffer.getChannelName(current), boxedValue(current, row));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return RowView.this.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.myapplication12345.AI.capture;
+
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer.ColumnType;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 캡처 파일을 센서별 CSV(&lt;센서 이름&gt;.csv) 폴더로 내보내는 명령줄 도구. 학습 데이터 준비용이며,
+ * 출력은 재생 도구의 트레이스 폴더 형식(TraceCsvReader)과 같습니다.
+ * <pre>
+ * CaptureExport &lt;캡처 파일&gt; &lt;출력 폴더&gt;
+ * </pre>
+ */
+public final class CaptureExport {
+
+    private CaptureExport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CaptureExport <capture file> <out dir>");
+            System.exit(2);
+        }
+        File outDir = new File(args[1]);
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            System.err.println("cannot create " + outDir);
+            System.exit(1);
+        }
+        try (SensorCaptureReader capture = new SensorCaptureReader(new File(args[0]))) {
+            if (!capture.isIndexed()) {
+                System.err.println("capture has no index, recovered " + capture.getBlocks().size() + " blocks");
+            }
+            for (int sensorId = 0; sensorId < capture.getSensorCount(); sensorId++) {
+                File csv = new File(outDir, capture.getSensorName(sensorId) + ".csv");
+                long rows = export(capture, sensorId, csv);
+                System.out.println(csv.getPath() + ": " + rows + " rows");
+            }
+        }
+    }
+
+    /** 센서 하나의 모든 블록을 CSV 로 씁니다. @return 기록한 행 수 */
+    public static long export(SensorCaptureReader capture, int sensorId, File csv) throws IOException {
+        String[] names = capture.getChannelNames(sensorId);
+        ColumnType[] types = capture.getChannelTypes(sensorId);
+        List<SensorCaptureReader.Block> blocks = capture.getBlocks(sensorId);
+        long rows = 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(csv))) {
+            writer.write("timestamp");
+            for (String name : names) {
+                writer.write(',');
+                writer.write(name);
+            }
+            writer.newLine();
+
+            for (SensorCaptureReader.Block block : blocks) {
+                for (int row = 0; row < block.getRowCount(); row++) {
+                    writer.write(Long.toString(block.getTimestamp(row)));
+                    for (int ch = 0; ch < types.length; ch++) {
+                        writer.write(',');
+                        writer.write(formatValue(block, types[ch], ch, row));
+                    }
+                    writer.newLine();
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String formatValue(SensorCaptureReader.Block block, ColumnType type, int channel, int row) {
+        switch (type) {
+            case FLOAT:
+                return Float.toString(block.getFloat(channel, row));
+            case DOUBLE:
+                return Double.toString(block.getDouble(channel, row));
+            case MAC:
+                return String.valueOf(SensorSnapshot.formatMac(block.getLong(channel, row)));
+            default:
+                return Long.toString(block.getLong(channel, row));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.myapplication12345.AI.capture;
+
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer.ColumnType;
+
+/**
+ * 원시 센서 캡처 파일(.scap) 형식 정의. 모든 정수와 실수는 little-endian 입니다.
+ * <pre>
+ * 파일 헤더
+ *   magic "SCAP" (4) | version u16 | sensorCount u16 | createdMillis i64
+ *   센서마다: nameLen u8 | name (UTF-8) | channelCount u16 | 채널마다: type u8 | nameLen u8 | name
+ *   8바이트 정렬까지 0 채움
+ * 블록 (센서 하나의 약 1분 구간, 반복)
+ *   magic "SBLK" (4) | sensorId u8 | 예약 u8 × 3 | rowCount i32 | payloadBytes i32 | baseTimestamp i64
+ *   payload: 타임스탬프 오프셋 i32[rowCount] (baseTimestamp 기준 ms), 이어서 채널마다 고정 폭 열 하나
+ *            (LONG/MAC/DOUBLE 8바이트, INT/FLOAT 4바이트). 각 열은 8바이트 정렬
+ * 색인 (정상 종료 시 파일 끝)
+ *   항목마다: sensorId u8 | 예약 u8 × 3 | rowCount i32 | baseTimestamp i64 | lastTimestamp i64 | blockOffset i64
+ *   indexOffset i64 | entryCount i32 | magic "SIDX" (4)
+ * </pre>
+ * 색인이 없으면(앱 강제 종료 등) 읽는 쪽이 블록 헤더를 따라가며 색인을 다시 만듭니다.
+ */
+public final class SensorCaptureFormat {
+
+    public static final int FILE_MAGIC = 0x50414353;   // "SCAP"
+    public static final int BLOCK_MAGIC = 0x4B4C4253;  // "SBLK"
+    public static final int INDEX_MAGIC = 0x58444953;  // "SIDX"
+    public static final int VERSION = 1;
+
+    public static final int BLOCK_HEADER_BYTES = 24;
+    public static final int INDEX_ENTRY_BYTES = 32;
+    public static final int INDEX_TRAILER_BYTES = 16;
+
+    private static final int TYPE_LONG = 1;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_FLOAT = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_MAC = 5;
+
+    private SensorCaptureFormat() {
+    }
+
+    static int typeCode(ColumnType type) {
+        switch (type) {
+            case LONG:
+                return TYPE_LONG;
+            case INT:
+                return TYPE_INT;
+            case FLOAT:
+                return TYPE_FLOAT;
+            case DOUBLE:
+                return TYPE_DOUBLE;
+            default:
+                return TYPE_MAC;
+        }
+    }
+
+    static ColumnType columnType(int code) {
+        switch (code) {
+            case TYPE_LONG:
+                return ColumnType.LONG;
+            case TYPE_INT:
+                return ColumnType.INT;
+            case TYPE_FLOAT:
+                return ColumnType.FLOAT;
+            case TYPE_DOUBLE:
+                return ColumnType.DOUBLE;
+            case TYPE_MAC:
+                return ColumnType.MAC;
+            default:
+                throw new IllegalArgumentException("Unknown column type code: " + code);
+        }
+    }
+
+    /** 열 하나의 값 폭 (바이트). */
+    static int width(ColumnType type) {
+        switch (type) {
+            case INT:
+            case FLOAT:
+                return 4;
+            default:
+                return 8;
+        }
+    }
+
+    static long align8(long value) {
+        return (value + 7) & ~7L;
+    }
+
+    /** 행 수가 rowCount 인 블록의 payload 크기. */
+    static int payloadBytes(ColumnType[] types, int rowCount) {
+        long bytes = align8(4L * rowCount);
+        for (ColumnType type : types) {
+            bytes += align8((long) width(type) * rowCount);
+        }
+        return (int) bytes;
+    }
+}
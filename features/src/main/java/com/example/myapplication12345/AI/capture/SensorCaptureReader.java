@@ -0,0 +1,265 @@
+package com.example.myapplication12345.AI.capture;
+
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer.ColumnType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link SensorCaptureFormat} 캡처 파일 읽기. 파일 전체를 읽기 전용으로 메모리 매핑하고, 블록 값은 매핑 영역에서 바로 읽습니다.
+ * <p>
+ * 파일 끝의 색인으로 블록 목록을 만들며, 색인이 없거나 손상된 파일(기록 중 종료)은 블록 헤더를 따라가며
+ * 마지막 온전한 블록까지 읽습니다. 매핑 한 번으로 읽으므로 파일 크기는 2GB 미만이어야 합니다.
+ */
+public class SensorCaptureReader implements Closeable {
+
+    /** 센서 하나의 1분 구간 블록. 값 접근은 매핑 영역을 직접 읽으며 복사하지 않습니다. */
+    public final class Block {
+        private final int sensorId;
+        private final int rowCount;
+        private final long baseTimestamp;
+        private final long lastTimestamp;
+        private final int timestampOffset;
+        private final int[] columnOffsets;
+
+        private Block(int sensorId, int rowCount, long baseTimestamp, long lastTimestamp, int blockOffset) {
+            this.sensorId = sensorId;
+            this.rowCount = rowCount;
+            this.baseTimestamp = baseTimestamp;
+            this.lastTimestamp = lastTimestamp;
+            this.timestampOffset = blockOffset + SensorCaptureFormat.BLOCK_HEADER_BYTES;
+            ColumnType[] types = sensorTypes[sensorId];
+            this.columnOffsets = new int[types.length];
+            long column = timestampOffset + SensorCaptureFormat.align8(4L * rowCount);
+            for (int ch = 0; ch < types.length; ch++) {
+                columnOffsets[ch] = (int) column;
+                column += SensorCaptureFormat.align8((long) SensorCaptureFormat.width(types[ch]) * rowCount);
+            }
+        }
+
+        public int getSensorId() {
+            return sensorId;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public long getFirstTimestamp() {
+            return baseTimestamp;
+        }
+
+        public long getLastTimestamp() {
+            return lastTimestamp;
+        }
+
+        public long getTimestamp(int row) {
+            return baseTimestamp + data.getInt(timestampOffset + row * 4);
+        }
+
+        /** LONG, INT, MAC 채널 값. */
+        public long getLong(int channel, int row) {
+            if (sensorTypes[sensorId][channel] == ColumnType.INT) {
+                return data.getInt(columnOffsets[channel] + row * 4);
+            }
+            return data.getLong(columnOffsets[channel] + row * 8);
+        }
+
+        public float getFloat(int channel, int row) {
+            return data.getFloat(columnOffsets[channel] + row * 4);
+        }
+
+        public double getDouble(int channel, int row) {
+            return data.getDouble(columnOffsets[channel] + row * 8);
+        }
+
+        /** 행 하나를 같은 채널 구성의 링 버퍼에 기록합니다 (재생 도구용). */
+        public void writeRowTo(int row, SensorRingBuffer target) {
+            ColumnType[] types = sensorTypes[sensorId];
+            target.beginRow(getTimestamp(row));
+            for (int ch = 0; ch < types.length; ch++) {
+                switch (types[ch]) {
+                    case FLOAT:
+                        target.setFloat(ch, getFloat(ch, row));
+                        break;
+                    case DOUBLE:
+                        target.setDouble(ch, getDouble(ch, row));
+                        break;
+                    default:
+                        target.setLong(ch, getLong(ch, row));
+                        break;
+                }
+            }
+            target.commitRow();
+        }
+    }
+
+    private final ByteBuffer data;
+    private final int version;
+    private final long createdMillis;
+    private final String[] sensorNames;
+    private final String[][] channelNames;
+    private final ColumnType[][] sensorTypes;
+    private final List<Block> blocks = new ArrayList<>();
+    private final boolean indexed;
+
+    public SensorCaptureReader(File source) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(source, "r");
+             FileChannel channel = file.getChannel()) {
+            long size = channel.size();
+            if (size >= Integer.MAX_VALUE) {
+                throw new IOException("Capture file too large to map: " + source);
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        if (data.limit() < 16 || data.getInt(0) != SensorCaptureFormat.FILE_MAGIC) {
+            throw new IOException("Not a sensor capture file: " + source);
+        }
+        version = data.getShort(4) & 0xFFFF;
+        if (version != SensorCaptureFormat.VERSION) {
+            throw new IOException("Unsupported capture version " + version + ": " + source);
+        }
+        int sensorCount = data.getShort(6) & 0xFFFF;
+        createdMillis = data.getLong(8);
+
+        data.position(16);
+        sensorNames = new String[sensorCount];
+        channelNames = new String[sensorCount][];
+        sensorTypes = new ColumnType[sensorCount][];
+        for (int s = 0; s < sensorCount; s++) {
+            sensorNames[s] = getName();
+            int channelCount = data.getShort() & 0xFFFF;
+            channelNames[s] = new String[channelCount];
+            sensorTypes[s] = new ColumnType[channelCount];
+            for (int ch = 0; ch < channelCount; ch++) {
+                sensorTypes[s][ch] = SensorCaptureFormat.columnType(data.get() & 0xFF);
+                channelNames[s][ch] = getName();
+            }
+        }
+        int firstBlock = (int) SensorCaptureFormat.align8(data.position());
+
+        indexed = readIndex();
+        if (!indexed) {
+            scanBlocks(firstBlock);
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /** 파일 끝 색인으로 블록을 찾았으면 true, 블록을 따라가며 복구했으면 false. */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    public int getSensorCount() {
+        return sensorNames.length;
+    }
+
+    public String getSensorName(int sensorId) {
+        return sensorNames[sensorId];
+    }
+
+    /** 센서 이름으로 번호를 찾습니다. 없으면 -1. */
+    public int indexOfSensor(String name) {
+        for (int s = 0; s < sensorNames.length; s++) {
+            if (sensorNames[s].equals(name)) return s;
+        }
+        return -1;
+    }
+
+    public String[] getChannelNames(int sensorId) {
+        return channelNames[sensorId].clone();
+    }
+
+    public ColumnType[] getChannelTypes(int sensorId) {
+        return sensorTypes[sensorId].clone();
+    }
+
+    /** 기록 순서대로 모든 블록. */
+    public List<Block> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    /** 센서 하나의 블록 (기록 순서). */
+    public List<Block> getBlocks(int sensorId) {
+        List<Block> result = new ArrayList<>();
+        for (Block block : blocks) {
+            if (block.sensorId == sensorId) result.add(block);
+        }
+        return result;
+    }
+
+    /** 매핑은 GC 가 해제하므로 별도 자원은 없습니다. */
+    @Override
+    public void close() {
+        blocks.clear();
+    }
+
+    private boolean readIndex() {
+        int limit = data.limit();
+        if (limit < SensorCaptureFormat.INDEX_TRAILER_BYTES) return false;
+        int trailer = limit - SensorCaptureFormat.INDEX_TRAILER_BYTES;
+        if (data.getInt(trailer + 12) != SensorCaptureFormat.INDEX_MAGIC) return false;
+        long indexOffset = data.getLong(trailer);
+        int entryCount = data.getInt(trailer + 8);
+        if (indexOffset < 0 || entryCount < 0
+                || indexOffset + (long) entryCount * SensorCaptureFormat.INDEX_ENTRY_BYTES != trailer) {
+            return false;
+        }
+        for (int i = 0; i < entryCount; i++) {
+            int entry = (int) indexOffset + i * SensorCaptureFormat.INDEX_ENTRY_BYTES;
+            int sensorId = data.get(entry) & 0xFF;
+            if (sensorId >= sensorNames.length) {
+                blocks.clear();
+                return false;
+            }
+            blocks.add(new Block(sensorId, data.getInt(entry + 4), data.getLong(entry + 8),
+                    data.getLong(entry + 16), (int) data.getLong(entry + 24)));
+        }
+        return true;
+    }
+
+    // 색인이 없으면 블록 헤더를 차례로 읽어 마지막 온전한 블록까지 목록을 만듦
+    private void scanBlocks(int offset) {
+        int limit = data.limit();
+        while (offset + SensorCaptureFormat.BLOCK_HEADER_BYTES <= limit
+                && data.getInt(offset) == SensorCaptureFormat.BLOCK_MAGIC) {
+            int sensorId = data.get(offset + 4) & 0xFF;
+            int rowCount = data.getInt(offset + 8);
+            int payloadBytes = data.getInt(offset + 12);
+            long end = (long) offset + SensorCaptureFormat.BLOCK_HEADER_BYTES + payloadBytes;
+            if (sensorId >= sensorNames.length || rowCount <= 0 || end > limit
+                    || payloadBytes != SensorCaptureFormat.payloadBytes(sensorTypes[sensorId], rowCount)) {
+                break;
+            }
+            long baseTimestamp = data.getLong(offset + 16);
+            int timestamps = offset + SensorCaptureFormat.BLOCK_HEADER_BYTES;
+            long lastTimestamp = baseTimestamp + data.getInt(timestamps + (rowCount - 1) * 4);
+            blocks.add(new Block(sensorId, rowCount, baseTimestamp, lastTimestamp, offset));
+            offset = (int) end;
+        }
+    }
+
+    private String getName() {
+        byte[] bytes = new byte[data.get() & 0xFF];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.myapplication12345.AI.capture;
+
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer.ColumnType;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 링 버퍼 스냅샷을 {@link SensorCaptureFormat} 블록으로 캡처 파일에 이어 씁니다.
+ * <p>
+ * 파일 끝을 {@link #MAP_CHUNK_BYTES} 단위로 메모리 매핑해 두고 그 위에 직접 기록하므로, 행마다 문자열이나 박싱 객체를 만들지 않고
+ * 쓰기 시스템 호출도 없습니다. 매핑 영역이 모자라면 현재 위치부터 다음 영역을 매핑합니다.
+ * {@link #close()} 에서 블록 색인을 붙이고 파일을 실제 길이로 자릅니다.
+ * <p>
+ * 단일 스레드에서만 사용해야 합니다.
+ */
+public class SensorCaptureWriter implements Closeable {
+
+    private static final int MAP_CHUNK_BYTES = 4 << 20; // 4MB (IMU 약 40분)
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final ColumnType[][] sensorTypes;
+
+    private MappedByteBuffer mapped; // 파일 [mappedStart, mappedStart + capacity) 영역
+    private long mappedStart;
+    private long position; // 다음 기록 위치 (파일 오프셋)
+
+    // 색인 항목 (정상 종료 시 파일 끝에 기록)
+    private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(SensorCaptureFormat.INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private int indexCount = 0;
+
+    /**
+     * 캡처 파일을 새로 만들고 헤더를 기록합니다.
+     * @param sensors 기록할 센서 버퍼. 배열 순서가 센서 번호이며 채널 구성이 헤더에 기록됩니다.
+     */
+    public SensorCaptureWriter(File target, long createdMillis, SensorRingBuffer... sensors) throws IOException {
+        if (sensors.length == 0 || sensors.length > 255) {
+            throw new IllegalArgumentException("sensor count must be 1..255: " + sensors.length);
+        }
+        sensorTypes = new ColumnType[sensors.length][];
+        ByteBuffer header = ByteBuffer.allocate(headerBytes(sensors)).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(SensorCaptureFormat.FILE_MAGIC);
+        header.putShort((short) SensorCaptureFormat.VERSION);
+        header.putShort((short) sensors.length);
+        header.putLong(createdMillis);
+        for (int s = 0; s < sensors.length; s++) {
+            SensorRingBuffer sensor = sensors[s];
+            putName(header, sensor.getName());
+            header.putShort((short) sensor.getChannelCount());
+            sensorTypes[s] = new ColumnType[sensor.getChannelCount()];
+            for (int ch = 0; ch < sensor.getChannelCount(); ch++) {
+                ColumnType type = sensor.getChannelType(ch);
+                sensorTypes[s][ch] = type;
+                header.put((byte) SensorCaptureFormat.typeCode(type));
+                putName(header, sensor.getChannelName(ch));
+            }
+        }
+
+        file = new RandomAccessFile(target, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+        ensureMapped(header.capacity());
+        header.clear(); // 8바이트 정렬 패딩까지 기록
+        mapped.put(header);
+        position = header.capacity();
+    }
+
+    /** 센서 sensorId 의 스냅샷 행 전체를 블록 하나로 기록합니다. 비어 있으면 기록하지 않습니다. */
+    public void writeBlock(int sensorId, SensorSnapshot rows) throws IOException {
+        int rowCount = rows.size();
+        if (rowCount == 0) {
+            return;
+        }
+        ColumnType[] types = sensorTypes[sensorId];
+        if (rows.getBuffer().getChannelCount() != types.length) {
+            throw new IllegalArgumentException("snapshot does not match sensor " + sensorId);
+        }
+
+        int payloadBytes = SensorCaptureFormat.payloadBytes(types, rowCount);
+        long blockOffset = position;
+        ensureMapped(SensorCaptureFormat.BLOCK_HEADER_BYTES + payloadBytes);
+        int base = (int) (position - mappedStart);
+
+        long baseTimestamp = rows.getTimestamp(0);
+        long lastTimestamp = rows.getTimestamp(rowCount - 1);
+        mapped.putInt(base, SensorCaptureFormat.BLOCK_MAGIC);
+        mapped.putInt(base + 4, sensorId); // sensorId u8 + 예약 3바이트
+        mapped.putInt(base + 8, rowCount);
+        mapped.putInt(base + 12, payloadBytes);
+        mapped.putLong(base + 16, baseTimestamp);
+
+        int column = base + SensorCaptureFormat.BLOCK_HEADER_BYTES;
+        for (int row = 0; row < rowCount; row++) {
+            mapped.putInt(column + row * 4, (int) (rows.getTimestamp(row) - baseTimestamp));
+        }
+        column += (int) SensorCaptureFormat.align8(4L * rowCount);
+        for (int ch = 0; ch < types.length; ch++) {
+            switch (types[ch]) {
+                case FLOAT:
+                    for (int row = 0; row < rowCount; row++) {
+                        mapped.putFloat(column + row * 4, rows.getFloat(ch, row));
+                    }
+                    break;
+                case INT:
+                    for (int row = 0; row < rowCount; row++) {
+                        mapped.putInt(column + row * 4, (int) rows.getLong(ch, row));
+                    }
+                    break;
+                case DOUBLE:
+                    for (int row = 0; row < rowCount; row++) {
+                        mapped.putDouble(column + row * 8, rows.getDouble(ch, row));
+                    }
+                    break;
+                default:
+                    for (int row = 0; row < rowCount; row++) {
+                        mapped.putLong(column + row * 8, rows.getLong(ch, row));
+                    }
+                    break;
+            }
+            column += (int) SensorCaptureFormat.align8((long) SensorCaptureFormat.width(types[ch]) * rowCount);
+        }
+        position += SensorCaptureFormat.BLOCK_HEADER_BYTES + payloadBytes;
+
+        indexEntry.clear();
+        indexEntry.putInt(sensorId);
+        indexEntry.putInt(rowCount);
+        indexEntry.putLong(baseTimestamp);
+        indexEntry.putLong(lastTimestamp);
+        indexEntry.putLong(blockOffset);
+        index.write(indexEntry.array(), 0, SensorCaptureFormat.INDEX_ENTRY_BYTES);
+        indexCount++;
+    }
+
+    /** 지금까지 기록한 바이트 수 (색인 제외). */
+    public long length() {
+        return position;
+    }
+
+    /** 색인을 기록하고, 매핑 영역을 디스크에 반영한 뒤 파일을 실제 길이로 자릅니다. */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            byte[] entries = index.toByteArray();
+            ensureMapped(entries.length + SensorCaptureFormat.INDEX_TRAILER_BYTES);
+            mapped.position((int) (position - mappedStart));
+            mapped.put(entries);
+            mapped.putLong(indexOffset);
+            mapped.putInt(indexCount);
+            mapped.putInt(SensorCaptureFormat.INDEX_MAGIC);
+            position += entries.length + SensorCaptureFormat.INDEX_TRAILER_BYTES;
+            mapped.force();
+            mapped = null;
+            channel.truncate(position);
+        } finally {
+            file.close();
+        }
+    }
+
+    // [position, position + bytes) 가 매핑 영역 안에 들도록 필요하면 현재 위치부터 다시 매핑
+    private void ensureMapped(int bytes) throws IOException {
+        if (mapped != null && position + bytes <= mappedStart + mapped.capacity()) {
+            return;
+        }
+        if (mapped != null) {
+            mapped.force();
+        }
+        mappedStart = position;
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, mappedStart, Math.max(MAP_CHUNK_BYTES, bytes));
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int headerBytes(SensorRingBuffer[] sensors) {
+        long bytes = 16;
+        for (SensorRingBuffer sensor : sensors) {
+            bytes += 1 + utf8(sensor.getName()).length + 2;
+            for (int ch = 0; ch < sensor.getChannelCount(); ch++) {
+                bytes += 2 + utf8(sensor.getChannelName(ch)).length;
+            }
+        }
+        return (int) SensorCaptureFormat.align8(bytes);
+    }
+
+    private static void putName(ByteBuffer buffer, String name) {
+        byte[] bytes = utf8(name);
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] utf8(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("name too long: " + name);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.myapplication12345.AI.feature;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 모델 입력 한 장(특성 × 타임스텝)을 담는 재사용 float 버퍼.
+ * <p>
+ * 각 프로세서가 {@link FeatureSchema} 로 정해진 위치에 값을 바로 기록하므로 타임스텝별 Map 을 만들지 않습니다.
+ * 메모리 배치는 타임스텝 우선(타임스텝 t 의 특성 f 는 {@code t * featureCount + f})으로, 기존에 행 Map 을 순서대로
+ * 이어 붙여 만들던 입력과 바이트 단위로 같습니다.
+ * <p>
+ * 버퍼는 호출 측이 넘기며(예: {@code Tensor.allocateFloatBuffer}), 한 스레드에서만 채워야 합니다.
+ */
+public final class FeatureFrame {
+
+    private final FeatureSchema schema;
+    private final int timesteps;
+    private final int featureCount;
+    private final FloatBuffer buffer;
+
+    public FeatureFrame(FeatureSchema schema, int timesteps, FloatBuffer buffer) {
+        if (buffer.capacity() < schema.size() * timesteps) {
+            throw new IllegalArgumentException("Buffer capacity " + buffer.capacity()
+                    + " is smaller than " + schema.size() + " x " + timesteps);
+        }
+        this.schema = schema;
+        this.timesteps = timesteps;
+        this.featureCount = schema.size();
+        this.buffer = buffer;
+    }
+
+    public FeatureSchema getSchema() {
+        return schema;
+    }
+
+    public int getTimesteps() {
+        return timesteps;
+    }
+
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    public FloatBuffer getBuffer() {
+        return buffer;
+    }
+
+    /** 모든 값을 0 으로 채웁니다. 채우지 않은 특성은 0 패딩으로 남습니다. */
+    public void clear() {
+        int size = featureCount * timesteps;
+        for (int i = 0; i < size; i++) {
+            buffer.put(i, 0.0f);
+        }
+    }
+
+    public void put(int timestep, int feature, float value) {
+        buffer.put(timestep * featureCount + feature, value);
+    }
+
+    public float get(int timestep, int feature) {
+        return buffer.get(timestep * featureCount + feature);
+    }
+
+    /** values[0..count) 를 타임스텝 하나의 firstFeature 부터 연속 기록합니다. */
+    public void putRow(int timestep, int firstFeature, float[] values, int count) {
+        int base = timestep * featureCount + firstFeature;
+        for (int i = 0; i < count; i++) {
+            buffer.put(base + i, values[i]);
+        }
+    }
+
+    /** values[0..count) 를 float 로 변환해 타임스텝 하나의 firstFeature 부터 연속 기록합니다. */
+    public void putRow(int timestep, int firstFeature, double[] values, int count) {
+        int base = timestep * featureCount + firstFeature;
+        for (int i = 0; i < count; i++) {
+            buffer.put(base + i, (float) values[i]);
+        }
+    }
+}
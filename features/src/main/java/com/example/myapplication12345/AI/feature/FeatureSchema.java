@@ -0,0 +1,73 @@
+package com.example.myapplication12345.AI.feature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 모델 입력 특성의 이름과 위치(0부터의 특성 인덱스)를 고정하는 스키마.
+ * <p>
+ * 특성 순서를 Map 삽입 순서에 맡기지 않고, 센서별 특성 이름 묶음을 주어진 순서대로 이어 붙여 한 번만 정합니다.
+ * 이름이 겹치면 생성 시 예외가 발생하므로 순서/중복 오류를 실행 초기에 발견할 수 있습니다.
+ */
+public final class FeatureSchema {
+
+    private final List<String> names;
+    private final Map<String, Integer> index = new HashMap<>();
+
+    /**
+     * @param groups 센서별 특성 이름 묶음. 주어진 순서대로 배치됩니다.
+     */
+    public FeatureSchema(String[]... groups) {
+        List<String> all = new ArrayList<>();
+        for (String[] group : groups) {
+            for (String name : group) {
+                if (index.put(name, all.size()) != null) {
+                    throw new IllegalArgumentException("Duplicate feature name: " + name);
+                }
+                all.add(name);
+            }
+        }
+        this.names = Collections.unmodifiableList(all);
+    }
+
+    /** 전체 특성 수. */
+    public int size() {
+        return names.size();
+    }
+
+    /** 특성 이름 (위치 순서). */
+    public List<String> getNames() {
+        return names;
+    }
+
+    public String nameAt(int feature) {
+        return names.get(feature);
+    }
+
+    /** 특성 이름의 위치. 없으면 -1. */
+    public int indexOf(String name) {
+        Integer idx = index.get(name);
+        return idx != null ? idx : -1;
+    }
+
+    /**
+     * 이름 묶음이 스키마 안에 같은 순서로 연속 배치된 시작 위치를 반환합니다.
+     * 프로세서가 자신의 특성을 한 번에 쓸 위치를 찾을 때 사용합니다.
+     * @throws IllegalArgumentException 이름이 없거나 연속되지 않은 경우
+     */
+    public int offsetOf(String[] group) {
+        int start = indexOf(group[0]);
+        if (start < 0) {
+            throw new IllegalArgumentException("Unknown feature name: " + group[0]);
+        }
+        for (int i = 1; i < group.length; i++) {
+            if (indexOf(group[i]) != start + i) {
+                throw new IllegalArgumentException("Feature " + group[i] + " is not at offset " + (start + i));
+            }
+        }
+        return start;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.myapplication12345.AI.feature;
+
+import java.util.Arrays;
+
+/**
+ * 그룹 번호별로 long 값(압축한 BSSID, 셀 ID 등)을 모았다가, 그룹마다 정렬하고 중복을 없앤 값 집합으로 바꾸는 누적기.
+ * 문자열 Set 대신 기본형 배열 하나로 그룹별 고유 개수와 두 그룹 사이의 대칭차 크기를 구합니다.
+ * <p>
+ * {@link #add} 로 모두 넣은 뒤 {@link #seal(int)} 을 한 번 호출하고 나서 조회합니다. 한 스레드에서만 사용합니다.
+ */
+public final class GroupedLongs {
+
+    private int[] groups = new int[32];
+    private long[] values = new long[32];
+    private int size = 0;
+
+    // seal 이후: 그룹 g 의 고유 값은 sorted[starts[g], ends[g]) 에 오름차순
+    private long[] sorted;
+    private int[] starts;
+    private int[] ends;
+
+    public void add(int group, long value) {
+        if (sorted != null) {
+            throw new IllegalStateException("already sealed");
+        }
+        if (size == values.length) {
+            groups = Arrays.copyOf(groups, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        groups[size] = group;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * 값을 그룹 순서로 모으고(계수 정렬) 그룹마다 정렬해 중복을 없앱니다.
+     * @param groupCount 그룹 수. add 에 쓴 그룹 번호는 모두 이보다 작아야 함
+     */
+    public void seal(int groupCount) {
+        starts = new int[groupCount];
+        ends = new int[groupCount];
+        int[] counts = new int[groupCount + 1];
+        for (int i = 0; i < size; i++) {
+            counts[groups[i] + 1]++;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            counts[g + 1] += counts[g];
+        }
+        sorted = new long[size];
+        int[] next = Arrays.copyOf(counts, groupCount);
+        for (int i = 0; i < size; i++) {
+            sorted[next[groups[i]]++] = values[i];
+        }
+        for (int g = 0; g < groupCount; g++) {
+            int from = counts[g];
+            int to = counts[g + 1];
+            Arrays.sort(sorted, from, to);
+            int end = from;
+            for (int i = from; i < to; i++) {
+                if (i == from || sorted[i] != sorted[end - 1]) {
+                    sorted[end++] = sorted[i];
+                }
+            }
+            starts[g] = from;
+            ends[g] = end;
+        }
+    }
+
+    /** 그룹의 고유 값 수 */
+    public int distinctCount(int group) {
+        return ends[group] - starts[group];
+    }
+
+    /** 두 그룹 중 한쪽에만 있는 값의 수 (|A - B| + |B - A|) */
+    public int symmetricDifference(int groupA, int groupB) {
+        int a = starts[groupA];
+        int b = starts[groupB];
+        int aEnd = ends[groupA];
+        int bEnd = ends[groupB];
+        int common = 0;
+        while (a < aEnd && b < bEnd) {
+            if (sorted[a] == sorted[b]) {
+                common++;
+                a++;
+                b++;
+            } else if (sorted[a] < sorted[b]) {
+                a++;
+            } else {
+                b++;
+            }
+        }
+        return distinctCount(groupA) + distinctCount(groupB) - 2 * common;
+    }
+}
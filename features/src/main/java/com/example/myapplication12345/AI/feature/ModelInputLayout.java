@@ -0,0 +1,44 @@
+package com.example.myapplication12345.AI.feature;
+
+import com.example.myapplication12345.AI.AP.APProcessor;
+import com.example.myapplication12345.AI.BTS.BTSProcessor;
+import com.example.myapplication12345.AI.GPS.GPSProcessor;
+import com.example.myapplication12345.AI.IMU.IMUProcessor;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 이동 수단 분류 모델의 입력 배치 (특성 340개 × 타임스텝 60개).
+ * <p>
+ * 특성 순서는 모델 학습 시 열 순서인 AP, BTS, GPS, IMU 이며, 앱의 추론 경로와 벤치마크/재생 도구가 같은 정의를 공유합니다.
+ */
+public final class ModelInputLayout {
+
+    /** 타임스텝 수 (1분 = 60초). */
+    public static final int TIMESTEPS = 60;
+
+    public static final FeatureSchema SCHEMA = new FeatureSchema(
+            APProcessor.FEATURE_NAMES,
+            BTSProcessor.FEATURE_NAMES,
+            GPSProcessor.FEATURE_NAMES,
+            IMUProcessor.getFeatureNames().toArray(new String[0]));
+
+    /** 타임스텝당 특성 수 (340). */
+    public static final int FEATURE_COUNT = SCHEMA.size();
+
+    /** IMU 특성 묶음의 시작 위치. IMU 행은 {@link IMUProcessor#getFeatureNames()} 순서로 여기서부터 연속 배치됩니다. */
+    public static final int IMU_OFFSET = SCHEMA.indexOf(IMUProcessor.getFeatureNames().get(0));
+
+    /** 입력 텐서 모양. 메모리 배치는 타임스텝 우선이지만 모델 학습 시와 같게 [1, 특성, 타임스텝] 으로 선언합니다. */
+    public static long[] tensorShape() {
+        return new long[]{1, FEATURE_COUNT, TIMESTEPS};
+    }
+
+    /** 버퍼(예: {@code Tensor.allocateFloatBuffer(FEATURE_COUNT * TIMESTEPS)}) 위에 입력 프레임을 만듭니다. */
+    public static FeatureFrame newFrame(FloatBuffer buffer) {
+        return new FeatureFrame(SCHEMA, TIMESTEPS, buffer);
+    }
+
+    private ModelInputLayout() {
+    }
+}
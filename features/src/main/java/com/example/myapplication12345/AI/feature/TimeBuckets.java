@@ -0,0 +1,23 @@
+package com.example.myapplication12345.AI.feature;
+
+/**
+ * 고정 폭 시간 구간 번호 계산. 구간 i 는 [start + i * step, start + (i + 1) * step) 입니다.
+ * 입력을 한 번만 훑으면서 각 행을 구간에 바로 넣을 때 씁니다.
+ */
+public final class TimeBuckets {
+
+    private TimeBuckets() {
+    }
+
+    /**
+     * @param count 구간 수
+     * @return timestamp 가 드는 구간 번호. 어느 구간에도 들지 않으면 -1
+     */
+    public static int indexOf(long timestamp, long start, long step, int count) {
+        if (timestamp < start) {
+            return -1;
+        }
+        long index = (timestamp - start) / step;
+        return index < count ? (int) index : -1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.myapplication12345.AI.metrics;
+
+import java.util.Arrays;
+
+/**
+ * HDR 히스토그램과 같은 로그-선형 구간의 히스토그램. 0 이상의 long 값(지연 ns, 할당 bytes 등)을 고정 크기 배열에 셉니다.
+ * <p>
+ * 2의 거듭제곱 구간마다 {@code 2^SUB_BUCKET_BITS} 개의 같은 폭 하위 구간을 두므로, 값 크기와 상관없이
+ * 백분위수의 상대 오차가 1/16 이하입니다. 기록은 배열 칸 하나를 올리는 것뿐이라 할당이 없습니다.
+ * {@code 2^(MAX_EXPONENT + 1)} 이상의 값은 마지막 구간에 넣고, 최대값은 따로 정확히 기록합니다.
+ * <p>
+ * 여러 스레드에서 기록하고 읽을 수 있습니다 (메서드 단위 동기화).
+ */
+public class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; // ns 기준 약 36분, bytes 기준 약 2TB
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count = 0;
+    private long sum = 0;
+    private long min = Long.MAX_VALUE;
+    private long max = 0;
+
+    /** 값 하나를 기록합니다. 음수는 0 으로 기록합니다. */
+    public synchronized void record(long value) {
+        long v = Math.max(0L, value);
+        counts[indexOf(v)]++;
+        count++;
+        sum += v;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    /** 기록이 없으면 0 */
+    public synchronized long getMin() {
+        return count == 0 ? 0L : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /** 기록이 없으면 0 */
+    public synchronized double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * 백분위수 값. 해당 순위가 들어 있는 구간의 상한(최대값을 넘지 않음)을 반환합니다. 기록이 없으면 0.
+     * @param percentile 0~100
+     */
+    public synchronized long valueAt(double percentile) {
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // 마지막 구간은 범위를 넘는 값도 담으므로 상한 대신 최대값
+                return i == counts.length - 1 ? max : Math.min(max, Math.max(min, upperBound(i)));
+            }
+        }
+        return max;
+    }
+
+    /** 모든 기록을 지웁니다. */
+    public synchronized void reset() {
+        Arrays.fill(counts, 0L);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // 구간 index 에 들어가는 가장 큰 값
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+}
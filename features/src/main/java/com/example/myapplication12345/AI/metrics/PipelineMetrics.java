@@ -0,0 +1,261 @@
+package com.example.myapplication12345.AI.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 센서 파이프라인의 단계별 지연 히스토그램, 수집 카운터, 분당 할당량.
+ * 휴대폰 기종이나 OS 업데이트로 파이프라인이 느려졌을 때 어느 단계가 원인인지 구분하기 위한 것입니다.
+ * <p>
+ * 단계 지연은 {@link LogHistogram} 에 ns 로 기록하고, 카운터는 수집 스레드에서 올립니다.
+ * {@link #tick(long)} 을 1초마다 호출하면 1분마다 최근 1분의 수집 속도와 할당량을 갱신합니다.
+ * 할당량은 생성자로 받은 누적 할당 bytes 값의 차이로 구하며, 프로세스 전체 값입니다 (단계별 할당은 재지 않음).
+ * <p>
+ * 기록과 조회는 어느 스레드에서나 할 수 있습니다.
+ */
+public class PipelineMetrics {
+
+    /** 지연을 재는 처리 단계. */
+    public enum Stage {
+        HANDOFF("buffer hand-off"),       // 윈도우 경계 확정(수집 스레드) → 추론 워커 시작
+        IMU_BUCKET("imu bucket"),         // 닫힌 1초 IMU 구간의 특성 계산 (집계 스레드)
+        AP_FEATURES("ap features"),
+        BTS_FEATURES("bts features"),
+        GPS_FEATURES("gps features"),
+        IMU_FEATURES("imu features"),     // 윈도우 조립 시 캐시된 IMU 행 복사와 빠진 구간 계산
+        TENSOR_BUILD("tensor build"),     // 모델 입력 조립 전체 (위 네 단계 포함)
+        INFERENCE("inference"),           // 분류기 호출 (결과 캐시, 캐스케이드 포함)
+        PREDICTION_WRITE("prediction write");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** 누적 카운터. */
+    public enum Counter {
+        IMU_EVENTS("imu events"),         // 센서 이벤트 (재표본화 전)
+        IMU_SAMPLES("imu samples"),       // 100Hz 격자 샘플
+        GPS_ROWS("gps rows"),
+        AP_ROWS("ap rows"),
+        BTS_ROWS("bts rows"),
+        WINDOWS("windows"),
+        STATIONARY_WINDOWS("stationary windows"),
+        COALESCED_WINDOWS("coalesced windows"), // 추론이 밀려 다음 윈도우와 합친 슬라이딩 윈도우
+        SKIPPED_WINDOWS("skipped windows");     // 스냅샷이 덮어쓰여 다음 윈도우로 넘긴 윈도우
+
+        private final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** 할당량을 잴 수 없을 때 할당 값 공급자가 반환하는 값 */
+    public static final long UNAVAILABLE = -1L;
+    private static final long MINUTE_MS = 60_000L;
+
+    private final LongSupplier allocatedBytes;
+    private final LogHistogram[] stages = new LogHistogram[Stage.values().length];
+    private final Map<String, LogHistogram> modelForwards = new ConcurrentSkipListMap<>();
+    private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+
+    // 1분 단위 집계 (tick 을 부르는 스레드에서 갱신, 조회는 동기화)
+    private final LogHistogram allocationPerMinute = new LogHistogram();
+    private final long[] minuteStartCounts = new long[Counter.values().length];
+    private final double[] lastMinuteRates = new double[Counter.values().length];
+    private long startMillis = -1L;
+    private long minuteStartMillis = -1L;
+    private long minuteStartAllocated = UNAVAILABLE;
+    private long lastMinuteAllocated = UNAVAILABLE;
+    private int minutes = 0;
+
+    /** 할당량을 재지 않는 지표 (재생 도구, 테스트). */
+    public PipelineMetrics() {
+        this(() -> UNAVAILABLE);
+    }
+
+    /**
+     * @param allocatedBytes 프로세스가 지금까지 할당한 누적 bytes. 잴 수 없으면 {@link #UNAVAILABLE}
+     */
+    public PipelineMetrics(LongSupplier allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new LogHistogram();
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * startNanos 부터 지금까지를 단계 지연으로 기록하고 지금 시각을 반환합니다.
+     * 이어지는 단계를 {@code t = metrics.recordSince(A, t); ... t = metrics.recordSince(B, t);} 처럼 잴 수 있습니다.
+     */
+    public long recordSince(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        record(stage, now - startNanos);
+        return now;
+    }
+
+    /** 모델 하나의 forward 지연을 기록합니다. 모델 이름별로 히스토그램을 따로 둡니다. */
+    public void recordModelForward(String model, long nanos) {
+        modelForwards.computeIfAbsent(model, name -> new LogHistogram()).record(nanos);
+    }
+
+    public void increment(Counter counter) {
+        counters.incrementAndGet(counter.ordinal());
+    }
+
+    public void add(Counter counter, long delta) {
+        counters.addAndGet(counter.ordinal(), delta);
+    }
+
+    /**
+     * 1초마다 호출합니다. 지난 집계 뒤로 1분이 지났으면 최근 1분의 카운터별 속도와 할당량을 갱신합니다.
+     * 기기가 잠들어 호출이 늦어진 경우에도 실제 경과 시간으로 나눠 분당 값으로 맞춥니다.
+     * @param nowMillis 현재 시각 (ms)
+     * @return 이번 호출에서 1분 집계를 갱신했으면 true
+     */
+    public synchronized boolean tick(long nowMillis) {
+        if (minuteStartMillis < 0 || nowMillis < minuteStartMillis) {
+            // 처음이거나 시계가 뒤로 간 경우 여기서부터 다시 셈
+            if (startMillis < 0 || nowMillis < startMillis) {
+                startMillis = nowMillis;
+            }
+            startMinute(nowMillis);
+            return false;
+        }
+        long elapsed = nowMillis - minuteStartMillis;
+        if (elapsed < MINUTE_MS) {
+            return false;
+        }
+        for (int i = 0; i < minuteStartCounts.length; i++) {
+            lastMinuteRates[i] = (counters.get(i) - minuteStartCounts[i]) * 1000.0 / elapsed;
+        }
+        long allocated = allocatedBytes.getAsLong();
+        if (allocated != UNAVAILABLE && minuteStartAllocated != UNAVAILABLE && allocated >= minuteStartAllocated) {
+            lastMinuteAllocated = Math.round((allocated - minuteStartAllocated) * (double) MINUTE_MS / elapsed);
+            allocationPerMinute.record(lastMinuteAllocated);
+        }
+        minutes++;
+        startMinute(nowMillis);
+        return true;
+    }
+
+    private void startMinute(long nowMillis) {
+        minuteStartMillis = nowMillis;
+        for (int i = 0; i < minuteStartCounts.length; i++) {
+            minuteStartCounts[i] = counters.get(i);
+        }
+        minuteStartAllocated = allocatedBytes.getAsLong();
+    }
+
+    public LogHistogram getStage(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    /** 모델 이름별 forward 지연 (이름 순서). */
+    public Map<String, LogHistogram> getModelForwards() {
+        return modelForwards;
+    }
+
+    public long getCount(Counter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    /** 최근 1분 동안의 초당 횟수. 아직 1분이 지나지 않았으면 0 */
+    public synchronized double getLastMinuteRate(Counter counter) {
+        return lastMinuteRates[counter.ordinal()];
+    }
+
+    /** 최근 1분 동안 할당한 bytes. 잴 수 없거나 아직 1분이 지나지 않았으면 {@link #UNAVAILABLE} */
+    public synchronized long getLastMinuteAllocatedBytes() {
+        return lastMinuteAllocated;
+    }
+
+    /** 1분마다 기록한 분당 할당 bytes 분포. */
+    public LogHistogram getAllocationPerMinute() {
+        return allocationPerMinute;
+    }
+
+    /** 여러 줄 보고서: 단계별 지연 표, 모델별 forward 지연, 수집 속도, 분당 할당량. */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        synchronized (this) {
+            report.append(String.format(Locale.US, "파이프라인 지표 (%d분 집계)%n", minutes));
+        }
+        report.append(String.format(Locale.US, "%-22s %8s %8s %8s %8s %8s %8s%n",
+                "stage", "count", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Stage stage : Stage.values()) {
+            appendLatency(report, stage.getLabel(), stages[stage.ordinal()]);
+        }
+        for (Map.Entry<String, LogHistogram> entry : modelForwards.entrySet()) {
+            appendLatency(report, "forward " + entry.getKey(), entry.getValue());
+        }
+
+        report.append("카운터 (누적, 최근 1분 초당):");
+        for (Counter counter : Counter.values()) {
+            report.append(String.format(Locale.US, " %s %d (%.1f/s),", counter.getLabel(), getCount(counter),
+                    getLastMinuteRate(counter)));
+        }
+        report.setLength(report.length() - 1);
+        report.append(String.format("%n"));
+
+        long lastAllocated = getLastMinuteAllocatedBytes();
+        if (lastAllocated == UNAVAILABLE) {
+            report.append(String.format("분당 할당: -%n"));
+        } else {
+            report.append(String.format(Locale.US, "분당 할당: 최근 %s, p50 %s, p95 %s, 최대 %s%n", megabytes(lastAllocated),
+                    megabytes(allocationPerMinute.valueAt(50)), megabytes(allocationPerMinute.valueAt(95)),
+                    megabytes(allocationPerMinute.getMax())));
+        }
+        return report.toString();
+    }
+
+    /** {@link #report()} 를 파일에 씁니다 (덮어씀). */
+    public void dump(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("지표 폴더를 만들 수 없음: " + dir.getAbsolutePath());
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(report());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    private static void appendLatency(StringBuilder report, String label, LogHistogram histogram) {
+        report.append(String.format(Locale.US, "%-22s %8d %8.2f %8.2f %8.2f %8.2f %8.2f%n", label, histogram.getCount(),
+                histogram.getMean() / 1e6, histogram.valueAt(50) / 1e6, histogram.valueAt(95) / 1e6,
+                histogram.valueAt(99) / 1e6, histogram.getMax() / 1e6));
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format(Locale.US, "%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+}
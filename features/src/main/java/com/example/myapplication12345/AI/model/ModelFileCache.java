@@ -0,0 +1,180 @@
+package com.example.myapplication12345.AI.model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Logger;
+
+/**
+ * 앱 에셋의 모델 파일을 내부 저장소에 한 번만 풀어 두고 경로를 돌려줍니다 (모델 로더는 파일 경로만 받음).
+ * <p>
+ * 추출할 때 SHA-256 을 계산해 임시 파일에 쓰고, 다 쓴 파일을 다시 읽어 같은 값인지 확인한 뒤 이름을 바꿉니다.
+ * 에셋 옆에 {@code <에셋>.sha256} 이 있으면 그 값과도 비교합니다. 결과는 {@code <파일>.sha256} 에
+ * 스탬프(앱 버전 등), 길이, 체크섬으로 남기며, 다음 실행부터는 스탬프와 길이만 맞으면 파일을 다시 읽지 않습니다.
+ * 앱이 업데이트되어 스탬프가 바뀌거나 파일이 잘려 있으면 다시 추출합니다.
+ * <p>
+ * 서로 다른 에셋은 여러 스레드에서 동시에 요청해도 됩니다.
+ */
+public class ModelFileCache {
+    private static final Logger LOG = Logger.getLogger("ModelFileCache");
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+    static final String CHECKSUM_SUFFIX = ".sha256";
+
+    /** 에셋 경로로 입력 스트림을 엽니다. 에셋이 없으면 {@link FileNotFoundException}. */
+    public interface AssetOpener {
+        InputStream open(String assetPath) throws IOException;
+    }
+
+    private final File directory;
+    private final String stamp;
+    private final AssetOpener opener;
+
+    /**
+     * @param directory 추출할 디렉토리 (에셋 경로의 하위 폴더를 그대로 만듦)
+     * @param stamp 에셋 묶음의 버전. 바뀌면 다시 추출 (예: 앱 versionCode 와 설치 시각)
+     * @param opener 에셋 열기
+     */
+    public ModelFileCache(File directory, String stamp, AssetOpener opener) {
+        this.directory = directory;
+        this.stamp = stamp;
+        this.opener = opener;
+    }
+
+    /**
+     * 에셋을 추출해 둔 파일을 돌려줍니다. 없거나 오래되었으면 이 자리에서 추출합니다.
+     * @throws FileNotFoundException 에셋이 없을 때
+     * @throws IOException 추출 실패나 체크섬 불일치
+     */
+    public File get(String assetPath) throws IOException {
+        File file = new File(directory, assetPath);
+        File checksumFile = new File(file.getPath() + CHECKSUM_SUFFIX);
+        if (isCurrent(file, checksumFile)) {
+            return file;
+        }
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("모델 디렉토리 생성 실패: " + parent.getAbsolutePath());
+        }
+        String expected = readShippedChecksum(assetPath);
+        File tmp = new File(file.getPath() + ".tmp");
+        String checksum;
+        try (InputStream in = opener.open(assetPath)) {
+            checksum = copyWithChecksum(in, tmp);
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        try {
+            if (expected != null && !expected.equalsIgnoreCase(checksum)) {
+                throw new IOException("에셋 체크섬 불일치 (" + assetPath + "): " + checksum + ", 기대값 " + expected);
+            }
+            String written = checksumOf(tmp);
+            if (!written.equals(checksum)) {
+                throw new IOException("추출한 파일 체크섬 불일치 (" + assetPath + "): " + written + ", 기대값 " + checksum);
+            }
+            checksumFile.delete(); // 체크섬 파일이 새 파일보다 먼저 남지 않도록
+            if (!tmp.renameTo(file)) {
+                throw new IOException("모델 파일 이름 변경 실패: " + file.getAbsolutePath());
+            }
+        } finally {
+            tmp.delete();
+        }
+        writeChecksumFile(checksumFile, file.length(), checksum);
+        LOG.info("모델 파일 추출: " + assetPath + " (" + file.length() + " bytes, sha256 " + checksum + ")");
+        return file;
+    }
+
+    private boolean isCurrent(File file, File checksumFile) {
+        if (!file.isFile() || !checksumFile.isFile()) {
+            return false;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(checksumFile), StandardCharsets.UTF_8))) {
+            String fileStamp = reader.readLine();
+            String length = reader.readLine();
+            return stamp.equals(fileStamp) && length != null && Long.parseLong(length.trim()) == file.length();
+        } catch (IOException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // 에셋 옆에 둔 "<에셋>.sha256" (sha256sum 출력 형식도 허용). 없으면 null
+    private String readShippedChecksum(String assetPath) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(opener.open(assetPath + CHECKSUM_SUFFIX), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line == null || line.trim().isEmpty()) {
+                return null;
+            }
+            return line.trim().split("\\s+")[0];
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private void writeChecksumFile(File checksumFile, long length, String checksum) throws IOException {
+        File tmp = new File(checksumFile.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(stamp + "\n" + length + "\n" + checksum + "\n");
+            writer.flush();
+            out.getFD().sync();
+        }
+        if (!tmp.renameTo(checksumFile)) {
+            tmp.delete();
+            throw new IOException("체크섬 파일 이름 변경 실패: " + checksumFile.getAbsolutePath());
+        }
+    }
+
+    private static String copyWithChecksum(InputStream in, File target) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[COPY_BUFFER_BYTES];
+        try (FileOutputStream out = new FileOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+            out.getFD().sync();
+        }
+        return toHex(digest.digest());
+    }
+
+    static String checksumOf(File file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[COPY_BUFFER_BYTES];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.myapplication12345.AI.model;
+
+/**
+ * 같은 모델의 정밀도별 파일. float 모델 에셋 경로에서 이름 규칙으로 다른 변형의 경로를 만듭니다.
+ * <pre>
+ * model/epoch=72-step=18177_ver1_optimized.ptl  (FLOAT)
+ * model/epoch=72-step=18177_ver1_int8_dynamic.ptl  (INT8_DYNAMIC)
+ * model/epoch=72-step=18177_ver1_int8_static.ptl  (INT8_STATIC)
+ * </pre>
+ * 양자화 변형은 tools/quantize_models.py 로 만듭니다. 기기에 맞는 변형 에셋이 없으면 {@link #fallbacks()} 순서로 대신 씁니다.
+ */
+public enum ModelVariant {
+    FLOAT(null),
+    INT8_DYNAMIC("_int8_dynamic"),   // 가중치만 int8, 활성값은 실행 중 양자화
+    INT8_STATIC("_int8_static");     // 가중치와 활성값 모두 int8 (보정 데이터로 범위 결정)
+
+    private static final String MODEL_EXTENSION = ".ptl";
+    private static final String FLOAT_SUFFIX = "_optimized";
+
+    /** 이 이하 메모리의 기기는 가장 작은 변형을 씀 */
+    static final long LOW_RAM_BYTES = 3L * 1024 * 1024 * 1024;
+    /** 이 이하 메모리의 기기는 가중치만 양자화한 변형을 씀 */
+    static final long MID_RAM_BYTES = 6L * 1024 * 1024 * 1024;
+
+    private final String suffix;
+
+    ModelVariant(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /**
+     * 기기 메모리로 변형을 고릅니다.
+     * @param totalMemBytes 기기 전체 메모리 (ActivityManager.MemoryInfo.totalMem)
+     * @param lowRamDevice 시스템이 저메모리 기기로 분류했는지 (ActivityManager.isLowRamDevice)
+     */
+    public static ModelVariant forDevice(long totalMemBytes, boolean lowRamDevice) {
+        if (lowRamDevice || totalMemBytes <= LOW_RAM_BYTES) {
+            return INT8_STATIC;
+        }
+        if (totalMemBytes <= MID_RAM_BYTES) {
+            return INT8_DYNAMIC;
+        }
+        return FLOAT;
+    }
+
+    /** 이 변형의 에셋이 없을 때 차례로 시도할 변형 (자기 자신부터, 마지막은 항상 FLOAT). */
+    public ModelVariant[] fallbacks() {
+        switch (this) {
+            case INT8_STATIC:
+                return new ModelVariant[]{INT8_STATIC, INT8_DYNAMIC, FLOAT};
+            case INT8_DYNAMIC:
+                return new ModelVariant[]{INT8_DYNAMIC, FLOAT};
+            default:
+                return new ModelVariant[]{FLOAT};
+        }
+    }
+
+    /**
+     * float 모델 에셋 경로를 이 변형의 경로로 바꿉니다. 끝의 "_optimized" 는 변형 이름으로 바뀝니다.
+     * @param floatAssetPath ".ptl" 로 끝나는 float 모델 경로
+     */
+    public String assetPath(String floatAssetPath) {
+        if (suffix == null) {
+            return floatAssetPath;
+        }
+        if (!floatAssetPath.endsWith(MODEL_EXTENSION)) {
+            throw new IllegalArgumentException("모델 에셋 경로가 아님: " + floatAssetPath);
+        }
+        String base = floatAssetPath.substring(0, floatAssetPath.length() - MODEL_EXTENSION.length());
+        if (base.endsWith(FLOAT_SUFFIX)) {
+            base = base.substring(0, base.length() - FLOAT_SUFFIX.length());
+        }
+        return base + suffix + MODEL_EXTENSION;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.myapplication12345.AI.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 기준 모델(float)과 비교 모델(양자화 변형)을 같은 정답 입력들에 실행한 결과를 모아
+ * 1위 클래스 일치율, 클래스별 정확도, 지연 시간 p50/p95, 상주 메모리를 보고합니다.
+ * 기기에서 모델을 실행하는 쪽(계측 테스트)이 입력마다 {@link #add} 를 호출합니다.
+ */
+public class VariantComparison {
+
+    /** 변형 하나의 결과. */
+    public static final class Stats {
+        private final String name;
+        private final int[] correct;
+        private final int[] total;
+        private long[] latencyNanos = new long[64];
+        private int count = 0;
+        private long residentBytes = -1;
+
+        Stats(String name, int classCount) {
+            this.name = name;
+            this.correct = new int[classCount];
+            this.total = new int[classCount];
+        }
+
+        void add(int label, int predicted, long nanos) {
+            if (label >= 0 && label < total.length) {
+                total[label]++;
+                if (predicted == label) {
+                    correct[label]++;
+                }
+            }
+            if (count == latencyNanos.length) {
+                latencyNanos = Arrays.copyOf(latencyNanos, count * 2);
+            }
+            latencyNanos[count++] = nanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** 정답이 label 인 입력 중 맞힌 비율. 그 클래스 입력이 없으면 -1 */
+        public double accuracy(int label) {
+            return total[label] == 0 ? -1.0 : (double) correct[label] / total[label];
+        }
+
+        /** 전체 정확도. 입력이 없으면 -1 */
+        public double accuracy() {
+            int right = 0;
+            int all = 0;
+            for (int i = 0; i < total.length; i++) {
+                right += correct[i];
+                all += total[i];
+            }
+            return all == 0 ? -1.0 : (double) right / all;
+        }
+
+        /** 입력 하나의 추론 지연 백분위수 (ms). 기록이 없으면 0 */
+        public double latencyMillis(double percentile) {
+            if (count == 0) {
+                return 0.0;
+            }
+            long[] sorted = Arrays.copyOf(latencyNanos, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))] / 1e6;
+        }
+
+        /** 모델을 불러온 뒤 늘어난 상주 메모리 (bytes). 측정하지 않았으면 -1 */
+        public long getResidentBytes() {
+            return residentBytes;
+        }
+
+        void appendTo(StringBuilder report) {
+            report.append(String.format(Locale.US, "%s: 정확도 %.3f, 지연 p50 %.1fms p95 %.1fms, 메모리 %s%n",
+                    name, accuracy(), latencyMillis(50), latencyMillis(95),
+                    residentBytes < 0 ? "-" : String.format(Locale.US, "%.1fMB", residentBytes / (1024.0 * 1024.0))));
+        }
+    }
+
+    private final int classCount;
+    private final Stats reference;
+    private final Stats candidate;
+    private int compared = 0;
+    private int agreements = 0;
+
+    public VariantComparison(String referenceName, String candidateName, int classCount) {
+        this.classCount = classCount;
+        this.reference = new Stats(referenceName, classCount);
+        this.candidate = new Stats(candidateName, classCount);
+    }
+
+    /**
+     * 정답 입력 하나에 대한 두 모델의 결과를 기록합니다. 한쪽이 실패해 null 이면 일치율에서 빼고 오답으로 셉니다.
+     * @param label 정답 클래스 번호 (모델 출력 순서)
+     */
+    public void add(int label, float[] referenceProbabilities, long referenceNanos,
+                    float[] candidateProbabilities, long candidateNanos) {
+        int referenceTop = argMax(referenceProbabilities);
+        int candidateTop = argMax(candidateProbabilities);
+        reference.add(label, referenceTop, referenceNanos);
+        candidate.add(label, candidateTop, candidateNanos);
+        if (referenceTop >= 0 && candidateTop >= 0) {
+            compared++;
+            if (referenceTop == candidateTop) {
+                agreements++;
+            }
+        }
+    }
+
+    /** 각 모델을 불러온 뒤 늘어난 상주 메모리를 기록합니다. */
+    public void setResidentBytes(long referenceBytes, long candidateBytes) {
+        reference.residentBytes = referenceBytes;
+        candidate.residentBytes = candidateBytes;
+    }
+
+    public Stats getReference() {
+        return reference;
+    }
+
+    public Stats getCandidate() {
+        return candidate;
+    }
+
+    /** 두 모델 모두 결과를 낸 입력 중 1위 클래스가 같은 비율. 비교한 입력이 없으면 -1 */
+    public double getAgreement() {
+        return compared == 0 ? -1.0 : (double) agreements / compared;
+    }
+
+    private static int argMax(float[] probabilities) {
+        if (probabilities == null || probabilities.length == 0) {
+            return -1;
+        }
+        int maxIndex = 0;
+        for (int i = 1; i < probabilities.length; i++) {
+            if (probabilities[i] > probabilities[maxIndex]) {
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+
+    /** 여러 줄 보고서: 일치율, 모델별 요약, 클래스별 정확도 표. */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "%s 대비 %s: 1위 일치 %d/%d (%.3f)%n", reference.name, candidate.name, agreements, compared, getAgreement()));
+        reference.appendTo(report);
+        candidate.appendTo(report);
+        for (int label = 0; label < classCount; label++) {
+            if (reference.total[label] == 0) {
+                continue;
+            }
+            report.append(String.format(Locale.US, "  클래스 %2d (%d개): %.3f -> %.3f%n", label, reference.total[label],
+                    reference.accuracy(label), candidate.accuracy(label)));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+
+import java.nio.FloatBuffer;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * 최근 윈도우와 거의 같은 입력이면 다시 추론하지 않고 그때의 확률을 재사용하는 분류기 래퍼.
+ * 버스나 기차를 오래 타는 동안처럼 연속된 윈도우의 입력이 거의 같을 때 모델 실행을 줄입니다.
+ * <p>
+ * 피처마다 단위가 크게 다르므로(기압 약 1000, 자이로 평균 약 0.01) 비교는 피처별 크기로 나눈 값으로 합니다.
+ * 피처의 크기는 그 피처 열(모든 타임스텝)의 RMS 이며, {@link #MIN_FEATURE_SCALE} 보다 작으면 이 값을 씁니다.
+ * <p>
+ * 입력마다 정규화한 값의 무작위 부호 투영(sign random projection) 32개로 32비트 서명을 만들어, 서명의 해밍 거리가
+ * {@link #MAX_SIGNATURE_DISTANCE} 이하인 최근 항목만 후보로 봅니다. 후보는 저장해 둔 원래 입력 y 의 피처별 크기로 둘 다 정규화한
+ * 상대 L2 거리(||x' - y'|| / ||y'||)가 한계 이하이고, 피처 하나하나의 변화(||x_f - y_f|| / ||y_f||, 크기 하한 적용)도
+ * 피처별 한계 이하일 때만 재사용합니다. 그래서 값이 큰 피처가 작은 피처의 변화를 가리지 못합니다. 재사용한 결과로는 새 항목을 만들지 않으므로,
+ * 재사용되는 확률은 항상 실제로 추론한 입력에서 한계 이내의 입력에만 쓰입니다.
+ * 또 한 항목을 정해진 횟수만큼 재사용하면 다음 번에는 다시 추론해 항목을 새로 고치고, 그때 캐시 결과와 새 결과의
+ * 차이(1위 클래스 변경, 확률 최대 차이)를 기록합니다.
+ * <p>
+ * 단일 스레드(추론 워커)에서만 사용해야 합니다.
+ */
+public class CachingClassifier implements TransportClassifier {
+    private static final Logger LOG = Logger.getLogger("CachingClassifier");
+
+    public static final int DEFAULT_CAPACITY = 4;
+    public static final float DEFAULT_MAX_RELATIVE_DISTANCE = 0.02f;
+    public static final float DEFAULT_MAX_FEATURE_DRIFT = 0.1f; // 피처 하나의 상대 변화 한계
+    /** 피처 크기의 하한. 거의 0 인 피처에서 부동소수점 잡음이 큰 변화로 보이지 않도록 함 */
+    static final float MIN_FEATURE_SCALE = 1e-3f;
+    public static final int DEFAULT_MAX_REUSES = 6; // 10초 간격 기준 1분까지 재사용 후 다시 추론
+    static final int MAX_SIGNATURE_DISTANCE = 4;
+    private static final int STATS_LOG_INTERVAL = 60;
+
+    private static final class Entry {
+        float[] input;
+        float[] scales; // 피처별 크기 (input 기준)
+        float[] probabilities;
+        int signature;
+        int reuses;
+        long lastUsed;
+    }
+
+    private final TransportClassifier delegate;
+    private final float maxRelativeDistance;
+    private final float maxFeatureDrift;
+    private final int maxReuses;
+    private final Entry[] entries;
+    private int size = 0;
+    private long clock = 0;
+
+    private long lookups = 0;
+    private long hits = 0;
+    private long refreshes = 0;
+    private long refreshTopChanges = 0;
+    private float maxRefreshDrift = 0f;
+
+    public CachingClassifier(TransportClassifier delegate) {
+        this(delegate, DEFAULT_CAPACITY, DEFAULT_MAX_RELATIVE_DISTANCE, DEFAULT_MAX_REUSES);
+    }
+
+    /**
+     * @param delegate 실제로 추론하는 분류기
+     * @param capacity 기억할 최근 입력 수
+     * @param maxRelativeDistance 재사용을 허용하는 원래 입력과의 최대 상대 L2 거리 (피처별 정규화 후)
+     * @param maxReuses 한 항목을 다시 추론하지 않고 재사용할 최대 횟수
+     */
+    public CachingClassifier(TransportClassifier delegate, int capacity, float maxRelativeDistance, int maxReuses) {
+        this(delegate, capacity, maxRelativeDistance, DEFAULT_MAX_FEATURE_DRIFT, maxReuses);
+    }
+
+    /**
+     * @param delegate 실제로 추론하는 분류기
+     * @param capacity 기억할 최근 입력 수
+     * @param maxRelativeDistance 재사용을 허용하는 원래 입력과의 최대 상대 L2 거리 (피처별 정규화 후)
+     * @param maxFeatureDrift 재사용을 허용하는 피처 하나의 최대 상대 변화
+     * @param maxReuses 한 항목을 다시 추론하지 않고 재사용할 최대 횟수
+     */
+    public CachingClassifier(TransportClassifier delegate, int capacity, float maxRelativeDistance, float maxFeatureDrift,
+                             int maxReuses) {
+        this.delegate = delegate;
+        this.maxRelativeDistance = maxRelativeDistance;
+        this.maxFeatureDrift = maxFeatureDrift;
+        this.maxReuses = maxReuses;
+        this.entries = new Entry[capacity];
+    }
+
+    @Override
+    public boolean isReady() {
+        return delegate.isReady();
+    }
+
+    @Override
+    public float[] predict(FeatureFrame input) {
+        FloatBuffer buffer = input.getBuffer();
+        int features = input.getFeatureCount();
+        int length = features * input.getTimesteps();
+        float[] scales = featureScales(buffer, features, length);
+        int signature = signature(buffer, scales, length);
+        lookups++;
+        clock++;
+
+        Entry match = findMatch(buffer, features, length, signature);
+        if (match != null && match.reuses < maxReuses) {
+            match.reuses++;
+            match.lastUsed = clock;
+            hits++;
+            logStats();
+            return match.probabilities.clone();
+        }
+
+        float[] probabilities = delegate.predict(input);
+        if (probabilities != null) {
+            if (match != null) {
+                recordRefresh(match.probabilities, probabilities);
+            }
+            store(match != null ? match : victim(), buffer, length, scales, signature, probabilities);
+        }
+        logStats();
+        return probabilities;
+    }
+
+    /** 캐시에서 결과를 재사용한 비율. 조회가 없으면 0 */
+    public double getHitRate() {
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public long getLookupCount() {
+        return lookups;
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    /** 재사용 횟수를 다 써서 다시 추론한 횟수 */
+    public long getRefreshCount() {
+        return refreshes;
+    }
+
+    /** 다시 추론했을 때 캐시 결과와 1위 클래스가 달랐던 횟수 */
+    public long getRefreshTopChangeCount() {
+        return refreshTopChanges;
+    }
+
+    /** 다시 추론했을 때 캐시 결과와의 클래스별 확률 차이 최대값 */
+    public float getMaxRefreshDrift() {
+        return maxRefreshDrift;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "재사용 %d/%d (%.0f%%), 재추론 %d (1위 변경 %d, 확률 차이 최대 %.3f)",
+                hits, lookups, getHitRate() * 100, refreshes, refreshTopChanges, maxRefreshDrift);
+    }
+
+    private Entry findMatch(FloatBuffer buffer, int features, int length, int signature) {
+        Entry best = null;
+        float bestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries[i];
+            if (entry.input.length != length || entry.scales.length != features
+                    || Integer.bitCount(entry.signature ^ signature) > MAX_SIGNATURE_DISTANCE) {
+                continue;
+            }
+            float distance = normalizedDistance(buffer, entry.input, entry.scales, maxFeatureDrift);
+            if (distance <= maxRelativeDistance && distance < bestDistance) {
+                best = entry;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    // 가장 오래 쓰지 않은 항목 (빈 자리가 있으면 새 항목)
+    private Entry victim() {
+        if (size < entries.length) {
+            entries[size] = new Entry();
+            return entries[size++];
+        }
+        Entry oldest = entries[0];
+        for (int i = 1; i < size; i++) {
+            if (entries[i].lastUsed < oldest.lastUsed) {
+                oldest = entries[i];
+            }
+        }
+        return oldest;
+    }
+
+    private void store(Entry entry, FloatBuffer buffer, int length, float[] scales, int signature, float[] probabilities) {
+        if (entry.input == null || entry.input.length != length) {
+            entry.input = new float[length];
+        }
+        for (int i = 0; i < length; i++) {
+            entry.input[i] = buffer.get(i);
+        }
+        entry.scales = scales;
+        entry.probabilities = probabilities.clone();
+        entry.signature = signature;
+        entry.reuses = 0;
+        entry.lastUsed = clock;
+    }
+
+    private void recordRefresh(float[] cached, float[] fresh) {
+        refreshes++;
+        if (CascadeGate.argMax(cached) != CascadeGate.argMax(fresh)) {
+            refreshTopChanges++;
+        }
+        for (int i = 0; i < Math.min(cached.length, fresh.length); i++) {
+            maxRefreshDrift = Math.max(maxRefreshDrift, Math.abs(cached[i] - fresh[i]));
+        }
+    }
+
+    private void logStats() {
+        if (lookups % STATS_LOG_INTERVAL == 0) {
+            LOG.info("추론 결과 캐시: " + this);
+        }
+    }
+
+    /** 피처(열)별 RMS. {@link #MIN_FEATURE_SCALE} 보다 작으면 하한값. 배치는 타임스텝 우선(t * features + f) */
+    static float[] featureScales(FloatBuffer buffer, int features, int length) {
+        double[] sums = new double[features];
+        for (int i = 0; i < length; i++) {
+            double value = buffer.get(i);
+            sums[i % features] += value * value;
+        }
+        int timesteps = length / features;
+        float[] scales = new float[features];
+        for (int f = 0; f < features; f++) {
+            scales[f] = Math.max((float) Math.sqrt(sums[f] / timesteps), MIN_FEATURE_SCALE);
+        }
+        return scales;
+    }
+
+    /**
+     * y 의 피처별 크기로 x, y 를 나눈 뒤의 상대 L2 거리 ||x' - y'|| / ||y'||.
+     * 피처 하나라도 상대 변화가 maxFeatureDrift 를 넘으면 {@link Float#MAX_VALUE}.
+     */
+    private static float normalizedDistance(FloatBuffer x, float[] y, float[] scales, float maxFeatureDrift) {
+        int features = scales.length;
+        int timesteps = y.length / features;
+        double[] featureDiffs = new double[features];
+        for (int i = 0; i < y.length; i++) {
+            double d = x.get(i) - y[i];
+            featureDiffs[i % features] += d * d;
+        }
+        double diff = 0.0;
+        double norm = 0.0;
+        for (int f = 0; f < features; f++) {
+            double scaleSq = (double) scales[f] * scales[f];
+            // 피처 f 의 상대 변화: ||x_f - y_f|| / (sqrt(T) * s_f). s_f 가 RMS 이면 ||x_f - y_f|| / ||y_f||
+            if (featureDiffs[f] > (double) maxFeatureDrift * maxFeatureDrift * timesteps * scaleSq) {
+                return Float.MAX_VALUE;
+            }
+            diff += featureDiffs[f] / scaleSq;
+        }
+        for (int i = 0; i < y.length; i++) {
+            double scaled = y[i] / scales[i % features];
+            norm += scaled * scaled;
+        }
+        if (norm == 0.0) {
+            return diff == 0.0 ? 0f : Float.MAX_VALUE;
+        }
+        return (float) Math.sqrt(diff / norm);
+    }
+
+    /**
+     * 피처별 크기로 나눈 값의 32개 초평면에 대한 부호 투영 서명. 원소 i 의 초평면별 부호는 i 를 섞은 64비트 값의 비트로 정해
+     * 투영 행렬을 저장하지 않습니다. 가까운 입력일수록 서명의 해밍 거리가 작습니다.
+     */
+    static int signature(FloatBuffer buffer, float[] scales, int length) {
+        float[] projections = new float[Integer.SIZE];
+        for (int i = 0; i < length; i++) {
+            float value = buffer.get(i);
+            if (value == 0f) {
+                continue;
+            }
+            value /= scales[i % scales.length];
+            long bits = mix(i);
+            for (int plane = 0; plane < projections.length; plane++) {
+                projections[plane] += ((bits >>> plane) & 1L) != 0 ? value : -value;
+            }
+        }
+        int signature = 0;
+        for (int plane = 0; plane < projections.length; plane++) {
+            if (projections[plane] >= 0f) {
+                signature |= 1 << plane;
+            }
+        }
+        return signature;
+    }
+
+    // splitmix64 마무리 단계
+    private static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import java.util.Locale;
+
+/**
+ * 앙상블 캐스케이드의 조기 종료 판정과 통계.
+ * <p>
+ * 가장 빠른 모델 하나의 확률에서 1위 확률과 1·2위 차이가 모두 임계값 이상이면 그 결과를 그대로 쓰고(조기 종료),
+ * 아니면 나머지 모델까지 실행해 평균합니다. 조기 종료가 결과를 바꾸지 않는지 확인하도록
+ * {@link #getAuditInterval()} 번째 조기 종료마다 전체 앙상블도 실행해 1위 클래스가 같은지 기록합니다.
+ * <p>
+ * 단일 스레드(추론 워커)에서만 사용해야 합니다.
+ */
+public class CascadeGate {
+
+    // 1위 확률이 p 이상이면 2위는 1 - p 이하이므로 차이는 항상 2p - 1 이상. 차이 임계값이 2p - 1 보다 커야 의미가 있음.
+    // 기본값(0.85, 0.75)에서 차이 임계값은 2위가 0.1 을 넘게 가져간 경우([0.86, 0.12, ...])를,
+    // 1위 확률 임계값은 나머지가 여러 클래스에 고르게 퍼진 경우([0.8, 0.04, 0.04, ...])를 거름
+    public static final float DEFAULT_MIN_TOP_PROBABILITY = 0.85f;
+    public static final float DEFAULT_MIN_MARGIN = 0.75f;
+    public static final int DEFAULT_AUDIT_INTERVAL = 20; // 조기 종료 20번 중 1번은 전체 앙상블과 비교
+
+    private final float minTopProbability;
+    private final float minMargin;
+    private final int auditInterval;
+
+    private long earlyExits = 0;
+    private long fullRuns = 0;
+    private long audits = 0;
+    private long agreements = 0;
+
+    public CascadeGate() {
+        this(DEFAULT_MIN_TOP_PROBABILITY, DEFAULT_MIN_MARGIN, DEFAULT_AUDIT_INTERVAL);
+    }
+
+    /**
+     * @param minTopProbability 조기 종료에 필요한 1위 확률
+     * @param minMargin 조기 종료에 필요한 1위와 2위 확률 차이. 2 * minTopProbability - 1 이하이면 1위 확률 조건에 포함되어 효과가 없음
+     * @param auditInterval 몇 번째 조기 종료마다 전체 앙상블과 비교할지. 0 이면 비교하지 않음
+     */
+    public CascadeGate(float minTopProbability, float minMargin, int auditInterval) {
+        this.minTopProbability = minTopProbability;
+        this.minMargin = minMargin;
+        this.auditInterval = auditInterval;
+    }
+
+    /** 첫 모델의 확률만으로 결과를 정해도 되는지. */
+    public boolean accepts(float[] probabilities) {
+        if (probabilities == null || probabilities.length == 0) {
+            return false;
+        }
+        float top = Float.NEGATIVE_INFINITY;
+        float second = Float.NEGATIVE_INFINITY;
+        for (float p : probabilities) {
+            if (p > top) {
+                second = top;
+                top = p;
+            } else if (p > second) {
+                second = p;
+            }
+        }
+        float margin = probabilities.length > 1 ? top - second : top;
+        return top >= minTopProbability && margin >= minMargin;
+    }
+
+    /**
+     * 조기 종료를 기록합니다.
+     * @return 이번 윈도우를 전체 앙상블로도 실행해 {@link #recordAudit} 으로 비교해야 하면 true
+     */
+    public boolean recordEarlyExit() {
+        earlyExits++;
+        return auditInterval > 0 && earlyExits % auditInterval == 0;
+    }
+
+    /** 조기 종료하지 못해 전체 앙상블을 실행한 윈도우를 기록합니다. */
+    public void recordFullRun() {
+        fullRuns++;
+    }
+
+    /** 조기 종료 결과와 같은 입력의 전체 앙상블 결과를 비교해 기록합니다. 전체 앙상블이 실패했으면 기록하지 않습니다. */
+    public void recordAudit(float[] cascadeProbabilities, float[] ensembleProbabilities) {
+        if (cascadeProbabilities == null || ensembleProbabilities == null) {
+            return;
+        }
+        audits++;
+        if (argMax(cascadeProbabilities) == argMax(ensembleProbabilities)) {
+            agreements++;
+        }
+    }
+
+    public long getEarlyExitCount() {
+        return earlyExits;
+    }
+
+    public long getFullRunCount() {
+        return fullRuns;
+    }
+
+    public long getAuditCount() {
+        return audits;
+    }
+
+    public int getAuditInterval() {
+        return auditInterval;
+    }
+
+    /** 조기 종료한 윈도우의 비율. 기록이 없으면 0 */
+    public double getEarlyExitRate() {
+        long total = earlyExits + fullRuns;
+        return total == 0 ? 0.0 : (double) earlyExits / total;
+    }
+
+    /** 비교한 윈도우 중 1위 클래스가 전체 앙상블과 같았던 비율. 비교 기록이 없으면 -1 */
+    public double getAgreementRate() {
+        return audits == 0 ? -1.0 : (double) agreements / audits;
+    }
+
+    /** 확률이 가장 높은 클래스 번호 (같으면 앞 번호). */
+    public static int argMax(float[] probabilities) {
+        int maxIndex = 0;
+        for (int i = 1; i < probabilities.length; i++) {
+            if (probabilities[i] > probabilities[maxIndex]) {
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "조기 종료 %d/%d (%.0f%%), 전체 앙상블과 일치 %d/%d",
+                earlyExits, earlyExits + fullRuns, getEarlyExitRate() * 100, agreements, audits);
+    }
+}
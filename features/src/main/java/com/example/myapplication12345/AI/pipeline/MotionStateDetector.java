@@ -0,0 +1,63 @@
+package com.example.myapplication12345.AI.pipeline;
+
+/**
+ * 1초마다 받은 IMU 최대값으로 기기가 가만히 놓여 있는지 판정합니다.
+ * <p>
+ * 선형 가속도와 자이로 크기의 1초 최대값이 모두 정지 임계값(MovementAnalyzer 의 정지 판정과 같은 값) 아래이고
+ * GPS 속도도 낮은 초가 {@link #STILL_SECONDS_TO_SLEEP} 초 이어지면 STATIONARY 로 바뀌고,
+ * 움직인 초가 {@link #MOTION_SECONDS_TO_WAKE} 초 이어지면 다시 MOVING 으로 돌아갑니다.
+ * 정지 판정은 느리게, 움직임 판정은 빠르게 하여 이동 중에 수집을 멈추는 일이 없도록 합니다.
+ * <p>
+ * 단일 스레드(수집 스레드)에서만 사용해야 합니다.
+ */
+public class MotionStateDetector {
+
+    public enum State { MOVING, STATIONARY }
+
+    public static final float STILL_LINEAR_ACCEL_THRESHOLD = 0.4f; // m/s^2, MovementAnalyzer 의 정지 판정과 같음
+    public static final float STILL_GYRO_THRESHOLD = 0.2f;         // rad/s
+    public static final float STILL_GPS_SPEED_THRESHOLD = 1.0f;    // m/s, 이보다 빠르면 IMU 가 조용해도 이동 중
+    public static final int STILL_SECONDS_TO_SLEEP = 120;          // 조용한 초가 이만큼 이어지면 정지
+    public static final int MOTION_SECONDS_TO_WAKE = 2;            // 움직인 초가 이만큼 이어지면 다시 이동 (한 번 건드린 것은 무시)
+
+    private State state = State.MOVING;
+    private int stillSeconds = 0;
+    private int motionSeconds = 0;
+
+    /**
+     * 1초 구간 하나를 반영합니다.
+     * @param peakLinearAccel 구간의 선형 가속도 크기 최대값 (m/s^2)
+     * @param peakGyro 구간의 자이로 크기 최대값 (rad/s)
+     * @param gpsSpeed 최근 GPS 속도 (m/s). 모르면 0
+     * @return 상태가 바뀌었으면 true
+     */
+    public boolean onSecond(float peakLinearAccel, float peakGyro, float gpsSpeed) {
+        boolean still = peakLinearAccel < STILL_LINEAR_ACCEL_THRESHOLD
+                && peakGyro < STILL_GYRO_THRESHOLD
+                && !(gpsSpeed >= STILL_GPS_SPEED_THRESHOLD);
+        if (still) {
+            motionSeconds = 0;
+            stillSeconds++;
+            if (state == State.MOVING && stillSeconds >= STILL_SECONDS_TO_SLEEP) {
+                state = State.STATIONARY;
+                return true;
+            }
+        } else {
+            stillSeconds = 0;
+            motionSeconds++;
+            if (state == State.STATIONARY && motionSeconds >= MOTION_SECONDS_TO_WAKE) {
+                state = State.MOVING;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isStationary() {
+        return state == State.STATIONARY;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.myapplication12345.AI.pipeline;
+
+/**
+ * 슬라이딩 윈도우 예측 결과를 초 단위로 이어 붙여 CSV 세그먼트로 만드는 병합기.
+ * <p>
+ * 윈도우가 겹치므로 각 추론은 직전 추론 이후 새로 들어온 초(hop)에만 모드를 부여하고, 여기로 한 초씩 전달됩니다.
+ * 같은 모드가 연속되는 동안 최대 {@code maxSegmentSeconds} 초까지 하나의 세그먼트로 합치며,
+ * 세그먼트의 종료 좌표는 다음 세그먼트의 시작 좌표로 잡아 지도에서 선이 끊기지 않도록 합니다.
+ * <p>
+ * 단일 스레드(추론 워커)에서만 사용해야 합니다.
+ */
+public class PredictionSegmentMerger {
+
+    /** 완성된 세그먼트를 받는 쪽. */
+    public interface SegmentSink {
+        void onSegment(String transportMode, double distance, long startTimestamp,
+                       double startLat, double startLon, double endLat, double endLon);
+
+        /** 모아 둔 세그먼트를 저장 매체에 반영합니다. 수집을 마칠 때 호출됩니다. */
+        default void sync() {
+        }
+    }
+
+    // 연속된 초로 볼 수 있는 최대 간격. 이보다 벌어지면 세그먼트를 끊음 (서비스 재시작, 수집 공백 등)
+    private static final long MAX_GAP_MS = 5_000L;
+
+    private final int maxSegmentSeconds;
+    private final SegmentSink sink;
+
+    private String mode = null; // null 이면 진행 중인 세그먼트 없음
+    private int seconds;
+    private double distance;
+    private long startTimestamp;
+    private double startLat, startLon;
+    private long lastTimestamp = Long.MIN_VALUE; // 마지막으로 반영한 초 (세그먼트가 끝나도 유지)
+    private double lastLat, lastLon;
+
+    public PredictionSegmentMerger(int maxSegmentSeconds, SegmentSink sink) {
+        this.maxSegmentSeconds = maxSegmentSeconds;
+        this.sink = sink;
+    }
+
+    /**
+     * 한 초의 예측 결과를 추가합니다.
+     * @param transportMode 해당 초의 최종 이동 수단
+     * @param timestamp 해당 초의 GPS 타임스탬프
+     * @param distance 해당 초에 배정된 이동 거리 (m)
+     */
+    public void add(String transportMode, long timestamp, double lat, double lon, double distance) {
+        if (timestamp <= lastTimestamp) {
+            return; // 이미 반영된 초
+        }
+        if (mode != null) {
+            boolean contiguous = timestamp - lastTimestamp <= MAX_GAP_MS;
+            if (!contiguous) {
+                flush();
+            } else if (!mode.equals(transportMode) || seconds >= maxSegmentSeconds) {
+                // 다음 세그먼트의 첫 좌표를 종료 좌표로 사용
+                emit(lat, lon);
+            }
+        }
+
+        if (mode == null) {
+            mode = transportMode;
+            seconds = 0;
+            this.distance = 0.0;
+            startTimestamp = timestamp;
+            startLat = lat;
+            startLon = lon;
+        }
+        seconds++;
+        this.distance += distance;
+        lastTimestamp = timestamp;
+        lastLat = lat;
+        lastLon = lon;
+    }
+
+    /**
+     * 저장하지 않는 구간(STOP 등)이 시작될 때 호출합니다.
+     * 이전까지 이어지던 세그먼트는 마지막 좌표까지로 저장하고, 이후 초는 새 세그먼트로 시작합니다.
+     */
+    public void breakSegment() {
+        flush();
+    }
+
+    /** 진행 중인 세그먼트를 마지막 좌표까지로 저장합니다. */
+    public void flush() {
+        if (mode != null) {
+            emit(lastLat, lastLon);
+        }
+    }
+
+    private void emit(double endLat, double endLon) {
+        sink.onSegment(mode, distance, startTimestamp, startLat, startLon, endLat, endLon);
+        mode = null;
+    }
+}
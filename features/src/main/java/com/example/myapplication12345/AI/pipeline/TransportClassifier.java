@@ -0,0 +1,25 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+
+/**
+ * 조립된 모델 입력 한 윈도우에서 이동 수단 클래스 확률을 구하는 분류기.
+ * 앱에서는 PyTorch 모델 앙상블이, 재생 도구에서는 JVM 에서 실행 가능한 구현이 이 역할을 합니다.
+ */
+public interface TransportClassifier {
+
+    /**
+     * @param input {@link com.example.myapplication12345.AI.feature.ModelInputLayout} 배치로 채워진 입력 프레임
+     * @return 클래스별 확률 ({@link TransportModePipeline#CLASS_COUNT} 개). 유효한 예측이 없으면 null
+     */
+    float[] predict(FeatureFrame input);
+
+    /**
+     * 예측할 준비가 되었는지 (예: 모델 로딩이 끝났는지). 준비되지 않은 동안의 윈도우는
+     * {@link TransportModePipeline} 이 입력을 보관했다가 준비된 뒤 순서대로 예측합니다.
+     * 로딩이 실패로 끝난 경우에도 true 를 반환하고 {@link #predict} 에서 null 을 반환해야 합니다.
+     */
+    default boolean isReady() {
+        return true;
+    }
+}
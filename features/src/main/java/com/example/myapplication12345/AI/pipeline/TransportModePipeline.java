@@ -0,0 +1,680 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import com.example.myapplication12345.AI.AP.APProcessor;
+import com.example.myapplication12345.AI.BTS.BTSProcessor;
+import com.example.myapplication12345.AI.GPS.GPSProcessor;
+import com.example.myapplication12345.AI.IMU.IMUProcessor;
+import com.example.myapplication12345.AI.IMU.ImuFeatureCache;
+import com.example.myapplication12345.AI.MovementAnalyzer;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics.Stage;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 60초 센서 윈도우 하나를 이동 수단 세그먼트로 바꾸는 처리 경로.
+ * 특성 추출 → 모델 입력 조립 → 분류 → STOP/WALK 판정 → 세그먼트 병합 순서로 진행합니다.
+ * <p>
+ * Android 에 의존하지 않으므로 앱(SensorDataProcessor)과 재생 도구가 같은 코드를 사용합니다.
+ * 모델 실행과 결과 저장은 생성자로 받은 {@link TransportClassifier} 와 {@link PredictionSegmentMerger.SegmentSink} 가 맡습니다.
+ * 분류기가 아직 준비되지 않았으면(모델 로딩 중) 조립된 입력을 보관했다가 준비된 뒤 순서대로 예측하므로, 시작 직후의 윈도우도 버리지 않습니다.
+ * 기기가 가만히 놓여 있는 동안의 윈도우는 {@link #recordStationary(int)} 로 특성 추출과 추론 없이 STOP 으로 처리합니다.
+ * 특성 추출, 입력 조립, 분류, 세그먼트 저장 단계의 지연은 {@link PipelineMetrics} 에 기록합니다.
+ * <p>
+ * {@link #extractImuFeatures(SensorSnapshot)} 는 집계 스레드에서, 나머지는 추론 워커 스레드 하나에서만 호출해야 합니다.
+ */
+public class TransportModePipeline {
+    private static final Logger LOG = Logger.getLogger("TransportModePipeline");
+
+    private static final int SEGMENT_SIZE = 10; // CSV 저장 시 세그먼트 크기 (10초 단위)
+    private static final int MAX_DEFERRED_WINDOWS = 30; // 분류기 준비 전 보관할 윈도우 수 (10초 간격 기준 5분)
+    private static final int IMU_FEATURE_CACHE_SLOTS = ModelInputLayout.TIMESTEPS + 4; // 60초 윈도우 + 윈도우 지연/처리 대기 여유
+
+    // --- 업데이트된 이동 수단 매핑 ---
+    // 새로운 라벨 명세(인덱스 0-12)에 해당
+    private static final String[] TRANSPORT_MODES = {
+            "WALK",        // 0: 걷기
+            "WALK",         // 1: 달리기 RUN -> WALK
+            "BIKE",        // 2: 자전거
+            "CAR",         // 3: 차량 (모델이 구분하지 않는 한 택시 포함)
+            "BUS",         // 4: 버스
+            "ETC",       // 5: KTX/기차 TRAIN -> ETC
+            "SUBWAY",      // 6: 지하철
+            "CAR",  // 7: 오토바이 MOTORCYCLE -> CAR
+            "BIKE",      // 8: 전기자전거  E_BIKE -> BIKE
+            "ETC",   // 9: 전동 킥보드 E_SCOOTER -> ETC
+            "CAR"         // 10: 택시 (명시적으로 추가) TAXI -> CAR
+    };
+
+    /** 모델에서 예상되는 출력 클래스 개수. */
+    public static final int CLASS_COUNT = TRANSPORT_MODES.length;
+
+    // --- 기본값 ---
+    private static final String DEFAULT_MODE_UNKNOWN = "ETC"; // 낮은 신뢰도 또는 오류 시 사용
+    private static final String DEFAULT_MODE_STOPPED = "STOP"; // 움직임이 거의 없을 때 사용 (저장 스킵)
+
+    // --- 이동 감지 및 필터링 임계값 ---
+    // 1분 동안의 총 이동 거리가 이 값보다 작으면 STOP으로 간주하고 데이터를 저장하지 않음.
+    private static final float STOP_DISTANCE_THRESHOLD_METER = 20.0f; // 20m 이하 이동 시 STOP으로 간주
+
+    // 평균 속도가 이 값보다 낮으면 (STOP 제외) 예측된 모드를 WALK로 강제 변경 (Km/h)
+    // 7 km/h는 일반적인 걷기 속도의 상한선 또는 조깅 초반 속도에 해당.
+    private static final float WALK_SPEED_THRESHOLD_KMPH = 7.0f;
+
+    private final TransportClassifier classifier; // null 이면 모델 없이 대체 모드로 저장
+    private final PipelineMetrics metrics;
+    private String lastPredictedResult = DEFAULT_MODE_UNKNOWN; // 마지막 유효 예측 결과 저장
+
+    // 슬라이딩 윈도우 예측을 초 단위로 이어 붙여 세그먼트로 저장 (추론 워커 스레드 전용)
+    private final PredictionSegmentMerger segmentMerger;
+    private final PredictionSegmentMerger.SegmentSink segmentSink;
+    // 1초 구간(IMU timestamp)별 IMU 특성 행. 구간이 닫힐 때 집계 스레드가 채우고, 추론 워커가 윈도우 조립 시 읽음
+    private final ImuFeatureCache imuFeatureCache = new ImuFeatureCache(IMU_FEATURE_CACHE_SLOTS, IMUProcessor.FEATURE_COUNT);
+    // 구간 피처 계산 결과 버퍼 (집계 스레드 전용)
+    private final double[] bucketFeatures = new double[IMUProcessor.FEATURE_COUNT];
+
+    // 모델 입력 (추론 워커 스레드 전용). 윈도우마다 같은 버퍼를 다시 채움
+    private final FeatureFrame modelInputFrame;
+    private final double[] imuRow = new double[IMUProcessor.FEATURE_COUNT];
+    private final List<Map<String, Object>> imuBucketSamples = new ArrayList<>();
+
+    // 스냅샷이 덮어쓰여 건너뛴 윈도우의 새 초 수 (추론 워커 스레드 전용). 다음 윈도우가 이어받아 저장
+    private int skippedSeconds = 0;
+
+    // 분류기가 준비되기 전의 윈도우 (추론 워커 스레드 전용). 준비된 뒤 들어온 순서대로 처리
+    private final ArrayDeque<DeferredWindow> deferredWindows = new ArrayDeque<>();
+
+    private static final class DeferredWindow {
+        final float[] input; // 조립된 모델 입력 사본. null 이면 예측 없이 대체 모드로 저장할 윈도우
+        final List<Map<String, Object>> gpsData; // null 이면 정지 구간 (STOP 으로 처리)
+        final int newSeconds;
+        final float distance;
+        final float speed;
+
+        DeferredWindow(float[] input, List<Map<String, Object>> gpsData, int newSeconds, float distance, float speed) {
+            this.input = input;
+            this.gpsData = gpsData;
+            this.newSeconds = newSeconds;
+            this.distance = distance;
+            this.speed = speed;
+        }
+    }
+
+    /**
+     * @param inputBuffer 모델 입력 버퍼 (특성 수 × 타임스텝 수). 앱에서는 텐서가 감싸고 있는 direct 버퍼
+     * @param classifier 입력 프레임 분류기. null 이면 예측 없이 대체 모드(ETC)로 저장
+     * @param sink 완성된 세그먼트를 받을 쪽
+     */
+    public TransportModePipeline(FloatBuffer inputBuffer, TransportClassifier classifier,
+                                 PredictionSegmentMerger.SegmentSink sink) {
+        this(inputBuffer, classifier, sink, new PipelineMetrics());
+    }
+
+    /**
+     * @param inputBuffer 모델 입력 버퍼 (특성 수 × 타임스텝 수). 앱에서는 텐서가 감싸고 있는 direct 버퍼
+     * @param classifier 입력 프레임 분류기. null 이면 예측 없이 대체 모드(ETC)로 저장
+     * @param sink 완성된 세그먼트를 받을 쪽
+     * @param metrics 단계별 지연을 기록할 지표
+     */
+    public TransportModePipeline(FloatBuffer inputBuffer, TransportClassifier classifier,
+                                 PredictionSegmentMerger.SegmentSink sink, PipelineMetrics metrics) {
+        this.modelInputFrame = ModelInputLayout.newFrame(inputBuffer);
+        this.classifier = classifier;
+        this.metrics = metrics;
+        this.segmentSink = timedSink(sink, metrics);
+        this.segmentMerger = new PredictionSegmentMerger(SEGMENT_SIZE, segmentSink);
+    }
+
+    // 세그먼트 저장(onSegment, sync)에 걸린 시간을 기록하는 래퍼
+    private static PredictionSegmentMerger.SegmentSink timedSink(PredictionSegmentMerger.SegmentSink sink,
+                                                                 PipelineMetrics metrics) {
+        return new PredictionSegmentMerger.SegmentSink() {
+            @Override
+            public void onSegment(String transportMode, double distance, long startTimestamp,
+                                  double startLat, double startLon, double endLat, double endLon) {
+                long start = System.nanoTime();
+                sink.onSegment(transportMode, distance, startTimestamp, startLat, startLon, endLat, endLon);
+                metrics.recordSince(Stage.PREDICTION_WRITE, start);
+            }
+
+            @Override
+            public void sync() {
+                long start = System.nanoTime();
+                sink.sync();
+                metrics.recordSince(Stage.PREDICTION_WRITE, start);
+            }
+        };
+    }
+
+    /**
+     * 링 버퍼 윈도우 스냅샷을 받아 처리합니다. 스냅샷은 복사 없이 Map 어댑터로 전달되며,
+     * 각 단계는 어댑터가 스냅샷이면({@link SensorSnapshot#backing}) 행 Map 을 만들지 않고 열에서 바로 읽습니다.
+     * 처리 도중 수집 스레드가 구간을 덮어쓴 경우 결과를 신뢰할 수 없으므로 경고를 남깁니다.
+     * 처리 전에 이미 덮어쓰였으면 윈도우를 건너뛰고, 그 새 초 수는 다음 윈도우가 이어받아 저장하므로 세그먼트 시간에 빈 곳이 생기지 않습니다.
+     */
+    public void processWindow(SensorSnapshot gps, SensorSnapshot ap, SensorSnapshot bts, SensorSnapshot imu,
+                              int newSeconds) {
+        if (!gps.isIntact() || !ap.isIntact() || !bts.isIntact() || !imu.isIntact()) {
+            skippedSeconds += newSeconds;
+            metrics.increment(PipelineMetrics.Counter.SKIPPED_WINDOWS);
+            LOG.warning("스냅샷 구간이 이미 덮어쓰여짐. 데이터 처리 스킵 (새 " + newSeconds + "초는 다음 윈도우로 넘김, 누적 "
+                    + skippedSeconds + "초)");
+            return;
+        }
+
+        processWindow(gps.asRecords(), ap.asRecords(), bts.asRecords(), imu.asRecords(), newSeconds);
+
+        if (!gps.isIntact() || !ap.isIntact() || !bts.isIntact() || !imu.isIntact()) {
+            LOG.warning("처리 중 스냅샷 구간이 덮어쓰여짐. 결과가 부정확할 수 있음");
+        }
+    }
+
+    /**
+     * 슬라이딩 윈도우 하나를 전처리 후 이동 수단을 예측하고 결과를 저장합니다.
+     * 예측은 윈도우 전체(최대 60초)로 하되, 저장은 직전 윈도우 이후 새로 들어온 마지막 newSeconds 초에만 반영합니다.
+     * @param gpsData GPS 데이터 리스트 (시간순)
+     * @param apData AP 데이터 리스트
+     * @param btsData BTS 데이터 리스트
+     * @param imuData IMU 데이터 리스트
+     * @param windowSeconds 이번 윈도우에서 새로 저장할 초 수 (윈도우 끝 기준). 건너뛴 윈도우의 초가 있으면 더해 저장
+     */
+    public void processWindow(List<Map<String, Object>> gpsData,
+                              List<Map<String, Object>> apData,
+                              List<Map<String, Object>> btsData,
+                              List<Map<String, Object>> imuData,
+                              int windowSeconds) {
+        int newSeconds = takeSkippedSeconds(windowSeconds);
+        // 분류기가 준비되었으면 보관해 둔 윈도우부터 처리 (입력 프레임을 다시 채우기 전에)
+        if (!deferredWindows.isEmpty() && classifier != null && classifier.isReady()) {
+            drainDeferred();
+        }
+
+        metrics.increment(PipelineMetrics.Counter.WINDOWS);
+        // 거리와 속도 먼저 계산 (1분 동안의 데이터 기준)
+        MovementAnalyzer analyzer = new MovementAnalyzer(gpsData, imuData);
+        float speed = (analyzer.calculateAverageSpeedFromIMU(imuData)) * 3.6f; // IMU 기반 속도 (Km/h)
+        analyzer.analyze();
+        float distance = analyzer.getDistance(); // 이 배치의 총 이동 거리 (m)
+
+        if (classifier == null) {
+            LOG.warning("분류기가 없음. 예측 스킵.");
+            saveSegmentsWithFallback(gpsData, newSeconds, distance, DEFAULT_MODE_UNKNOWN, speed);
+            return;
+        }
+
+        LOG.fine(() -> String.format(Locale.US, "평균 속도: %.1fKm/h, 수신된 데이터 크기 - GPS: %d, AP: %d, BTS: %d, IMU: %d",
+                speed,
+                (gpsData != null ? gpsData.size() : 0),
+                (apData != null ? apData.size() : 0),
+                (btsData != null ? btsData.size() : 0),
+                (imuData != null ? imuData.size() : 0)));
+
+        // 데이터 유효성 검사 (null 또는 최소 개수 미만)
+        int timesteps = modelInputFrame.getTimesteps();
+        if (gpsData == null || gpsData.size() < timesteps ||
+                apData == null || apData.isEmpty() || // AP/BTS는 모델 요구사항에 따라 선택적일 수 있음
+                btsData == null || btsData.isEmpty() ||
+                imuData == null || imuData.size() < timesteps) {
+            LOG.warning("필요한 최소 데이터 요구사항 충족되지 않음 (GPS >= " + timesteps + ", IMU >= " + timesteps
+                    + ", AP/BTS 비어있지 않아야 함)");
+            finishWithFallback(gpsData, newSeconds, distance, speed); // 데이터 부족 시 예측 없이 fallback
+            return;
+        }
+
+        // --- 데이터 전처리 ---
+        // 리스트를 수정할 수 있는 처리 전에 가장 빠른 타임스탬프 찾기
+        long apTimestamp = findEarliestTimestamp(apData);
+        long btsTimestamp = findEarliestTimestamp(btsData);
+        long gpsTimestamp = findEarliestTimestamp(gpsData);
+
+        // 각 프로세서가 스키마 위치에 바로 기록 (채우지 않은 특성은 0 패딩)
+        long buildStart = System.nanoTime();
+        modelInputFrame.clear();
+        APProcessor.writeFeatures(apData, apTimestamp, modelInputFrame); // AP는 첫 번째 데이터 반복 사용
+        long t = metrics.recordSince(Stage.AP_FEATURES, buildStart);
+        boolean btsWritten = BTSProcessor.writeFeatures(btsData, btsTimestamp, modelInputFrame);
+        t = metrics.recordSince(Stage.BTS_FEATURES, t);
+        GPSProcessor.writeFeatures(gpsData, gpsTimestamp, modelInputFrame);
+        t = metrics.recordSince(Stage.GPS_FEATURES, t);
+        int imuBuckets = writeImuFeatures(imuData, modelInputFrame); // 구간별로 미리 계산해 둔 행 사용
+        t = metrics.recordSince(Stage.IMU_FEATURES, t);
+        metrics.record(Stage.TENSOR_BUILD, t - buildStart);
+
+        // 전처리 후 데이터 유효성 검사
+        if (!btsWritten || imuBuckets == 0) {
+            LOG.warning("데이터 전처리 실패 - 하나 이상의 센서 데이터가 전처리 후 비어 있음");
+            finishWithFallback(gpsData, newSeconds, distance, speed); // 처리 실패 시 fallback
+            return;
+        }
+
+        // --- 예측 ---
+        boolean ready = classifier.isReady();
+        if (!ready || !deferredWindows.isEmpty()) {
+            // 모델 로딩 중: 조립된 입력을 보관했다가 준비된 뒤 순서대로 예측
+            // (윈도우 처리 도중 준비된 경우에도 보관한 윈도우가 먼저 저장되도록 이 윈도우를 뒤에 넣고 처리)
+            defer(new DeferredWindow(copyInput(), copyRows(gpsData), newSeconds, distance, speed));
+            if (ready) {
+                drainDeferred();
+            }
+            return;
+        }
+        try {
+            // predictMovingMode 내부에서 lastPredictedResult 업데이트 및 세그먼트 저장
+            predictMovingMode(gpsData, newSeconds, distance, speed);
+        } catch (Exception e) {
+            LOG.log(Level.SEVERE, "데이터 처리 또는 예측 중 오류 발생", e);
+            saveSegmentsWithFallback(gpsData, newSeconds, distance, DEFAULT_MODE_UNKNOWN, speed); // 일반 오류 시 fallback
+        }
+    }
+
+    /**
+     * 움직임 감지기가 정지로 판정한 동안의 윈도우를 특성 추출과 추론 없이 STOP 으로 처리합니다.
+     * 보관 중인 윈도우가 있으면 저장 순서를 지키도록 그 뒤에 넣습니다.
+     * @param windowSeconds 이번 윈도우에서 새로 들어온 초 수. 건너뛴 윈도우의 초가 있으면 함께 정지로 처리
+     */
+    public void recordStationary(int windowSeconds) {
+        int newSeconds = takeSkippedSeconds(windowSeconds);
+        metrics.increment(PipelineMetrics.Counter.STATIONARY_WINDOWS);
+        if (!deferredWindows.isEmpty() && classifier != null && classifier.isReady()) {
+            drainDeferred();
+        }
+        if (deferredWindows.isEmpty()) {
+            markStopped(newSeconds);
+        } else {
+            defer(new DeferredWindow(null, null, newSeconds, 0f, 0f));
+        }
+    }
+
+    /**
+     * 병합 중인 마지막 세그먼트를 저장하고 저장소에 반영합니다. 수집을 멈출 때 마지막 윈도우 처리 후 호출합니다.
+     * 보관 중인 윈도우가 있으면 먼저 처리하며, 그때까지 분류기가 준비되지 않았으면 예측 없이 대체 모드로 저장합니다.
+     */
+    public void flushSegments() {
+        drainDeferred();
+        segmentMerger.flush();
+        segmentSink.sync();
+    }
+
+    /** 분류기가 준비되기를 기다리며 보관 중인 윈도우 수. */
+    public int getDeferredWindowCount() {
+        return deferredWindows.size();
+    }
+
+    /** 단계별 지연과 카운터. */
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** 마지막으로 결정된 이동 수단 (STOP 포함). */
+    public String getLastPredictedResult() {
+        return lastPredictedResult;
+    }
+
+    /**
+     * 닫힌 1초 IMU 구간 하나의 특성 행을 계산해 캐시에 넣습니다.
+     * 집계 스레드에서 구간이 닫힐 때마다 호출되어, 분 단위로 몰리던 특성 계산을 1분 동안 고르게 나눕니다.
+     * @param bucketSamples 한 구간(같은 timestamp)의 IMU 샘플
+     */
+    public void extractImuFeatures(SensorSnapshot bucketSamples) {
+        if (bucketSamples.isEmpty()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            long bucketTimestamp = IMUProcessor.extractFeatures(bucketSamples, bucketFeatures);
+            imuFeatureCache.put(bucketTimestamp, bucketFeatures);
+            metrics.recordSince(Stage.IMU_BUCKET, start);
+        } catch (RuntimeException e) {
+            LOG.log(Level.SEVERE, "IMU 구간 특성 계산 실패", e);
+        }
+    }
+
+    /**
+     * 윈도우의 IMU 원본 샘플에서 1초 구간별 특성 행을 구해 프레임의 IMU 위치에 기록합니다.
+     * 시간순 t 번째 구간을 타임스텝 t 에 쓰고, 구간이 타임스텝 수보다 적으면 마지막 구간의 행을 반복합니다.
+     * 구간이 닫힐 때 미리 계산해 둔 행을 캐시에서 꺼내 쓰고, 캐시에 없는 구간(아직 닫히지 않은 마지막 구간,
+     * 캐시가 채워지기 전의 구간 등)만 이 자리에서 계산합니다. 이 자리에서 계산한 행은 캐시에 넣지 않습니다.
+     * 타임스텝 수를 넘는 구간은 입력에 쓰이지 않으므로 계산하지 않습니다. 링 버퍼 스냅샷이면 열에서 바로 읽습니다.
+     * @param imuData 시간순 IMU 원본 샘플
+     * @return 구간 수 (0 이면 아무것도 기록하지 않음)
+     */
+    private int writeImuFeatures(List<Map<String, Object>> imuData, FeatureFrame frame) {
+        int timesteps = frame.getTimesteps();
+        int buckets = 0;
+        int cachedCount = 0;
+        SensorSnapshot columns = SensorSnapshot.backing(imuData);
+        if (columns != null) {
+            // 같은 timestamp 의 연속한 행이 한 구간. 캐시에 없는 구간은 그 행 범위의 뷰로 바로 계산
+            int row = 0;
+            while (row < columns.size()) {
+                long ts = columns.getTimestamp(row);
+                int end = row + 1;
+                while (end < columns.size() && columns.getTimestamp(end) == ts) {
+                    end++;
+                }
+                buckets++;
+                if (buckets <= timesteps) {
+                    if (imuFeatureCache.copyRow(ts, imuRow)) {
+                        cachedCount++;
+                    } else {
+                        IMUProcessor.extractFeatures(columns.slice(row, end), imuRow);
+                    }
+                    frame.putRow(buckets - 1, ModelInputLayout.IMU_OFFSET, imuRow, IMUProcessor.FEATURE_COUNT);
+                }
+                row = end;
+            }
+            return padImuRows(buckets, cachedCount, frame);
+        }
+
+        long bucketTs = Long.MIN_VALUE;
+        boolean missing = false; // 현재 구간을 이 자리에서 계산해야 하는지
+        imuBucketSamples.clear();
+
+        for (Map<String, Object> sample : imuData) {
+            Object tsValue = sample.get("timestamp");
+            if (!(tsValue instanceof Number)) continue;
+            long ts = ((Number) tsValue).longValue();
+            if (ts != bucketTs) {
+                // 링 버퍼 뷰는 시간순이므로 같은 구간의 샘플은 연속
+                writeMissingImuBucket(buckets - 1, frame);
+                bucketTs = ts;
+                buckets++;
+                missing = false;
+                if (buckets <= timesteps) {
+                    if (imuFeatureCache.copyRow(ts, imuRow)) {
+                        frame.putRow(buckets - 1, ModelInputLayout.IMU_OFFSET, imuRow, IMUProcessor.FEATURE_COUNT);
+                        cachedCount++;
+                    } else {
+                        missing = true;
+                    }
+                }
+            }
+            if (missing) {
+                imuBucketSamples.add(sample);
+            }
+        }
+        writeMissingImuBucket(buckets - 1, frame);
+        return padImuRows(buckets, cachedCount, frame);
+    }
+
+    // 구간이 타임스텝 수보다 적으면 마지막 구간의 행을 반복 사용
+    private int padImuRows(int buckets, int cachedCount, FeatureFrame frame) {
+        LOG.fine(() -> "IMU 특성: " + buckets + "개 구간 중 " + cachedCount + "개 캐시 사용");
+        for (int t = buckets; t < frame.getTimesteps() && buckets > 0; t++) {
+            for (int f = 0; f < IMUProcessor.FEATURE_COUNT; f++) {
+                frame.put(t, ModelInputLayout.IMU_OFFSET + f, frame.get(buckets - 1, ModelInputLayout.IMU_OFFSET + f));
+            }
+        }
+        return buckets;
+    }
+
+    // 캐시에 없던 구간의 모아 둔 샘플로 행을 계산해 타임스텝에 기록
+    private void writeMissingImuBucket(int timestep, FeatureFrame frame) {
+        if (imuBucketSamples.isEmpty()) {
+            return;
+        }
+        IMUProcessor.extractFeatures(imuBucketSamples, imuRow);
+        frame.putRow(timestep, ModelInputLayout.IMU_OFFSET, imuRow, IMUProcessor.FEATURE_COUNT);
+        imuBucketSamples.clear();
+    }
+
+    /**
+     * 조립된 입력 프레임을 분류기로 추론하고, 결과로 이동 수단을 결정한 후
+     * 윈도우에서 새로 들어온 초들을 세그먼트 병합기로 넘깁니다.
+     * @param gpsData 원본 GPS 데이터 리스트 (세그먼트 분할 및 정보 추출용)
+     * @param newSeconds 이번 윈도우에서 새로 저장할 초 수
+     * @param totalDistance 해당 배치의 총 이동 거리 (STOP 판정용)
+     * @param speed 평균 속도 (Km/h)
+     */
+    private void predictMovingMode(List<Map<String, Object>> gpsData, int newSeconds, float totalDistance, float speed) {
+        try {
+            long start = System.nanoTime();
+            float[] finalProbabilities = classifier.predict(modelInputFrame);
+            metrics.recordSince(Stage.INFERENCE, start);
+            if (finalProbabilities == null) {
+                LOG.severe("모든 모델에서 유효한 예측을 얻지 못함.");
+                lastPredictedResult = DEFAULT_MODE_UNKNOWN;
+                saveSegmentsWithFallback(gpsData, newSeconds, totalDistance, lastPredictedResult, speed); // 예측 실패 시 fallback
+                return;
+            }
+
+            // --- 평균화된 확률로부터 최종 예측 결정 ---
+            int maxIndex = 0;
+            float maxProb = finalProbabilities[0];
+            for (int i = 1; i < finalProbabilities.length; i++) {
+                if (finalProbabilities[i] > maxProb) {
+                    maxProb = finalProbabilities[i];
+                    maxIndex = i;
+                }
+            }
+
+            String predictedModeFromModel; // 모델이 예측한 순수 결과
+            float confidenceThreshold = 0.1f; // 예측 신뢰도 임계값
+
+            if (maxProb < confidenceThreshold) {
+                predictedModeFromModel = DEFAULT_MODE_UNKNOWN;
+                LOG.warning(String.format(Locale.US, "앙상블: 가장 높은 평균 확률(%.4f)이 임계값(%.1f) 미만. 모델 예측: '%s' 사용",
+                        maxProb, confidenceThreshold, predictedModeFromModel));
+            } else if (maxIndex < TRANSPORT_MODES.length) {
+                predictedModeFromModel = TRANSPORT_MODES[maxIndex];
+                int index = maxIndex;
+                float prob = maxProb;
+                LOG.fine(() -> String.format(Locale.US, "앙상블: 가장 높은 확률의 이동수단: %s (인덱스: %d), 평균 확률: %.4f",
+                        TRANSPORT_MODES[index], index, prob));
+            } else {
+                predictedModeFromModel = DEFAULT_MODE_UNKNOWN;
+                LOG.severe(String.format(Locale.US, "앙상블 오류: 유효하지 않은 예측 인덱스(%d) (평균 확률: %.4f). 모델 예측: '%s' 사용",
+                        maxIndex, maxProb, predictedModeFromModel));
+            }
+
+            // --- 최종 이동 수단 결정 로직 ---
+            String finalTransportMode = resolveMode(predictedModeFromModel, totalDistance, speed);
+            lastPredictedResult = finalTransportMode; // 다음 배치를 위해 마지막 유효 예측 결과 저장
+
+            // 최종 결정된 모드가 STOP이면 CSV 저장을 스킵
+            if (finalTransportMode.equals(DEFAULT_MODE_STOPPED)) {
+                segmentMerger.breakSegment();
+                return;
+            }
+
+            // --- 세그먼트 저장 (STOP이 아닌 경우만) ---
+            if (totalDistance > 30) {
+                LOG.fine(() -> String.format(Locale.US, "앙상블 윈도우 총 이동 거리: %.2f m. 새 %d초 저장. 최종 모드: %s",
+                        totalDistance, newSeconds, finalTransportMode));
+                appendNewSeconds(gpsData, newSeconds, totalDistance, finalTransportMode);
+            } else {
+                LOG.fine(() -> String.format(Locale.US, "앙상블 윈도우 총 이동 거리: %.2f m. '30m 이하' 이므로 세그먼트 저장 스킵",
+                        totalDistance));
+                segmentMerger.breakSegment();
+            }
+
+        } catch (Exception e) {
+            LOG.log(Level.SEVERE, "앙상블 예측 또는 세그먼트 저장 중 최상위 오류: " + e.getMessage(), e);
+            lastPredictedResult = DEFAULT_MODE_UNKNOWN;
+            saveSegmentsWithFallback(gpsData, newSeconds, totalDistance, DEFAULT_MODE_UNKNOWN, speed); // 오류 발생 시 fallback
+        }
+    }
+
+    // 이번 윈도우의 새 초 수에 건너뛴 윈도우의 초를 더함. 윈도우 길이를 넘는 초는 이번 윈도우 밖이므로 버림
+    private int takeSkippedSeconds(int newSeconds) {
+        if (skippedSeconds == 0) {
+            return newSeconds;
+        }
+        int windowLength = modelInputFrame.getTimesteps();
+        int carried = newSeconds + skippedSeconds;
+        skippedSeconds = 0;
+        if (carried > windowLength) {
+            LOG.warning("건너뛴 초가 윈도우 길이(" + windowLength + "초)를 넘어 " + (carried - windowLength) + "초는 저장하지 못함");
+            return windowLength;
+        }
+        LOG.info("건너뛴 윈도우의 초를 이어받아 새 " + carried + "초 저장");
+        return carried;
+    }
+
+    // 예측 없이 끝나는 윈도우. 보관 중인 윈도우가 있으면 저장 순서를 지키도록 그 뒤에 넣음
+    private void finishWithFallback(List<Map<String, Object>> gpsData, int newSeconds, float distance, float speed) {
+        if (deferredWindows.isEmpty()) {
+            saveSegmentsWithFallback(gpsData, newSeconds, distance, DEFAULT_MODE_UNKNOWN, speed);
+        } else {
+            defer(new DeferredWindow(null, copyRows(gpsData), newSeconds, distance, speed));
+        }
+    }
+
+    private void defer(DeferredWindow window) {
+        if (deferredWindows.size() >= MAX_DEFERRED_WINDOWS) {
+            // 가장 오래된 윈도우는 예측 없이 저장해 자리를 만듦 (순서상 가장 먼저이므로 저장 순서는 유지)
+            finishWithoutPrediction(deferredWindows.poll());
+        }
+        deferredWindows.add(window);
+        LOG.fine(() -> "분류기 준비 전. 윈도우 보관 (" + deferredWindows.size() + "개)");
+    }
+
+    // 보관한 윈도우를 순서대로 처리. 분류기가 아직 준비되지 않았으면 대체 모드로 저장
+    private void drainDeferred() {
+        if (deferredWindows.isEmpty()) {
+            return;
+        }
+        boolean ready = classifier != null && classifier.isReady();
+        LOG.info("보관한 윈도우 " + deferredWindows.size() + "개 처리 (" + (ready ? "예측" : "대체 모드") + ")");
+        DeferredWindow window;
+        while ((window = deferredWindows.poll()) != null) {
+            if (window.input == null || !ready) {
+                finishWithoutPrediction(window);
+                continue;
+            }
+            FloatBuffer buffer = modelInputFrame.getBuffer();
+            for (int i = 0; i < window.input.length; i++) {
+                buffer.put(i, window.input[i]);
+            }
+            predictMovingMode(window.gpsData, window.newSeconds, window.distance, window.speed);
+        }
+    }
+
+    private void finishWithoutPrediction(DeferredWindow window) {
+        if (window.gpsData == null) {
+            markStopped(window.newSeconds);
+        } else {
+            saveSegmentsWithFallback(window.gpsData, window.newSeconds, window.distance, DEFAULT_MODE_UNKNOWN, window.speed);
+        }
+    }
+
+    private void markStopped(int newSeconds) {
+        LOG.fine(() -> "정지 구간. 새 " + newSeconds + "초 추론 스킵");
+        lastPredictedResult = DEFAULT_MODE_STOPPED;
+        segmentMerger.breakSegment();
+    }
+
+    private float[] copyInput() {
+        float[] input = new float[modelInputFrame.getFeatureCount() * modelInputFrame.getTimesteps()];
+        FloatBuffer buffer = modelInputFrame.getBuffer();
+        for (int i = 0; i < input.length; i++) {
+            input[i] = buffer.get(i);
+        }
+        return input;
+    }
+
+    // 링 버퍼 뷰는 나중에 덮어쓰이므로 GPS 행 값을 복사해 둠
+    private static List<Map<String, Object>> copyRows(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> copy = new ArrayList<>(rows != null ? rows.size() : 0);
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                copy.add(new HashMap<>(row));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * 예측이 불가능하거나 신뢰도가 낮을 때, GPS 데이터를 기반으로 세그먼트를 저장하는 함수.
+     * 이 함수도 'STOP' 상태를 판단하여 불필요한 저장을 막습니다.
+     * @param gpsData GPS 데이터 리스트
+     * @param newSeconds 이번 윈도우에서 새로 저장할 초 수
+     * @param totalDistance 해당 윈도우의 총 이동 거리 (STOP 판정 기준)
+     * @param fallbackMode 사용할 대체 이동 수단 (예: DEFAULT_MODE_UNKNOWN)
+     * @param speed 평균 속도 (Km/h)
+     */
+    private void saveSegmentsWithFallback(List<Map<String, Object>> gpsData, int newSeconds, float totalDistance, String fallbackMode, float speed) {
+        if (gpsData == null || gpsData.isEmpty()) {
+            LOG.warning("GPS 데이터가 없어 세그먼트 저장 불가 (Fallback)");
+            return;
+        }
+
+        String finalSegmentMode = resolveMode(fallbackMode, totalDistance, speed);
+
+        // 최종 결정된 모드가 STOP이면 CSV 저장을 스킵
+        if (finalSegmentMode.equals(DEFAULT_MODE_STOPPED)) {
+            segmentMerger.breakSegment();
+            return;
+        }
+
+        LOG.fine(() -> "Fallback: 새 " + newSeconds + "초 저장 시도. 최종 모드: " + finalSegmentMode);
+        appendNewSeconds(gpsData, newSeconds, totalDistance, finalSegmentMode);
+    }
+
+    /**
+     * 이동 거리가 STOP 임계값 미만이면 STOP, 아니면 예측 모드를 쓰되 평균 속도가 걷기 상한보다 낮으면 WALK 로 바꿉니다.
+     */
+    private static String resolveMode(String predictedMode, float totalDistance, float speed) {
+        if (totalDistance < STOP_DISTANCE_THRESHOLD_METER) {
+            // GPS 드리프트 필터링 또는 실제 정지 상태
+            LOG.fine(() -> String.format(Locale.US, "총 이동 거리 (%.2fm)가 STOP 임계값 (%.2fm) 미만. 저장 스킵.",
+                    totalDistance, STOP_DISTANCE_THRESHOLD_METER));
+            return DEFAULT_MODE_STOPPED;
+        }
+        // 속도 기반 WALK 오버라이드
+        if (speed < WALK_SPEED_THRESHOLD_KMPH) {
+            LOG.fine(() -> String.format(Locale.US, "평균 속도: %.1fKm/h. 예측된 모드 '%s'를 'WALK'로 변경 (속도 기반 오버라이드).",
+                    speed, predictedMode));
+            return "WALK";
+        }
+        return predictedMode;
+    }
+
+    /**
+     * 윈도우 끝의 newSeconds 개 GPS 행을 한 초씩 세그먼트 병합기로 넘깁니다.
+     * 윈도우 총 이동 거리는 GPS 행 수로 균등 배분합니다.
+     */
+    private void appendNewSeconds(List<Map<String, Object>> gpsData, int newSeconds, float windowDistance, String transportMode) {
+        int size = gpsData.size();
+        double distancePerSecond = (double) windowDistance / size;
+        for (int i = Math.max(0, size - newSeconds); i < size; i++) {
+            Map<String, Object> data = gpsData.get(i);
+            try {
+                long timestamp = ((Number) Objects.requireNonNull(data.get("timestamp"), "타임스탬프 null")).longValue();
+                double lat = ((Number) Objects.requireNonNull(data.get("latitude"), "위도 null")).doubleValue();
+                double lon = ((Number) Objects.requireNonNull(data.get("longitude"), "경도 null")).doubleValue();
+                segmentMerger.add(transportMode, timestamp, lat, lon, distancePerSecond);
+            } catch (NullPointerException e) {
+                LOG.log(Level.SEVERE, "GPS 행 " + i + " 데이터 추출 중 NullPointerException 발생", e);
+            }
+        }
+    }
+
+    // 가장 이른 타임스탬프 찾는 함수 (null/빈 리스트 처리 추가)
+    private static long findEarliestTimestamp(List<Map<String, Object>> dataList) {
+        if (dataList == null || dataList.isEmpty()) {
+            return System.currentTimeMillis(); // 리스트가 비었으면 현재 시간 반환
+        }
+        return dataList.stream()
+                // null map, timestamp 키 부재, timestamp가 숫자가 아닌 경우 필터링
+                .filter(map -> map != null && map.containsKey("timestamp") && map.get("timestamp") instanceof Number)
+                // Long 값으로 변환
+                .mapToLong(map -> ((Number) Objects.requireNonNull(map.get("timestamp"))).longValue())
+                // 최소값 찾기
+                .min()
+                // 유효한 타임스탬프가 없으면 현재 시간 반환
+                .orElse(System.currentTimeMillis());
+    }
+}
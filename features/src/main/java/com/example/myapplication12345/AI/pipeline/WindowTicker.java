@@ -0,0 +1,69 @@
+package com.example.myapplication12345.AI.pipeline;
+
+/**
+ * 1초 수집 틱으로 슬라이딩 추론 윈도우의 경계를 정합니다.
+ * <p>
+ * 60초가 모인 뒤부터 {@link #INFERENCE_HOP_SECONDS} 마다 최근 60초 윈도우를 하나씩 내보냅니다.
+ * IMU 배치 지연(최대 1초)을 고려해 윈도우 끝은 마지막 틱보다 {@link #WINDOW_LAG_TICKS} 틱 늦습니다.
+ * SensorDataService 의 수집 스레드와 재생 도구가 같은 규칙을 쓰도록 둘 다 이 클래스를 사용합니다.
+ * <p>
+ * 단일 스레드(수집 스레드)에서만 사용해야 합니다.
+ */
+public class WindowTicker {
+
+    /** 윈도우 하나가 정해졌을 때 호출됩니다. 구간은 [fromTimestamp, toTimestamp) 입니다. */
+    public interface WindowListener {
+        void onWindow(long fromTimestamp, long toTimestamp, int newSeconds, boolean finalWindow);
+    }
+
+    public static final int TICK_INTERVAL_MS = 1000;    // 1초 간격
+    public static final int WINDOW_TICKS = 60;          // 윈도우 길이: 60초(60개의 1초 틱)
+    public static final int INFERENCE_HOP_SECONDS = 10; // 슬라이딩 윈도우 추론 주기 (초)
+    public static final int WINDOW_LAG_TICKS = 2;       // IMU 배치 지연(최대 1초)을 고려해 윈도우 끝을 2틱 늦춤
+
+    private final WindowListener listener;
+    private final long[] tickTimestamps = new long[WINDOW_TICKS + WINDOW_LAG_TICKS];
+    private long tickCount = 0;
+    private long lastWindowEndTick = -1; // 마지막으로 내보낸 윈도우의 끝 틱
+
+    public WindowTicker(WindowListener listener) {
+        this.listener = listener;
+    }
+
+    /** 이번 틱의 AP/BTS/GPS 를 기록한 뒤 틱 타임스탬프로 호출합니다. 윈도우가 정해지면 리스너를 호출합니다. */
+    public void tick(long timestamp) {
+        tickTimestamps[(int) (tickCount % tickTimestamps.length)] = timestamp;
+        tickCount++;
+
+        long endTick = tickCount - 1 - WINDOW_LAG_TICKS;
+        if (endTick >= WINDOW_TICKS - 1 && endTick - lastWindowEndTick >= INFERENCE_HOP_SECONDS) {
+            emit(endTick, false);
+        }
+    }
+
+    /**
+     * 수집을 멈출 때 아직 추론하지 않은 마지막 초들을 마지막 윈도우로 내보냅니다.
+     * @return 내보낼 초가 없으면 false (이 경우 호출한 쪽에서 병합 중인 세그먼트를 직접 저장)
+     */
+    public boolean flush() {
+        long endTick = tickCount - 1;
+        if (endTick <= lastWindowEndTick) {
+            return false;
+        }
+        emit(endTick, true);
+        return true;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    private void emit(long endTick, boolean finalWindow) {
+        long startTick = Math.max(0, endTick - WINDOW_TICKS + 1);
+        long fromTimestamp = tickTimestamps[(int) (startTick % tickTimestamps.length)];
+        long toTimestamp = tickTimestamps[(int) (endTick % tickTimestamps.length)] + TICK_INTERVAL_MS;
+        int newSeconds = (int) (endTick - lastWindowEndTick);
+        lastWindowEndTick = endTick;
+        listener.onWindow(fromTimestamp, toTimestamp, newSeconds, finalWindow);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.myapplication12345.AI.replay;
+
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.capture.SensorCaptureReader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 캡처 파일({@link SensorCaptureReader}) 에서 센서 하나의 블록을 차례로 읽어 링 버퍼에 한 행씩 기록합니다.
+ * 값은 매핑 영역에서 바로 읽어 버퍼에 넣으므로 중간 문자열이나 레코드 객체가 없습니다.
+ * 센서가 캡처에 없으면 행이 없는 채널로 취급합니다.
+ */
+public class CaptureChannelReader implements TraceChannel {
+
+    private final SensorRingBuffer target;
+    private final List<SensorCaptureReader.Block> blocks;
+    private int blockIndex = 0;
+    private int row = 0;
+
+    public CaptureChannelReader(SensorCaptureReader capture, SensorRingBuffer target) throws IOException {
+        this.target = target;
+        int sensorId = capture.indexOfSensor(target.getName());
+        if (sensorId < 0) {
+            blocks = List.of();
+            return;
+        }
+        String[] channels = new String[target.getChannelCount()];
+        for (int ch = 0; ch < channels.length; ch++) {
+            channels[ch] = target.getChannelName(ch);
+        }
+        if (!Arrays.equals(channels, capture.getChannelNames(sensorId))) {
+            throw new IOException("Capture channels of '" + target.getName() + "' do not match the buffer layout");
+        }
+        blocks = capture.getBlocks(sensorId);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return blockIndex < blocks.size();
+    }
+
+    @Override
+    public long peekTimestamp() {
+        return blocks.get(blockIndex).getTimestamp(row);
+    }
+
+    @Override
+    public void writeNext() {
+        SensorCaptureReader.Block block = blocks.get(blockIndex);
+        block.writeRowTo(row, target);
+        if (++row == block.getRowCount()) {
+            blockIndex++;
+            row = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.myapplication12345.AI.replay;
+
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+import com.example.myapplication12345.AI.pipeline.TransportClassifier;
+import com.example.myapplication12345.AI.pipeline.TransportModePipeline;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 정답이 붙은 트레이스 모음을 재생해 모델 입력 프레임을 모읍니다. 모델 변형 비교처럼 같은 입력을 여러 모델에 넣을 때 씁니다.
+ * <p>
+ * 루트 폴더 아래의 트레이스마다(CSV 폴더 또는 캡처 파일과 같은 이름의 폴더) {@link #LABEL_FILE} 에 정답 클래스 번호
+ * (모델 출력 순서) 를 한 줄로 적어 둡니다. 한 트레이스는 한 가지 이동 수단만 담아야 합니다.
+ * <pre>
+ * replay-set/bus_0412/{gps,ap,bts,imu}.csv, label.txt ("4")
+ * replay-set/walk_0413/{gps,ap,bts,imu}.csv, label.txt ("0")
+ * </pre>
+ * 프레임은 앱과 같은 {@link TransportModePipeline} 이 조립한 입력이며, 데이터가 부족해 예측하지 않는 윈도우는 빠집니다.
+ */
+public class LabeledReplaySet {
+
+    public static final String LABEL_FILE = "label.txt";
+
+    /** 정답이 붙은 모델 입력 하나. */
+    public static final class LabeledFrame {
+        private final String trace;
+        private final int label;
+        private final float[] input;
+
+        LabeledFrame(String trace, int label, float[] input) {
+            this.trace = trace;
+            this.label = label;
+            this.input = input;
+        }
+
+        public String getTrace() {
+            return trace;
+        }
+
+        public int getLabel() {
+            return label;
+        }
+
+        /** {@link ModelInputLayout} 배치의 입력 (타임스텝 우선) */
+        public float[] getInput() {
+            return input;
+        }
+    }
+
+    private LabeledReplaySet() {
+    }
+
+    /** 루트 아래의 트레이스를 이름 순서로 재생해 프레임을 모읍니다. 정답 파일이 없는 폴더는 건너뜁니다. */
+    public static List<LabeledFrame> collect(File root) throws IOException, InterruptedException {
+        File[] traces = root.listFiles(file -> file.isDirectory() && new File(file, LABEL_FILE).isFile());
+        if (traces == null) {
+            throw new IOException("재생 세트 폴더를 읽을 수 없음: " + root.getAbsolutePath());
+        }
+        Arrays.sort(traces);
+        List<LabeledFrame> frames = new ArrayList<>();
+        for (File trace : traces) {
+            collectTrace(trace, readLabel(new File(trace, LABEL_FILE)), frames);
+        }
+        return Collections.unmodifiableList(frames);
+    }
+
+    private static void collectTrace(File trace, int label, List<LabeledFrame> frames) throws IOException, InterruptedException {
+        FloatBuffer inputBuffer = ByteBuffer.allocateDirect(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        // 조립된 입력만 복사해 두고 예측은 하지 않음 (세그먼트는 버림)
+        TransportClassifier recorder = input -> {
+            frames.add(new LabeledFrame(trace.getName(), label, copy(input)));
+            return null;
+        };
+        TransportModePipeline pipeline = new TransportModePipeline(inputBuffer, recorder,
+                (mode, distance, start, startLat, startLon, endLat, endLon) -> { });
+        new TraceReplayer(resolveTrace(trace), 0).replay(pipeline);
+    }
+
+    // 폴더 안에 캡처 파일 하나만 있으면 그 파일을, 아니면 CSV 폴더로 재생
+    private static File resolveTrace(File trace) {
+        File[] captures = trace.listFiles((dir, name) -> name.endsWith(".scap"));
+        return captures != null && captures.length == 1 ? captures[0] : trace;
+    }
+
+    private static float[] copy(FeatureFrame frame) {
+        float[] input = new float[frame.getFeatureCount() * frame.getTimesteps()];
+        FloatBuffer buffer = frame.getBuffer();
+        for (int i = 0; i < input.length; i++) {
+            input[i] = buffer.get(i);
+        }
+        return input;
+    }
+
+    private static int readLabel(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            try {
+                int label = Integer.parseInt(line == null ? "" : line.trim());
+                if (label < 0 || label >= TransportModePipeline.CLASS_COUNT) {
+                    throw new IOException("정답 클래스 범위 밖 (" + file.getAbsolutePath() + "): " + label);
+                }
+                return label;
+            } catch (NumberFormatException e) {
+                throw new IOException("정답 파일 형식 오류: " + file.getAbsolutePath(), e);
+            }
+        }
+    }
+}
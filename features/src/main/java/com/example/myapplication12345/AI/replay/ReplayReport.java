@@ -0,0 +1,67 @@
+package com.example.myapplication12345.AI.replay;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 트레이스 재생 결과: 재생한 센서 시간, 걸린 시간, 윈도우별 처리 지연.
+ * 처리량은 벽시계 1초당 처리한 센서 데이터 분(min) 으로 나타냅니다.
+ */
+public class ReplayReport {
+
+    private final long ticks;
+    private final long imuBuckets;
+    private final long wallNanos;
+    private final long[] windowNanos; // 오름차순
+
+    ReplayReport(long ticks, long imuBuckets, long wallNanos, long[] windowNanos) {
+        this.ticks = ticks;
+        this.imuBuckets = imuBuckets;
+        this.wallNanos = wallNanos;
+        this.windowNanos = windowNanos.clone();
+        Arrays.sort(this.windowNanos);
+    }
+
+    /** 재생한 1초 틱 수 (= 센서 데이터 초). */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getImuBuckets() {
+        return imuBuckets;
+    }
+
+    public int getWindowCount() {
+        return windowNanos.length;
+    }
+
+    public double getSensorMinutes() {
+        return ticks / 60.0;
+    }
+
+    public double getWallSeconds() {
+        return wallNanos / 1e9;
+    }
+
+    /** 벽시계 1초당 처리한 센서 데이터 분. */
+    public double getMinutesPerSecond() {
+        return wallNanos > 0 ? getSensorMinutes() / getWallSeconds() : 0.0;
+    }
+
+    /** 윈도우 하나의 처리 지연 백분위수 (ms). 윈도우가 없으면 0. */
+    public double windowLatencyMillis(double percentile) {
+        if (windowNanos.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * windowNanos.length) - 1;
+        return windowNanos[Math.max(0, Math.min(windowNanos.length - 1, index))] / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%.1f sensor-min in %.2f s (%.1f sensor-min/s), %d windows, %d IMU buckets, window p50 %.2f ms p90 %.2f ms max %.2f ms",
+                getSensorMinutes(), getWallSeconds(), getMinutesPerSecond(), getWindowCount(), imuBuckets,
+                windowLatencyMillis(50), windowLatencyMillis(90), windowLatencyMillis(100));
+    }
+}
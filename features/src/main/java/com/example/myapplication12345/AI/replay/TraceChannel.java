@@ -0,0 +1,29 @@
+package com.example.myapplication12345.AI.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** 녹화된 센서 채널 하나를 시간순으로 링 버퍼에 흘려 보내는 재생 입력. */
+public interface TraceChannel extends Closeable {
+
+    boolean hasNext();
+
+    /** 다음 행의 타임스탬프. {@link #hasNext()} 가 true 일 때만 유효합니다. */
+    long peekTimestamp();
+
+    /** 다음 행을 버퍼에 기록하고 한 행 나아갑니다. */
+    void writeNext() throws IOException;
+
+    /**
+     * 타임스탬프가 limit 이하인 행을 모두 기록합니다.
+     * @return 기록한 행 수
+     */
+    default int writeUntil(long limit) throws IOException {
+        int written = 0;
+        while (hasNext() && peekTimestamp() <= limit) {
+            writeNext();
+            written++;
+        }
+        return written;
+    }
+}
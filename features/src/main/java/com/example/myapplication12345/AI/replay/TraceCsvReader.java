@@ -0,0 +1,126 @@
+package com.example.myapplication12345.AI.replay;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+/**
+ * 녹화된 센서 채널 CSV 하나를 시간순으로 읽어 링 버퍼에 한 행씩 기록합니다.
+ * <p>
+ * 헤더는 레코드 키(timestamp 와 링 버퍼 채널 이름)이고 값은 toString 형식입니다 (SensorDataService 의 IMU CSV 와 같은 형식).
+ * 버퍼에 없는 열은 무시하고, "null" 값은 0 으로 남기며, 열 수가 맞지 않는 행은 건너뜁니다.
+ * 파일이 없으면 행이 없는 채널로 취급합니다. 전체를 메모리에 올리지 않으므로 몇 시간짜리 트레이스도 읽을 수 있습니다.
+ */
+public class TraceCsvReader implements TraceChannel {
+
+    private final SensorRingBuffer target;
+    private final BufferedReader reader;
+    private final int[] channels;   // 열 -> 버퍼 채널 (없으면 -1)
+    private final int timestampColumn;
+    private String[] nextValues;    // 다음에 기록할 행 (없으면 null)
+    private long nextTimestamp;
+    private long rowCount = 0;
+
+    public TraceCsvReader(File csv, SensorRingBuffer target) throws IOException {
+        this.target = target;
+        if (!csv.isFile()) {
+            reader = null;
+            channels = new int[0];
+            timestampColumn = -1;
+            return;
+        }
+
+        reader = new BufferedReader(new FileReader(csv));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            channels = new int[0];
+            timestampColumn = -1;
+            return;
+        }
+        String[] header = headerLine.split(",");
+        channels = new int[header.length];
+        int tsColumn = -1;
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].trim();
+            channels[i] = target.indexOf(name);
+            if ("timestamp".equals(name)) tsColumn = i;
+        }
+        if (tsColumn < 0) {
+            reader.close();
+            throw new IOException("No timestamp column: " + csv);
+        }
+        timestampColumn = tsColumn;
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextValues != null;
+    }
+
+    @Override
+    public long peekTimestamp() {
+        return nextTimestamp;
+    }
+
+    /** 지금까지 버퍼에 기록한 행 수. */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void writeNext() throws IOException {
+        String[] values = nextValues;
+        target.beginRow(nextTimestamp);
+        for (int i = 0; i < values.length; i++) {
+            int channel = channels[i];
+            if (channel < 0 || "null".equals(values[i])) continue;
+            String value = values[i].trim();
+            switch (target.getChannelType(channel)) {
+                case INT:
+                case LONG:
+                    target.setLong(channel, Long.parseLong(value));
+                    break;
+                case MAC:
+                    target.setLong(channel, SensorBuffers.bssidKey(value));
+                    break;
+                case DOUBLE:
+                    target.setDouble(channel, Double.parseDouble(value));
+                    break;
+                default:
+                    target.setFloat(channel, Float.parseFloat(value));
+                    break;
+            }
+        }
+        target.commitRow();
+        rowCount++;
+        advance();
+    }
+
+    private void advance() throws IOException {
+        nextValues = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] values = line.split(",", -1);
+            if (values.length != channels.length) continue;
+            try {
+                nextTimestamp = Long.parseLong(values[timestampColumn].trim());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            nextValues = values;
+            return;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+}
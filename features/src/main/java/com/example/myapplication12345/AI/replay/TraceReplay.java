@@ -0,0 +1,83 @@
+package com.example.myapplication12345.AI.replay;
+
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics;
+import com.example.myapplication12345.AI.pipeline.TransportClassifier;
+import com.example.myapplication12345.AI.pipeline.TransportModePipeline;
+import com.example.myapplication12345.AI.store.PredictionStore;
+import com.example.myapplication12345.AI.store.PredictionStoreWriter;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * 트레이스 재생 명령줄 도구. 예측 CSV 를 출력 폴더에 쓰고 처리량과 윈도우 지연을 출력합니다.
+ * <pre>
+ * ./gradlew :features:replay -Ptrace=/path/to/trace -Pout=build/replay [-Pspeed=10] [-Pclassifier=com.example.MyClassifier]
+ * TraceReplay &lt;트레이스 폴더 또는 .scap 캡처 파일&gt; &lt;출력 폴더&gt; [--speed 배속] [--classifier 클래스]
+ * </pre>
+ * 분류기 클래스는 인자 없는 생성자를 가진 {@link TransportClassifier} 구현이어야 하며, 주지 않으면 모델 없이
+ * 대체 모드(ETC)로 저장하는 경로를 탑니다. 출력 폴더의 기존 예측 파일(CSV 와 색인)은 재생 전에 지웁니다.
+ */
+public final class TraceReplay {
+
+    private TraceReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: TraceReplay <trace dir | capture file> <out dir> [--speed <x>] [--classifier <class>]");
+            System.exit(2);
+        }
+        File traceDir = new File(args[0]);
+        File outDir = new File(args[1]);
+        double speed = 0;
+        TransportClassifier classifier = null;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--speed":
+                    speed = Double.parseDouble(args[i + 1]);
+                    break;
+                case "--classifier":
+                    classifier = (TransportClassifier) Class.forName(args[i + 1]).getDeclaredConstructor().newInstance();
+                    break;
+                default:
+                    System.err.println("unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        if (!traceDir.exists()) {
+            System.err.println("trace not found: " + traceDir);
+            System.exit(2);
+        }
+        File[] previous = outDir.listFiles((dir, name) -> name.endsWith("_predictions.csv") || name.endsWith("_predictions.idx"));
+        if (previous != null) {
+            for (File file : previous) {
+                if (!file.delete()) {
+                    System.err.println("cannot delete " + file);
+                    System.exit(1);
+                }
+            }
+        }
+
+        FloatBuffer inputBuffer = ByteBuffer.allocateDirect(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        ReplayReport report;
+        PipelineMetrics metrics = new PipelineMetrics();
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(new PredictionStore(outDir))) {
+            report = new TraceReplayer(traceDir, speed).replay(new TransportModePipeline(inputBuffer, classifier, writer, metrics));
+        }
+
+        System.out.println(traceDir.getName() + ": " + report);
+        System.out.print(metrics.report());
+        File[] outputs = outDir.listFiles((dir, name) -> name.endsWith("_predictions.csv"));
+        if (outputs != null) {
+            for (File file : outputs) {
+                System.out.println("  " + file.getPath());
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.myapplication12345.AI.replay;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.capture.SensorCaptureReader;
+import com.example.myapplication12345.AI.pipeline.TransportModePipeline;
+import com.example.myapplication12345.AI.pipeline.WindowTicker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 녹화된 센서 트레이스를 SensorDataService 와 같은 버퍼링/윈도우 규칙으로 {@link TransportModePipeline} 에 흘려 보냅니다.
+ * <p>
+ * 트레이스는 {@link #GPS_FILE}, {@link #AP_FILE}, {@link #BTS_FILE}, {@link #IMU_FILE} 이 있는 폴더({@link TraceCsvReader} 형식)이거나
+ * 서비스가 기록한 캡처 파일({@link SensorCaptureReader}, 버퍼 이름으로 센서를 찾음)입니다. 서비스는 1초 틱마다 GPS 행을 하나 기록하므로 GPS 행의 타임스탬프를 틱으로 사용합니다.
+ * 틱마다 서비스와 같은 순서로 AP → BTS → GPS 를 링 버퍼에 기록하고 {@link WindowTicker} 에 알립니다.
+ * IMU 는 틱 이전에 시작한 1초 구간까지 기록하며(수집 엔진의 배치 지연은 재현하지 않음), 구간이 바뀔 때
+ * 닫힌 구간의 특성을 미리 계산합니다.
+ * <p>
+ * 서비스에서는 집계 스레드와 추론 워커가 비동기로 처리하지만, 재생은 같은 작업을 한 스레드에서 순서대로 실행하므로
+ * 같은 트레이스는 항상 같은 결과를 냅니다. 배속을 주면 틱 시각에 맞춰 기다리고, 0 이하이면 최대 속도로 재생합니다.
+ */
+public class TraceReplayer {
+
+    public static final String GPS_FILE = "gps.csv";
+    public static final String AP_FILE = "ap.csv";
+    public static final String BTS_FILE = "bts.csv";
+    public static final String IMU_FILE = "imu.csv";
+
+    private final File trace;
+    private final double speed;
+
+    /**
+     * @param trace 트레이스 폴더 또는 캡처 파일
+     * @param speed 실시간 대비 배속 (예: 10 이면 10배 빠르게). 0 이하이면 최대 속도
+     */
+    public TraceReplayer(File trace, double speed) {
+        this.trace = trace;
+        this.speed = speed;
+    }
+
+    /** 트레이스 전체를 재생하고, 마지막 윈도우까지 처리한 뒤 병합 중인 세그먼트를 저장합니다. */
+    public ReplayReport replay(TransportModePipeline pipeline) throws IOException, InterruptedException {
+        SensorRingBuffer gpsBuffer = SensorBuffers.createGpsBuffer();
+        SensorRingBuffer apBuffer = SensorBuffers.createApBuffer();
+        SensorRingBuffer btsBuffer = SensorBuffers.createBtsBuffer();
+        SensorRingBuffer imuBuffer = SensorBuffers.createImuBuffer();
+
+        List<Long> windowNanos = new ArrayList<>();
+        WindowTicker ticker = new WindowTicker((fromTimestamp, toTimestamp, newSeconds, finalWindow) -> {
+            long start = System.nanoTime();
+            pipeline.processWindow(gpsBuffer.window(fromTimestamp, toTimestamp), apBuffer.window(fromTimestamp, toTimestamp),
+                    btsBuffer.window(fromTimestamp, toTimestamp), imuBuffer.window(fromTimestamp, toTimestamp), newSeconds);
+            if (finalWindow) {
+                pipeline.flushSegments();
+            }
+            windowNanos.add(System.nanoTime() - start);
+        });
+
+        long imuBuckets = 0;
+        long wallStart = System.nanoTime();
+        SensorCaptureReader capture = trace.isFile() ? new SensorCaptureReader(trace) : null;
+        try (TraceChannel gps = openChannel(capture, GPS_FILE, gpsBuffer);
+             TraceChannel ap = openChannel(capture, AP_FILE, apBuffer);
+             TraceChannel bts = openChannel(capture, BTS_FILE, btsBuffer);
+             TraceChannel imu = openChannel(capture, IMU_FILE, imuBuffer)) {
+            long firstTick = gps.hasNext() ? gps.peekTimestamp() : 0L;
+            long openBucket = Long.MIN_VALUE;
+
+            while (gps.hasNext()) {
+                long tick = gps.peekTimestamp();
+                waitForTick(wallStart, tick - firstTick);
+
+                while (imu.hasNext() && imu.peekTimestamp() < tick) {
+                    long bucket = imu.peekTimestamp();
+                    if (bucket != openBucket) {
+                        if (openBucket != Long.MIN_VALUE) {
+                            pipeline.extractImuFeatures(imuBuffer.window(openBucket, openBucket + 1));
+                            imuBuckets++;
+                        }
+                        openBucket = bucket;
+                    }
+                    imu.writeNext();
+                }
+
+                ap.writeUntil(tick);
+                bts.writeUntil(tick);
+                gps.writeUntil(tick);
+                ticker.tick(tick);
+            }
+        } finally {
+            if (capture != null) {
+                capture.close();
+            }
+        }
+
+        // 서비스 종료와 같이 아직 추론하지 않은 마지막 초들을 처리
+        if (!ticker.flush()) {
+            pipeline.flushSegments();
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        return new ReplayReport(ticker.getTickCount(), imuBuckets, wallNanos, windowNanos.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private TraceChannel openChannel(SensorCaptureReader capture, String fileName, SensorRingBuffer target) throws IOException {
+        if (capture != null) {
+            return new CaptureChannelReader(capture, target);
+        }
+        return new TraceCsvReader(new File(trace, fileName), target);
+    }
+
+    // 배속 재생이면 트레이스 시작 후 elapsedMs 에 해당하는 벽시계 시각까지 기다림
+    private void waitForTick(long wallStart, long elapsedMs) throws InterruptedException {
+        if (speed <= 0) {
+            return;
+        }
+        long dueNanos = wallStart + (long) (elapsedMs * 1_000_000L / speed);
+        long remaining = dueNanos - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+        }
+    }
+}
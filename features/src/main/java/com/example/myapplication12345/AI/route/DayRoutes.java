@@ -0,0 +1,142 @@
+package com.example.myapplication12345.AI.route;
+
+import com.example.myapplication12345.AI.store.PredictionDay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 하루치 세그먼트를 지도에 그릴 경로로 묶고, 확대 수준 구간마다 단순화한 결과를 캐시합니다.
+ * <p>
+ * 같은 이동 수단이 끊김 없이(다음 세그먼트의 시작 = 이전 세그먼트의 끝) 이어지는 세그먼트는 경로 하나로 합치므로,
+ * 지도에는 세그먼트 수가 아니라 이동 수단이 바뀐 횟수만큼의 선이 올라갑니다.
+ * 확대 수준은 정수 단위 구간으로 나누고, 구간마다 화면에서 {@link #TOLERANCE_PIXELS} 픽셀 이내의 꼭짓점을 Douglas–Peucker 로 줄입니다.
+ * 경로 수와 순서는 모든 구간에서 같으므로, 화면은 선 객체를 그대로 두고 꼭짓점만 바꿀 수 있습니다.
+ * <p>
+ * 메인 스레드에서만 사용해야 합니다.
+ */
+public class DayRoutes {
+
+    public static final int MIN_ZOOM_BAND = 3;
+    public static final int MAX_ZOOM_BAND = 21;
+    static final double TOLERANCE_PIXELS = 1.5;
+
+    // 적도에서 확대 수준 0 의 1픽셀 길이 (m, Web Mercator 256px 타일)
+    private static final double EQUATOR_METERS_PER_PIXEL = 156_543.03392;
+    // 같은 지점으로 볼 좌표 차이 (CSV 는 소수점 6자리로 저장)
+    private static final double SAME_POINT_DEGREES = 1e-6;
+
+    private final List<RouteRun> runs;
+    private final double referenceLatitude;
+    private final List<List<RouteRun>> bands = new ArrayList<>(MAX_ZOOM_BAND + 1); // 구간별 단순화 결과, 계산 전이면 null
+
+    DayRoutes(List<RouteRun> runs) {
+        this.runs = Collections.unmodifiableList(runs);
+        this.referenceLatitude = runs.isEmpty() ? 0 : runs.get(0).getLatitude(0);
+        for (int band = 0; band <= MAX_ZOOM_BAND; band++) {
+            bands.add(null);
+        }
+    }
+
+    /** modeMask 에 포함된 이동 수단의 세그먼트를 기록 순서대로 경로로 묶습니다. */
+    public static DayRoutes build(PredictionDay day, boolean[] modeMask) {
+        List<RouteRun> runs = new ArrayList<>();
+        double[] latitudes = new double[Math.max(2, day.size() + 1)];
+        double[] longitudes = new double[latitudes.length];
+        int mode = -1;
+        int count = 0;
+        for (int i = 0; i < day.size(); i++) {
+            int segmentMode = day.getModeCode(i);
+            if (!modeMask[segmentMode]) {
+                continue;
+            }
+            boolean contiguous = segmentMode == mode
+                    && Math.abs(day.getStartLatitude(i) - latitudes[count - 1]) <= SAME_POINT_DEGREES
+                    && Math.abs(day.getStartLongitude(i) - longitudes[count - 1]) <= SAME_POINT_DEGREES;
+            if (!contiguous) {
+                if (count > 0) {
+                    runs.add(copyRun(mode, latitudes, longitudes, count));
+                }
+                mode = segmentMode;
+                latitudes[0] = day.getStartLatitude(i);
+                longitudes[0] = day.getStartLongitude(i);
+                count = 1;
+            }
+            latitudes[count] = day.getEndLatitude(i);
+            longitudes[count] = day.getEndLongitude(i);
+            count++;
+        }
+        if (count > 0) {
+            runs.add(copyRun(mode, latitudes, longitudes, count));
+        }
+        return new DayRoutes(runs);
+    }
+
+    public boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    /** 단순화하지 않은 경로. */
+    public List<RouteRun> getRuns() {
+        return runs;
+    }
+
+    /** 확대 수준 구간에서 그릴 꼭짓점 수. */
+    public int getVertexCount(int band) {
+        int vertices = 0;
+        for (RouteRun run : forBand(band)) {
+            vertices += run.size();
+        }
+        return vertices;
+    }
+
+    /** 카메라 확대 수준이 속한 구간. */
+    public static int bandFor(float zoom) {
+        return Math.max(MIN_ZOOM_BAND, Math.min(MAX_ZOOM_BAND, (int) Math.floor(zoom)));
+    }
+
+    /** 확대 수준 구간에 맞게 단순화한 경로. 구간마다 한 번만 계산합니다. */
+    public List<RouteRun> forBand(int band) {
+        band = Math.max(MIN_ZOOM_BAND, Math.min(MAX_ZOOM_BAND, band));
+        if (bands.get(band) == null) {
+            double tolerance = TOLERANCE_PIXELS * EQUATOR_METERS_PER_PIXEL
+                    * Math.cos(Math.toRadians(referenceLatitude)) / (1L << band);
+            List<RouteRun> simplified = new ArrayList<>(runs.size());
+            for (RouteRun run : runs) {
+                simplified.add(simplify(run, tolerance));
+            }
+            bands.set(band, Collections.unmodifiableList(simplified));
+        }
+        return bands.get(band);
+    }
+
+    private static RouteRun simplify(RouteRun run, double toleranceMeters) {
+        boolean[] keep = DouglasPeucker.simplify(run.latitudes(), run.longitudes(), toleranceMeters);
+        int kept = 0;
+        for (boolean k : keep) {
+            if (k) kept++;
+        }
+        if (kept == run.size()) {
+            return run;
+        }
+        double[] latitudes = new double[kept];
+        double[] longitudes = new double[kept];
+        for (int i = 0, j = 0; i < keep.length; i++) {
+            if (keep[i]) {
+                latitudes[j] = run.getLatitude(i);
+                longitudes[j] = run.getLongitude(i);
+                j++;
+            }
+        }
+        return new RouteRun(run.getModeCode(), latitudes, longitudes);
+    }
+
+    private static RouteRun copyRun(int mode, double[] latitudes, double[] longitudes, int count) {
+        double[] runLatitudes = new double[count];
+        double[] runLongitudes = new double[count];
+        System.arraycopy(latitudes, 0, runLatitudes, 0, count);
+        System.arraycopy(longitudes, 0, runLongitudes, 0, count);
+        return new RouteRun(mode, runLatitudes, runLongitudes);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.myapplication12345.AI.route;
+
+import java.util.Arrays;
+
+/**
+ * Douglas–Peucker 선 단순화. 위경도를 첫 점 기준의 평면(m)으로 근사해 계산하므로 도시 규모 경로에 적합합니다.
+ * 재귀 대신 구간 스택을 사용해 꼭짓점이 많아도 스택이 넘치지 않습니다.
+ */
+final class DouglasPeucker {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private DouglasPeucker() {
+    }
+
+    /**
+     * @param toleranceMeters 원래 선에서 이 거리 이내로 벗어나는 꼭짓점은 버림
+     * @return 남길 꼭짓점 표시 (양 끝점은 항상 남김)
+     */
+    static boolean[] simplify(double[] latitudes, double[] longitudes, double toleranceMeters) {
+        int n = latitudes.length;
+        boolean[] keep = new boolean[n];
+        if (n <= 2) {
+            Arrays.fill(keep, true);
+            return keep;
+        }
+        double lonScale = Math.cos(Math.toRadians(latitudes[0])) * METERS_PER_DEGREE;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = (longitudes[i] - longitudes[0]) * lonScale;
+            y[i] = (latitudes[i] - latitudes[0]) * METERS_PER_DEGREE;
+        }
+
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+        keep[0] = true;
+        keep[n - 1] = true;
+        int[] stack = new int[2 * n];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int farthest = -1;
+            double farthestDistance = toleranceSquared;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > farthestDistance) {
+                    farthestDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+        return keep;
+    }
+
+    // 점 (px, py) 와 선분 (ax, ay)-(bx, by) 사이 거리의 제곱
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double ex = px - (ax + t * dx);
+        double ey = py - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.myapplication12345.AI.route;
+
+/** 같은 이동 수단으로 끊김 없이 이어진 세그먼트들을 하나로 합친 경로 (꼭짓점 좌표 배열). */
+public final class RouteRun {
+
+    private final int modeCode;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    RouteRun(int modeCode, double[] latitudes, double[] longitudes) {
+        this.modeCode = modeCode;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /** {@link com.example.myapplication12345.AI.store.PredictionStore#MODES} 번호. */
+    public int getModeCode() {
+        return modeCode;
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    public double getLatitude(int i) {
+        return latitudes[i];
+    }
+
+    public double getLongitude(int i) {
+        return longitudes[i];
+    }
+
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.myapplication12345.AI.store;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 하루치 예측 세그먼트를 열별 기본형 배열로 담은 읽기 전용 스냅샷.
+ * 이동 수단은 {@link PredictionStore#MODES} 번호로 정규화해 두므로, 필터링과 합계 계산에 문자열 비교나 행 객체가 필요 없습니다.
+ */
+public final class PredictionDay {
+
+    private final String day;
+    private final long sourceModified;
+    private final long sourceLength;
+    private final int size;
+    private final long[] startTimestamps;
+    private final byte[] modes;
+    private final double[] distances;
+    private final double[] startLatitudes;
+    private final double[] startLongitudes;
+    private final double[] endLatitudes;
+    private final double[] endLongitudes;
+
+    PredictionDay(String day, long sourceModified, long sourceLength, List<PredictionSegment> segments) {
+        this.day = day;
+        this.sourceModified = sourceModified;
+        this.sourceLength = sourceLength;
+        this.size = segments.size();
+        startTimestamps = new long[size];
+        modes = new byte[size];
+        distances = new double[size];
+        startLatitudes = new double[size];
+        startLongitudes = new double[size];
+        endLatitudes = new double[size];
+        endLongitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            PredictionSegment segment = segments.get(i);
+            startTimestamps[i] = segment.getStartTimestamp();
+            modes[i] = (byte) PredictionStore.MODES.indexOf(PredictionStore.normalizeMode(segment.getTransportMode()));
+            distances[i] = segment.getDistance();
+            startLatitudes[i] = segment.getStartLatitude();
+            startLongitudes[i] = segment.getStartLongitude();
+            endLatitudes[i] = segment.getEndLatitude();
+            endLongitudes[i] = segment.getEndLongitude();
+        }
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    /** 읽을 때의 CSV 수정 시각과 길이. 캐시가 파일 변경을 알아채는 데 씁니다. */
+    boolean isCurrent(long modified, long length) {
+        return sourceModified == modified && sourceLength == length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getStartTimestamp(int i) {
+        return startTimestamps[i];
+    }
+
+    /** {@link PredictionStore#MODES} 번호. */
+    public int getModeCode(int i) {
+        return modes[i];
+    }
+
+    public String getMode(int i) {
+        return PredictionStore.MODES.get(modes[i]);
+    }
+
+    public double getDistance(int i) {
+        return distances[i];
+    }
+
+    public double getStartLatitude(int i) {
+        return startLatitudes[i];
+    }
+
+    public double getStartLongitude(int i) {
+        return startLongitudes[i];
+    }
+
+    public double getEndLatitude(int i) {
+        return endLatitudes[i];
+    }
+
+    public double getEndLongitude(int i) {
+        return endLongitudes[i];
+    }
+
+    /** 이동 수단 집합을 {@link PredictionStore#MODES} 번호별 포함 여부로 바꿉니다. null 이면 전체. */
+    public static boolean[] modeMask(Set<String> selectedModes) {
+        boolean[] mask = new boolean[PredictionStore.MODES.size()];
+        for (int code = 0; code < mask.length; code++) {
+            mask[code] = selectedModes == null || selectedModes.contains(PredictionStore.MODES.get(code));
+        }
+        return mask;
+    }
+
+    /** 선택한 이동 수단별 이동 거리 합계 (m). 인덱스는 {@link PredictionStore#MODES} 번호이며 선택하지 않은 수단은 0. */
+    public double[] distanceByMode(boolean[] modeMask) {
+        double[] totals = new double[PredictionStore.MODES.size()];
+        for (int i = 0; i < size; i++) {
+            int mode = modes[i];
+            if (modeMask[mode]) {
+                totals[mode] += distances[i];
+            }
+        }
+        return totals;
+    }
+}
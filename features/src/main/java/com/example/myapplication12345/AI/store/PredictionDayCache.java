@@ -0,0 +1,66 @@
+package com.example.myapplication12345.AI.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 최근에 읽은 날짜의 {@link PredictionDay} 를 날짜별로 보관하는 LRU 캐시.
+ * 조회할 때마다 CSV 의 수정 시각과 길이만 확인하고, 바뀌었으면(기록 중인 오늘 등) 그 날짜만 다시 읽습니다.
+ * 여러 스레드에서 사용할 수 있습니다.
+ */
+public class PredictionDayCache {
+
+    private final PredictionStore store;
+    private final Map<String, PredictionDay> days;
+
+    public PredictionDayCache(PredictionStore store, int maxDays) {
+        this.store = store;
+        this.days = new LinkedHashMap<String, PredictionDay>(maxDays + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PredictionDay> eldest) {
+                return size() > maxDays;
+            }
+        };
+    }
+
+    public PredictionStore getStore() {
+        return store;
+    }
+
+    /** 날짜의 세그먼트. 기록된 파일이 없으면 null. */
+    public PredictionDay get(String day) throws IOException {
+        File file = store.dayFile(day);
+        long modified = file.lastModified();
+        long length = file.length();
+        if (!store.hasDay(day)) {
+            remove(day);
+            return null;
+        }
+        synchronized (days) {
+            PredictionDay cached = days.get(day);
+            if (cached != null && cached.isCurrent(modified, length)) {
+                return cached;
+            }
+        }
+        // 파일 읽기는 락 밖에서 (같은 날짜를 동시에 읽으면 마지막 결과가 남음)
+        PredictionDay loaded = new PredictionDay(day, modified, length, store.query(day));
+        synchronized (days) {
+            days.put(day, loaded);
+        }
+        return loaded;
+    }
+
+    public void remove(String day) {
+        synchronized (days) {
+            days.remove(day);
+        }
+    }
+
+    public void clear() {
+        synchronized (days) {
+            days.clear();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.myapplication12345.AI.store;
+
+/** 예측 저장소의 세그먼트 한 행. 시작 시각부터 같은 이동 수단으로 이동한 구간입니다. */
+public final class PredictionSegment {
+
+    private final long startTimestamp;
+    private final String transportMode;
+    private final double distance;
+    private final double startLatitude;
+    private final double startLongitude;
+    private final double endLatitude;
+    private final double endLongitude;
+
+    public PredictionSegment(long startTimestamp, String transportMode, double distance,
+                             double startLatitude, double startLongitude, double endLatitude, double endLongitude) {
+        this.startTimestamp = startTimestamp;
+        this.transportMode = transportMode;
+        this.distance = distance;
+        this.startLatitude = startLatitude;
+        this.startLongitude = startLongitude;
+        this.endLatitude = endLatitude;
+        this.endLongitude = endLongitude;
+    }
+
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    /** 저장된 그대로의 이동 수단 (지도 분류는 {@link PredictionStore#normalizeMode(String)}). */
+    public String getTransportMode() {
+        return transportMode;
+    }
+
+    /** 이동 거리 (m). */
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getStartLatitude() {
+        return startLatitude;
+    }
+
+    public double getStartLongitude() {
+        return startLongitude;
+    }
+
+    public double getEndLatitude() {
+        return endLatitude;
+    }
+
+    public double getEndLongitude() {
+        return endLongitude;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.myapplication12345.AI.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 날짜별 예측 세그먼트 저장소. 세그먼트는 날짜마다 CSV({@code yyyyMMdd_predictions.csv}, 기존 지도 형식 그대로)에 쌓이고,
+ * 옆의 작은 색인({@code yyyyMMdd_predictions.idx})에 행마다 시작 시각, 이동 수단, CSV 안의 바이트 위치를 둡니다.
+ * 조회는 색인으로 조건에 맞는 행만 골라 그 바이트 구간만 읽으므로, 하루 파일 전체를 다시 파싱하지 않습니다.
+ * <pre>
+ * 색인 (little-endian)
+ *   magic "PIDX" (4) | version u16 | headerRowBytes u16 (CSV 헤더 행 길이)
+ *   행마다: startTimestamp i64 | rowOffset i32 | rowLength u16 | mode u8 ({@link #MODES} 순서) | 예약 u8
+ * </pre>
+ * 기록은 {@link PredictionStoreWriter} 하나가 맡고, 조회는 어느 스레드에서나 할 수 있습니다.
+ * 색인보다 CSV 가 길면(기록 중이거나 색인이 없는 예전 파일) 색인 뒤쪽 행만 직접 읽어 채웁니다.
+ */
+public class PredictionStore {
+
+    public static final String HEADER =
+            "start_timestamp,transport_mode,distance_meters,start_latitude,start_longitude,end_latitude,end_longitude";
+
+    /** 지도에서 구분하는 이동 수단. 그 밖의 값은 ETC 로 분류합니다. */
+    public static final List<String> MODES = Collections.unmodifiableList(
+            Arrays.asList("WALK", "BIKE", "BUS", "CAR", "SUBWAY", "ETC"));
+
+    static final int INDEX_MAGIC = 0x58444950; // "PIDX"
+    static final int INDEX_VERSION = 1;
+    static final int INDEX_HEADER_BYTES = 8;
+    static final int INDEX_ENTRY_BYTES = 16;
+
+    private final File directory;
+    private final SimpleDateFormat dayFormat = new SimpleDateFormat("yyyyMMdd", Locale.getDefault());
+
+    public PredictionStore(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /** 타임스탬프가 속한 날짜 ({@code yyyyMMdd}). */
+    public String dayOf(long timestamp) {
+        synchronized (dayFormat) {
+            return dayFormat.format(timestamp);
+        }
+    }
+
+    /** 날짜의 세그먼트 CSV. */
+    public File dayFile(String day) {
+        return new File(directory, day + "_predictions.csv");
+    }
+
+    File indexFile(String day) {
+        return new File(directory, day + "_predictions.idx");
+    }
+
+    /** 날짜에 기록된 파일이 있으면 true (세그먼트가 없을 수도 있음). */
+    public boolean hasDay(String day) {
+        File file = dayFile(day);
+        return file.isFile() && file.length() > 0;
+    }
+
+    /** 이동 수단을 {@link #MODES} 중 하나로 바꿉니다. */
+    public static String normalizeMode(String mode) {
+        if (mode == null) return "ETC";
+        String upper = mode.trim().toUpperCase(Locale.ROOT);
+        return MODES.contains(upper) ? upper : "ETC";
+    }
+
+    /** 날짜의 모든 세그먼트 (기록 순서). */
+    public List<PredictionSegment> query(String day) throws IOException {
+        return query(day, null, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * 날짜의 세그먼트 중 조건에 맞는 것을 기록 순서대로 반환합니다. 파일이 없으면 빈 목록입니다.
+     * @param modes 포함할 이동 수단 ({@link #normalizeMode(String)} 기준). null 이면 전체
+     * @param fromTimestamp 시작 시각 하한 (포함)
+     * @param toTimestamp 시작 시각 상한 (제외)
+     */
+    public List<PredictionSegment> query(String day, Set<String> modes, long fromTimestamp, long toTimestamp)
+            throws IOException {
+        File csv = dayFile(day);
+        List<PredictionSegment> result = new ArrayList<>();
+        if (!csv.isFile()) {
+            return result;
+        }
+        boolean[] modeMask = new boolean[MODES.size()];
+        for (int code = 0; code < modeMask.length; code++) {
+            modeMask[code] = modes == null || modes.contains(MODES.get(code));
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(csv, "r");
+             FileChannel channel = file.getChannel()) {
+            long csvLength = channel.size();
+            DayIndex index = readIndex(day);
+            if (index.indexedEnd() > csvLength) {
+                index = DayIndex.EMPTY; // CSV 가 색인보다 짧음 (외부에서 고친 파일 등): 전체를 직접 읽음
+            }
+
+            // 조건에 맞는 행을 골라 파일에서 이어지는 행끼리 한 번에 읽음
+            int i = 0;
+            while (i < index.count) {
+                if (!index.matches(i, modeMask, fromTimestamp, toTimestamp)) {
+                    i++;
+                    continue;
+                }
+                int first = i;
+                long runEnd = index.rowEnd(i);
+                while (i + 1 < index.count && index.offsets[i + 1] == runEnd
+                        && index.matches(i + 1, modeMask, fromTimestamp, toTimestamp)) {
+                    i++;
+                    runEnd = index.rowEnd(i);
+                }
+                parseRows(read(channel, index.offsets[first], runEnd), null, fromTimestamp, toTimestamp, result);
+                i++;
+            }
+
+            // 색인 뒤쪽 (기록 중인 행이나 색인 없는 예전 파일): 직접 읽고 거름
+            long tailStart = index.indexedEnd();
+            if (tailStart < csvLength) {
+                parseRows(read(channel, tailStart, csvLength), modeMask, fromTimestamp, toTimestamp, result);
+            }
+        }
+        return result;
+    }
+
+    /** 같은 날짜의 색인을 CSV 에서 다시 만듭니다. 끝이 잘린 마지막 행(기록 중 종료)은 CSV 에서 잘라냅니다. */
+    void rebuildIndex(String day) throws IOException {
+        File csv = dayFile(day);
+        byte[] bytes = csv.isFile() ? readFully(csv) : new byte[0];
+        int complete = bytes.length;
+        while (complete > 0 && bytes[complete - 1] != '\n') {
+            complete--;
+        }
+        if (complete < bytes.length) {
+            try (RandomAccessFile file = new RandomAccessFile(csv, "rw")) {
+                file.setLength(complete);
+            }
+        }
+
+        int headerRowBytes = 0;
+        ByteBuffer entries = ByteBuffer.allocate(INDEX_HEADER_BYTES + INDEX_ENTRY_BYTES * countLines(bytes, complete))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        entries.position(INDEX_HEADER_BYTES);
+        int lineStart = 0;
+        for (int pos = 0; pos < complete; pos++) {
+            if (bytes[pos] != '\n') continue;
+            int length = pos + 1 - lineStart;
+            PredictionSegment segment = parseRow(new String(bytes, lineStart, pos - lineStart, StandardCharsets.UTF_8));
+            if (segment != null && length <= 0xFFFF) {
+                putEntry(entries, segment.getStartTimestamp(), lineStart, length, segment.getTransportMode());
+            } else if (lineStart == 0) {
+                headerRowBytes = length;
+            }
+            lineStart = pos + 1;
+        }
+        putIndexHeader(entries, headerRowBytes);
+        entries.flip();
+
+        // 임시 파일에 쓰고 바꿔 끼워 조회 중인 쪽이 반쯤 쓴 색인을 보지 않도록 함
+        File index = indexFile(day);
+        File temp = new File(directory, index.getName() + ".tmp");
+        try (RandomAccessFile file = new RandomAccessFile(temp, "rw");
+             FileChannel channel = file.getChannel()) {
+            file.setLength(0);
+            while (entries.hasRemaining()) {
+                channel.write(entries);
+            }
+            channel.force(false);
+        }
+        if (!temp.renameTo(index)) {
+            throw new IOException("Cannot replace prediction index: " + index);
+        }
+    }
+
+    /** 날짜의 색인을 읽습니다. 없거나 형식이 맞지 않으면 빈 색인(indexedEnd 0)입니다. */
+    DayIndex readIndex(String day) throws IOException {
+        File index = indexFile(day);
+        if (!index.isFile() || index.length() < INDEX_HEADER_BYTES) {
+            return DayIndex.EMPTY;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(readFully(index)).order(ByteOrder.LITTLE_ENDIAN);
+        if (bytes.getInt(0) != INDEX_MAGIC || (bytes.getShort(4) & 0xFFFF) != INDEX_VERSION) {
+            return DayIndex.EMPTY;
+        }
+        int headerRowBytes = bytes.getShort(6) & 0xFFFF;
+        int count = (bytes.limit() - INDEX_HEADER_BYTES) / INDEX_ENTRY_BYTES; // 끝이 잘린 항목은 무시
+        DayIndex result = new DayIndex(count, headerRowBytes);
+        for (int i = 0; i < count; i++) {
+            int entry = INDEX_HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+            result.timestamps[i] = bytes.getLong(entry);
+            result.offsets[i] = bytes.getInt(entry + 8);
+            result.lengths[i] = bytes.getShort(entry + 12) & 0xFFFF;
+            result.modes[i] = bytes.get(entry + 14);
+        }
+        return result;
+    }
+
+    static void putIndexHeader(ByteBuffer buffer, int headerRowBytes) {
+        buffer.putInt(0, INDEX_MAGIC);
+        buffer.putShort(4, (short) INDEX_VERSION);
+        buffer.putShort(6, (short) headerRowBytes);
+    }
+
+    static void putEntry(ByteBuffer buffer, long startTimestamp, long rowOffset, int rowLength, String transportMode) {
+        buffer.putLong(startTimestamp);
+        buffer.putInt((int) rowOffset);
+        buffer.putShort((short) rowLength);
+        buffer.put((byte) MODES.indexOf(normalizeMode(transportMode)));
+        buffer.put((byte) 0);
+    }
+
+    /** CSV 한 행을 세그먼트로 읽습니다. 헤더나 형식이 맞지 않는 행은 null. */
+    static PredictionSegment parseRow(String line) {
+        String[] values = line.trim().split(",");
+        if (values.length != 7) return null;
+        try {
+            return new PredictionSegment(Long.parseLong(values[0]), values[1], Double.parseDouble(values[2]),
+                    Double.parseDouble(values[3]), Double.parseDouble(values[4]),
+                    Double.parseDouble(values[5]), Double.parseDouble(values[6]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void parseRows(String text, boolean[] modeMask, long fromTimestamp, long toTimestamp,
+                                  List<PredictionSegment> out) {
+        int lineStart = 0;
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) lineEnd = text.length();
+            PredictionSegment segment = parseRow(text.substring(lineStart, lineEnd));
+            if (segment != null
+                    && segment.getStartTimestamp() >= fromTimestamp && segment.getStartTimestamp() < toTimestamp
+                    && (modeMask == null || modeMask[MODES.indexOf(normalizeMode(segment.getTransportMode()))])) {
+                out.add(segment);
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private static String read(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) break;
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readFully(File source) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(source, "r")) {
+            byte[] bytes = new byte[(int) file.length()];
+            file.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    private static int countLines(byte[] bytes, int length) {
+        int lines = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') lines++;
+        }
+        return lines;
+    }
+
+    /** 하루치 색인 항목. */
+    static final class DayIndex {
+        static final DayIndex EMPTY = new DayIndex(0, 0);
+
+        final int count;
+        final int headerRowBytes;
+        final long[] timestamps;
+        final int[] offsets;
+        final int[] lengths;
+        final byte[] modes;
+
+        DayIndex(int count, int headerRowBytes) {
+            this.count = count;
+            this.headerRowBytes = headerRowBytes;
+            this.timestamps = new long[count];
+            this.offsets = new int[count];
+            this.lengths = new int[count];
+            this.modes = new byte[count];
+        }
+
+        /** 색인이 다루는 CSV 앞부분의 길이 (헤더 행 포함). */
+        long indexedEnd() {
+            return count == 0 ? headerRowBytes : rowEnd(count - 1);
+        }
+
+        long rowEnd(int i) {
+            return (long) offsets[i] + lengths[i];
+        }
+
+        boolean matches(int i, boolean[] modeMask, long fromTimestamp, long toTimestamp) {
+            int mode = modes[i];
+            return timestamps[i] >= fromTimestamp && timestamps[i] < toTimestamp
+                    && mode >= 0 && mode < modeMask.length && modeMask[mode];
+        }
+    }
+}
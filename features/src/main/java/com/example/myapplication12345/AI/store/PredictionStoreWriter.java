@@ -0,0 +1,171 @@
+package com.example.myapplication12345.AI.store;
+
+import com.example.myapplication12345.AI.pipeline.PredictionSegmentMerger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 완성된 세그먼트를 {@link PredictionStore} 의 날짜별 CSV 와 색인에 이어 씁니다.
+ * <p>
+ * 그날 파일을 한 번만 열어 두고, 세그먼트마다 행과 색인 항목을 CSV → 색인 순서로 바로 기록합니다.
+ * 프로세스가 onDestroy 없이 종료되어도 기록한 행은 운영체제에 남습니다.
+ * fsync 만 묶어서, {@link #SYNC_BATCH_SEGMENTS} 개가 쌓이거나 첫 미동기화 행 이후 {@link #SYNC_INTERVAL_MS} 가 지나면
+ * (세그먼트 시각 기준) CSV → 색인 순서로 합니다. 색인이 CSV 보다 앞서지 않으므로 기록 도중 종료되어도 조회 결과가 어긋나지 않습니다.
+ * 날짜가 바뀌면 새 날짜 파일로 넘어가며, 색인과 맞지 않는 기존 파일(예전 형식이나 비정상 종료)은 열 때 색인을 다시 만듭니다.
+ * <p>
+ * 단일 스레드(추론 워커)에서만 사용해야 합니다.
+ */
+public class PredictionStoreWriter implements PredictionSegmentMerger.SegmentSink, Closeable {
+    private static final Logger LOG = Logger.getLogger("PredictionStoreWriter");
+
+    static final int SYNC_BATCH_SEGMENTS = 6;       // 10초 세그먼트 기준 약 1분
+    static final long SYNC_INTERVAL_MS = 60_000L;
+
+    private final PredictionStore store;
+
+    private String day;               // 열려 있는 날짜 (없으면 null)
+    private RandomAccessFile csvFile;
+    private RandomAccessFile indexFile;
+    private long csvLength;           // 기록한 CSV 길이
+
+    private final ByteBuffer entry = ByteBuffer.allocate(PredictionStore.INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private int unsyncedCount = 0;    // 기록했지만 fsync 하지 않은 세그먼트 수
+    private long unsyncedSince;
+    private int syncCount = 0;
+
+    public PredictionStoreWriter(PredictionStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onSegment(String transportMode, double distance, long startTimestamp,
+                          double startLat, double startLon, double endLat, double endLon) {
+        String segmentDay = store.dayOf(startTimestamp);
+        try {
+            if (!segmentDay.equals(day)) {
+                closeDay();
+                openDay(segmentDay);
+            }
+            // Locale.US 사용하여 소수점 '.' 보장
+            byte[] row = String.format(Locale.US, "%d,%s,%.2f,%.6f,%.6f,%.6f,%.6f\n",
+                    startTimestamp, transportMode, distance, startLat, startLon, endLat, endLon).getBytes(StandardCharsets.UTF_8);
+            entry.clear();
+            PredictionStore.putEntry(entry, startTimestamp, csvLength, row.length, transportMode);
+            write(csvFile.getChannel(), csvLength, row);
+            csvLength += row.length;
+            FileChannel index = indexFile.getChannel();
+            write(index, index.size(), entry.array());
+            if (unsyncedCount++ == 0) {
+                unsyncedSince = startTimestamp;
+            }
+
+            if (unsyncedCount >= SYNC_BATCH_SEGMENTS || startTimestamp - unsyncedSince >= SYNC_INTERVAL_MS) {
+                force();
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "예측 결과 저장 실패: " + store.dayFile(segmentDay).getAbsolutePath(), e);
+            abandonDay();
+        }
+    }
+
+    /** 기록한 행을 바로 fsync 합니다 (수집 종료 등). */
+    @Override
+    public void sync() {
+        try {
+            force();
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "예측 결과 저장 실패: " + store.dayFile(day).getAbsolutePath(), e);
+            abandonDay();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeDay();
+    }
+
+    private void openDay(String newDay) throws IOException {
+        File directory = store.getDirectory();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("예측 저장 디렉토리 생성 실패: " + directory.getAbsolutePath());
+        }
+        File csv = store.dayFile(newDay);
+        boolean fresh = !csv.isFile() || csv.length() == 0;
+        if (!fresh && store.readIndex(newDay).indexedEnd() != csv.length()) {
+            store.rebuildIndex(newDay);
+        }
+
+        csvFile = new RandomAccessFile(csv, "rw");
+        indexFile = new RandomAccessFile(store.indexFile(newDay), "rw");
+        day = newDay;
+        csvLength = csvFile.length();
+        if (fresh) {
+            // 새 파일: 헤더 행부터 쓰고, 예전 색인이 남아 있으면 비움
+            byte[] header = (PredictionStore.HEADER + "\n").getBytes(StandardCharsets.UTF_8);
+            csvFile.setLength(0);
+            write(csvFile.getChannel(), 0, header);
+            csvLength = header.length;
+            ByteBuffer indexHeader = ByteBuffer.allocate(PredictionStore.INDEX_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            PredictionStore.putIndexHeader(indexHeader, header.length);
+            indexFile.setLength(0);
+            indexFile.write(indexHeader.array());
+        }
+    }
+
+    private void force() throws IOException {
+        if (csvFile == null || unsyncedCount == 0) {
+            return;
+        }
+        csvFile.getChannel().force(false);
+        indexFile.getChannel().force(false);
+        unsyncedCount = 0;
+        syncCount++;
+    }
+
+    /** fsync 횟수 (테스트용) */
+    int getSyncCount() {
+        return syncCount;
+    }
+
+    private void closeDay() throws IOException {
+        if (csvFile == null) {
+            return;
+        }
+        try {
+            force();
+        } finally {
+            abandonDay();
+        }
+    }
+
+    // 열린 파일을 닫음 (다음 세그먼트에서 다시 엶)
+    private void abandonDay() {
+        try {
+            if (csvFile != null) csvFile.close();
+            if (indexFile != null) indexFile.close();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "예측 파일 닫기 실패", e);
+        }
+        csvFile = null;
+        indexFile = null;
+        day = null;
+        unsyncedCount = 0;
+    }
+
+    private static void write(FileChannel channel, long position, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.myapplication12345.AI.IMU;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 1초 IMU 피처 벡터 전체를 시리즈 이전 구현(Map 기반 preImu, BigDecimal 디트렌딩, Commons Math FFT/Percentile)이 만든 값과 비교합니다.
+ * <p>
+ * 입력 구간은 {@link #fixtures()} 가 시드로 만들고, 기대값은 같은 구간을 이전 구현에 넣어 얻은 행을
+ * imu_baseline_features.csv 에 고정해 두었습니다 (첫 줄은 피처 이름, 이후 구간마다 한 줄).
+ * 상수 채널, 샘플이 한두 개뿐인 구간, 일부 채널만 직전 값으로 채운 구간, NaN 이 섞인 채널을 포함합니다.
+ */
+public class ImuFeatureBaselineTest {
+
+    static final String RESOURCE = "imu_baseline_features.csv";
+    private static final long BUCKET = 1_700_000_000_000L;
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+
+    // NaN 구간에서 NaN 이 섞이는 채널. 이전 구현은 BigDecimal.valueOf(NaN) 에서 예외를 던졌으므로,
+    // 기대값 행은 NaN 을 0 으로 바꾼 구간으로 만들었고 이 채널에서 나오는 피처는 따로 확인함
+    private static final String NAN_FIXTURE = "nan_gyro_y";
+    private static final String[] NAN_FEATURE_PREFIXES = {"gyroY_", "gyroM_"};
+
+    private static final String[] CHANNELS = {
+            "accel.x", "accel.y", "accel.z",
+            "gyro.x", "gyro.y", "gyro.z",
+            "mag.x", "mag.y", "mag.z",
+            "rot.w", "rot.x", "rot.y", "rot.z",
+            "pressure",
+            "gravity.x", "gravity.y", "gravity.z",
+            "linear_accel.x", "linear_accel.y", "linear_accel.z"
+    };
+    private static final double[] RESTING = {
+            0.12, 9.78, 0.31,
+            0.0, 0.0, 0.0,
+            21.5, -4.25, 40.1,
+            0.71, 0.01, 0.02, 0.7,
+            1013.25,
+            0.05, 9.79, 0.2,
+            0.07, -0.01, 0.11
+    };
+    private static final int GYRO_Y = 4;
+
+    @Test
+    public void featureVectorsMatchPreSeriesImplementation() throws IOException {
+        Map<String, double[]> expectedRows = readExpected();
+        Map<String, List<Map<String, Object>>> fixtures = fixtures();
+        assertEquals(fixtures.keySet(), expectedRows.keySet());
+
+        List<String> names = IMUProcessor.getFeatureNames();
+        double[] actual = new double[IMUProcessor.FEATURE_COUNT];
+        for (Map.Entry<String, List<Map<String, Object>>> fixture : fixtures.entrySet()) {
+            double[] expected = expectedRows.get(fixture.getKey());
+            IMUProcessor.extractFeatures(fixture.getValue(), actual);
+            for (int i = 0; i < names.size(); i++) {
+                String label = fixture.getKey() + " " + names.get(i);
+                if (NAN_FIXTURE.equals(fixture.getKey()) && isNanFeature(names.get(i))) {
+                    assertTrue(label + " = " + actual[i], Double.isFinite(actual[i]));
+                    continue;
+                }
+                assertEquals(label, expected[i], actual[i], RELATIVE_TOLERANCE * Math.max(1.0, Math.abs(expected[i])));
+            }
+        }
+    }
+
+    @Test
+    public void nanChannelGivesZeroMomentsAndSpectrum() {
+        // NaN 이 섞인 채널: 평균/표준편차와 스펙트럼 피처는 NaN → 0, 최댓값/최솟값/백분위수는 NaN 을 빼고 계산
+        double[] actual = new double[IMUProcessor.FEATURE_COUNT];
+        IMUProcessor.extractFeatures(fixtures().get(NAN_FIXTURE), actual);
+        List<String> names = IMUProcessor.getFeatureNames();
+        for (String suffix : new String[]{"mean", "std", "max.psd", "entropy", "fc", "kurt", "skew"}) {
+            assertEquals(suffix, 0.0, actual[names.indexOf("gyroY_" + suffix)], 0.0);
+        }
+        assertTrue(actual[names.indexOf("gyroY_max")] > actual[names.indexOf("gyroY_min")]);
+        assertTrue(actual[names.indexOf("gyroY_iqr")] > 0);
+    }
+
+    @Test
+    public void snapshotPathMatchesMapPath() {
+        double[] fromMaps = new double[IMUProcessor.FEATURE_COUNT];
+        double[] fromSnapshot = new double[IMUProcessor.FEATURE_COUNT];
+        for (Map.Entry<String, List<Map<String, Object>>> fixture : fixtures().entrySet()) {
+            SensorRingBuffer buffer = SensorBuffers.createImuBuffer();
+            for (Map<String, Object> sample : fixture.getValue()) {
+                buffer.beginRow((long) sample.get("timestamp"));
+                for (int ch = 0; ch < buffer.getChannelCount(); ch++) {
+                    Object value = sample.get(buffer.getChannelName(ch));
+                    if (value instanceof Integer) {
+                        buffer.setLong(ch, (Integer) value);
+                    } else if (value instanceof Double) {
+                        buffer.setFloat(ch, (float) (double) (Double) value);
+                    }
+                }
+                buffer.commitRow();
+            }
+            // 링 버퍼는 float 로 저장하므로 Map 경로도 같은 스냅샷의 레코드 뷰로 비교
+            SensorSnapshot snapshot = buffer.snapshot();
+            IMUProcessor.extractFeatures(snapshot.asRecords(), fromMaps);
+            assertEquals(BUCKET, IMUProcessor.extractFeatures(snapshot, fromSnapshot));
+            assertArrayEquals(fixture.getKey(), fromMaps, fromSnapshot, 0.0);
+        }
+    }
+
+    /** 기대값 CSV 를 만든 입력 구간 (이름 → 같은 timestamp 의 샘플들, seq 오름차순). */
+    static Map<String, List<Map<String, Object>>> fixtures() {
+        Map<String, List<Map<String, Object>>> fixtures = new LinkedHashMap<>();
+        Random random = new Random(20240601L);
+
+        fixtures.put("constant", bucket(allSeqs(), seq -> RESTING.clone()));
+        fixtures.put("single_sample", bucket(new int[]{37}, seq -> noisy(random)));
+        fixtures.put("two_samples", bucket(new int[]{10, 80}, seq -> noisy(random)));
+        fixtures.put("short", bucket(new int[]{3, 4, 19, 50, 51, 77, 98}, seq -> noisy(random)));
+        fixtures.put("full", bucket(allSeqs(), seq -> noisy(random)));
+
+        List<Integer> sparse = new ArrayList<>();
+        for (int seq = 0; seq < ImuWorkspace.WINDOW_SIZE; seq++) {
+            if (random.nextInt(4) != 0) sparse.add(seq);
+        }
+        fixtures.put("sparse", bucket(sparse.stream().mapToInt(Integer::intValue).toArray(), seq -> noisy(random)));
+
+        // 자이로/자기장/중력은 구간 시작 전 값을 그대로 유지 (빠진 센서를 직전 값으로 채운 경우)
+        double[] held = noisy(random);
+        fixtures.put("held_channels", bucket(allSeqs(), seq -> {
+            double[] values = noisy(random);
+            for (int ch = 3; ch < 9; ch++) values[ch] = held[ch];
+            for (int ch = 14; ch < 17; ch++) values[ch] = held[ch];
+            return values;
+        }));
+
+        fixtures.put(NAN_FIXTURE, bucket(allSeqs(), seq -> {
+            double[] values = noisy(random);
+            if (seq % 10 == 3) values[GYRO_Y] = Double.NaN;
+            return values;
+        }));
+        return fixtures;
+    }
+
+    static boolean isNanFeature(String name) {
+        for (String prefix : NAN_FEATURE_PREFIXES) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private interface SampleValues {
+        double[] at(int seq);
+    }
+
+    private static List<Map<String, Object>> bucket(int[] seqs, SampleValues values) {
+        List<Map<String, Object>> samples = new ArrayList<>();
+        for (int seq : seqs) {
+            double[] v = values.at(seq);
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("timestamp", BUCKET);
+            sample.put("seq", seq);
+            for (int ch = 0; ch < CHANNELS.length; ch++) {
+                sample.put(CHANNELS[ch], v[ch]);
+            }
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    private static int[] allSeqs() {
+        int[] seqs = new int[ImuWorkspace.WINDOW_SIZE];
+        for (int i = 0; i < seqs.length; i++) seqs[i] = i;
+        return seqs;
+    }
+
+    private static double[] noisy(Random random) {
+        double[] values = RESTING.clone();
+        for (int ch = 0; ch < values.length; ch++) {
+            boolean rotation = ch >= 9 && ch <= 12;
+            values[ch] += random.nextGaussian() * (rotation ? 0.01 : 0.3);
+        }
+        return values;
+    }
+
+    private static Map<String, double[]> readExpected() throws IOException {
+        InputStream in = ImuFeatureBaselineTest.class.getResourceAsStream(RESOURCE);
+        assertNotNull(RESOURCE, in);
+        Map<String, double[]> rows = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String[] header = reader.readLine().split(",");
+            // 열 순서가 바뀌면 모든 기대값이 어긋나므로 이름부터 확인
+            assertEquals(IMUProcessor.getFeatureNames(), Arrays.asList(header).subList(1, header.length));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] cells = line.split(",");
+                double[] values = new double[cells.length - 1];
+                for (int i = 1; i < cells.length; i++) {
+                    values[i - 1] = Double.parseDouble(cells[i]);
+                }
+                rows.put(cells[0], values);
+            }
+        }
+        return rows;
+    }
+}
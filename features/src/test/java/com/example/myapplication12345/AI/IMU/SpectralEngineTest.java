@@ -0,0 +1,147 @@
+package com.example.myapplication12345.AI.IMU;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SpectralEngine} 의 PSD 와 거기서 나오는 스펙트럼 피처(max.psd, entropy, fc, kurt, skew) 검사.
+ * 기대값은 시리즈 이전 구현(BigDecimal 디트렌딩 + Commons Math FFT 의 computeWelchPSD)으로 계산한 값입니다.
+ */
+public class SpectralEngineTest {
+
+    private static final int FS = 100;
+
+    @Test
+    public void constantWindowHasZeroSpectrum() {
+        // 빠진 센서를 직전 값으로 채운 구간. 평균을 double 로 빼면 잔차가 0 이 아닌 반올림 오차로 남음
+        for (double value : new double[]{1013.25, 9.80665, -0.1, 0.0}) {
+            double[] window = new double[100];
+            Arrays.fill(window, value);
+            double[] features = spectralFeatures(window, "mean");
+
+            for (double p : engine(100, window, "mean").psd()) assertEquals(0.0, p, 0.0);
+            assertFeatures(new double[]{0.0, 0.0, 0.0, Double.NaN, Double.NaN}, features, 0.0);
+        }
+    }
+
+    @Test
+    public void singleSampleWindowHasZeroSpectrum() {
+        assertFeatures(new double[]{0.0, 0.0, 0.0, Double.NaN, Double.NaN}, spectralFeatures(new double[]{9.80665}, "mean"), 0.0);
+        assertFeatures(new double[]{0.0, 0.0, 0.0, Double.NaN, Double.NaN}, spectralFeatures(new double[]{9.80665}, "linear"), 0.0);
+    }
+
+    @Test
+    public void nanWindowHasNanSpectrum() {
+        double[] window = new double[100];
+        Arrays.fill(window, 1.0);
+        window[5] = Double.NaN;
+
+        SpectralEngine engine = engine(100, window, "linear");
+        for (double p : engine.psd()) assertTrue(Double.isNaN(p));
+        for (double r : engine.autocorrelation()) assertTrue(Double.isFinite(r)); // 자기상관은 NaN 을 0 으로 보고 계산
+        assertFeatures(new double[]{Double.NaN, 0.0, 0.0, Double.NaN, Double.NaN}, spectralFeatures(window, "linear"), 0.0);
+    }
+
+    @Test
+    public void smallVariationAroundLargeMeanIsNotTreatedAsConstant() {
+        double[] window = new double[100];
+        for (int i = 0; i < window.length; i++) {
+            window[i] = 1013.25 + 1e-4 * Math.sin(2 * Math.PI * 7 * i / 100.0) + 3e-5 * Math.cos(2 * Math.PI * 23 * i / 100.0);
+        }
+        assertFeatures(new double[]{3.3292123577506164E-9, 1.3984364146493493, 8.321095946720009, 31.09193406710248, 5.453011146159032},
+                spectralFeatures(window, "mean"), 1e-6);
+    }
+
+    @Test
+    public void psdMatchesDirectWelchOnRandomWindows() {
+        Random random = new Random(5);
+        for (int n : new int[]{1, 2, 3, 37, 99, 100}) {
+            for (int trial = 0; trial < 10; trial++) {
+                double[] window = new double[n];
+                double offset = random.nextGaussian() * 100;
+                for (int i = 0; i < n; i++) window[i] = offset + random.nextGaussian();
+                for (String detrend : new String[]{"mean", "linear"}) {
+                    double[] expected = directWelch(window, detrend);
+                    double[] actual = engine(n, window, detrend).psd();
+                    assertEquals(expected.length, actual.length);
+                    double scale = 0;
+                    for (double p : expected) scale = Math.max(scale, p);
+                    for (int k = 0; k < expected.length; k++) {
+                        assertEquals("n=" + n + " " + detrend + " bin " + k, expected[k], actual[k], 1e-9 * Math.max(scale, 1e-300));
+                    }
+                }
+            }
+        }
+    }
+
+    private static SpectralEngine engine(int n, double[] window, String detrend) {
+        SpectralEngine engine = new SpectralEngine(n);
+        engine.transform(window, FS, detrend);
+        return engine;
+    }
+
+    private static double[] spectralFeatures(double[] window, String detrend) {
+        SpectralEngine engine = engine(window.length, window, detrend);
+        double[] out = new double[IMUFeatureExtractor.SPECTRAL_FEATURE_COUNT];
+        IMUFeatureExtractor.writeSpectralFeatures(engine.psd(), FS, engine.getWelchNfft(), out, 0);
+        return out;
+    }
+
+    private static void assertFeatures(double[] expected, double[] actual, double relativeTolerance) {
+        String[] names = {"max.psd", "entropy", "fc", "kurt", "skew"};
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.isNaN(expected[i])) {
+                assertTrue(names[i] + " = " + actual[i], Double.isNaN(actual[i]));
+            } else {
+                assertEquals(names[i], expected[i], actual[i], relativeTolerance * Math.abs(expected[i]));
+            }
+        }
+    }
+
+    // SciPy welch(nperseg=n, window='hann', nfft=nextPow2(n), scaling='density') 를 직접 DFT 로 계산 (정확한 평균은 BigDecimal 대신 2-pass 로 근사)
+    private static double[] directWelch(double[] x, String detrend) {
+        int n = x.length;
+        int nfft = Math.max(2, IMUFeatureExtractor.getNextPowerOfTwo(n));
+        double[] data = new double[n];
+        if ("linear".equals(detrend) && n > 1) {
+            double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+            for (int k = 0; k < n; k++) { sumX += k; sumY += x[k]; sumXY += (double) k * x[k]; sumXX += (double) k * k; }
+            double slope = (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+            double intercept = (sumY - slope * sumX) / n;
+            for (int k = 0; k < n; k++) data[k] = x[k] - (slope * k + intercept);
+        } else if (n > 1) {
+            double mean = 0;
+            for (double v : x) mean += v;
+            mean /= n;
+            double correction = 0;
+            for (double v : x) correction += v - mean;
+            mean += correction / n;
+            for (int k = 0; k < n; k++) data[k] = x[k] - mean;
+        }
+        double windowSumSq = 0;
+        double[] windowed = new double[n];
+        for (int k = 0; k < n; k++) {
+            double w = n == 1 ? 1.0 : 0.5 * (1.0 - Math.cos(2.0 * Math.PI * k / n));
+            windowSumSq += w * w;
+            windowed[k] = data[k] * w;
+        }
+        double[] psd = new double[nfft / 2 + 1];
+        for (int bin = 0; bin < psd.length; bin++) {
+            double re = 0, im = 0;
+            for (int k = 0; k < n; k++) {
+                double angle = -2.0 * Math.PI * bin * k / nfft;
+                re += windowed[k] * Math.cos(angle);
+                im += windowed[k] * Math.sin(angle);
+            }
+            double p = re * re + im * im;
+            if (bin > 0 && bin < psd.length - 1) p *= 2.0;
+            psd[bin] = p / (FS * windowSumSq);
+        }
+        return psd;
+    }
+}
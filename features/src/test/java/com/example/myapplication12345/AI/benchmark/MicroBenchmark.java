@@ -0,0 +1,104 @@
+package com.example.myapplication12345.AI.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * 에뮬레이터 없이 일반 JVM 에서 도는 JMH 방식의 소형 벤치마크 러너.
+ * <p>
+ * 워밍업 후 작업을 한 번씩 실행하며 작업별 소요 시간을 기록해 처리량과 지연 백분위수를 구하고,
+ * 측정 구간에서 현재 스레드가 할당한 바이트를 작업 수로 나눠 할당률을 구합니다(HotSpot 의 스레드 할당 카운터 사용).
+ * 결과는 블랙홀에 넘겨 JIT 가 작업을 제거하지 못하게 합니다.
+ */
+public final class MicroBenchmark {
+
+    private static volatile int blackhole;
+
+    private final int warmupOps;
+    private final int measureOps;
+
+    public MicroBenchmark(int warmupOps, int measureOps) {
+        this.warmupOps = warmupOps;
+        this.measureOps = measureOps;
+    }
+
+    public Result run(String name, Callable<?> op) throws Exception {
+        for (int i = 0; i < warmupOps; i++) {
+            consume(op.call());
+        }
+        System.gc();
+
+        long[] latencies = new long[measureOps];
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < measureOps; i++) {
+            long opStart = System.nanoTime();
+            consume(op.call());
+            latencies[i] = System.nanoTime() - opStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        Arrays.sort(latencies);
+        Result result = new Result(name, measureOps, elapsed, latencies,
+                allocatedBefore < 0 ? -1 : allocated / (double) measureOps);
+        System.out.println(result);
+        return result;
+    }
+
+    private static void consume(Object value) {
+        blackhole ^= System.identityHashCode(value);
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    public static final class Result {
+        final String name;
+        final int ops;
+        final long elapsedNanos;
+        final long[] sortedLatencies;
+        final double bytesPerOp; // 측정 불가 시 -1
+
+        Result(String name, int ops, long elapsedNanos, long[] sortedLatencies, double bytesPerOp) {
+            this.name = name;
+            this.ops = ops;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = sortedLatencies;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public double opsPerSecond() {
+            return ops / (elapsedNanos / 1e9);
+        }
+
+        /** 지연 백분위수 (ms), nearest-rank. */
+        public double percentileMillis(double p) {
+            int rank = (int) Math.ceil(p / 100.0 * sortedLatencies.length);
+            return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, rank - 1))] / 1e6;
+        }
+
+        public double bytesPerOp() {
+            return bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%-32s %9.1f ops/s  p50 %8.3f ms  p90 %8.3f ms  p99 %8.3f ms  max %8.3f ms  %10.1f KB/op",
+                    name, opsPerSecond(), percentileMillis(50), percentileMillis(90), percentileMillis(99),
+                    sortedLatencies[sortedLatencies.length - 1] / 1e6, bytesPerOp / 1024.0);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.myapplication12345.AI.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import com.example.myapplication12345.AI.AP.APProcessor;
+import com.example.myapplication12345.AI.BTS.BTSProcessor;
+import com.example.myapplication12345.AI.GPS.GPSProcessor;
+import com.example.myapplication12345.AI.IMU.IMUProcessor;
+import com.example.myapplication12345.AI.MovementAnalyzer;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 센서 특성 파이프라인 벤치마크. 1분 트레이스 하나에 대한 각 단계의 처리량, 지연 백분위수, 할당률을 출력합니다.
+ * <p>
+ * 일반 단위 테스트 실행을 느리게 하지 않도록 {@code -Pbenchmark} 를 줄 때만 실행됩니다.
+ * <pre>
+ * ./gradlew :features:test -Pbenchmark --tests "*SensorPipelineBenchmark*" -i
+ * ./gradlew :features:test -Pbenchmark -Pbenchmark.traces=/path/to/csv/dir --tests "*SensorPipelineBenchmark*" -i
+ * </pre>
+ * {@code benchmark.traces} 를 주면 그 폴더의 녹화 IMU CSV(imu_data_*.csv)마다 측정하고, 없으면 합성 트레이스를 사용합니다.
+ */
+public class SensorPipelineBenchmark {
+
+    private static final int TIMESTEPS = ModelInputLayout.TIMESTEPS;
+    private static final MicroBenchmark SLOW = new MicroBenchmark(10, 30);  // 분 단위 작업 (수십 ms)
+    private static final MicroBenchmark FAST = new MicroBenchmark(200, 1000); // 구간/윈도우 단위 작업
+
+    private static List<SensorTrace> traces;
+
+    @BeforeClass
+    public static void loadTraces() throws Exception {
+        assumeTrue("벤치마크는 -Pbenchmark 로 실행", Boolean.getBoolean("benchmark"));
+        traces = new ArrayList<>();
+        String traceDir = System.getProperty("benchmark.traces", "");
+        File[] files = traceDir.isEmpty() ? null
+                : new File(traceDir).listFiles((dir, name) -> name.startsWith("imu_data_") && name.endsWith(".csv"));
+        if (files != null) {
+            for (File file : files) {
+                traces.add(SensorTrace.recordedImu(file));
+            }
+        }
+        if (traces.isEmpty()) {
+            traces.add(SensorTrace.synthetic(42));
+        }
+    }
+
+    @Test
+    public void preImu() throws Exception {
+        for (SensorTrace trace : traces) {
+            List<Map<String, Object>> imu = trace.imu();
+            SLOW.run("preImu[" + trace.getName() + "]", () -> IMUProcessor.preImu(imu));
+        }
+    }
+
+    @Test
+    public void extractImuBucket() throws Exception {
+        for (SensorTrace trace : traces) {
+            SensorSnapshot bucket = trace.imuSnapshot().getBuffer()
+                    .window(SensorTrace.START_TIMESTAMP + 30_000L, SensorTrace.START_TIMESTAMP + 30_001L);
+            double[] out = new double[IMUProcessor.FEATURE_COUNT];
+            FAST.run("extractFeatures[" + trace.getName() + "]", () -> IMUProcessor.extractFeatures(bucket, out));
+        }
+    }
+
+    @Test
+    public void processGPS() throws Exception {
+        for (SensorTrace trace : traces) {
+            List<Map<String, Object>> gps = trace.gps();
+            FAST.run("processGPS[" + trace.getName() + "]",
+                    () -> GPSProcessor.processGPS(gps, earliest(gps)));
+        }
+    }
+
+    @Test
+    public void processBTS() throws Exception {
+        for (SensorTrace trace : traces) {
+            List<Map<String, Object>> bts = trace.bts();
+            FAST.run("processBTS[" + trace.getName() + "]",
+                    () -> BTSProcessor.processBTS(bts, earliest(bts)));
+        }
+    }
+
+    @Test
+    public void processAP() throws Exception {
+        for (SensorTrace trace : traces) {
+            List<Map<String, Object>> ap = trace.ap();
+            FAST.run("processAP[" + trace.getName() + "]",
+                    () -> APProcessor.processAP(ap, earliest(ap)));
+        }
+    }
+
+    @Test
+    public void movementAnalyzer() throws Exception {
+        for (SensorTrace trace : traces) {
+            List<Map<String, Object>> gps = trace.gps();
+            List<Map<String, Object>> imu = trace.imu();
+            SLOW.run("MovementAnalyzer[" + trace.getName() + "]", () -> {
+                MovementAnalyzer analyzer = new MovementAnalyzer(gps, imu);
+                float speed = analyzer.calculateAverageSpeedFromIMU(imu);
+                analyzer.analyze();
+                return speed + analyzer.getDistance();
+            });
+        }
+    }
+
+    /** SensorDataProcessor 의 입력 조립과 같은 순서: 프레임 초기화 → AP/BTS/GPS 기록 → 구간별 IMU 행(캐시 적중) 복사. */
+    @Test
+    public void tensorBuild() throws Exception {
+        assertEquals(340, ModelInputLayout.FEATURE_COUNT);
+        int imuOffset = ModelInputLayout.IMU_OFFSET;
+        FeatureFrame frame = ModelInputLayout.newFrame(ByteBuffer.allocateDirect(ModelInputLayout.FEATURE_COUNT * TIMESTEPS * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer());
+
+        for (SensorTrace trace : traces) {
+            List<Map<String, Object>> gps = trace.gps();
+            List<Map<String, Object>> ap = trace.ap();
+            List<Map<String, Object>> bts = trace.bts();
+            double[][] imuRows = new double[TIMESTEPS][IMUProcessor.FEATURE_COUNT];
+            for (int t = 0; t < TIMESTEPS; t++) {
+                long bucket = SensorTrace.START_TIMESTAMP + t * 1000L;
+                SensorSnapshot samples = trace.imuSnapshot().getBuffer().window(bucket, bucket + 1);
+                if (!samples.isEmpty()) IMUProcessor.extractFeatures(samples, imuRows[t]);
+            }
+            long apStart = earliest(ap), btsStart = earliest(bts), gpsStart = earliest(gps);
+
+            FAST.run("tensorBuild[" + trace.getName() + "]", () -> {
+                frame.clear();
+                APProcessor.writeFeatures(ap, apStart, frame);
+                BTSProcessor.writeFeatures(bts, btsStart, frame);
+                GPSProcessor.writeFeatures(gps, gpsStart, frame);
+                for (int t = 0; t < TIMESTEPS; t++) {
+                    frame.putRow(t, imuOffset, imuRows[t], IMUProcessor.FEATURE_COUNT);
+                }
+                return frame;
+            });
+        }
+    }
+
+    private static long earliest(List<Map<String, Object>> records) {
+        long earliest = Long.MAX_VALUE;
+        for (Map<String, Object> record : records) {
+            earliest = Math.min(earliest, ((Number) record.get("timestamp")).longValue());
+        }
+        return earliest;
+    }
+}
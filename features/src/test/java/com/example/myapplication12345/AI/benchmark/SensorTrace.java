@@ -0,0 +1,199 @@
+package com.example.myapplication12345.AI.benchmark;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 벤치마크용 1분 센서 트레이스 (GPS, AP, BTS, IMU).
+ * <p>
+ * 실제 수집 경로와 같은 링 버퍼에 기록한 뒤 스냅샷 레코드 뷰로 꺼내므로, 프로세서가 받는 Map 레코드의 키와 박싱 타입이
+ * 앱과 같습니다. 합성 트레이스는 시드로 재현되며, 녹화 트레이스는 SensorDataService 가 저장한 IMU CSV 를 읽습니다.
+ */
+public final class SensorTrace {
+
+    public static final long START_TIMESTAMP = 1_700_000_000_000L;
+    private static final int SECONDS = 60;
+    private static final int IMU_HZ = 100;
+
+    private final String name;
+    private final SensorSnapshot gps;
+    private final SensorSnapshot ap;
+    private final SensorSnapshot bts;
+    private final SensorSnapshot imu;
+
+    private SensorTrace(String name, SensorSnapshot gps, SensorSnapshot ap, SensorSnapshot bts, SensorSnapshot imu) {
+        this.name = name;
+        this.gps = gps;
+        this.ap = ap;
+        this.bts = bts;
+        this.imu = imu;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Map<String, Object>> gps() {
+        return gps.asRecords();
+    }
+
+    public List<Map<String, Object>> ap() {
+        return ap.asRecords();
+    }
+
+    public List<Map<String, Object>> bts() {
+        return bts.asRecords();
+    }
+
+    public List<Map<String, Object>> imu() {
+        return imu.asRecords();
+    }
+
+    public SensorSnapshot imuSnapshot() {
+        return imu;
+    }
+
+    /**
+     * 약 10 m/s 로 이동하는 1분 합성 트레이스.
+     * GPS 1Hz, AP 스캔 1Hz(주변 AP 여러 개), BTS 1Hz(셀 3~5개), IMU 100Hz(6,000행)이며 IMU 샘플 일부를 빠뜨려 보간 경로도 포함합니다.
+     */
+    public static SensorTrace synthetic(long seed) {
+        Random random = new Random(seed);
+        return new SensorTrace("synthetic-" + seed,
+                syntheticGps(random), syntheticAp(random), syntheticBts(random), syntheticImu(random));
+    }
+
+    /**
+     * SensorDataService 가 저장한 IMU CSV(헤더는 레코드 키, 값은 toString)로 만든 트레이스.
+     * 첫 60초만 사용하며, 녹화 파일에 없는 GPS/AP/BTS 는 같은 시각의 합성 데이터로 채웁니다.
+     */
+    public static SensorTrace recordedImu(File csv) throws IOException {
+        Random random = new Random(csv.getName().hashCode());
+        return new SensorTrace(csv.getName(),
+                syntheticGps(random), syntheticAp(random), syntheticBts(random), readImuCsv(csv));
+    }
+
+    private static SensorSnapshot syntheticGps(Random random) {
+        SensorRingBuffer buffer = SensorBuffers.createGpsBuffer();
+        double lat = 37.5665, lon = 126.9780;
+        double heading = random.nextDouble() * 2 * Math.PI;
+        for (int s = 0; s < SECONDS; s++) {
+            heading += random.nextGaussian() * 0.05;
+            lat += 10.0 * Math.cos(heading) / 111_320.0;
+            lon += 10.0 * Math.sin(heading) / (111_320.0 * Math.cos(Math.toRadians(lat)));
+            buffer.beginRow(START_TIMESTAMP + s * 1000L + random.nextInt(200));
+            buffer.setDouble(SensorBuffers.GPS_LATITUDE, lat + random.nextGaussian() * 2e-5);
+            buffer.setDouble(SensorBuffers.GPS_LONGITUDE, lon + random.nextGaussian() * 2e-5);
+            buffer.setFloat(SensorBuffers.GPS_ACCURACY, 5f + random.nextFloat() * 10f);
+            buffer.commitRow();
+        }
+        return buffer.snapshot();
+    }
+
+    private static SensorSnapshot syntheticAp(Random random) {
+        SensorRingBuffer buffer = SensorBuffers.createApBuffer();
+        for (int s = 0; s < SECONDS; s++) {
+            int visible = 1 + random.nextInt(2);
+            for (int k = 0; k < visible; k++) {
+                buffer.beginRow(START_TIMESTAMP + s * 1000L);
+                buffer.setLong(SensorBuffers.AP_BSSID, 0x0011_2233_0000L + (s / 5) * 4 + random.nextInt(6));
+                buffer.setFloat(SensorBuffers.AP_LEVEL, -40f - random.nextInt(50));
+                buffer.setFloat(SensorBuffers.AP_FREQUENCY, random.nextBoolean() ? 2412f : 5180f);
+                buffer.commitRow();
+            }
+        }
+        return buffer.snapshot();
+    }
+
+    private static SensorSnapshot syntheticBts(Random random) {
+        SensorRingBuffer buffer = SensorBuffers.createBtsBuffer();
+        for (int s = 0; s < SECONDS; s++) {
+            int cells = 3 + random.nextInt(3);
+            for (int k = 0; k < cells; k++) {
+                buffer.beginRow(START_TIMESTAMP + s * 1000L);
+                buffer.setLong(SensorBuffers.BTS_CI, 1000 + s / 10 + k);
+                buffer.setLong(SensorBuffers.BTS_PCI, random.nextInt(504));
+                buffer.commitRow();
+            }
+        }
+        return buffer.snapshot();
+    }
+
+    private static SensorSnapshot syntheticImu(Random random) {
+        SensorRingBuffer buffer = SensorBuffers.createImuBuffer();
+        for (int s = 0; s < SECONDS; s++) {
+            for (int seq = 0; seq < IMU_HZ; seq++) {
+                if (random.nextDouble() < 0.02) continue; // 샘플 누락
+                double t = s + seq / (double) IMU_HZ;
+                buffer.beginRow(START_TIMESTAMP + s * 1000L);
+                buffer.setLong(SensorBuffers.IMU_SEQ, seq);
+                for (int ch = SensorBuffers.IMU_ACCEL_X; ch <= SensorBuffers.IMU_LINEAR_ACCEL_Z; ch++) {
+                    double base = ch >= SensorBuffers.IMU_GRAVITY_X && ch <= SensorBuffers.IMU_GRAVITY_Z
+                            ? (ch == SensorBuffers.IMU_GRAVITY_Z ? 9.81 : 0.0) : 0.0;
+                    buffer.setFloat(ch, (float) (base + Math.sin(2 * Math.PI * (0.5 + ch * 0.3) * t)
+                            + random.nextGaussian() * 0.2));
+                }
+                buffer.setLong(SensorBuffers.IMU_EVENT_TIME, (long) (t * 1e9));
+                buffer.commitRow();
+            }
+        }
+        return buffer.snapshot();
+    }
+
+    private static SensorSnapshot readImuCsv(File csv) throws IOException {
+        SensorRingBuffer buffer = SensorBuffers.createImuBuffer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(csv))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("Empty trace: " + csv);
+            }
+            String[] header = headerLine.split(",");
+            int timestampColumn = -1;
+            int[] channels = new int[header.length];
+            for (int i = 0; i < header.length; i++) {
+                channels[i] = buffer.indexOf(header[i].trim());
+                if ("timestamp".equals(header[i].trim())) timestampColumn = i;
+            }
+            if (timestampColumn < 0) {
+                throw new IOException("No timestamp column: " + csv);
+            }
+
+            String line;
+            long firstTimestamp = Long.MIN_VALUE;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                if (values.length != header.length) continue;
+                long timestamp = Long.parseLong(values[timestampColumn].trim());
+                if (firstTimestamp == Long.MIN_VALUE) firstTimestamp = timestamp;
+                if (timestamp - firstTimestamp >= SECONDS * 1000L) break;
+
+                // 합성 GPS/AP/BTS 와 시간축을 맞추기 위해 시작 시각을 옮김
+                buffer.beginRow(START_TIMESTAMP + (timestamp - firstTimestamp));
+                for (int i = 0; i < values.length; i++) {
+                    int channel = channels[i];
+                    if (channel < 0 || "null".equals(values[i])) continue;
+                    switch (buffer.getChannelType(channel)) {
+                        case INT:
+                        case LONG:
+                            buffer.setLong(channel, Long.parseLong(values[i].trim()));
+                            break;
+                        default:
+                            buffer.setFloat(channel, Float.parseFloat(values[i].trim()));
+                            break;
+                    }
+                }
+                buffer.commitRow();
+            }
+        }
+        return buffer.snapshot();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.myapplication12345.AI.buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer.ColumnType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SensorRingBufferTest {
+
+    private static final int ID = 0;
+    private static final int SEQ = 1;
+    private static final int VALUE = 2;
+    private static final int LATITUDE = 3;
+    private static final int BSSID = 4;
+
+    private static SensorRingBuffer newBuffer(int capacity) {
+        return new SensorRingBuffer("test", capacity,
+                new String[]{"id", "seq", "value", "latitude", "bssid"},
+                new ColumnType[]{ColumnType.LONG, ColumnType.INT, ColumnType.FLOAT, ColumnType.DOUBLE, ColumnType.MAC});
+    }
+
+    // timestamp 가 from, from + 1, ... 인 행을 count 개 기록. 열 값은 timestamp 에서 정해짐
+    private static void write(SensorRingBuffer buffer, long from, int count) {
+        for (long ts = from; ts < from + count; ts++) {
+            buffer.beginRow(ts);
+            buffer.setLong(ID, ts * 10);
+            buffer.setLong(SEQ, ts % 100);
+            buffer.setFloat(VALUE, ts * 0.5f);
+            buffer.setDouble(LATITUDE, 37.0 + ts * 1e-6);
+            buffer.setLong(BSSID, ts);
+            buffer.commitRow();
+        }
+    }
+
+    private static long[] timestamps(SensorSnapshot snapshot) {
+        long[] out = new long[snapshot.size()];
+        for (int row = 0; row < out.length; row++) {
+            out[row] = snapshot.getTimestamp(row);
+        }
+        return out;
+    }
+
+    @Test
+    public void windowIsHalfOpenAndDoesNotSeal() {
+        SensorRingBuffer buffer = newBuffer(16);
+        write(buffer, 100, 10);
+
+        SensorSnapshot window = buffer.window(103, 107);
+        assertArrayEquals(new long[]{103, 104, 105, 106}, timestamps(window));
+        assertEquals(1030, window.getLong(ID, 0));
+        assertEquals(53f, window.getFloat(VALUE, 3), 0f);
+
+        // 슬라이딩 윈도우는 구간을 확정하지 않으므로 겹치는 윈도우와 스냅샷을 다시 만들 수 있음
+        assertArrayEquals(new long[]{105, 106, 107, 108}, timestamps(buffer.window(105, 109)));
+        assertEquals(10, buffer.pendingCount());
+        assertEquals(10, buffer.snapshot().size());
+    }
+
+    @Test
+    public void windowAfterWrapAroundKeepsOnlyRetainedRows() {
+        SensorRingBuffer buffer = newBuffer(8);
+        write(buffer, 0, 21); // 물리 인덱스가 두 바퀴 넘게 돎, 남은 행은 13..20
+
+        SensorSnapshot window = buffer.window(11, 18);
+        assertArrayEquals(new long[]{13, 14, 15, 16, 17}, timestamps(window));
+        for (int row = 0; row < window.size(); row++) {
+            long ts = window.getTimestamp(row);
+            assertEquals(ts * 10, window.getLong(ID, row));
+            assertEquals(ts * 0.5f, window.getFloat(VALUE, row), 0f);
+            assertEquals(37.0 + ts * 1e-6, window.getDouble(LATITUDE, row), 0.0);
+        }
+        assertTrue(window.isIntact());
+
+        assertArrayEquals(new long[]{13, 14, 15, 16, 17, 18, 19, 20}, timestamps(buffer.window(0, 100)));
+
+        // 다음 행이 구간 첫 행(13)을 덮어쓰면 더 이상 온전하지 않음
+        write(buffer, 21, 1);
+        assertFalse(window.isIntact());
+    }
+
+    @Test
+    public void emptyWindows() {
+        SensorRingBuffer buffer = newBuffer(8);
+        SensorSnapshot none = buffer.window(0, 100);
+        assertTrue(none.isEmpty());
+        assertTrue(none.asRecords().isEmpty());
+        assertEquals(-1L, none.earliestTimestamp(-1L));
+        assertTrue(buffer.snapshot().isEmpty());
+
+        write(buffer, 0, 20);
+        assertTrue(buffer.window(30, 40).isEmpty()); // 최신 행 이후
+        assertTrue(buffer.window(0, 12).isEmpty());  // 이미 덮어쓴 구간
+        assertTrue(buffer.window(15, 15).isEmpty()); // 빈 구간
+        assertTrue(buffer.window(15, 16).slice(1, 1).isEmpty());
+    }
+
+    @Test
+    public void snapshotSealsAndSkipsOverwrittenRows() {
+        SensorRingBuffer buffer = newBuffer(4);
+        write(buffer, 0, 6);
+        assertEquals(4, buffer.pendingCount());
+
+        SensorSnapshot first = buffer.snapshot();
+        assertArrayEquals(new long[]{2, 3, 4, 5}, timestamps(first));
+        assertEquals(2L, first.earliestTimestamp(-1L));
+        assertTrue(buffer.snapshot().isEmpty());
+
+        write(buffer, 6, 2);
+        assertArrayEquals(new long[]{6, 7}, timestamps(buffer.snapshot()));
+        assertFalse(first.isIntact());
+    }
+
+    @Test
+    public void recordsMatchColumnsWithLegacyKeyOrderAndBoxing() {
+        SensorRingBuffer buffer = newBuffer(8);
+        write(buffer, 0, 10); // 물리 인덱스 0 이 구간 중간에 옴
+        SensorSnapshot window = buffer.window(5, 9);
+        List<Map<String, Object>> records = window.asRecords();
+        assertEquals(4, records.size());
+
+        Map<String, Object> record = records.get(2); // timestamp 7, 물리 인덱스 7
+        assertEquals(Arrays.asList("timestamp", "id", "seq", "value", "latitude", "bssid"),
+                new ArrayList<>(record.keySet()));
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("timestamp", 7L);
+        expected.put("id", 70L);
+        expected.put("seq", 7);
+        expected.put("value", 3.5f);
+        expected.put("latitude", 37.0 + 7e-6);
+        expected.put("bssid", "00:00:00:00:00:07");
+        assertEquals(expected, record);
+        assertNull(record.get("missing"));
+
+        assertSame(window, SensorSnapshot.backing(records));
+        assertNull(SensorSnapshot.backing(new ArrayList<>(records)));
+    }
+
+    @Test
+    public void sliceViewsRowRangeAcrossWrap() {
+        SensorRingBuffer buffer = newBuffer(8);
+        write(buffer, 0, 12);
+        SensorSnapshot window = buffer.window(4, 12);
+        SensorSnapshot slice = window.slice(3, 6); // 물리 인덱스 7, 0, 1
+        assertArrayEquals(new long[]{7, 8, 9}, timestamps(slice));
+        assertEquals(90L, slice.getLong(ID, 2));
+        assertEquals(Integer.valueOf(8), slice.asRecords().get(1).get("seq"));
+        assertTrue(slice.isIntact());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void sliceOutsideViewIsRejected() {
+        SensorRingBuffer buffer = newBuffer(8);
+        write(buffer, 0, 4);
+        buffer.window(0, 4).slice(2, 5);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.myapplication12345.AI.capture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+public class SensorCaptureTest {
+
+    private static final long START_TIMESTAMP = 1_700_000_000_000L;
+    private static final int MINUTES = 3;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void blocksRoundTrip() throws Exception {
+        File file = writeCapture(temp.newFile("trip.scap"));
+
+        try (SensorCaptureReader reader = new SensorCaptureReader(file)) {
+            assertTrue(reader.isIndexed());
+            assertEquals(SensorCaptureFormat.VERSION, reader.getVersion());
+            assertEquals(START_TIMESTAMP, reader.getCreatedMillis());
+            assertEquals(2, reader.getSensorCount());
+            assertEquals("ap", reader.getSensorName(0));
+            assertEquals(1, reader.indexOfSensor("imu"));
+            assertEquals(-1, reader.indexOfSensor("gps"));
+            assertEquals(2 * MINUTES, reader.getBlocks().size());
+            assertCaptureValues(reader);
+        }
+    }
+
+    @Test
+    public void missingIndexIsRebuiltFromBlocks() throws Exception {
+        File file = writeCapture(temp.newFile("crash.scap"));
+        long blockBytes;
+        try (SensorCaptureReader reader = new SensorCaptureReader(file)) {
+            blockBytes = file.length() - SensorCaptureFormat.INDEX_TRAILER_BYTES
+                    - (long) reader.getBlocks().size() * SensorCaptureFormat.INDEX_ENTRY_BYTES;
+        }
+
+        // 강제 종료: 색인이 없고 마지막 블록은 중간까지만 기록됨
+        File crashed = temp.newFile("crashed.scap");
+        Files.copy(file.toPath(), crashed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        try (RandomAccessFile raw = new RandomAccessFile(crashed, "rw")) {
+            raw.setLength(blockBytes - 100);
+        }
+
+        try (SensorCaptureReader reader = new SensorCaptureReader(crashed)) {
+            assertFalse(reader.isIndexed());
+            assertEquals(2 * MINUTES - 1, reader.getBlocks().size());
+            assertCaptureValues(reader);
+        }
+    }
+
+    // AP 1Hz, IMU 100Hz 를 1분마다 센서별 블록으로 기록
+    private static File writeCapture(File file) throws IOException {
+        SensorRingBuffer ap = SensorBuffers.createApBuffer();
+        SensorRingBuffer imu = SensorBuffers.createImuBuffer();
+        try (SensorCaptureWriter writer = new SensorCaptureWriter(file, START_TIMESTAMP, ap, imu)) {
+            for (int minute = 0; minute < MINUTES; minute++) {
+                long from = START_TIMESTAMP + minute * 60_000L;
+                for (int s = 0; s < 60; s++) {
+                    long tick = from + s * 1000L;
+                    ap.beginRow(tick);
+                    ap.setLong(SensorBuffers.AP_BSSID, s % 7 == 0 ? -1L : SensorBuffers.packMac("00:11:22:33:44:" + String.format("%02x", s)));
+                    ap.setFloat(SensorBuffers.AP_LEVEL, -40 - s);
+                    ap.setFloat(SensorBuffers.AP_FREQUENCY, 2412f);
+                    ap.commitRow();
+                    for (int seq = 0; seq < 100; seq++) {
+                        imu.beginRow(tick + seq * 10L);
+                        imu.setLong(SensorBuffers.IMU_SEQ, seq);
+                        imu.setFloat(SensorBuffers.IMU_ACCEL_X, imuValue(tick, seq));
+                        imu.setLong(SensorBuffers.IMU_EVENT_TIME, (tick + seq * 10L) * 1_000_000L);
+                        imu.commitRow();
+                    }
+                }
+                writer.writeBlock(0, ap.window(from, from + 60_000L));
+                writer.writeBlock(1, imu.window(from, from + 60_000L));
+            }
+        }
+        return file;
+    }
+
+    private static float imuValue(long tick, int seq) {
+        return (float) Math.sin((tick - START_TIMESTAMP) / 1000.0 + seq * 0.01);
+    }
+
+    private static void assertCaptureValues(SensorCaptureReader reader) {
+        List<SensorCaptureReader.Block> apBlocks = reader.getBlocks(0);
+        for (int minute = 0; minute < apBlocks.size(); minute++) {
+            SensorCaptureReader.Block block = apBlocks.get(minute);
+            assertEquals(60, block.getRowCount());
+            long from = START_TIMESTAMP + minute * 60_000L;
+            assertEquals(from, block.getFirstTimestamp());
+            assertEquals(from + 59_000L, block.getLastTimestamp());
+            for (int s = 0; s < 60; s++) {
+                assertEquals(from + s * 1000L, block.getTimestamp(s));
+                long expectedMac = s % 7 == 0 ? -1L : SensorBuffers.packMac("00:11:22:33:44:" + String.format("%02x", s));
+                assertEquals(expectedMac, block.getLong(SensorBuffers.AP_BSSID, s));
+                assertEquals(-40f - s, block.getFloat(SensorBuffers.AP_LEVEL, s), 0f);
+            }
+        }
+
+        for (SensorCaptureReader.Block block : reader.getBlocks(1)) {
+            assertEquals(6000, block.getRowCount());
+            for (int row = 0; row < block.getRowCount(); row++) {
+                long timestamp = block.getTimestamp(row);
+                long tick = timestamp - (timestamp - START_TIMESTAMP) % 1000L;
+                int seq = (int) block.getLong(SensorBuffers.IMU_SEQ, row);
+                assertEquals(tick + seq * 10L, timestamp);
+                assertEquals(imuValue(tick, seq), block.getFloat(SensorBuffers.IMU_ACCEL_X, row), 0f);
+                assertEquals(timestamp * 1_000_000L, block.getLong(SensorBuffers.IMU_EVENT_TIME, row));
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.myapplication12345.AI.feature;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication12345.AI.AP.APProcessor;
+import com.example.myapplication12345.AI.BTS.BTSProcessor;
+import com.example.myapplication12345.AI.GPS.GPSProcessor;
+import com.example.myapplication12345.AI.IMU.IMUProcessor;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ModelInputLayoutTest {
+
+    private static FloatBuffer newBuffer(int floats) {
+        return ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    @Test
+    public void columnsFollowTrainingOrder() {
+        // 모델 학습 시 열 순서: AP, BTS, GPS, IMU
+        List<String> expected = new ArrayList<>();
+        expected.addAll(Arrays.asList(APProcessor.FEATURE_NAMES));
+        expected.addAll(Arrays.asList(BTSProcessor.FEATURE_NAMES));
+        expected.addAll(Arrays.asList(GPSProcessor.FEATURE_NAMES));
+        expected.addAll(IMUProcessor.getFeatureNames());
+        FeatureSchema schema = ModelInputLayout.SCHEMA;
+        assertEquals(expected, schema.getNames());
+        assertEquals(340, ModelInputLayout.FEATURE_COUNT);
+
+        int ap = schema.offsetOf(APProcessor.FEATURE_NAMES);
+        int bts = schema.offsetOf(BTSProcessor.FEATURE_NAMES);
+        int gps = schema.offsetOf(GPSProcessor.FEATURE_NAMES);
+        assertEquals(0, ap);
+        assertEquals(ap + APProcessor.FEATURE_NAMES.length, bts);
+        assertEquals(bts + BTSProcessor.FEATURE_NAMES.length, gps);
+        assertEquals(gps + GPSProcessor.FEATURE_NAMES.length, ModelInputLayout.IMU_OFFSET);
+        assertEquals(ModelInputLayout.FEATURE_COUNT, ModelInputLayout.IMU_OFFSET + IMUProcessor.FEATURE_COUNT);
+        for (int f = 0; f < schema.size(); f++) {
+            assertEquals(f, schema.indexOf(schema.nameAt(f)));
+        }
+        assertArrayEquals(new long[]{1, 340, 60}, ModelInputLayout.tensorShape());
+    }
+
+    @Test
+    public void frameIsTimestepMajor() {
+        int features = ModelInputLayout.FEATURE_COUNT;
+        FloatBuffer buffer = newBuffer(features * ModelInputLayout.TIMESTEPS);
+        FeatureFrame frame = ModelInputLayout.newFrame(buffer);
+        assertEquals(features, frame.getFeatureCount());
+        assertEquals(ModelInputLayout.TIMESTEPS, frame.getTimesteps());
+
+        // 값 = t * 1000 + f. 묶음마다 putRow 로 기록
+        float[] row = new float[features];
+        for (int t = 0; t < frame.getTimesteps(); t++) {
+            for (int f = 0; f < features; f++) {
+                row[f] = t * 1000 + f;
+            }
+            frame.putRow(t, 0, row, ModelInputLayout.IMU_OFFSET);
+            double[] imu = new double[IMUProcessor.FEATURE_COUNT];
+            for (int i = 0; i < imu.length; i++) {
+                imu[i] = row[ModelInputLayout.IMU_OFFSET + i];
+            }
+            frame.putRow(t, ModelInputLayout.IMU_OFFSET, imu, imu.length);
+        }
+        for (int i = 0; i < features * frame.getTimesteps(); i++) {
+            assertEquals("index " + i, (float) ((i / features) * 1000 + i % features), buffer.get(i), 0f);
+        }
+        // 이름으로 찾은 위치가 버퍼의 t * 340 + f 와 같음
+        int jerkMean = ModelInputLayout.SCHEMA.indexOf("jerk_mean");
+        assertEquals(7 * 1000 + jerkMean, buffer.get(7 * features + jerkMean), 0f);
+        assertEquals(frame.get(59, features - 1), buffer.get(60 * features - 1), 0f);
+
+        frame.clear();
+        for (int i = 0; i < features * frame.getTimesteps(); i++) {
+            assertEquals(0f, buffer.get(i), 0f);
+        }
+    }
+
+    @Test
+    public void processorWritesOnlyItsNamedColumns() {
+        long start = 1_700_000_000_000L;
+        List<Map<String, Object>> cells = new ArrayList<>();
+        for (int s = 0; s < 60; s++) {
+            for (int c = 0; c < 2 + s % 3; c++) {
+                Map<String, Object> record = new LinkedHashMap<>();
+                record.put("timestamp", start + s * 1000L);
+                record.put("ci", 100 + c + s / 7);
+                record.put("pci", c);
+                cells.add(record);
+            }
+        }
+        FeatureFrame frame = ModelInputLayout.newFrame(newBuffer(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS));
+        assertTrue(BTSProcessor.writeFeatures(cells, start, frame));
+
+        List<Map<String, Object>> windows = BTSProcessor.processBTS(cells, start);
+        FeatureSchema schema = frame.getSchema();
+        int offset = schema.offsetOf(BTSProcessor.FEATURE_NAMES);
+        for (int t = 0; t < frame.getTimesteps(); t++) {
+            Map<String, Object> expected = windows.get(t % windows.size());
+            for (int f = 0; f < schema.size(); f++) {
+                String name = schema.nameAt(f);
+                boolean bts = f >= offset && f < offset + BTSProcessor.FEATURE_NAMES.length;
+                float value = bts ? (Float) expected.get(name) : 0f;
+                assertEquals(t + " " + name, value, frame.get(t, f), 0f);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateNamesAreRejected() {
+        new FeatureSchema(new String[]{"a", "b"}, new String[]{"c", "a"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonContiguousGroupIsRejected() {
+        new FeatureSchema(new String[]{"a", "b", "c"}).offsetOf(new String[]{"a", "c"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void undersizedBufferIsRejected() {
+        ModelInputLayout.newFrame(newBuffer(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS - 1));
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.myapplication12345.AI.feature;
+
+import com.example.myapplication12345.AI.AP.APProcessor;
+import com.example.myapplication12345.AI.BTS.BTSProcessor;
+import com.example.myapplication12345.AI.GPS.GPSProcessor;
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 한 번 훑기로 바꾼 GPS/BTS/AP 구간 집계가 구간마다 입력 전체를 다시 훑던 이전 구현과 같은 특성을 내는지 확인합니다.
+ * 이전 구현은 아래 legacy* 메서드로 옮겨 두었습니다.
+ */
+public class TimeBucketingTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final double SPEED_TOLERANCE = 1e-6; // m/h, 이전 구현은 보정 합산(DoubleStream.average)을 씀
+
+    @Test
+    public void timeBucketsRejectsOutOfRange() {
+        assertEquals(0, TimeBuckets.indexOf(START, START, 5000, 12));
+        assertEquals(1, TimeBuckets.indexOf(START + 5000, START, 5000, 12));
+        assertEquals(11, TimeBuckets.indexOf(START + 59_999, START, 5000, 12));
+        assertEquals(-1, TimeBuckets.indexOf(START + 60_000, START, 5000, 12));
+        assertEquals(-1, TimeBuckets.indexOf(START - 1, START, 5000, 12));
+    }
+
+    @Test
+    public void groupedLongsCountsDistinctAndSymmetricDifference() {
+        GroupedLongs values = new GroupedLongs();
+        values.add(1, 5L);
+        values.add(0, 3L);
+        values.add(1, 5L);
+        values.add(1, -2L);
+        values.add(0, 5L);
+        values.add(0, 3L);
+        values.seal(3);
+
+        assertEquals(2, values.distinctCount(0)); // {3, 5}
+        assertEquals(2, values.distinctCount(1)); // {-2, 5}
+        assertEquals(0, values.distinctCount(2));
+        assertEquals(2, values.symmetricDifference(0, 1));
+        assertEquals(2, values.symmetricDifference(1, 2));
+        assertEquals(0, values.symmetricDifference(0, 0));
+    }
+
+    @Test
+    public void snapshotBackingOnlyForRecordViews() {
+        SensorSnapshot snapshot = SensorBuffers.createBtsBuffer().snapshot();
+        assertTrue(snapshot == SensorSnapshot.backing(snapshot.asRecords()));
+        assertNull(SensorSnapshot.backing(new ArrayList<>()));
+    }
+
+    @Test
+    public void gpsMatchesLegacyOnSnapshotAndMapRecords() {
+        for (long seed = 1; seed <= 20; seed++) {
+            SensorSnapshot snapshot = gpsSnapshot(new Random(seed));
+            assertGpsEquals(legacyProcessGps(snapshot.asRecords(), START), GPSProcessor.processGPS(snapshot.asRecords(), START));
+
+            List<Map<String, Object>> shuffled = copyOf(snapshot.asRecords());
+            Collections.shuffle(shuffled, new Random(seed));
+            assertGpsEquals(legacyProcessGps(shuffled, START), GPSProcessor.processGPS(shuffled, START));
+        }
+    }
+
+    @Test
+    public void btsMatchesLegacyOnSnapshotAndMapRecords() {
+        for (long seed = 1; seed <= 20; seed++) {
+            SensorSnapshot snapshot = btsSnapshot(new Random(seed));
+            assertBtsEquals(legacyProcessBts(snapshot.asRecords(), START), BTSProcessor.processBTS(snapshot.asRecords(), START));
+
+            List<Map<String, Object>> shuffled = copyOf(snapshot.asRecords());
+            Collections.shuffle(shuffled, new Random(seed));
+            shuffled.get(0).put("ci", null);
+            shuffled.get(1).put("pci", null);
+            shuffled.get(2).put("timestamp", 5); // Long 이 아닌 timestamp 는 이전처럼 건너뜀
+            assertBtsEquals(legacyProcessBts(shuffled, START), BTSProcessor.processBTS(shuffled, START));
+        }
+    }
+
+    @Test
+    public void btsKeepsLegacyGroupOrderWhenTimestampsCollideInHashTable() {
+        // 한 구간에 timestamp 가 많으면(13개 이상) 이전 구현의 HashMap 이 커지며 순회 순서가 시간순과 달라짐
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int ms = 0; ms < 5000; ms += 97) {
+            for (int k = 0; k < 1 + ms % 4; k++) {
+                records.add(btsRecord(START + ms, 100 + (ms / 300 + k) % 7, k));
+            }
+        }
+        assertBtsEquals(legacyProcessBts(records, START), BTSProcessor.processBTS(records, START));
+
+        // 16ms 간격 timestamp 는 용량 16 에서 모두 한 칸에 들어가 칸이 길어지면서 용량이 늘어남
+        records.clear();
+        for (int i = 0; i < 11; i++) {
+            for (int k = 0; k <= i % 3; k++) {
+                records.add(btsRecord(START + 20_000 + i * 16L, 200 + (i + k) % 5, k));
+            }
+        }
+        assertBtsEquals(legacyProcessBts(records, START), BTSProcessor.processBTS(records, START));
+    }
+
+    @Test
+    public void btsWriteFeaturesMatchesProcessBts() {
+        SensorSnapshot snapshot = btsSnapshot(new Random(7));
+        FeatureFrame frame = ModelInputLayout.newFrame(FloatBuffer.allocate(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS));
+        assertTrue(BTSProcessor.writeFeatures(snapshot.asRecords(), START, frame));
+        assertFalse(BTSProcessor.writeFeatures(null, START, frame));
+
+        List<Map<String, Object>> expected = legacyProcessBts(snapshot.asRecords(), START);
+        int offset = frame.getSchema().offsetOf(BTSProcessor.FEATURE_NAMES);
+        for (int t = 0; t < frame.getTimesteps(); t++) {
+            Map<String, Object> row = expected.get(t % expected.size());
+            for (int i = 0; i < BTSProcessor.FEATURE_NAMES.length; i++) {
+                assertEquals((float) row.get(BTSProcessor.FEATURE_NAMES[i]), frame.get(t, offset + i), 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    public void packCellKeepsCiAndPciDistinct() {
+        assertTrue(BTSProcessor.packCell(1, 2) != BTSProcessor.packCell(2, 1));
+        assertTrue(BTSProcessor.packCell(0, -1) != BTSProcessor.packCell(-1, -1));
+    }
+
+    @Test
+    public void apMatchesLegacyOnSnapshotAndMapRecords() {
+        for (long seed = 1; seed <= 20; seed++) {
+            SensorSnapshot snapshot = apSnapshot(new Random(seed));
+            assertEquals(legacyProcessAp(snapshot.asRecords(), START), APProcessor.processAP(snapshot.asRecords(), START));
+
+            List<Map<String, Object>> shuffled = copyOf(snapshot.asRecords());
+            Collections.shuffle(shuffled, new Random(seed));
+            assertEquals(legacyProcessAp(shuffled, START), APProcessor.processAP(shuffled, START));
+        }
+    }
+
+    @Test
+    public void apWithoutRecordsInRangeReportsZero() {
+        List<Map<String, Object>> records = new ArrayList<>();
+        Map<String, Object> late = new LinkedHashMap<>();
+        late.put("timestamp", START + 10 * 60_000L);
+        late.put("bssid", "00:11:22:33:44:55");
+        records.add(late);
+
+        List<Map<String, Object>> result = APProcessor.processAP(records, START);
+        assertEquals(legacyProcessAp(records, START), result);
+        assertEquals(0, result.get(0).get("wifi_cnt"));
+    }
+
+    @Test
+    public void apCountsMalformedBssidsAsDistinctStrings() {
+        // 무작위·비정상 BSSID 는 MAC 으로 풀리지 않아도 문자열마다 다른 AP 로 셈 (이전 구현과 같음)
+        String[] bssids = {"00:11:22:33:44:55", "00:11:22:33:44:55", "<unknown ssid>", "02:00:00:00:00:0g",
+                "<unknown ssid>", "", null, null, "0011.2233.4455"};
+        List<Map<String, Object>> records = new ArrayList<>();
+        SensorRingBuffer buffer = SensorBuffers.createApBuffer();
+        for (int i = 0; i < bssids.length; i++) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("timestamp", START + i * 1000L);
+            record.put("bssid", bssids[i]);
+            records.add(record);
+            buffer.beginRow(START + i * 1000L);
+            buffer.setLong(SensorBuffers.AP_BSSID, SensorBuffers.bssidKey(bssids[i]));
+            buffer.commitRow();
+        }
+        Map<String, Object> missing = new LinkedHashMap<>(); // bssid 키 없음 → "N/A"
+        missing.put("timestamp", START + 30_000L);
+        records.add(missing);
+
+        // 고유 문자열: MAC, "<unknown ssid>", "...0g", "", null, "0011.2233.4455", "N/A"
+        List<Map<String, Object>> result = APProcessor.processAP(records, START);
+        assertEquals(legacyProcessAp(records, START), result);
+        assertEquals(7, result.get(0).get("wifi_cnt"));
+        // 링 버퍼 열에서 바로 세어도 같음 ("N/A" 행 제외)
+        assertEquals(6, APProcessor.processAP(buffer.snapshot().asRecords(), START).get(0).get("wifi_cnt"));
+
+        assertEquals(SensorBuffers.packMac("00:11:22:33:44:55"), SensorBuffers.bssidKey("00:11:22:33:44:55"));
+        assertEquals(-1L, SensorBuffers.bssidKey(null));
+        assertTrue(SensorBuffers.bssidKey("<unknown ssid>") < -1L);
+        assertNull(SensorSnapshot.formatMac(SensorBuffers.bssidKey("<unknown ssid>")));
+    }
+
+    // --- 입력 생성 ---
+
+    private static SensorSnapshot gpsSnapshot(Random random) {
+        SensorRingBuffer buffer = SensorBuffers.createGpsBuffer();
+        double lat = 37.5665, lon = 126.9780;
+        for (int s = 0; s < 62; s++) {
+            if (random.nextInt(6) == 0) continue; // 구간에 점이 하나뿐이거나 없는 경우
+            int fixes = random.nextInt(4) == 0 ? 2 : 1; // 같은 시각의 점 (속도 계산에서 빠짐)
+            for (int k = 0; k < fixes; k++) {
+                lat += random.nextGaussian() * 1e-4;
+                lon += random.nextGaussian() * 1e-4;
+                buffer.beginRow(START + s * 1000L + (k == 0 ? random.nextInt(900) : 0));
+                buffer.setDouble(SensorBuffers.GPS_LATITUDE, lat);
+                buffer.setDouble(SensorBuffers.GPS_LONGITUDE, lon);
+                buffer.setFloat(SensorBuffers.GPS_ACCURACY, 5f);
+                buffer.commitRow();
+            }
+        }
+        return buffer.snapshot();
+    }
+
+    private static SensorSnapshot btsSnapshot(Random random) {
+        SensorRingBuffer buffer = SensorBuffers.createBtsBuffer();
+        for (int s = -1; s < 61; s++) {
+            int scans = 1 + random.nextInt(3); // 1초에 여러 번 조회된 경우
+            for (int scan = 0; scan < scans; scan++) {
+                long timestamp = START + s * 1000L + random.nextInt(1000);
+                int cells = random.nextInt(5);
+                for (int k = 0; k < cells; k++) {
+                    buffer.beginRow(timestamp);
+                    buffer.setLong(SensorBuffers.BTS_CI, 1000 + s / 7 + random.nextInt(4));
+                    buffer.setLong(SensorBuffers.BTS_PCI, random.nextInt(3));
+                    buffer.commitRow();
+                }
+            }
+        }
+        return buffer.snapshot();
+    }
+
+    private static SensorSnapshot apSnapshot(Random random) {
+        SensorRingBuffer buffer = SensorBuffers.createApBuffer();
+        for (int s = -5; s < 600; s += 1 + random.nextInt(20)) {
+            int visible = random.nextInt(4);
+            for (int k = 0; k < visible; k++) {
+                buffer.beginRow(START + s * 1000L);
+                buffer.setLong(SensorBuffers.AP_BSSID, random.nextInt(8) == 0 ? -1L : 0x0011_2233_4400L + random.nextInt(12));
+                buffer.setFloat(SensorBuffers.AP_LEVEL, -60f);
+                buffer.setFloat(SensorBuffers.AP_FREQUENCY, 2412f);
+                buffer.commitRow();
+            }
+        }
+        return buffer.snapshot();
+    }
+
+    private static Map<String, Object> btsRecord(long timestamp, int ci, int pci) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("timestamp", timestamp);
+        record.put("ci", ci);
+        record.put("pci", pci);
+        return record;
+    }
+
+    // 스냅샷 뷰를 수정 가능한 일반 Map 레코드로 복사 (Map 경로 확인용)
+    private static List<Map<String, Object>> copyOf(List<Map<String, Object>> records) {
+        List<Map<String, Object>> copy = new ArrayList<>();
+        for (Map<String, Object> record : records) {
+            copy.add(new LinkedHashMap<>(record));
+        }
+        return copy;
+    }
+
+    private static void assertGpsEquals(List<Map<String, Object>> expected, List<Map<String, Object>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int w = 0; w < expected.size(); w++) {
+            assertEquals(expected.get(w).get("timestamp"), actual.get(w).get("timestamp"));
+            for (String name : GPSProcessor.FEATURE_NAMES) {
+                double value = (double) expected.get(w).get(name);
+                assertEquals(name + " @" + w, value, (double) actual.get(w).get(name), SPEED_TOLERANCE * Math.max(1.0, Math.abs(value)));
+            }
+        }
+    }
+
+    private static void assertBtsEquals(List<Map<String, Object>> expected, List<Map<String, Object>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int w = 0; w < expected.size(); w++) {
+            assertNotNull(actual.get(w));
+            assertEquals(expected.get(w).get("timestamp"), actual.get(w).get("timestamp"));
+            for (String name : BTSProcessor.FEATURE_NAMES) {
+                assertEquals(name + " @" + w, (float) expected.get(w).get(name), (float) actual.get(w).get(name), 1e-6f);
+            }
+        }
+    }
+
+    // --- 이전 구현 (구간마다 전체 입력을 다시 훑음) ---
+
+    private static List<Map<String, Object>> legacyProcessGps(List<Map<String, Object>> gpsData, long start) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (long cur = start; cur < start + 60_000; cur += 5000) {
+            final long from = cur;
+            List<Map<String, Object>> current = gpsData.stream()
+                    .filter(r -> ((Number) r.get("timestamp")).longValue() >= from && ((Number) r.get("timestamp")).longValue() < from + 5000)
+                    .collect(Collectors.toList());
+            List<Double> speeds = new ArrayList<>();
+            Map<String, Object> prev = null;
+            for (Map<String, Object> row : current) {
+                if (prev != null) {
+                    double meters = GPSProcessor.haversineDistance(((Number) prev.get("latitude")).doubleValue(),
+                            ((Number) prev.get("longitude")).doubleValue(), ((Number) row.get("latitude")).doubleValue(),
+                            ((Number) row.get("longitude")).doubleValue()) * 1000.0;
+                    double timeDiff = ((Number) row.get("timestamp")).longValue() - ((Number) prev.get("timestamp")).longValue();
+                    if (timeDiff > 0) {
+                        speeds.add((meters / timeDiff) * 3600000.0);
+                    }
+                }
+                prev = row;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("timestamp", cur);
+            if (current.size() < 2 || speeds.isEmpty()) {
+                for (String name : GPSProcessor.FEATURE_NAMES) result.put(name, -1.0);
+            } else {
+                double mean = speeds.stream().mapToDouble(d -> d).average().orElse(-1.0);
+                result.put("speed_min", Collections.min(speeds));
+                result.put("speed_max", Collections.max(speeds));
+                result.put("speed_mean", mean);
+                result.put("speed_std", Math.sqrt(speeds.stream().mapToDouble(d -> Math.pow(d - mean, 2)).average().orElse(0.0)));
+            }
+            out.add(result);
+        }
+        return out;
+    }
+
+    private static List<Map<String, Object>> legacyProcessBts(List<Map<String, Object>> btsData, long start) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (long cur = start; cur < start + 60_000; cur += 5000) {
+            final long from = cur;
+            List<Set<String>> uniqs = new ArrayList<>(btsData.stream()
+                    .filter(r -> r.get("timestamp") instanceof Long
+                            && (long) r.get("timestamp") >= from && (long) r.get("timestamp") < from + 5000)
+                    .collect(Collectors.groupingBy(r -> (long) r.get("timestamp"), Collectors.mapping(r -> {
+                        String ci = r.get("ci") == null ? "null_ci" : String.valueOf(r.get("ci"));
+                        String pci = r.get("pci") == null ? "null_pci" : String.valueOf(r.get("pci"));
+                        return ci + "_" + pci;
+                    }, Collectors.toSet())))
+                    .values());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("timestamp", cur);
+            if (uniqs.size() < 2) {
+                for (String name : BTSProcessor.FEATURE_NAMES) result.put(name, -1f);
+                out.add(result);
+                continue;
+            }
+            List<Integer> jerks = new ArrayList<>();
+            for (int i = 1; i < uniqs.size(); i++) {
+                Set<String> before = uniqs.get(i - 1);
+                Set<String> uniq = uniqs.get(i);
+                jerks.add((int) (before.stream().filter(e -> !uniq.contains(e)).count()
+                        + uniq.stream().filter(e -> !before.contains(e)).count()));
+            }
+            Set<String> all = new HashSet<>();
+            uniqs.forEach(all::addAll);
+            double mean = jerks.stream().mapToInt(Integer::intValue).average().orElse(-1.0);
+            result.put("total", (float) all.size());
+            result.put("jerk_min", (float) Collections.min(jerks));
+            result.put("jerk_max", (float) Collections.max(jerks));
+            result.put("jerk_mean", (float) mean);
+            result.put("jerk_std", (float) Math.sqrt(jerks.stream().mapToDouble(j -> Math.pow(j - mean, 2)).average().orElse(0.0)));
+            out.add(result);
+        }
+        return out;
+    }
+
+    private static List<Map<String, Object>> legacyProcessAp(List<Map<String, Object>> apData, long start) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (long cur = start; cur < start + 600_000; cur += 60_000) {
+            Set<String> bssids = new HashSet<>();
+            for (Map<String, Object> record : apData) {
+                long timestamp = (long) record.get("timestamp");
+                if (timestamp >= cur && timestamp < cur + 60_000) {
+                    bssids.add((String) record.getOrDefault("bssid", "N/A"));
+                }
+            }
+            if (!bssids.isEmpty()) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("timestamp", cur);
+                result.put("wifi_cnt", bssids.size());
+                out.add(result);
+            }
+        }
+        if (out.isEmpty()) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("timestamp", start);
+            result.put("wifi_cnt", 0);
+            out.add(result);
+        }
+        return out;
+    }
+}
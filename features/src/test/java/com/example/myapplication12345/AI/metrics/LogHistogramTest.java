@@ -0,0 +1,46 @@
+package com.example.myapplication12345.AI.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LogHistogramTest {
+
+    @Test
+    public void bucketsCoverValuesContiguously() {
+        for (long value = 0; value < 100_000; value++) {
+            int index = LogHistogram.indexOf(value);
+            assertTrue(value + " 이 구간 상한을 넘음", value <= LogHistogram.upperBound(index));
+            assertTrue(value + " 이 이전 구간에 들어가야 함", index == 0 || value > LogHistogram.upperBound(index - 1));
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinRelativeError() {
+        LogHistogram histogram = new LogHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500.0, histogram.getMean(), 1e-6);
+        assertEquals(1000_000, histogram.getMax());
+        assertEquals(500_000, histogram.valueAt(50), 500_000 / 16.0);
+        assertEquals(950_000, histogram.valueAt(95), 950_000 / 16.0);
+        assertEquals(1000_000, histogram.valueAt(100));
+        assertTrue(histogram.valueAt(50) >= 500_000);
+    }
+
+    @Test
+    public void emptyAndResetHistogramReportsZero() {
+        LogHistogram histogram = new LogHistogram();
+        assertEquals(0, histogram.valueAt(99));
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getMin());
+        assertEquals(Long.MAX_VALUE, histogram.valueAt(100));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.myapplication12345.AI.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication12345.AI.metrics.PipelineMetrics.Counter;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics.Stage;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PipelineMetricsTest {
+
+    @Test
+    public void minuteTickComputesRatesAndAllocation() {
+        AtomicLong allocated = new AtomicLong(1_000_000);
+        PipelineMetrics metrics = new PipelineMetrics(allocated::get);
+        assertFalse(metrics.tick(0));
+        assertEquals(PipelineMetrics.UNAVAILABLE, metrics.getLastMinuteAllocatedBytes());
+
+        for (int second = 1; second < 60; second++) {
+            metrics.add(Counter.IMU_SAMPLES, 100);
+            metrics.increment(Counter.GPS_ROWS);
+            assertFalse(metrics.tick(second * 1000L));
+        }
+        metrics.add(Counter.IMU_SAMPLES, 100);
+        metrics.increment(Counter.GPS_ROWS);
+        allocated.addAndGet(4_000_000);
+        assertTrue(metrics.tick(60_000));
+
+        assertEquals(100.0, metrics.getLastMinuteRate(Counter.IMU_SAMPLES), 1e-9);
+        assertEquals(1.0, metrics.getLastMinuteRate(Counter.GPS_ROWS), 1e-9);
+        assertEquals(6000, metrics.getCount(Counter.IMU_SAMPLES));
+        assertEquals(4_000_000, metrics.getLastMinuteAllocatedBytes());
+        assertEquals(1, metrics.getAllocationPerMinute().getCount());
+    }
+
+    @Test
+    public void lateTickIsNormalizedToOneMinute() {
+        AtomicLong allocated = new AtomicLong(0);
+        PipelineMetrics metrics = new PipelineMetrics(allocated::get);
+        metrics.tick(0);
+        metrics.add(Counter.WINDOWS, 12);
+        allocated.set(6_000_000);
+        assertTrue(metrics.tick(120_000)); // 기기가 잠들어 2분 뒤에 호출
+        assertEquals(0.1, metrics.getLastMinuteRate(Counter.WINDOWS), 1e-9);
+        assertEquals(3_000_000, metrics.getLastMinuteAllocatedBytes());
+    }
+
+    @Test
+    public void reportListsStagesAndModelsAndDumpsToFile() throws Exception {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.record(Stage.TENSOR_BUILD, 2_000_000);
+        metrics.recordModelForward("model1", 30_000_000);
+        metrics.recordModelForward("model0", 20_000_000);
+        assertEquals(1, metrics.getStage(Stage.TENSOR_BUILD).getCount());
+
+        String report = metrics.report();
+        assertTrue(report, report.contains("tensor build"));
+        assertTrue(report, report.indexOf("forward model0") < report.indexOf("forward model1"));
+        assertTrue(report, report.contains("분당 할당: -"));
+
+        File file = new File(Files.createTempDirectory("metrics").toFile(), "out/pipeline_metrics.txt");
+        metrics.dump(file);
+        assertEquals(report, new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.myapplication12345.AI.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ModelFileCacheTest {
+
+    private static final String MODEL = "model/test.ptl";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Map<String, byte[]> assets = new HashMap<>();
+    private int modelOpens;
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        byte[] model = new byte[300_000];
+        new Random(5).nextBytes(model);
+        assets.put(MODEL, model);
+        directory = temp.newFolder("files");
+    }
+
+    private ModelFileCache cache(String stamp) {
+        return new ModelFileCache(directory, stamp, path -> {
+            byte[] bytes = assets.get(path);
+            if (bytes == null) {
+                throw new FileNotFoundException(path);
+            }
+            if (path.equals(MODEL)) {
+                modelOpens++;
+            }
+            return new ByteArrayInputStream(bytes);
+        });
+    }
+
+    @Test
+    public void extractsOncePerStamp() throws IOException {
+        File file = cache("v1").get(MODEL);
+        assertEquals(new File(directory, MODEL), file);
+        assertArrayEquals(assets.get(MODEL), Files.readAllBytes(file.toPath()));
+        assertEquals(1, modelOpens);
+
+        cache("v1").get(MODEL);
+        assertEquals(1, modelOpens);
+
+        // 앱 업데이트 등으로 스탬프가 바뀌면 다시 추출
+        cache("v2").get(MODEL);
+        assertEquals(2, modelOpens);
+        assertFalse(new File(directory, MODEL + ".tmp").exists());
+    }
+
+    @Test
+    public void truncatedFileIsExtractedAgain() throws IOException {
+        File file = cache("v1").get(MODEL);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(1000);
+        }
+
+        cache("v1").get(MODEL);
+        assertEquals(2, modelOpens);
+        assertArrayEquals(assets.get(MODEL), Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void shippedChecksumIsVerified() throws IOException {
+        File reference = temp.newFile("reference");
+        Files.write(reference.toPath(), assets.get(MODEL));
+        String checksum = ModelFileCache.checksumOf(reference);
+
+        assets.put(MODEL + ModelFileCache.CHECKSUM_SUFFIX, (checksum + "  test.ptl\n").getBytes(StandardCharsets.UTF_8));
+        cache("v1").get(MODEL);
+
+        assets.put(MODEL + ModelFileCache.CHECKSUM_SUFFIX, "0000\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            cache("v2").get(MODEL);
+            fail("checksum mismatch should fail");
+        } catch (IOException expected) {
+            // 잘못된 파일은 남기지 않음
+            assertFalse(new File(directory, MODEL + ".tmp").exists());
+        }
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void missingAssetIsReported() throws IOException {
+        cache("v1").get("model/missing.ptl");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.myapplication12345.AI.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ModelVariantTest {
+
+    private static final long GB = 1024L * 1024 * 1024;
+
+    @Test
+    public void assetPathsFollowNamingRule() {
+        String model = "model/epoch=72-step=18177_ver1_optimized.ptl";
+        assertEquals(model, ModelVariant.FLOAT.assetPath(model));
+        assertEquals("model/epoch=72-step=18177_ver1_int8_dynamic.ptl", ModelVariant.INT8_DYNAMIC.assetPath(model));
+        assertEquals("model/epoch=72-step=18177_ver1_int8_static.ptl", ModelVariant.INT8_STATIC.assetPath(model));
+        assertEquals("model/ensemble_fused_int8_static.ptl", ModelVariant.INT8_STATIC.assetPath("model/ensemble_fused.ptl"));
+    }
+
+    @Test
+    public void deviceClassPicksVariant() {
+        assertEquals(ModelVariant.INT8_STATIC, ModelVariant.forDevice(2 * GB, false));
+        assertEquals(ModelVariant.INT8_STATIC, ModelVariant.forDevice(8 * GB, true));
+        assertEquals(ModelVariant.INT8_DYNAMIC, ModelVariant.forDevice(4 * GB, false));
+        assertEquals(ModelVariant.FLOAT, ModelVariant.forDevice(8 * GB, false));
+    }
+
+    @Test
+    public void fallbacksEndWithFloat() {
+        assertArrayEquals(new ModelVariant[]{ModelVariant.INT8_STATIC, ModelVariant.INT8_DYNAMIC, ModelVariant.FLOAT},
+                ModelVariant.INT8_STATIC.fallbacks());
+        assertArrayEquals(new ModelVariant[]{ModelVariant.FLOAT}, ModelVariant.FLOAT.fallbacks());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.myapplication12345.AI.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class VariantComparisonTest {
+
+    private static float[] oneHot(int index) {
+        float[] probabilities = new float[3];
+        probabilities[index] = 1f;
+        return probabilities;
+    }
+
+    @Test
+    public void reportsAgreementAccuracyAndLatency() {
+        VariantComparison comparison = new VariantComparison("float", "int8", 3);
+        // 정답 0 두 개, 정답 2 두 개. 양자화 모델은 마지막 입력만 다르게 예측
+        comparison.add(0, oneHot(0), 10_000_000L, oneHot(0), 4_000_000L);
+        comparison.add(0, oneHot(1), 20_000_000L, oneHot(1), 5_000_000L);
+        comparison.add(2, oneHot(2), 30_000_000L, oneHot(2), 6_000_000L);
+        comparison.add(2, oneHot(2), 40_000_000L, oneHot(0), 7_000_000L);
+        comparison.setResidentBytes(40L << 20, 12L << 20);
+
+        assertEquals(0.75, comparison.getAgreement(), 1e-9);
+        VariantComparison.Stats reference = comparison.getReference();
+        VariantComparison.Stats candidate = comparison.getCandidate();
+        assertEquals(0.5, reference.accuracy(0), 1e-9);
+        assertEquals(1.0, reference.accuracy(2), 1e-9);
+        assertEquals(0.5, candidate.accuracy(2), 1e-9);
+        assertEquals(-1.0, candidate.accuracy(1), 0.0);
+        assertEquals(0.5, candidate.accuracy(), 1e-9);
+
+        assertEquals(20.0, reference.latencyMillis(50), 1e-9);
+        assertEquals(40.0, reference.latencyMillis(95), 1e-9);
+        assertEquals(5.0, candidate.latencyMillis(50), 1e-9);
+        assertEquals(12L << 20, candidate.getResidentBytes());
+        assertTrue(comparison.report().contains("1위 일치 3/4"));
+    }
+
+    @Test
+    public void failedPredictionCountsAsWrongButNotCompared() {
+        VariantComparison comparison = new VariantComparison("float", "int8", 3);
+        comparison.add(1, oneHot(1), 1L, null, 1L);
+        assertEquals(-1.0, comparison.getAgreement(), 0.0);
+        assertEquals(0.0, comparison.getCandidate().accuracy(1), 0.0);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+public class CachingClassifierTest {
+
+    private static final int LENGTH = ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS;
+
+    private FeatureFrame frame;
+    private float[] base;
+    private int predictions;
+    private float[] nextResult;
+
+    @Before
+    public void setUp() {
+        FloatBuffer buffer = ByteBuffer.allocateDirect(LENGTH * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        frame = ModelInputLayout.newFrame(buffer);
+        base = new float[LENGTH];
+        Random random = new Random(9);
+        for (int i = 0; i < LENGTH; i++) {
+            base[i] = (float) random.nextGaussian();
+        }
+        nextResult = new float[]{0.1f, 0.9f};
+    }
+
+    private final TransportClassifier delegate = input -> {
+        predictions++;
+        return nextResult == null ? null : nextResult.clone();
+    };
+
+    // base 에 상대 크기 scale 의 잡음을 더한 입력
+    private void fill(float scale, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < LENGTH; i++) {
+            frame.getBuffer().put(i, base[i] + scale * (float) random.nextGaussian());
+        }
+    }
+
+    @Test
+    public void nearDuplicateReusesResult() {
+        CachingClassifier cache = new CachingClassifier(delegate, 4, 0.02f, 6);
+        fill(0f, 1);
+        assertArrayEquals(new float[]{0.1f, 0.9f}, cache.predict(frame), 0f);
+
+        nextResult = new float[]{0.8f, 0.2f};
+        fill(0.005f, 2); // 상대 거리 약 0.005
+        assertArrayEquals(new float[]{0.1f, 0.9f}, cache.predict(frame), 0f);
+        assertEquals(1, predictions);
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void differentInputIsPredicted() {
+        CachingClassifier cache = new CachingClassifier(delegate, 4, 0.02f, 6);
+        fill(0f, 1);
+        cache.predict(frame);
+        fill(0.2f, 3);
+        cache.predict(frame);
+        assertEquals(2, predictions);
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void reuseIsBoundedAndRefreshRecordsDrift() {
+        CachingClassifier cache = new CachingClassifier(delegate, 4, 0.02f, 2);
+        fill(0f, 1);
+        cache.predict(frame);
+        cache.predict(frame);
+        cache.predict(frame);
+        assertEquals(1, predictions);
+
+        // 재사용 두 번을 다 쓰면 다시 추론
+        nextResult = new float[]{0.7f, 0.3f};
+        assertArrayEquals(new float[]{0.7f, 0.3f}, cache.predict(frame), 0f);
+        assertEquals(2, predictions);
+        assertEquals(1, cache.getRefreshCount());
+        assertEquals(1, cache.getRefreshTopChangeCount());
+        assertEquals(0.6f, cache.getMaxRefreshDrift(), 1e-6f);
+
+        // 새로 고친 결과를 다시 재사용
+        assertArrayEquals(new float[]{0.7f, 0.3f}, cache.predict(frame), 0f);
+        assertEquals(2, predictions);
+    }
+
+    @Test
+    public void smallFeatureChangeIsNotReused() {
+        // 피처 0 은 기압처럼 값이 큼. 원래 값으로 비교하면 피처 1 의 변화가 전체 거리에 거의 드러나지 않음
+        int features = ModelInputLayout.FEATURE_COUNT;
+        for (int t = 0; t < ModelInputLayout.TIMESTEPS; t++) {
+            base[t * features] = 1013.25f + 0.01f * t;
+        }
+        CachingClassifier cache = new CachingClassifier(delegate, 4, 0.02f, 6);
+        fill(0f, 1);
+        cache.predict(frame);
+
+        fill(0f, 1);
+        for (int t = 0; t < ModelInputLayout.TIMESTEPS; t++) {
+            frame.put(t, 1, frame.get(t, 1) * 0.7f);
+        }
+        cache.predict(frame);
+        assertEquals(2, predictions);
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void failedPredictionIsNotCached() {
+        CachingClassifier cache = new CachingClassifier(delegate, 4, 0.02f, 6);
+        nextResult = null;
+        fill(0f, 1);
+        assertNull(cache.predict(frame));
+        assertNull(cache.predict(frame));
+        assertEquals(2, predictions);
+    }
+
+    @Test
+    public void nearbyInputsHaveCloseSignatures() {
+        fill(0f, 1);
+        float[] scales = CachingClassifier.featureScales(frame.getBuffer(), ModelInputLayout.FEATURE_COUNT, LENGTH);
+        int first = CachingClassifier.signature(frame.getBuffer(), scales, LENGTH);
+        fill(0.005f, 2);
+        scales = CachingClassifier.featureScales(frame.getBuffer(), ModelInputLayout.FEATURE_COUNT, LENGTH);
+        int second = CachingClassifier.signature(frame.getBuffer(), scales, LENGTH);
+        assertTrue(Integer.bitCount(first ^ second) <= CachingClassifier.MAX_SIGNATURE_DISTANCE);
+    }
+}
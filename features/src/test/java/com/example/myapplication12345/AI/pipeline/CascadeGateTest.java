@@ -0,0 +1,63 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CascadeGateTest {
+
+    @Test
+    public void acceptsOnlyConfidentAndSeparatedTopClass() {
+        CascadeGate gate = new CascadeGate(0.9f, 0.6f, 0);
+        assertTrue(gate.accepts(new float[]{0.02f, 0.95f, 0.03f}));
+        // 1위 확률이 낮음
+        assertFalse(gate.accepts(new float[]{0.15f, 0.85f, 0.0f}));
+        // 1위와 2위 차이가 작음 (1위 확률은 임계값 이상)
+        assertFalse(new CascadeGate(0.5f, 0.6f, 0).accepts(new float[]{0.35f, 0.6f, 0.05f}));
+        assertFalse(gate.accepts(null));
+    }
+
+    @Test
+    public void defaultThresholdsBothReject() {
+        CascadeGate gate = new CascadeGate();
+        // 차이 임계값이 1위 확률 조건에 포함되지 않아야 함
+        assertTrue(CascadeGate.DEFAULT_MIN_MARGIN > 2 * CascadeGate.DEFAULT_MIN_TOP_PROBABILITY - 1);
+        assertTrue(gate.accepts(new float[]{0.9f, 0.05f, 0.05f}));
+        // 1위 확률은 충분하지만 2위와 차이가 작음
+        assertFalse(gate.accepts(new float[]{0.86f, 0.12f, 0.02f}));
+        // 차이는 충분하지만 1위 확률이 낮음
+        assertFalse(gate.accepts(new float[]{0.8f, 0.04f, 0.04f, 0.04f, 0.04f, 0.04f}));
+    }
+
+    @Test
+    public void auditsEveryIntervalAndTracksAgreement() {
+        CascadeGate gate = new CascadeGate(0.9f, 0.6f, 3);
+        assertFalse(gate.recordEarlyExit());
+        assertFalse(gate.recordEarlyExit());
+        assertTrue(gate.recordEarlyExit());
+        gate.recordAudit(new float[]{0.95f, 0.05f}, new float[]{0.7f, 0.3f});
+        assertFalse(gate.recordEarlyExit());
+        assertFalse(gate.recordEarlyExit());
+        assertTrue(gate.recordEarlyExit());
+        gate.recordAudit(new float[]{0.95f, 0.05f}, new float[]{0.4f, 0.6f});
+        gate.recordFullRun();
+        gate.recordFullRun();
+
+        assertEquals(6, gate.getEarlyExitCount());
+        assertEquals(2, gate.getFullRunCount());
+        assertEquals(0.75, gate.getEarlyExitRate(), 1e-9);
+        assertEquals(2, gate.getAuditCount());
+        assertEquals(0.5, gate.getAgreementRate(), 1e-9);
+    }
+
+    @Test
+    public void failedEnsembleIsNotCountedAsAudit() {
+        CascadeGate gate = new CascadeGate();
+        gate.recordAudit(new float[]{1f, 0f}, null);
+        assertEquals(0, gate.getAuditCount());
+        assertEquals(-1.0, gate.getAgreementRate(), 0.0);
+        assertEquals(1, CascadeGate.argMax(new float[]{0.1f, 0.8f, 0.8f}));
+    }
+}
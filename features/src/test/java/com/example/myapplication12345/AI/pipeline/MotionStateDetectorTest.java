@@ -0,0 +1,68 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MotionStateDetectorTest {
+
+    private static final float QUIET_ACCEL = 0.05f;
+    private static final float QUIET_GYRO = 0.01f;
+
+    private static int quietSeconds(MotionStateDetector detector, int seconds) {
+        int changes = 0;
+        for (int i = 0; i < seconds; i++) {
+            if (detector.onSecond(QUIET_ACCEL, QUIET_GYRO, 0f)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    @Test
+    public void becomesStationaryOnlyAfterQuietPeriod() {
+        MotionStateDetector detector = new MotionStateDetector();
+        assertEquals(0, quietSeconds(detector, MotionStateDetector.STILL_SECONDS_TO_SLEEP - 1));
+        assertFalse(detector.isStationary());
+
+        assertTrue(detector.onSecond(QUIET_ACCEL, QUIET_GYRO, 0f));
+        assertEquals(MotionStateDetector.State.STATIONARY, detector.getState());
+        assertEquals(0, quietSeconds(detector, 600));
+    }
+
+    @Test
+    public void motionRestartsQuietCount() {
+        MotionStateDetector detector = new MotionStateDetector();
+        quietSeconds(detector, MotionStateDetector.STILL_SECONDS_TO_SLEEP - 1);
+        assertFalse(detector.onSecond(1.5f, QUIET_GYRO, 0f));
+        assertEquals(0, quietSeconds(detector, MotionStateDetector.STILL_SECONDS_TO_SLEEP - 1));
+        assertFalse(detector.isStationary());
+    }
+
+    @Test
+    public void singleBumpDoesNotWakeButSustainedMotionDoes() {
+        MotionStateDetector detector = new MotionStateDetector();
+        quietSeconds(detector, MotionStateDetector.STILL_SECONDS_TO_SLEEP);
+        assertTrue(detector.isStationary());
+
+        assertFalse(detector.onSecond(QUIET_ACCEL, 0.8f, 0f)); // 책상 위에서 한 번 건드림
+        quietSeconds(detector, 5);
+        assertTrue(detector.isStationary());
+
+        assertFalse(detector.onSecond(2.0f, 0.5f, 0f));
+        assertTrue(detector.onSecond(2.0f, 0.5f, 0f));
+        assertEquals(MotionStateDetector.State.MOVING, detector.getState());
+    }
+
+    @Test
+    public void gpsSpeedKeepsSmoothRideMoving() {
+        // 고속도로 주행처럼 IMU 가 조용해도 GPS 속도가 있으면 정지로 보지 않음
+        MotionStateDetector detector = new MotionStateDetector();
+        for (int i = 0; i < MotionStateDetector.STILL_SECONDS_TO_SLEEP * 2; i++) {
+            assertFalse(detector.onSecond(QUIET_ACCEL, QUIET_GYRO, 25f));
+        }
+        assertFalse(detector.isStationary());
+    }
+}
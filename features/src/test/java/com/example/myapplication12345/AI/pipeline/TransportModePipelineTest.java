@@ -0,0 +1,93 @@
+package com.example.myapplication12345.AI.pipeline;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer.ColumnType;
+import com.example.myapplication12345.AI.buffer.SensorSnapshot;
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+import com.example.myapplication12345.AI.metrics.PipelineMetrics;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransportModePipelineTest {
+
+    private static final long SECOND_MS = 1_000L;
+
+    @Test
+    public void skippedWindowSecondsAreCarriedIntoNextWindow() {
+        List<Long> segmentStarts = new ArrayList<>();
+        PipelineMetrics metrics = new PipelineMetrics();
+        TransportModePipeline pipeline = new TransportModePipeline(
+                ByteBuffer.allocateDirect(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS * Float.BYTES)
+                        .order(ByteOrder.nativeOrder()).asFloatBuffer(),
+                null,
+                (mode, distance, start, startLat, startLon, endLat, endLon) -> segmentStarts.add(start),
+                metrics);
+
+        SensorRingBuffer gps = new SensorRingBuffer("gps", 64,
+                new String[]{"latitude", "longitude", "accuracy"},
+                new ColumnType[]{ColumnType.DOUBLE, ColumnType.DOUBLE, ColumnType.FLOAT});
+        SensorRingBuffer ap = SensorBuffers.createApBuffer();
+        SensorRingBuffer bts = SensorBuffers.createBtsBuffer();
+        SensorRingBuffer imu = SensorBuffers.createImuBuffer();
+
+        writeGps(gps, 0, 60);
+        writeImu(imu, 0, 80);
+        process(pipeline, gps, ap, bts, imu, 0, 60);
+
+        // 두 번째 윈도우는 처리 전에 수집이 앞서 나가 구간 첫 행이 덮어쓰임
+        long from = 10 * SECOND_MS;
+        SensorSnapshot stale = gps.window(from, from + 60 * SECOND_MS);
+        writeGps(gps, 60, 20);
+        pipeline.processWindow(stale, ap.window(from, from + 60 * SECOND_MS), bts.window(from, from + 60 * SECOND_MS),
+                imu.window(from, from + 60 * SECOND_MS), 10);
+        assertEquals(1, metrics.getCount(PipelineMetrics.Counter.SKIPPED_WINDOWS));
+
+        process(pipeline, gps, ap, bts, imu, 20, 10);
+        pipeline.flushSegments();
+
+        // 건너뛴 10초(60..69)도 저장되어 0..79초가 빈 곳 없이 10초 세그먼트 8개로 이어짐
+        List<Long> expected = new ArrayList<>();
+        for (long second = 0; second < 80; second += 10) {
+            expected.add(second * SECOND_MS);
+        }
+        assertEquals(expected, segmentStarts);
+    }
+
+    private static void process(TransportModePipeline pipeline, SensorRingBuffer gps, SensorRingBuffer ap,
+                                SensorRingBuffer bts, SensorRingBuffer imu, long fromSecond, int newSeconds) {
+        long from = fromSecond * SECOND_MS;
+        long to = from + 60 * SECOND_MS;
+        pipeline.processWindow(gps.window(from, to), ap.window(from, to), bts.window(from, to), imu.window(from, to),
+                newSeconds);
+    }
+
+    // 거리 계산은 IMU 로 하므로 1초에 한 행씩 일정하게 가속하는 IMU 행을 넣음 (정지 판정 임계값 이상)
+    private static void writeImu(SensorRingBuffer imu, int fromSecond, int count) {
+        for (int second = fromSecond; second < fromSecond + count; second++) {
+            imu.beginRow(second * SECOND_MS);
+            imu.setLong(SensorBuffers.IMU_SEQ, second);
+            imu.setFloat(SensorBuffers.IMU_LINEAR_ACCEL_X, 0.5f);
+            imu.setFloat(SensorBuffers.IMU_ROT_W, 1f);
+            imu.commitRow();
+        }
+    }
+
+    // 1초마다 북쪽으로 약 3.3m 이동하는 GPS 행
+    private static void writeGps(SensorRingBuffer gps, int fromSecond, int count) {
+        for (int second = fromSecond; second < fromSecond + count; second++) {
+            gps.beginRow(second * SECOND_MS);
+            gps.setDouble(SensorBuffers.GPS_LATITUDE, 35.1 + second * 0.00003);
+            gps.setDouble(SensorBuffers.GPS_LONGITUDE, 128.5);
+            gps.setFloat(SensorBuffers.GPS_ACCURACY, 5f);
+            gps.commitRow();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.myapplication12345.AI.replay;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication12345.AI.buffer.SensorBuffers;
+import com.example.myapplication12345.AI.buffer.SensorRingBuffer;
+import com.example.myapplication12345.AI.capture.SensorCaptureWriter;
+import com.example.myapplication12345.AI.feature.FeatureFrame;
+import com.example.myapplication12345.AI.feature.ModelInputLayout;
+import com.example.myapplication12345.AI.pipeline.TransportClassifier;
+import com.example.myapplication12345.AI.pipeline.TransportModePipeline;
+import com.example.myapplication12345.AI.store.PredictionStore;
+import com.example.myapplication12345.AI.store.PredictionStoreWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+public class TraceReplayerTest {
+
+    private static final long START_TIMESTAMP = 1_700_000_000_000L;
+    private static final int SECONDS = 300;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void replayIsDeterministic() throws Exception {
+        File trace = writeTrace(temp.newFolder("trace"), new Random(7));
+        File first = temp.newFolder("first");
+        File second = temp.newFolder("second");
+
+        ReplayReport report = new TraceReplayer(trace, 0).replay(newPipeline(new CarClassifier(), first));
+        new TraceReplayer(trace, 0).replay(newPipeline(new CarClassifier(), second));
+
+        // 틱 300개: 끝 틱 59, 69, ..., 289 의 윈도우 24개 + 종료 시 마지막 윈도우 1개
+        assertEquals(SECONDS, report.getTicks());
+        assertEquals(25, report.getWindowCount());
+        // 마지막 틱까지 기록되는 IMU 구간은 그 이전 299개이고, 그중 다음 구간이 시작된 298개가 닫힘
+        assertEquals(SECONDS - 2, report.getImuBuckets());
+
+        String[] names = first.list();
+        assertTrue(names != null && names.length > 0);
+        Arrays.sort(names);
+        String[] secondNames = second.list();
+        Arrays.sort(secondNames);
+        assertArrayEquals(names, secondNames);
+        for (String name : names) {
+            byte[] expected = Files.readAllBytes(new File(first, name).toPath());
+            assertArrayEquals(name, expected, Files.readAllBytes(new File(second, name).toPath()));
+            if (name.endsWith(".csv")) {
+                assertTrue(new String(expected, "UTF-8").startsWith(PredictionStore.HEADER));
+            }
+        }
+    }
+
+    @Test
+    public void captureReplaysLikeCsvTrace() throws Exception {
+        File trace = writeTrace(temp.newFolder("trace"), new Random(11));
+        File capture = writeCapture(trace, temp.newFile("trace.scap"));
+        File fromCsv = temp.newFolder("csv");
+        File fromCapture = temp.newFolder("capture");
+
+        ReplayReport csvReport = new TraceReplayer(trace, 0).replay(newPipeline(new CarClassifier(), fromCsv));
+        ReplayReport captureReport = new TraceReplayer(capture, 0).replay(newPipeline(new CarClassifier(), fromCapture));
+
+        assertEquals(csvReport.getTicks(), captureReport.getTicks());
+        assertEquals(csvReport.getImuBuckets(), captureReport.getImuBuckets());
+        assertEquals(csvReport.getWindowCount(), captureReport.getWindowCount());
+        String[] names = fromCsv.list();
+        assertTrue(names != null && names.length > 0);
+        for (String name : names) {
+            assertArrayEquals(name, Files.readAllBytes(new File(fromCsv, name).toPath()),
+                    Files.readAllBytes(new File(fromCapture, name).toPath()));
+        }
+    }
+
+    @Test
+    public void missingChannelsReplayAsEmpty() throws Exception {
+        File trace = temp.newFolder("gps-only");
+        Random random = new Random(3);
+        writeGps(new File(trace, TraceReplayer.GPS_FILE), random);
+
+        ReplayReport report = new TraceReplayer(trace, 0).replay(newPipeline(null, temp.newFolder("out")));
+        assertEquals(SECONDS, report.getTicks());
+        assertEquals(0, report.getImuBuckets());
+    }
+
+    @Test
+    public void windowsBeforeClassifierIsReadyAreDeferredNotDropped() throws Exception {
+        File trace = writeTrace(temp.newFolder("trace"), new Random(13));
+        File ready = temp.newFolder("ready");
+        File late = temp.newFolder("late");
+
+        new TraceReplayer(trace, 0).replay(newPipeline(new InputClassifier(0), ready));
+        // 처음 몇 윈도우 동안 준비되지 않은 분류기 (모델 로딩 중)
+        new TraceReplayer(trace, 0).replay(newPipeline(new InputClassifier(8), late));
+
+        String[] names = ready.list();
+        assertTrue(names != null && names.length > 0);
+        for (String name : names) {
+            assertArrayEquals(name, Files.readAllBytes(new File(ready, name).toPath()),
+                    Files.readAllBytes(new File(late, name).toPath()));
+        }
+    }
+
+    private static TransportModePipeline newPipeline(TransportClassifier classifier, File outDir) {
+        return new TransportModePipeline(
+                ByteBuffer.allocateDirect(ModelInputLayout.FEATURE_COUNT * ModelInputLayout.TIMESTEPS * Float.BYTES)
+                        .order(ByteOrder.nativeOrder()).asFloatBuffer(),
+                classifier, new PredictionStoreWriter(new PredictionStore(outDir)));
+    }
+
+    /** 항상 CAR(인덱스 3)를 고르는 분류기. */
+    private static class CarClassifier implements TransportClassifier {
+        @Override
+        public float[] predict(FeatureFrame input) {
+            float[] probabilities = new float[TransportModePipeline.CLASS_COUNT];
+            probabilities[3] = 1f;
+            return probabilities;
+        }
+    }
+
+    /** 입력 프레임 값으로 클래스를 고르는 분류기. 처음 notReadyChecks 번의 확인에는 준비되지 않았다고 답합니다. */
+    private static class InputClassifier implements TransportClassifier {
+        private int notReadyChecks;
+
+        InputClassifier(int notReadyChecks) {
+            this.notReadyChecks = notReadyChecks;
+        }
+
+        @Override
+        public boolean isReady() {
+            return notReadyChecks-- <= 0;
+        }
+
+        @Override
+        public float[] predict(FeatureFrame input) {
+            float sum = 0f;
+            for (int i = 0; i < input.getFeatureCount() * input.getTimesteps(); i++) {
+                sum += input.getBuffer().get(i);
+            }
+            float[] probabilities = new float[TransportModePipeline.CLASS_COUNT];
+            probabilities[2 + (Float.floatToIntBits(sum) & 0x7FFFFFFF) % 5] = 1f; // BIKE/CAR/BUS/ETC/SUBWAY
+            return probabilities;
+        }
+    }
+
+    // 약 10 m/s 로 이동하는 5분 트레이스 (GPS/AP 1Hz, BTS 셀 3개, IMU 100Hz)
+    private static File writeTrace(File dir, Random random) throws IOException {
+        writeGps(new File(dir, TraceReplayer.GPS_FILE), random);
+        try (PrintWriter ap = new PrintWriter(new File(dir, TraceReplayer.AP_FILE), "UTF-8");
+             PrintWriter bts = new PrintWriter(new File(dir, TraceReplayer.BTS_FILE), "UTF-8");
+             PrintWriter imu = new PrintWriter(new File(dir, TraceReplayer.IMU_FILE), "UTF-8")) {
+            ap.println("timestamp,bssid,level,frequency");
+            bts.println("timestamp,ci,pci");
+            SensorRingBuffer imuLayout = SensorBuffers.createImuBuffer();
+            StringBuilder header = new StringBuilder("timestamp");
+            for (int ch = 0; ch < imuLayout.getChannelCount(); ch++) {
+                header.append(',').append(imuLayout.getChannelName(ch));
+            }
+            imu.println(header);
+
+            for (int s = 0; s < SECONDS; s++) {
+                long tick = START_TIMESTAMP + s * 1000L;
+                ap.printf(Locale.US, "%d,00:11:22:33:%02x:%02x,%d,2412.0%n", tick, s / 20, random.nextInt(4), -40 - random.nextInt(40));
+                for (int k = 0; k < 3; k++) {
+                    bts.printf(Locale.US, "%d,%d,%d%n", tick, 1000 + s / 30 + k, random.nextInt(504));
+                }
+                for (int seq = 0; seq < 100; seq++) {
+                    double t = s + seq / 100.0;
+                    StringBuilder row = new StringBuilder().append(tick).append(',').append(seq);
+                    for (int ch = SensorBuffers.IMU_ACCEL_X; ch <= SensorBuffers.IMU_LINEAR_ACCEL_Z; ch++) {
+                        double base = ch == SensorBuffers.IMU_GRAVITY_Z ? 9.81 : 0.0;
+                        row.append(',').append((float) (base + Math.sin(2 * Math.PI * (0.5 + ch * 0.3) * t)
+                                + random.nextGaussian() * 0.2));
+                    }
+                    row.append(',').append((long) (t * 1e9));
+                    imu.println(row);
+                }
+            }
+        }
+        return dir;
+    }
+
+    // CSV 트레이스를 서비스와 같이 1분 구간마다 센서별 블록으로 캡처 파일에 옮김
+    private static File writeCapture(File trace, File target) throws IOException {
+        SensorRingBuffer[] buffers = {SensorBuffers.createGpsBuffer(), SensorBuffers.createApBuffer(),
+                SensorBuffers.createBtsBuffer(), SensorBuffers.createImuBuffer()};
+        String[] files = {TraceReplayer.GPS_FILE, TraceReplayer.AP_FILE, TraceReplayer.BTS_FILE, TraceReplayer.IMU_FILE};
+        try (SensorCaptureWriter writer = new SensorCaptureWriter(target, START_TIMESTAMP, buffers)) {
+            for (int sensorId = 0; sensorId < buffers.length; sensorId++) {
+                try (TraceCsvReader reader = new TraceCsvReader(new File(trace, files[sensorId]), buffers[sensorId])) {
+                    for (long from = START_TIMESTAMP; reader.hasNext(); from += 60_000L) {
+                        reader.writeUntil(from + 60_000L - 1);
+                        writer.writeBlock(sensorId, buffers[sensorId].window(from, from + 60_000L));
+                    }
+                }
+            }
+        }
+        return target;
+    }
+
+    private static void writeGps(File file, Random random) throws IOException {
+        try (PrintWriter gps = new PrintWriter(file, "UTF-8")) {
+            gps.println("timestamp,latitude,longitude,accuracy");
+            double lat = 37.5665, lon = 126.9780;
+            for (int s = 0; s < SECONDS; s++) {
+                lat += 10.0 / 111_320.0;
+                gps.printf(Locale.US, "%d,%.7f,%.7f,%.1f%n", START_TIMESTAMP + s * 1000L, lat, lon, 5f + random.nextFloat() * 10f);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.myapplication12345.AI.route;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication12345.AI.store.PredictionDay;
+import com.example.myapplication12345.AI.store.PredictionDayCache;
+import com.example.myapplication12345.AI.store.PredictionStore;
+import com.example.myapplication12345.AI.store.PredictionStoreWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public class DayRoutesTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final double STEP = 0.0001; // 약 11 m
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void contiguousSegmentsOfOneModeBecomeOneRun() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(store)) {
+            double lat = 35.0;
+            // WALK 30개 → BUS 50개 (이어짐) → 공백 후 BUS 20개
+            for (int i = 0; i < 100; i++) {
+                String mode = i < 30 ? "WALK" : "BUS";
+                double start = i == 80 ? lat + 0.01 : lat;
+                lat = start + STEP;
+                writer.onSegment(mode, 11, START + i * 10_000L, start, 128.5, lat, 128.5);
+            }
+        }
+        PredictionDay day = new PredictionDayCache(store, 1).get(store.dayOf(START));
+
+        DayRoutes routes = DayRoutes.build(day, PredictionDay.modeMask(null));
+        List<RouteRun> runs = routes.getRuns();
+        assertEquals(3, runs.size());
+        assertEquals(PredictionStore.MODES.indexOf("WALK"), runs.get(0).getModeCode());
+        assertEquals(31, runs.get(0).size());
+        assertEquals(51, runs.get(1).size());
+        assertEquals(21, runs.get(2).size());
+
+        DayRoutes busOnly = DayRoutes.build(day, PredictionDay.modeMask(new HashSet<>(Arrays.asList("BUS"))));
+        assertEquals(2, busOnly.getRuns().size());
+    }
+
+    @Test
+    public void simplificationKeepsCornersAndIsCachedPerBand() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(store)) {
+            // 북쪽으로 100개, 동쪽으로 100개 직선 (약간의 GPS 흔들림)
+            double lat = 35.0, lon = 128.5;
+            for (int i = 0; i < 200; i++) {
+                double jitter = (i % 2 == 0 ? 1 : -1) * 0.000002;
+                double nextLat = i < 100 ? lat + STEP : lat;
+                double nextLon = i < 100 ? lon + jitter : lon + STEP;
+                writer.onSegment("CAR", 11, START + i * 10_000L, lat, lon, nextLat, nextLon);
+                lat = nextLat;
+                lon = nextLon;
+            }
+        }
+        PredictionDay day = new PredictionDayCache(store, 1).get(store.dayOf(START));
+        DayRoutes routes = DayRoutes.build(day, PredictionDay.modeMask(null));
+        assertEquals(201, routes.getRuns().get(0).size());
+
+        List<RouteRun> city = routes.forBand(DayRoutes.bandFor(14.7f));
+        assertSame(city, routes.forBand(14));
+        RouteRun run = city.get(0);
+        assertEquals(3, run.size()); // 시작, 모퉁이, 끝
+        assertEquals(35.0 + 100 * STEP, run.getLatitude(1), 1e-9);
+        assertTrue(routes.getVertexCount(DayRoutes.MAX_ZOOM_BAND) > routes.getVertexCount(17));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.myapplication12345.AI.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class PredictionDayCacheTest {
+
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    private static final long START = 1_700_000_000_000L;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void daysAreCachedUntilTheFileChanges() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        PredictionDayCache cache = new PredictionDayCache(store, 2);
+        String day = store.dayOf(START);
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(store)) {
+            writer.onSegment("WALK", 100, START, 35.1, 128.5, 35.2, 128.6);
+            writer.onSegment("BUS", 250, START + 10_000L, 35.2, 128.6, 35.3, 128.7);
+            writer.onSegment("train", 40, START + 20_000L, 35.3, 128.7, 35.4, 128.8);
+        }
+
+        PredictionDay first = cache.get(day);
+        assertSame(first, cache.get(day));
+        assertEquals(3, first.size());
+        assertEquals("ETC", first.getMode(2));
+        assertEquals(35.3, first.getEndLatitude(1), 0.0);
+
+        double[] totals = first.distanceByMode(PredictionDay.modeMask(new HashSet<>(Arrays.asList("WALK", "ETC"))));
+        assertEquals(100, totals[PredictionStore.MODES.indexOf("WALK")], 0.0);
+        assertEquals(0, totals[PredictionStore.MODES.indexOf("BUS")], 0.0);
+        assertEquals(40, totals[PredictionStore.MODES.indexOf("ETC")], 0.0);
+
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(store)) {
+            writer.onSegment("CAR", 500, START + 30_000L, 35.4, 128.8, 35.5, 128.9);
+        }
+        PredictionDay updated = cache.get(day);
+        assertNotSame(first, updated);
+        assertEquals(4, updated.size());
+        assertNull(cache.get(store.dayOf(START + 10 * DAY_MS)));
+    }
+
+    @Test
+    public void leastRecentlyUsedDayIsEvicted() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        PredictionDayCache cache = new PredictionDayCache(store, 2);
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(store)) {
+            for (int d = 0; d < 3; d++) {
+                writer.onSegment("WALK", 100, START + d * DAY_MS, 35.1, 128.5, 35.2, 128.6);
+            }
+        }
+        String day0 = store.dayOf(START);
+        String day1 = store.dayOf(START + DAY_MS);
+        String day2 = store.dayOf(START + 2 * DAY_MS);
+
+        PredictionDay first = cache.get(day0);
+        PredictionDay second = cache.get(day1);
+        assertSame(first, cache.get(day0)); // day0 을 최근으로
+        cache.get(day2);                    // day1 이 밀려남
+        assertSame(first, cache.get(day0));
+        assertNotSame(second, cache.get(day1));
+    }
+}
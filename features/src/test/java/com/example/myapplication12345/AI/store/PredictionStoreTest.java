@@ -0,0 +1,166 @@
+package com.example.myapplication12345.AI.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class PredictionStoreTest {
+
+    private static final String[] MODES = {"WALK", "BUS", "CAR", "TRAIN"}; // TRAIN 은 ETC 로 분류
+    private static final long SEGMENT_MS = 10_000L;
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void queryFiltersByModeAndTimeAcrossDays() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        long start = midnightOf(1_700_000_000_000L) - 100 * SEGMENT_MS; // 자정 전후 200개
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(store)) {
+            for (int i = 0; i < 200; i++) {
+                writeSegment(writer, start + i * SEGMENT_MS, MODES[i % MODES.length]);
+            }
+        }
+
+        String firstDay = store.dayOf(start);
+        String secondDay = store.dayOf(start + 199 * SEGMENT_MS);
+        assertFalse(firstDay.equals(secondDay));
+        assertEquals(100, store.query(firstDay).size());
+        assertEquals(100, store.query(secondDay).size());
+        assertEquals(100, store.readIndex(firstDay).count);
+        assertEquals(store.dayFile(firstDay).length(), store.readIndex(firstDay).indexedEnd());
+
+        List<PredictionSegment> cars = store.query(firstDay, Collections.singleton("CAR"), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(25, cars.size());
+        for (PredictionSegment segment : cars) {
+            assertEquals("CAR", segment.getTransportMode());
+        }
+        List<PredictionSegment> etc = store.query(firstDay, Collections.singleton("ETC"), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(25, etc.size());
+        assertEquals("TRAIN", etc.get(0).getTransportMode());
+
+        long from = start + 10 * SEGMENT_MS;
+        List<PredictionSegment> range = store.query(firstDay, new HashSet<>(Arrays.asList("WALK", "BUS")), from, from + 20 * SEGMENT_MS);
+        assertEquals(10, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            int segment = 12 + i / 2 * MODES.length + i % 2; // 12 이 범위 안 첫 WALK
+            assertEquals(start + segment * SEGMENT_MS, range.get(i).getStartTimestamp());
+            assertEquals(i % 2 == 0 ? "WALK" : "BUS", range.get(i).getTransportMode());
+            assertEquals(12.5, range.get(i).getDistance(), 1e-9);
+        }
+    }
+
+    @Test
+    public void rowsAreWrittenAtOnceAndSyncedInBatches() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        long start = midnightOf(1_700_000_000_000L) + 3_600_000L;
+        String day = store.dayOf(start);
+        PredictionStoreWriter writer = new PredictionStoreWriter(store);
+        for (int i = 0; i < PredictionStoreWriter.SYNC_BATCH_SEGMENTS - 1; i++) {
+            writeSegment(writer, start + i * SEGMENT_MS, "WALK");
+        }
+        // 행은 바로 기록되고 fsync 만 미뤄짐
+        assertEquals(PredictionStoreWriter.SYNC_BATCH_SEGMENTS - 1, store.query(day).size());
+        assertEquals(0, writer.getSyncCount());
+
+        writeSegment(writer, start + 5 * SEGMENT_MS, "BUS");
+        assertEquals(1, writer.getSyncCount());
+
+        // 첫 미동기화 행 이후 SYNC_INTERVAL_MS 가 지나면 개수와 관계없이 fsync
+        writeSegment(writer, start + 6 * SEGMENT_MS, "CAR");
+        writeSegment(writer, start + 6 * SEGMENT_MS + PredictionStoreWriter.SYNC_INTERVAL_MS, "CAR");
+        assertEquals(2, writer.getSyncCount());
+
+        writeSegment(writer, start + 200 * SEGMENT_MS, "CAR");
+        writer.sync();
+        assertEquals(3, writer.getSyncCount());
+        assertEquals(PredictionStoreWriter.SYNC_BATCH_SEGMENTS + 3, store.query(day).size());
+        writer.close();
+    }
+
+    @Test
+    public void rowsSurviveWriterThatIsNeverClosed() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        long start = midnightOf(1_700_000_000_000L) + 3_600_000L;
+        String day = store.dayOf(start);
+        // onDestroy 없이 종료된 프로세스처럼 close() 와 sync() 를 부르지 않음
+        PredictionStoreWriter killed = new PredictionStoreWriter(store);
+        int written = PredictionStoreWriter.SYNC_BATCH_SEGMENTS + 3;
+        for (int i = 0; i < written; i++) {
+            writeSegment(killed, start + i * SEGMENT_MS, MODES[i % MODES.length]);
+        }
+
+        List<PredictionSegment> segments = store.query(day);
+        assertEquals(written, segments.size());
+        for (int i = 0; i < written; i++) {
+            assertEquals(start + i * SEGMENT_MS, segments.get(i).getStartTimestamp());
+        }
+        assertEquals(written, store.readIndex(day).count);
+
+        // 다시 열어 이어 써도 앞의 세그먼트가 모두 남음
+        try (PredictionStoreWriter reopened = new PredictionStoreWriter(store)) {
+            writeSegment(reopened, start + written * SEGMENT_MS, "WALK");
+        }
+        assertEquals(written + 1, store.query(day).size());
+        assertEquals(written + 1, store.readIndex(day).count);
+        assertEquals(store.dayFile(day).length(), store.readIndex(day).indexedEnd());
+    }
+
+    @Test
+    public void legacyAndTruncatedFilesAreReindexed() throws Exception {
+        PredictionStore store = new PredictionStore(temp.newFolder("Map"));
+        long start = midnightOf(1_700_000_000_000L) + 3_600_000L;
+        String day = store.dayOf(start);
+
+        // 색인 없는 예전 파일. 마지막 행은 기록 중 종료로 잘림
+        try (Writer csv = new FileWriter(store.dayFile(day))) {
+            csv.write(PredictionStore.HEADER + "\n");
+            for (int i = 0; i < 10; i++) {
+                csv.write((start + i * SEGMENT_MS) + "," + MODES[i % MODES.length] + ",12.50,35.1,128.5,35.2,128.6\n");
+            }
+            csv.write((start + 10 * SEGMENT_MS) + ",CAR,12.5");
+        }
+        assertEquals(10, store.query(day).size());
+        assertEquals(3, store.query(day, Collections.singleton("WALK"), Long.MIN_VALUE, Long.MAX_VALUE).size());
+
+        try (PredictionStoreWriter writer = new PredictionStoreWriter(store)) {
+            writeSegment(writer, start + 20 * SEGMENT_MS, "WALK");
+        }
+        PredictionStore.DayIndex index = store.readIndex(day);
+        assertEquals(11, index.count);
+        assertEquals(store.dayFile(day).length(), index.indexedEnd());
+        List<PredictionSegment> walks = store.query(day, Collections.singleton("WALK"), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(4, walks.size());
+        assertEquals(start + 20 * SEGMENT_MS, walks.get(3).getStartTimestamp());
+        assertTrue(store.hasDay(day));
+        assertFalse(store.hasDay("19700101"));
+    }
+
+    private static void writeSegment(PredictionStoreWriter writer, long timestamp, String mode) {
+        writer.onSegment(mode, 12.5, timestamp, 35.1, 128.5, 35.2, 128.6);
+    }
+
+    // timestamp 가 속한 날(기본 시간대)의 자정
+    private static long midnightOf(long timestamp) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timestamp);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+}
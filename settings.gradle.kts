@@ -22,4 +22,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "My Application12345"
 include(":app")
- 
\ No newline at end of file
+ include(":features")
@@ -0,0 +1,61 @@
+"""전체 랭킹 버킷(leaderboard/all)을 기존 사용자 점수로 한 번 채웁니다.
+
+랭킹 집계(Leaderboard) 이전에 가입한 사용자는 점수를 새로 얻거나 랭킹 화면을 열기 전까지 leaderboard/all 에 항목이 없어
+전체 랭킹에서 빠집니다. 이 스크립트는 users/<uid> 의 score 와 nickname 으로 leaderboard/all/<uid> 를 채웁니다.
+전체 버킷은 누적 점수를 그대로 쓰므로 다시 실행해도 결과가 같습니다. 점수가 0 이하인 사용자는 건너뜁니다.
+
+사용자 트리에는 점수 기록(scores)이 함께 있으므로 전체를 한 번에 읽지 않고, uid 목록만 얕게 읽은 뒤 사용자마다 두 값을 읽습니다.
+Firebase 콘솔에서 받은 서비스 계정 키가 필요합니다 (pip install firebase-admin).
+
+사용 예:
+    python tools/backfill_leaderboard.py \
+        --credentials service-account.json \
+        --database-url https://<프로젝트>.firebaseio.com \
+        --dry-run
+"""
+import argparse
+from typing import Dict
+
+import firebase_admin
+from firebase_admin import credentials, db
+
+ANONYMOUS = "익명"
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Fill leaderboard/all from users/*/score and nickname")
+    parser.add_argument("--credentials", required=True, help="서비스 계정 키 JSON 경로")
+    parser.add_argument("--database-url", required=True, help="Realtime Database URL")
+    parser.add_argument("--batch", type=int, default=500, help="한 번에 갱신할 사용자 수")
+    parser.add_argument("--dry-run", action="store_true", help="쓰지 않고 채울 항목 수만 출력")
+    args = parser.parse_args()
+
+    firebase_admin.initialize_app(credentials.Certificate(args.credentials), {"databaseURL": args.database_url})
+    users = db.reference("users")
+    board = db.reference("leaderboard/all")
+
+    user_ids = sorted((users.get(shallow=True) or {}).keys())
+    updates: Dict[str, object] = {}
+    filled = skipped = 0
+    for user_id in user_ids:
+        score = users.child(user_id).child("score").get()
+        if not isinstance(score, (int, float)) or score <= 0:
+            skipped += 1
+            continue
+        nickname = users.child(user_id).child("nickname").get()
+        updates[f"{user_id}/score"] = int(score)
+        updates[f"{user_id}/nickname"] = nickname if isinstance(nickname, str) and nickname else ANONYMOUS
+        filled += 1
+        if len(updates) >= 2 * args.batch:
+            if not args.dry_run:
+                board.update(updates)
+            updates = {}
+    if updates and not args.dry_run:
+        board.update(updates)
+
+    action = "would fill" if args.dry_run else "filled"
+    print(f"{action} {filled} entries, skipped {skipped} users without score (of {len(user_ids)})")
+
+
+if __name__ == "__main__":
+    main()
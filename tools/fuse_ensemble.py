@@ -0,0 +1,55 @@
+"""이동 수단 분류 모델 세 개를 하나의 모바일 모듈로 묶습니다.
+
+앱의 SensorDataProcessor 는 모델별 forward 결과에 softmax 를 적용해 평균내는데,
+이 스크립트가 만드는 모듈은 같은 입력([1, 340, 60])을 받아 forward 한 번으로 평균 확률([1, 13])을 반환합니다.
+결과 파일을 app/src/main/assets/model/ensemble_fused.ptl 로 두면 앱이 자동으로 읽어 개별 모델 실행과 속도를 비교합니다.
+
+사용 예:
+    python tools/fuse_ensemble.py \
+        "epoch=72-step=18177_ver1_optimized.ptl" \
+        "epoch=74-step=18675_ver2_optimized.ptl" \
+        "epoch=80-step=20169_ver3_optimized.ptl" \
+        -o app/src/main/assets/model/ensemble_fused.ptl
+"""
+import argparse
+from typing import List
+
+import torch
+from torch.utils.mobile_optimizer import optimize_for_mobile
+
+
+class FusedEnsemble(torch.nn.Module):
+    def __init__(self, models: List[torch.nn.Module]):
+        super().__init__()
+        self.models = torch.nn.ModuleList(models)
+
+    def forward(self, x: torch.Tensor) -> torch.Tensor:
+        probs: List[torch.Tensor] = []
+        for model in self.models:
+            probs.append(torch.softmax(model(x), dim=-1))
+        return torch.stack(probs).mean(dim=0)
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Fuse the transport-mode models into one mobile module")
+    parser.add_argument("models", nargs="+", help="TorchScript 모델 파일 (앱과 같은 순서)")
+    parser.add_argument("-o", "--output", required=True, help="출력 .ptl 경로")
+    args = parser.parse_args()
+
+    models = [torch.jit.load(path, map_location="cpu").eval() for path in args.models]
+    fused = torch.jit.script(FusedEnsemble(models).eval())
+
+    # 개별 모델 평균과 같은 결과인지 확인
+    example = torch.randn(1, 340, 60)
+    with torch.no_grad():
+        expected = torch.stack([torch.softmax(m(example), dim=-1) for m in models]).mean(dim=0)
+        actual = fused(example)
+    if not torch.allclose(expected, actual, atol=1e-5):
+        raise SystemExit("fused output differs from the per-model average")
+
+    optimize_for_mobile(fused)._save_for_lite_interpreter(args.output)
+    print(f"saved {args.output}")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,103 @@
+"""이동 수단 분류 모델의 int8 양자화 변형을 만듭니다.
+
+앱은 기기 메모리에 따라 float(`*_optimized.ptl`), 동적 양자화(`*_int8_dynamic.ptl`),
+정적 양자화(`*_int8_static.ptl`) 중 하나를 읽습니다 (ModelVariant). 이 스크립트는 앱과 같은 이름 규칙으로
+변형 파일을 만들어 출력 폴더(보통 app/src/main/assets/model)에 저장합니다.
+
+- dynamic: Linear/LSTM 가중치만 int8 로 바꾸고 활성값은 실행 중에 양자화합니다. 보정 데이터가 필요 없습니다.
+- static: 가중치와 활성값 모두 int8 입니다. 활성값 범위를 정하기 위해 보정 입력이 필요합니다
+  (모델 입력과 같은 [N, 340, 60] float32 배열을 .npy 로 저장. 녹화 트레이스를 재생해 모은 입력을 권장).
+
+--fused 를 주면 변형마다 tools/fuse_ensemble.py 와 같은 통합 모델(ensemble_fused_<변형>.ptl)도 만듭니다.
+결과는 기기에서 ModelVariantComparisonTest 로 float 모델과 정확도/지연/메모리를 비교해 확인합니다.
+
+사용 예:
+    python tools/quantize_models.py \
+        "epoch=72-step=18177_ver1_optimized.ptl" \
+        "epoch=74-step=18675_ver2_optimized.ptl" \
+        "epoch=80-step=20169_ver3_optimized.ptl" \
+        --variants dynamic static --calibration frames.npy --fused \
+        -o app/src/main/assets/model
+"""
+import argparse
+import os
+from typing import List
+
+import numpy as np
+import torch
+from torch.ao.quantization import default_dynamic_qconfig, get_default_qconfig
+from torch.ao.quantization.quantize_jit import quantize_dynamic_jit, quantize_jit
+from torch.utils.mobile_optimizer import optimize_for_mobile
+
+from fuse_ensemble import FusedEnsemble
+
+SUFFIXES = {"dynamic": "_int8_dynamic", "static": "_int8_static"}
+FLOAT_SUFFIX = "_optimized"
+
+
+def variant_name(path: str, variant: str) -> str:
+    """앱의 ModelVariant.assetPath 와 같은 규칙: 끝의 _optimized 를 변형 이름으로 바꿈."""
+    base = os.path.splitext(os.path.basename(path))[0]
+    if base.endswith(FLOAT_SUFFIX):
+        base = base[: -len(FLOAT_SUFFIX)]
+    return base + SUFFIXES[variant] + ".ptl"
+
+
+def quantize(model: torch.jit.ScriptModule, variant: str, calibration: torch.Tensor) -> torch.jit.ScriptModule:
+    if variant == "dynamic":
+        return quantize_dynamic_jit(model, {"": default_dynamic_qconfig})
+
+    def calibrate(module, data):
+        with torch.no_grad():
+            for batch in torch.split(data, 32):
+                module(batch)
+
+    return quantize_jit(model, {"": get_default_qconfig("qnnpack")}, calibrate, [calibration])
+
+
+def top1_agreement(reference: List[torch.jit.ScriptModule], candidate: List[torch.jit.ScriptModule],
+                   inputs: torch.Tensor) -> float:
+    with torch.no_grad():
+        expected = torch.stack([torch.softmax(m(inputs), dim=-1) for m in reference]).mean(dim=0)
+        actual = torch.stack([torch.softmax(m(inputs), dim=-1) for m in candidate]).mean(dim=0)
+    return (expected.argmax(dim=-1) == actual.argmax(dim=-1)).float().mean().item()
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Build int8 variants of the transport-mode models")
+    parser.add_argument("models", nargs="+", help="TorchScript float 모델 파일 (앱과 같은 순서)")
+    parser.add_argument("--variants", nargs="+", choices=sorted(SUFFIXES), default=["dynamic"])
+    parser.add_argument("--calibration", help="보정/검증 입력 .npy ([N, 340, 60] float32). static 에 필요")
+    parser.add_argument("--fused", action="store_true", help="변형마다 통합 앙상블 모델도 생성")
+    parser.add_argument("-o", "--output", required=True, help="출력 폴더")
+    args = parser.parse_args()
+
+    if "static" in args.variants and not args.calibration:
+        raise SystemExit("static quantization needs --calibration")
+    torch.backends.quantized.engine = "qnnpack"  # 모바일 ARM 과 같은 커널
+
+    models = [torch.jit.load(path, map_location="cpu").eval() for path in args.models]
+    if args.calibration:
+        calibration = torch.from_numpy(np.load(args.calibration).astype(np.float32))
+    else:
+        calibration = torch.randn(64, 340, 60)
+    os.makedirs(args.output, exist_ok=True)
+
+    for variant in args.variants:
+        quantized = [quantize(model, variant, calibration) for model in models]
+        agreement = top1_agreement(models, quantized, calibration)
+        print(f"{variant}: float 앙상블과 1위 일치 {agreement:.3f} ({len(calibration)}개 입력)")
+
+        for path, model in zip(args.models, quantized):
+            target = os.path.join(args.output, variant_name(path, variant))
+            optimize_for_mobile(model)._save_for_lite_interpreter(target)
+            print(f"saved {target}")
+        if args.fused:
+            fused = torch.jit.script(FusedEnsemble(quantized).eval())
+            target = os.path.join(args.output, "ensemble_fused" + SUFFIXES[variant] + ".ptl")
+            optimize_for_mobile(fused)._save_for_lite_interpreter(target)
+            print(f"saved {target}")
+
+
+if __name__ == "__main__":
+    main()